@@ -0,0 +1,409 @@
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark harness for the GraphAlgorithms entry points.
+ *
+ * Every algorithm is run against random connected undirected graphs whose
+ * edge counts range from 10^3 to 10^7 by default. For each graph size and
+ * algorithm the harness runs a number of warmup rounds and then measures
+ * throughput, average time per call and the allocation rate of the
+ * benchmark thread (the same figures JMH reports with its GC profiler).
+ *
+ * Usage:
+ * <pre>
+ * java GraphAlgorithmsBenchmark [--sizes 1000,10000] [--algorithms bfs,dfs]
+ *         [--warmup 3] [--iterations 5] [--time 1000] [--seed 1332]
+ *         [--csv results.csv] [--ordering rcm]
+ * </pre>
+ *
+ * The bfs-indexed and sp-planned entries run breadth first search and a
+ * ShortestPaths planner on the graph's indexed form, renumbered by the
+ * --ordering option (insertion, bfs, degree or rcm; insertion by default),
+ * so running them once per ordering shows what locality is worth. The
+ * bfs-compressed and dijkstras-compressed entries run on a CompressedGraph
+ * of that same renumbered graph.
+ *
+ * The benchmarks run on a thread with a large stack because
+ * depthFirstSearch is recursive.
+ *
+ * The JMH benchmarks in bench/jmh, built by the Maven bench module, measure
+ * the same calls through {@link #workload(String, long, long, String)} and
+ * should be preferred for numbers that are compared or published, since
+ * JMH also takes care of forking, dead code elimination and profilers.
+ * This harness stays for quick runs without the Maven build.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphAlgorithmsBenchmark {
+
+    private static final String[] ALGORITHMS = {
+        "bfs", "dfs", "dijkstras", "prims", "components", "bfs-indexed",
+        "sp-planned", "bfs-compressed", "dijkstras-compressed"};
+    private static final long STACK_SIZE = 1L << 30;
+    private static final int AVERAGE_DEGREE = 8;
+
+    private long[] sizes = {1000L, 10000L, 100000L, 1000000L, 10000000L};
+    private String[] algorithms = ALGORITHMS;
+    private int warmup = 3;
+    private int iterations = 5;
+    private long timeMillis = 1000;
+    private long seed = 1332;
+    private String csv;
+    private VertexOrdering ordering = VertexOrdering.INSERTION;
+
+    private Graph<Integer> graph;
+    private Vertex<Integer> start;
+    private IndexedGraph<Integer> indexed;
+    private ShortestPaths<Integer> planner;
+    private CompressedGraph<Integer> compressed;
+    private Object blackhole;
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the command line options described in the class comment
+     * @throws InterruptedException if interrupted while waiting for the
+     *         benchmark thread
+     */
+    public static void main(String[] args) throws InterruptedException {
+        final GraphAlgorithmsBenchmark benchmark =
+                new GraphAlgorithmsBenchmark();
+        benchmark.parse(args);
+        Thread runner = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                benchmark.runAll();
+            }
+        }, "graph-benchmark", STACK_SIZE);
+        runner.start();
+        runner.join();
+    }
+
+    /**
+     * Parses the command line options.
+     *
+     * @param args the command line options
+     */
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for "
+                        + args[i]);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+            case "--sizes":
+                String[] parts = value.split(",");
+                sizes = new long[parts.length];
+                for (int j = 0; j < parts.length; j++) {
+                    sizes[j] = (long) Double.parseDouble(parts[j].trim());
+                }
+                break;
+            case "--algorithms":
+                algorithms = value.split(",");
+                break;
+            case "--warmup":
+                warmup = Integer.parseInt(value);
+                break;
+            case "--iterations":
+                iterations = Integer.parseInt(value);
+                break;
+            case "--time":
+                timeMillis = Long.parseLong(value);
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            case "--csv":
+                csv = value;
+                break;
+            case "--ordering":
+                ordering = ordering(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option "
+                        + args[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Gets a vertex ordering by its option name.
+     *
+     * @param name rcm, or the name of the ordering in any case
+     * @return the ordering
+     */
+    private static VertexOrdering ordering(String name) {
+        return "rcm".equals(name) ? VertexOrdering.REVERSE_CUTHILL_MCKEE
+                : VertexOrdering.valueOf(name.toUpperCase());
+    }
+
+    /**
+     * Builds a graph and gets one algorithm call on it, for the JMH
+     * benchmarks. Those live in a named package, as JMH requires, so they
+     * reach this class by reflection and then only call the supplier.
+     *
+     * @param algorithm the algorithm name, as for --algorithms
+     * @param edges the number of edges in the graph
+     * @param seed the random seed
+     * @param ordering the vertex ordering, as for --ordering
+     * @return a supplier that makes the call and returns its result
+     */
+    public static Supplier<Object> workload(final String algorithm,
+            long edges, long seed, String ordering) {
+        final GraphAlgorithmsBenchmark benchmark =
+                new GraphAlgorithmsBenchmark();
+        benchmark.seed = seed;
+        benchmark.ordering = ordering(ordering);
+        benchmark.buildGraph(edges);
+        benchmark.invoke(algorithm);
+        return () -> {
+            benchmark.invoke(algorithm);
+            return benchmark.blackhole;
+        };
+    }
+
+    /**
+     * Runs every configured algorithm against every configured graph size
+     * and prints a result table.
+     */
+    private void runAll() {
+        List<String> rows = new ArrayList<String>();
+        System.out.printf("%-10s %10s %14s %14s %14s %16s%n", "algorithm",
+                "edges", "ops/s", "avg ms/op", "alloc MB/s", "alloc B/op");
+        for (long size : sizes) {
+            buildGraph(size);
+            for (String algorithm : algorithms) {
+                Result result;
+                try {
+                    result = measure(algorithm.trim());
+                } catch (StackOverflowError e) {
+                    System.out.printf("%-10s %10d %s%n", algorithm, size,
+                            "StackOverflowError");
+                    continue;
+                }
+                System.out.printf("%-10s %10d %14.3f %14.3f %14.1f %16.0f%n",
+                        algorithm, size, result.opsPerSecond(),
+                        result.averageMillis(), result.allocationRate(),
+                        result.bytesPerOp());
+                rows.add(algorithm + "," + size + ","
+                        + result.opsPerSecond() + ","
+                        + result.averageMillis() + ","
+                        + result.allocationRate() + ","
+                        + result.bytesPerOp());
+            }
+            graph = null;
+            indexed = null;
+            planner = null;
+            compressed = null;
+        }
+        if (csv != null) {
+            writeCsv(rows);
+        }
+    }
+
+    /**
+     * Writes the collected results as CSV so runs can be diffed.
+     *
+     * @param rows the result rows
+     */
+    private void writeCsv(List<String> rows) {
+        try (PrintWriter out = new PrintWriter(new FileWriter(csv))) {
+            out.println("algorithm,edges,ops_per_s,avg_ms_per_op,"
+                    + "alloc_mb_per_s,alloc_bytes_per_op");
+            for (String row : rows) {
+                out.println(row);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write " + csv, e);
+        }
+    }
+
+    /**
+     * Builds a random connected undirected graph with the given number of
+     * edges. A random spanning tree keeps the graph connected so that prims
+     * produces a full MST; the remaining edges are uniformly random.
+     *
+     * @param edgeCount the number of edges in the graph
+     */
+    private void buildGraph(long edgeCount) {
+        int vertexCount = (int) Math.max(2,
+                edgeCount * 2 / AVERAGE_DEGREE);
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>(
+                vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            vertices.add(new Vertex<Integer>(i));
+        }
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<Edge<Integer>>(
+                (int) Math.min(Integer.MAX_VALUE / 2, edgeCount * 2));
+        for (int i = 1; i < vertexCount && edges.size() < edgeCount; i++) {
+            edges.add(new Edge<Integer>(vertices.get(random.nextInt(i)),
+                    vertices.get(i), 1 + random.nextInt(1000), false));
+        }
+        while (edges.size() < edgeCount) {
+            edges.add(new Edge<Integer>(
+                    vertices.get(random.nextInt(vertexCount)),
+                    vertices.get(random.nextInt(vertexCount)),
+                    1 + random.nextInt(1000), false));
+        }
+        graph = new Graph<Integer>(edges);
+        start = vertices.get(0);
+        indexed = IndexedGraph.of(graph).reorder(ordering);
+        planner = ShortestPaths.plan(graph, ordering);
+        compressed = new CompressedGraph<Integer>(indexed);
+    }
+
+    /**
+     * Measures one algorithm on the current graph.
+     *
+     * @param algorithm the algorithm name
+     * @return the measurement
+     */
+    private Result measure(String algorithm) {
+        for (int i = 0; i < warmup; i++) {
+            iteration(algorithm);
+        }
+        Result total = new Result();
+        for (int i = 0; i < iterations; i++) {
+            total.add(iteration(algorithm));
+        }
+        return total;
+    }
+
+    /**
+     * Runs the algorithm repeatedly for one iteration's time budget. At
+     * least one call is always made so that huge graphs are measured too.
+     *
+     * @param algorithm the algorithm name
+     * @return the measurement of this iteration
+     */
+    private Result iteration(String algorithm) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long deadline = System.nanoTime() + timeMillis * 1000000L;
+        long bytesBefore = threads.getThreadAllocatedBytes(thread);
+        long begin = System.nanoTime();
+        long ops = 0;
+        do {
+            invoke(algorithm);
+            ops++;
+        } while (System.nanoTime() < deadline);
+        Result result = new Result();
+        result.nanos = System.nanoTime() - begin;
+        result.bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+        result.ops = ops;
+        return result;
+    }
+
+    /**
+     * Invokes a single algorithm call and keeps its result reachable so the
+     * JIT cannot discard the work.
+     *
+     * @param algorithm the algorithm name
+     */
+    private void invoke(String algorithm) {
+        switch (algorithm) {
+        case "bfs":
+            blackhole = GraphAlgorithms.breadthFirstSearch(start, graph);
+            break;
+        case "dfs":
+            blackhole = GraphAlgorithms.depthFirstSearch(start, graph);
+            break;
+        case "dijkstras":
+            blackhole = GraphAlgorithms.dijkstras(start, graph);
+            break;
+        case "prims":
+            blackhole = GraphAlgorithms.prims(start, graph);
+            break;
+        case "components":
+            blackhole = GraphAlgorithms.connectedComponents(graph);
+            break;
+        case "bfs-indexed":
+            blackhole = GraphAlgorithms.indexedBreadthFirstSearch(start,
+                    indexed);
+            break;
+        case "sp-planned":
+            blackhole = planner.distances(start);
+            break;
+        case "bfs-compressed":
+            blackhole = GraphAlgorithms.compressedBreadthFirstSearch(start,
+                    compressed);
+            break;
+        case "dijkstras-compressed":
+            blackhole = GraphAlgorithms.compressedDijkstras(start,
+                    compressed);
+            break;
+        default:
+            throw new IllegalArgumentException("Unknown algorithm "
+                    + algorithm);
+        }
+    }
+
+    /**
+     * Accumulated measurement of one or more iterations.
+     */
+    private static final class Result {
+        private long nanos;
+        private long bytes;
+        private long ops;
+
+        /**
+         * Adds another measurement to this one.
+         *
+         * @param other the measurement to add
+         */
+        private void add(Result other) {
+            nanos += other.nanos;
+            bytes += other.bytes;
+            ops += other.ops;
+        }
+
+        /**
+         * Gets the throughput.
+         *
+         * @return the operations per second
+         */
+        private double opsPerSecond() {
+            return ops * 1e9 / nanos;
+        }
+
+        /**
+         * Gets the average time per operation.
+         *
+         * @return the average milliseconds per operation
+         */
+        private double averageMillis() {
+            return nanos / 1e6 / ops;
+        }
+
+        /**
+         * Gets the allocation rate.
+         *
+         * @return the allocated megabytes per second
+         */
+        private double allocationRate() {
+            return bytes / (1024.0 * 1024.0) / (nanos / 1e9);
+        }
+
+        /**
+         * Gets the normalized allocation.
+         *
+         * @return the allocated bytes per operation
+         */
+        private double bytesPerOp() {
+            return (double) bytes / ops;
+        }
+    }
+}
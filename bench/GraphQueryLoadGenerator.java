@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Load generator for GraphQueryServer.
+ *
+ * A number of client threads each send a fixed number of requests and wait
+ * for every response before sending the next. Sources are drawn from a
+ * small set of hot vertices so that concurrent requests overlap, which is
+ * the case the server's coalescing and batching are for. The harness
+ * prints throughput, latency percentiles and, for a server it started
+ * itself, how many requests were coalesced or batched.
+ *
+ * Usage:
+ * <pre>
+ * java GraphQueryLoadGenerator [--url http://localhost:8080]
+ *         [--vertices 100000] [--edges 400000] [--clients 64]
+ *         [--requests 200] [--hot 16] [--endpoints reach,bfs,shortest]
+ *         [--seed 1332]
+ * </pre>
+ *
+ * Without --url the harness starts a server on a free localhost port over
+ * a random graph with the given size. With --url the vertex names sent are
+ * 0 to vertices - 1, so the remote graph should use the same numbering.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphQueryLoadGenerator {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private String url;
+    private int vertices = 100000;
+    private long edges = 400000;
+    private int clients = 64;
+    private int requests = 200;
+    private int hot = 16;
+    private String[] endpoints = {"reach", "bfs", "shortest"};
+    private long seed = 1332;
+
+    /**
+     * Runs the load generator.
+     *
+     * @param args the command line options described in the class comment
+     * @throws IOException if the server cannot be started
+     * @throws InterruptedException if interrupted while waiting for clients
+     */
+    public static void main(String[] args)
+        throws IOException, InterruptedException {
+        GraphQueryLoadGenerator generator = new GraphQueryLoadGenerator();
+        generator.parse(args);
+        generator.run();
+    }
+
+    /**
+     * Parses the command line options.
+     *
+     * @param args the command line options
+     */
+    private void parse(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for "
+                        + args[i]);
+            }
+            String value = args[++i];
+            switch (args[i - 1]) {
+            case "--url":
+                url = value;
+                break;
+            case "--vertices":
+                vertices = Integer.parseInt(value);
+                break;
+            case "--edges":
+                edges = (long) Double.parseDouble(value);
+                break;
+            case "--clients":
+                clients = Integer.parseInt(value);
+                break;
+            case "--requests":
+                requests = Integer.parseInt(value);
+                break;
+            case "--hot":
+                hot = Integer.parseInt(value);
+                break;
+            case "--endpoints":
+                endpoints = value.split(",");
+                break;
+            case "--seed":
+                seed = Long.parseLong(value);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown option "
+                        + args[i - 1]);
+            }
+        }
+    }
+
+    /**
+     * Starts a server if needed, runs the clients and prints the results.
+     *
+     * @throws IOException if the server cannot be started
+     * @throws InterruptedException if interrupted while waiting for clients
+     */
+    private void run() throws IOException, InterruptedException {
+        GraphQueryServer<Integer> server = null;
+        String base = url;
+        if (base == null) {
+            server = new GraphQueryServer<Integer>(new GraphStore<Integer>(
+                    GraphGenerators.erdosRenyi(vertices, edges, seed)),
+                    Integer::valueOf);
+            server.start(0);
+            base = "http://127.0.0.1:" + server.getPort();
+        }
+        HttpClient client = HttpClient.newHttpClient();
+        long[] latencies = new long[clients * requests];
+        int[] failures = new int[clients];
+        Thread[] threads = new Thread[clients];
+        long started = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            final int id = c;
+            final String target = base;
+            threads[c] = new Thread(() -> failures[id] = drive(client, target,
+                    id, latencies), "load-client-" + c);
+            threads[c].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - started;
+        int failed = Arrays.stream(failures).sum();
+        Arrays.sort(latencies);
+        System.out.printf("requests %d, failed %d, %.1f req/s%n",
+                latencies.length, failed,
+                latencies.length * NANOS_PER_SECOND / elapsed);
+        System.out.printf("latency ms p50 %.3f p90 %.3f p99 %.3f max %.3f%n",
+                percentile(latencies, 0.5), percentile(latencies, 0.9),
+                percentile(latencies, 0.99),
+                latencies[latencies.length - 1] / NANOS_PER_MILLI);
+        if (server != null) {
+            System.out.printf("coalesced %d, batches %d for %d queries%n",
+                    server.getCoalescedCount(), server.getBatchCount(),
+                    server.getBatchedQueryCount());
+            server.stop();
+        }
+    }
+
+    /**
+     * Sends one client's requests, recording each latency.
+     *
+     * @param client the HTTP client
+     * @param base the server URL
+     * @param id the client number
+     * @param latencies where the latencies of all clients go
+     * @return the number of failed requests
+     */
+    private int drive(HttpClient client, String base, int id,
+            long[] latencies) {
+        SplittableRandom random = new SplittableRandom(seed + id);
+        int failed = 0;
+        for (int r = 0; r < requests; r++) {
+            String endpoint = endpoints[random.nextInt(endpoints.length)];
+            int source = random.nextInt(Math.min(hot, vertices));
+            String query = "/" + endpoint + "?source=" + source;
+            if (!"bfs".equals(endpoint)) {
+                query += "&target=" + random.nextInt(vertices);
+            }
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create(base + query)).build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<String> response = client.send(request,
+                        HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() != 200) {
+                    failed++;
+                }
+            } catch (IOException | InterruptedException e) {
+                failed++;
+            }
+            latencies[id * requests + r] = System.nanoTime() - start;
+        }
+        return failed;
+    }
+
+    /**
+     * Gets a percentile of sorted latencies in milliseconds.
+     *
+     * @param sorted the latencies in nanoseconds, sorted
+     * @param fraction the percentile as a fraction
+     * @return the latency in milliseconds
+     */
+    private static double percentile(long[] sorted, double fraction) {
+        int index = (int) Math.min(sorted.length - 1,
+                Math.round(fraction * (sorted.length - 1)));
+        return sorted[index] / NANOS_PER_MILLI;
+    }
+}
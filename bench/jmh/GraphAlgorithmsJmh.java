@@ -0,0 +1,92 @@
+package jmh;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks for the GraphAlgorithms entry points, on the random
+ * connected undirected graphs of GraphAlgorithmsBenchmark.
+ *
+ * Build and run from the repository root with
+ * <pre>
+ * mvn -B package -DskipTests
+ * java -jar bench/target/benchmarks.jar -p edges=100000 -prof gc
+ * </pre>
+ * The algorithm parameter takes the names GraphAlgorithmsBenchmark takes,
+ * and the ordering parameter the vertex ordering that the indexed, planned
+ * and compressed forms are renumbered by.
+ *
+ * JMH only runs benchmarks in a named package, and classes in a named
+ * package cannot refer to the default package the library is in, so the
+ * setup looks up GraphAlgorithmsBenchmark#workload by reflection. The
+ * measured method only calls the supplier it returns, which is a single
+ * monomorphic interface call in each fork. Each benchmark reports both
+ * throughput and average time per call. The forks get a large thread
+ * stack because depthFirstSearch is recursive, and a heap large enough for
+ * the ten million edge graphs, whose Graph, indexed and compressed forms
+ * together take about 3 GB.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xss1g", "-Xmx8g"})
+public class GraphAlgorithmsJmh {
+
+    @Param({"bfs", "dfs", "dijkstras", "prims", "components", "bfs-indexed",
+        "sp-planned", "bfs-compressed", "dijkstras-compressed"})
+    private String algorithm;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private long edges;
+
+    @Param({"insertion"})
+    private String ordering;
+
+    @Param({"1332"})
+    private long seed;
+
+    private Supplier<?> workload;
+
+    /**
+     * Builds the graph once per trial, outside the measurement.
+     *
+     * @throws ReflectiveOperationException if the harness cannot be found
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        Method method = Class.forName("GraphAlgorithmsBenchmark").getMethod(
+                "workload", String.class, long.class, long.class,
+                String.class);
+        workload = (Supplier<?>) method.invoke(null, algorithm, edges, seed,
+                ordering);
+    }
+
+    /**
+     * Measures one call of the algorithm.
+     *
+     * @return the result of the call
+     */
+    @Benchmark
+    public Object run() {
+        return workload.get();
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Counters describing the work done by GraphAlgorithms calls.
+ *
+ * Pass an instance to any of the GraphAlgorithms overloads that accept one
+ * and it is updated as the algorithm runs. Counters accumulate across calls
+ * until {@link #reset()} is called, so one instance can describe either a
+ * single run or a batch of them. Calls made without a metrics object do no
+ * counting at all.
+ *
+ * Instances are not thread safe; use one per thread.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public final class AlgorithmMetrics {
+
+    private long runs;
+    private long verticesSettled;
+    private long edgesScanned;
+    private long edgesRelaxed;
+    private long queuePushes;
+    private long queuePops;
+    private long stalePops;
+    private long peakQueueSize;
+    private long wallTimeNanos;
+
+    /**
+     * Gets the number of algorithm calls recorded.
+     *
+     * @return the number of runs
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Gets the number of vertices whose final result was fixed: visited by
+     * a search, settled by dijkstras or added to the tree by prims.
+     *
+     * @return the number of vertices settled
+     */
+    public long getVerticesSettled() {
+        return verticesSettled;
+    }
+
+    /**
+     * Gets the number of adjacency list entries examined.
+     *
+     * @return the number of edges scanned
+     */
+    public long getEdgesScanned() {
+        return edgesScanned;
+    }
+
+    /**
+     * Gets the number of scanned edges that improved a result: discovered a
+     * new vertex in a search, or lowered a tentative distance or edge weight
+     * in dijkstras and prims.
+     *
+     * @return the number of edges relaxed
+     */
+    public long getEdgesRelaxed() {
+        return edgesRelaxed;
+    }
+
+    /**
+     * Gets the number of entries added to the frontier, which is the FIFO
+     * queue for breadthFirstSearch and the priority queue for dijkstras and
+     * prims.
+     *
+     * @return the number of queue pushes
+     */
+    public long getQueuePushes() {
+        return queuePushes;
+    }
+
+    /**
+     * Gets the number of entries removed from the frontier.
+     *
+     * @return the number of queue pops
+     */
+    public long getQueuePops() {
+        return queuePops;
+    }
+
+    /**
+     * Gets the number of popped entries that were discarded because their
+     * vertex had already been settled through a better entry. A high ratio
+     * of stale pops to pops means heavy re-enqueueing.
+     *
+     * @return the number of stale pops
+     */
+    public long getStalePops() {
+        return stalePops;
+    }
+
+    /**
+     * Gets the largest frontier seen by any recorded run. For
+     * depthFirstSearch this is the deepest recursion.
+     *
+     * @return the peak queue size
+     */
+    public long getPeakQueueSize() {
+        return peakQueueSize;
+    }
+
+    /**
+     * Gets the total wall clock time of the recorded runs.
+     *
+     * @return the wall time in nanoseconds
+     */
+    public long getWallTimeNanos() {
+        return wallTimeNanos;
+    }
+
+    /**
+     * Clears every counter.
+     */
+    public void reset() {
+        runs = 0;
+        verticesSettled = 0;
+        edgesScanned = 0;
+        edgesRelaxed = 0;
+        queuePushes = 0;
+        queuePops = 0;
+        stalePops = 0;
+        peakQueueSize = 0;
+        wallTimeNanos = 0;
+    }
+
+    /**
+     * Records a vertex being settled.
+     */
+    void settled() {
+        verticesSettled++;
+    }
+
+    /**
+     * Records an adjacency list entry being examined.
+     */
+    void scanned() {
+        edgesScanned++;
+    }
+
+    /**
+     * Records an edge improving a result.
+     */
+    void relaxed() {
+        edgesRelaxed++;
+    }
+
+    /**
+     * Records a frontier push.
+     *
+     * @param size the frontier size after the push
+     */
+    void pushed(int size) {
+        queuePushes++;
+        if (size > peakQueueSize) {
+            peakQueueSize = size;
+        }
+    }
+
+    /**
+     * Records a frontier pop.
+     */
+    void popped() {
+        queuePops++;
+    }
+
+    /**
+     * Records a popped entry being discarded as stale.
+     */
+    void stale() {
+        stalePops++;
+    }
+
+    /**
+     * Records the frontier reaching a size without a push, such as the
+     * recursion depth of depthFirstSearch.
+     *
+     * @param size the frontier size
+     */
+    void frontier(int size) {
+        if (size > peakQueueSize) {
+            peakQueueSize = size;
+        }
+    }
+
+    /**
+     * Records a finished run.
+     *
+     * @param nanos the wall time of the run in nanoseconds
+     */
+    void finished(long nanos) {
+        runs++;
+        wallTimeNanos += nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "AlgorithmMetrics with " + runs + " runs, "
+                + verticesSettled + " vertices settled, "
+                + edgesScanned + " edges scanned, "
+                + edgesRelaxed + " edges relaxed, "
+                + queuePushes + " queue pushes, "
+                + queuePops + " queue pops, "
+                + stalePops + " stale pops, "
+                + "peak queue size " + peakQueueSize + " and "
+                + wallTimeNanos + "ns wall time";
+    }
+}
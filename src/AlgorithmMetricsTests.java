@@ -0,0 +1,96 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashSet;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the AlgorithmMetrics recorded by GraphAlgorithms.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class AlgorithmMetricsTests {
+
+    private static final int TIMEOUT = 200;
+    private Graph<String> graph;
+    private AlgorithmMetrics metrics;
+    private Vertex<String> a = new Vertex<>("a");
+    private Vertex<String> b = new Vertex<>("b");
+    private Vertex<String> c = new Vertex<>("c");
+    private Vertex<String> d = new Vertex<>("d");
+
+    @Before
+    public void setUp() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, false));
+        edges.add(new Edge<String>(a, c, 5, false));
+        edges.add(new Edge<String>(b, c, 1, false));
+        edges.add(new Edge<String>(c, d, 1, false));
+        graph = new Graph<>(edges);
+        metrics = new AlgorithmMetrics();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBFS() {
+        GraphAlgorithms.breadthFirstSearch(a, graph, metrics);
+        assertEquals(1, metrics.getRuns());
+        assertEquals(4, metrics.getVerticesSettled());
+        assertEquals(8, metrics.getEdgesScanned());
+        assertEquals(3, metrics.getEdgesRelaxed());
+        assertEquals(4, metrics.getQueuePushes());
+        assertEquals(4, metrics.getQueuePops());
+        assertEquals(0, metrics.getStalePops());
+        assertEquals(2, metrics.getPeakQueueSize());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDFS() {
+        GraphAlgorithms.depthFirstSearch(a, graph, metrics);
+        assertEquals(4, metrics.getVerticesSettled());
+        assertEquals(8, metrics.getEdgesScanned());
+        assertEquals(3, metrics.getEdgesRelaxed());
+        assertEquals(4, metrics.getPeakQueueSize());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDijkstrasDecreaseKey() {
+        GraphAlgorithms.dijkstras(a, graph, metrics);
+        assertEquals(4, metrics.getVerticesSettled());
+        // c is pushed at 5 from a and its key lowered to 2 from b
+        assertEquals(4, metrics.getQueuePushes());
+        assertEquals(4, metrics.getQueuePops());
+        assertEquals(0, metrics.getStalePops());
+        assertEquals(4, metrics.getEdgesRelaxed());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPrimsRelaxesOnlyLighterEdges() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, false));
+        edges.add(new Edge<String>(a, c, 2, false));
+        edges.add(new Edge<String>(b, c, 3, false));
+        edges.add(new Edge<String>(c, d, 1, false));
+        GraphAlgorithms.prims(a, new Graph<>(edges), metrics);
+        // c is pushed at 2 from a and again at 3 from b, which is no lighter
+        assertEquals(5, metrics.getQueuePushes());
+        assertEquals(3, metrics.getEdgesRelaxed());
+        assertEquals(4, metrics.getVerticesSettled());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPrimsAndReset() {
+        GraphAlgorithms.prims(a, graph, metrics);
+        assertEquals(4, metrics.getVerticesSettled());
+        assertTrue(metrics.getWallTimeNanos() > 0);
+        GraphAlgorithms.prims(a, graph, metrics);
+        assertEquals(2, metrics.getRuns());
+        assertEquals(8, metrics.getVerticesSettled());
+        metrics.reset();
+        assertEquals(0, metrics.getRuns());
+        assertEquals(0, metrics.getVerticesSettled());
+        assertEquals(0, metrics.getPeakQueueSize());
+    }
+}
@@ -0,0 +1,396 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The shortest distance between every pair of vertices of a graph, stored
+ * as one {@code int[]} matrix in row-major order and indexed by the vertex
+ * ids of {@code IndexedGraph.of(graph)}.
+ *
+ * <pre>
+ * AllPairsShortestPaths&lt;String&gt; all =
+ *         AllPairsShortestPaths.compute(graph);
+ * int d = all.distance(u, v);
+ * </pre>
+ *
+ * The matrix is computed by one of two {@link Engine}s. Dense graphs use a
+ * blocked Floyd-Warshall, whose work does not depend on the number of
+ * edges; sparse graphs run a {@link ShortestPaths} query from every vertex.
+ * {@link #compute(Graph)} picks between them by comparing the V cubed work
+ * of the first with the V * E log V work of the second. For graphs without
+ * negative weights both give the distances
+ * {@link GraphAlgorithms#dijkstras(Vertex, Graph)} finds, with
+ * {@link DistanceTable#UNREACHABLE} for vertices that cannot be reached.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class AllPairsShortestPaths<T> {
+
+    /**
+     * The most vertices a distance matrix can have, so that it fits in
+     * one array.
+     */
+    public static final int MAX_VERTICES = 46340;
+
+    /**
+     * The side of the square tiles the matrix is updated in. Three tiles
+     * of ints take 48 KB, so the tiles one step works on stay in the
+     * cache.
+     */
+    static final int TILE = 64;
+
+    /**
+     * How many times cheaper one step of Floyd-Warshall's inner loop is
+     * than one edge relaxation of a search from every vertex, measured on
+     * random graphs of 400 and 1000 vertices. The inner loop is a straight
+     * run of adds and mins over two rows that the JIT can compile to vector
+     * instructions; a relaxation is a heap operation and scattered reads.
+     */
+    static final int FLOYD_WARSHALL_SPEEDUP = 4;
+
+    /**
+     * The fewest vertices for which tiles are updated in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 4 * TILE;
+
+    /**
+     * The value Floyd-Warshall uses for a missing path while it runs. It
+     * is at most half of {@code Integer.MAX_VALUE}, so adding any distance
+     * to it cannot overflow.
+     */
+    private static final int INFINITY = Integer.MAX_VALUE / 2;
+
+    /**
+     * The algorithms the matrix can be computed with.
+     */
+    public enum Engine {
+        /**
+         * Blocked Floyd-Warshall over the distance matrix. Takes O(V^3)
+         * time whatever the number of edges, and needs non-negative weights
+         * whose paths stay below {@code Integer.MAX_VALUE / 2}.
+         */
+        FLOYD_WARSHALL("apsp-fw"),
+
+        /**
+         * A {@link ShortestPaths} query from every vertex, on the engine
+         * it plans. Takes O(V * E log V) time with Dijkstra's algorithm.
+         */
+        REPEATED("apsp-repeated");
+
+        private final String eventName;
+
+        /**
+         * Creates an engine.
+         *
+         * @param eventName the algorithm name used in events
+         */
+        Engine(String eventName) {
+            this.eventName = eventName;
+        }
+    }
+
+    private final IndexedGraph<T> graph;
+    private final int[] distances;
+    private final Engine engine;
+
+    /**
+     * Creates the result of a computation. The array is used as it is.
+     *
+     * @param graph the graph the distances are in
+     * @param distances the distance matrix
+     * @param engine the engine that computed it
+     */
+    private AllPairsShortestPaths(IndexedGraph<T> graph, int[] distances,
+            Engine engine) {
+        this.graph = graph;
+        this.distances = distances;
+        this.engine = engine;
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of a graph,
+     * on the engine expected to be faster.
+     *
+     * @throws IllegalArgumentException if the graph is null or has more
+     *             than {@link #MAX_VERTICES} vertices
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the distances
+     */
+    public static <T> AllPairsShortestPaths<T> compute(Graph<T> graph) {
+        return compute(graph, null);
+    }
+
+    /**
+     * Computes the distances between every pair of vertices of a graph.
+     *
+     * @throws IllegalArgumentException if the graph is null or has more
+     *             than {@link #MAX_VERTICES} vertices, or Floyd-Warshall
+     *             is asked for and the graph has a negative weight or
+     *             paths too long for it
+     * @param graph the graph
+     * @param engine the engine to use, or null to pick one
+     * @param <T> the data type representing the vertices in the graph
+     * @return the distances
+     */
+    public static <T> AllPairsShortestPaths<T> compute(Graph<T> graph,
+            Engine engine) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        ShortestPaths<T> planner = ShortestPaths.plan(graph);
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        int n = indexed.getVertexCount();
+        if (n > MAX_VERTICES) {
+            throw new IllegalArgumentException("Graph has more than "
+                    + MAX_VERTICES + " vertices");
+        }
+        boolean fits = planner.getMinWeight() >= 0
+                && (long) planner.getMaxWeight() * Math.max(1, n - 1)
+                < INFINITY;
+        Engine chosen = engine;
+        if (chosen == null) {
+            chosen = fits && floydWarshallIsCheaper(indexed)
+                    ? Engine.FLOYD_WARSHALL : Engine.REPEATED;
+        } else if (chosen == Engine.FLOYD_WARSHALL && !fits) {
+            throw new IllegalArgumentException("Floyd-Warshall needs "
+                    + "non-negative weights with paths below "
+                    + INFINITY);
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int[] matrix = new int[n * n];
+        if (chosen == Engine.FLOYD_WARSHALL) {
+            floydWarshall(indexed, matrix);
+        } else {
+            repeated(planner, indexed, matrix);
+        }
+        if (event != null) {
+            event.finish(chosen.eventName, indexed, null, n);
+        }
+        return new AllPairsShortestPaths<T>(indexed, matrix, chosen);
+    }
+
+    /**
+     * Compares the expected work of the two engines on a graph.
+     *
+     * @param indexed the graph
+     * @return true if Floyd-Warshall is expected to be faster
+     */
+    static boolean floydWarshallIsCheaper(IndexedGraph<?> indexed) {
+        long n = indexed.getVertexCount();
+        long repeated = n * indexed.getArcCount()
+                * (32 - Integer.numberOfLeadingZeros((int) n));
+        return n * n * n <= repeated * FLOYD_WARSHALL_SPEEDUP;
+    }
+
+    /**
+     * Fills the matrix by running a single-source query from every vertex,
+     * in parallel.
+     *
+     * @param planner the planner for the graph
+     * @param indexed the indexed graph
+     * @param matrix the matrix to fill
+     * @param <T> the data type representing the vertices in the graph
+     */
+    private static <T> void repeated(ShortestPaths<T> planner,
+            IndexedGraph<T> indexed, int[] matrix) {
+        int n = indexed.getVertexCount();
+        IntStream sources = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            sources = sources.parallel();
+        }
+        sources.forEach(s -> {
+            DistanceTable<T> table = planner.distances(indexed.getVertex(s));
+            int row = s * n;
+            for (int v = 0; v < n; v++) {
+                matrix[row + v] = table.distanceTo(v);
+            }
+        });
+    }
+
+    /**
+     * Fills the matrix with Floyd-Warshall, one {@link #TILE} wide block
+     * of intermediate vertices at a time. For each block, the tile on the
+     * diagonal is closed first, then the other tiles in its row and column
+     * from it, then every remaining tile from those; the tiles of the last
+     * two phases are independent of each other and run in parallel.
+     *
+     * @param indexed the graph, with non-negative weights
+     * @param d the matrix to fill
+     */
+    private static void floydWarshall(IndexedGraph<?> indexed, int[] d) {
+        int n = indexed.getVertexCount();
+        Arrays.fill(d, INFINITY);
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int cell = u * n + targets[i];
+                d[cell] = Math.min(d[cell], weights[i]);
+            }
+            d[u * n + u] = 0;
+        }
+        int tiles = (n + TILE - 1) / TILE;
+        boolean parallel = n >= PARALLEL_THRESHOLD;
+        for (int k = 0; k < tiles; k++) {
+            int pivot = k;
+            relax(d, n, k, k, k);
+            tiles(tiles - 1, parallel, t -> {
+                int other = t < pivot ? t : t + 1;
+                relax(d, n, pivot, other, pivot);
+                relax(d, n, other, pivot, pivot);
+            });
+            tiles((tiles - 1) * (tiles - 1), parallel, t -> {
+                int i = t / (tiles - 1);
+                int j = t % (tiles - 1);
+                relax(d, n, i < pivot ? i : i + 1, j < pivot ? j : j + 1,
+                        pivot);
+            });
+        }
+        for (int cell = 0; cell < d.length; cell++) {
+            if (d[cell] >= INFINITY) {
+                d[cell] = DistanceTable.UNREACHABLE;
+            }
+        }
+    }
+
+    /**
+     * Runs an action for every tile index, in parallel or in order.
+     *
+     * @param count the number of tiles
+     * @param parallel whether to run in parallel
+     * @param action the action, given the tile index
+     */
+    private static void tiles(int count, boolean parallel,
+            IntConsumer action) {
+        IntStream stream = IntStream.range(0, count);
+        if (parallel) {
+            stream = stream.parallel();
+        }
+        stream.forEach(action);
+    }
+
+    /**
+     * Relaxes one tile of the matrix through every intermediate vertex of
+     * one block. The inner loop is a plain run of adds and mins over two
+     * rows with no branches or overflow checks, which the JIT can turn
+     * into vector instructions; missing paths are {@link #INFINITY}, and rows
+     * from a vertex with no path to the intermediate one are skipped, so
+     * no sum exceeds {@code 2 * INFINITY}.
+     *
+     * @param d the matrix
+     * @param n the number of vertices
+     * @param rows the tile row
+     * @param columns the tile column
+     * @param block the block of intermediate vertices
+     */
+    private static void relax(int[] d, int n, int rows, int columns,
+            int block) {
+        int rowEnd = Math.min(n, (rows + 1) * TILE);
+        int from = columns * TILE;
+        int to = Math.min(n, from + TILE);
+        int blockEnd = Math.min(n, (block + 1) * TILE);
+        for (int k = block * TILE; k < blockEnd; k++) {
+            int kRow = k * n;
+            for (int i = rows * TILE; i < rowEnd; i++) {
+                int iRow = i * n;
+                int ik = d[iRow + k];
+                if (ik >= INFINITY) {
+                    continue;
+                }
+                for (int j = from; j < to; j++) {
+                    d[iRow + j] = Math.min(d[iRow + j], ik + d[kRow + j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the distance between two vertices.
+     *
+     * @throws IllegalArgumentException if either vertex is not in the graph
+     * @param from the source vertex
+     * @param to the target vertex
+     * @return the distance, or {@link DistanceTable#UNREACHABLE}
+     */
+    public int distance(Vertex<T> from, Vertex<T> to) {
+        int u = graph.getId(from);
+        int v = graph.getId(to);
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return distances[u * graph.getVertexCount() + v];
+    }
+
+    /**
+     * Gets the distance between the vertices with two ids.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param from the id of the source vertex
+     * @param to the id of the target vertex
+     * @return the distance, or {@link DistanceTable#UNREACHABLE}
+     */
+    public int distance(int from, int to) {
+        int n = graph.getVertexCount();
+        if (from < 0 || from >= n || to < 0 || to >= n) {
+            throw new IndexOutOfBoundsException("No such id");
+        }
+        return distances[from * n + to];
+    }
+
+    /**
+     * Gets the distances from one vertex, as a table that copies its row
+     * of the matrix.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param source the source vertex
+     * @return the distances from source
+     */
+    public DistanceTable<T> from(Vertex<T> source) {
+        int u = graph.getId(source);
+        if (u < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        int n = graph.getVertexCount();
+        int[] row = new int[n];
+        System.arraycopy(distances, u * n, row, 0, n);
+        return new DistanceTable<T>(graph, u, row);
+    }
+
+    /**
+     * Gets the distance matrix, with the distance from the vertex with id
+     * u to the vertex with id v at {@code u * getGraph().getVertexCount()
+     * + v}. The array is shared, not copied; callers must not modify it.
+     *
+     * @return the matrix
+     */
+    public int[] getMatrix() {
+        return distances;
+    }
+
+    /**
+     * Gets the graph the distances are in.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the engine that computed the distances.
+     *
+     * @return the engine
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,124 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for AllPairsShortestPaths.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class AllPairsShortestPathsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testEnginesMatchDijkstras() {
+        List<Graph<Integer>> graphs = Arrays.asList(
+                GraphGenerators.erdosRenyi(150, 600, 1),
+                GraphGenerators.directedErdosRenyi(150, 400, 2),
+                GraphGenerators.complete(70, 3),
+                GraphGenerators.grid(9, 13, 4));
+        for (Graph<Integer> graph : graphs) {
+            AllPairsShortestPaths<Integer> floyd = AllPairsShortestPaths
+                    .compute(graph, AllPairsShortestPaths.Engine
+                            .FLOYD_WARSHALL);
+            AllPairsShortestPaths<Integer> repeated = AllPairsShortestPaths
+                    .compute(graph, AllPairsShortestPaths.Engine.REPEATED);
+            assertArrayEquals(floyd.getMatrix(), repeated.getMatrix());
+            IndexedGraph<Integer> indexed = floyd.getGraph();
+            for (int u = 0; u < indexed.getVertexCount(); u++) {
+                Vertex<Integer> source = indexed.getVertex(u);
+                Map<Vertex<Integer>, Integer> expected =
+                        GraphAlgorithms.dijkstras(source, graph);
+                assertEquals(expected, floyd.from(source).asMap());
+                for (Map.Entry<Vertex<Integer>, Integer> entry
+                        : expected.entrySet()) {
+                    assertEquals((int) entry.getValue(),
+                            floyd.distance(source, entry.getKey()));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testTilesInParallel() {
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(
+                4 * AllPairsShortestPaths.TILE + 13, 20000, 5);
+        assertArrayEquals(AllPairsShortestPaths.compute(graph,
+                AllPairsShortestPaths.Engine.REPEATED).getMatrix(),
+                AllPairsShortestPaths.compute(graph,
+                        AllPairsShortestPaths.Engine.FLOYD_WARSHALL)
+                        .getMatrix());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCrossover() {
+        assertEquals(AllPairsShortestPaths.Engine.FLOYD_WARSHALL,
+                AllPairsShortestPaths.compute(GraphGenerators.complete(60, 6))
+                        .getEngine());
+        assertEquals(AllPairsShortestPaths.Engine.REPEATED,
+                AllPairsShortestPaths.compute(GraphGenerators.path(300, 7))
+                        .getEngine());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUnreachableAndNegativeWeights() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(a, b, 4, true));
+        edges.add(new Edge<>(b, c, -1, true));
+        edges.add(new Edge<>(a, c, 5, true));
+        Graph<String> graph = new Graph<>(edges);
+        AllPairsShortestPaths<String> all =
+                AllPairsShortestPaths.compute(graph);
+        assertEquals(AllPairsShortestPaths.Engine.REPEATED, all.getEngine());
+        assertEquals(3, all.distance(a, c));
+        assertEquals(DistanceTable.UNREACHABLE, all.distance(c, a));
+        assertEquals(0, all.distance(b, b));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testFloydWarshallRejectsNegativeWeights() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(new Vertex<>("a"), new Vertex<>("b"), -2,
+                true));
+        AllPairsShortestPaths.compute(new Graph<>(edges),
+                AllPairsShortestPaths.Engine.FLOYD_WARSHALL);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLargeWeights() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        edges.add(new Edge<>(a, b, Integer.MAX_VALUE - 5, false));
+        edges.add(new Edge<>(b, c, Integer.MAX_VALUE - 5, false));
+        AllPairsShortestPaths<String> all = AllPairsShortestPaths.compute(
+                new Graph<>(edges));
+        assertEquals(AllPairsShortestPaths.Engine.REPEATED, all.getEngine());
+        assertEquals(Integer.MAX_VALUE - 5, all.distance(b, a));
+        assertEquals(DistanceTable.UNREACHABLE, all.distance(a, c));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        AllPairsShortestPaths.compute(null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingVertex() {
+        AllPairsShortestPaths.compute(GraphGenerators.path(4, 8))
+                .distance(new Vertex<>(-1), new Vertex<>(0));
+    }
+}
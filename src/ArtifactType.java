@@ -0,0 +1,62 @@
+/**
+ * A kind of precomputed structure over a graph that
+ * {@link GraphArtifacts} can save and load, such as component labels or a
+ * reordered graph. A type says how to build the structure and how to turn
+ * it into int arrays and back; GraphArtifacts handles the files.
+ *
+ * Arrays are indexed by the vertex ids of the IndexedGraph the structure
+ * was built for, which a saved artifact is only loaded into if the graph
+ * has the same checksum.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ * @param <A> the type of the structure
+ */
+public interface ArtifactType<T, A> {
+
+    /**
+     * Gets the name of the type, which names its file, so different types
+     * saved in one directory need different names.
+     *
+     * @return the name, made of letters, digits, '-' and '_'
+     */
+    String getName();
+
+    /**
+     * Gets the version of the encoding. Files saved with another version
+     * are stale, so it must change whenever the arrays or the algorithm
+     * that builds them change.
+     *
+     * @return the version
+     */
+    int getVersion();
+
+    /**
+     * Computes the structure, with ids from {@link IndexedGraph#of(Graph)}.
+     *
+     * @param graph the graph to compute it for
+     * @return the structure
+     */
+    A build(Graph<T> graph);
+
+    /**
+     * Turns a structure into arrays.
+     *
+     * @param graph the graph the structure is for
+     * @param artifact the structure
+     * @return the arrays, which are not modified
+     */
+    int[][] encode(IndexedGraph<T> graph, A artifact);
+
+    /**
+     * Turns arrays made by {@link #encode(IndexedGraph, Object)} back
+     * into a structure.
+     *
+     * @param graph the graph the structure is for
+     * @param arrays the arrays, which the structure may keep
+     * @return the structure, or null if the arrays were saved for a
+     *         structure with different parameters, which makes them stale
+     */
+    A decode(IndexedGraph<T> graph, int[][] arrays);
+}
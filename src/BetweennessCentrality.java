@@ -0,0 +1,589 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The betweenness centrality of every vertex of a graph: the number of
+ * shortest paths between other pairs of vertices that pass through it,
+ * each pair's paths sharing one unit between them.
+ *
+ * Scores are computed with Brandes' algorithm. A search from each source
+ * counts the shortest paths to every vertex, and a pass back over the
+ * vertices, farthest first, adds up how much each one lies on them. The
+ * sources are split among the cores; each worker keeps its own search
+ * arrays and score totals, and the totals are added together at the end.
+ * Unweighted graphs are searched breadth first, in O(V * E) time in all,
+ * and weighted graphs with Dijkstra's algorithm, in O(V * E log V).
+ *
+ * For graphs too large for a search from every vertex,
+ * {@link #sample(Graph, boolean, int, long)} searches from a random sample
+ * of sources and scales the totals up. {@link #getErrorBound(double)}
+ * bounds how far any sampled score can be from the exact one, and
+ * {@link #samplesFor(int, double, double)} gives the sample size needed
+ * for a bound.
+ *
+ * In an undirected graph each pair is counted once, not once in each
+ * direction.
+ *
+ * Path counts grow exponentially with distance on grid-like graphs and
+ * pass the range of a double on a grid of about 515 by 515. Each count is
+ * therefore kept as a double times a power of two, and the exponents only
+ * come into play once a count passes {@code 2^PATH_SCALE}; the pass back
+ * only needs ratios of counts, which are always at most one.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class BetweennessCentrality<T> {
+
+    /**
+     * The number of tasks the sources are split into per core, so that
+     * cores finishing early can take over work from slower ones.
+     */
+    private static final int TASKS_PER_CORE = 4;
+
+    /**
+     * The power of two above which a path count is scaled down by the
+     * same power, which keeps every count finite however many paths there
+     * are.
+     */
+    private static final int PATH_SCALE = 512;
+
+    /**
+     * The largest path count kept without scaling, {@code 2^PATH_SCALE}.
+     */
+    private static final double PATH_LIMIT = Math.scalb(1.0, PATH_SCALE);
+
+    private final IndexedGraph<T> graph;
+    private final double[] scores;
+    private final boolean weighted;
+    private final int samples;
+
+    /**
+     * Creates a result. The array is used as it is.
+     *
+     * @param graph the graph the scores are for
+     * @param scores the score of every vertex, indexed by id
+     * @param weighted whether edge weights were used
+     * @param samples the number of sources searched from
+     */
+    private BetweennessCentrality(IndexedGraph<T> graph, double[] scores,
+            boolean weighted, int samples) {
+        this.graph = graph;
+        this.scores = scores;
+        this.weighted = weighted;
+        this.samples = samples;
+    }
+
+    /**
+     * Computes the exact betweenness of every vertex of a graph. Edge
+     * weights are used unless every edge has the same positive weight, in
+     * which case hop counts give the same shortest paths faster.
+     *
+     * @throws IllegalArgumentException if the graph is null, or it has
+     *             different weights and a weight that is not positive
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the scores
+     */
+    public static <T> BetweennessCentrality<T> compute(Graph<T> graph) {
+        IndexedGraph<T> indexed = index(graph);
+        return compute(graph, needsWeights(indexed), Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Computes the exact betweenness of every vertex of a graph.
+     *
+     * @throws IllegalArgumentException if the graph is null, or weights
+     *             are asked for and a weight is not positive
+     * @param graph the graph
+     * @param weighted true to measure paths by edge weight, false to
+     *            measure them by number of edges
+     * @param <T> the data type representing the vertices in the graph
+     * @return the scores
+     */
+    public static <T> BetweennessCentrality<T> compute(Graph<T> graph,
+            boolean weighted) {
+        return compute(graph, weighted, Integer.MAX_VALUE, 0);
+    }
+
+    /**
+     * Estimates the betweenness of every vertex of a graph from a random
+     * sample of sources, chosen without replacement. Each estimate is the
+     * sampled total scaled by {@code V / samples}, so its expected value is
+     * the exact score. Sampling every vertex gives the exact scores.
+     *
+     * @throws IllegalArgumentException if the graph is null, samples is
+     *             not positive, or weights are asked for and a weight is
+     *             not positive
+     * @param graph the graph
+     * @param weighted true to measure paths by edge weight, false to
+     *            measure them by number of edges
+     * @param samples the number of sources
+     * @param seed the seed of the random choice of sources
+     * @param <T> the data type representing the vertices in the graph
+     * @return the estimated scores
+     */
+    public static <T> BetweennessCentrality<T> sample(Graph<T> graph,
+            boolean weighted, int samples, long seed) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("Sample count is not "
+                    + "positive");
+        }
+        return compute(graph, weighted, samples, seed);
+    }
+
+    /**
+     * Gets the number of sources to sample so that, with probability at
+     * least {@code 1 - failureProbability}, every estimated score is within
+     * {@code error} times {@link #getMaxScore()} of the exact one.
+     *
+     * @throws IllegalArgumentException if the vertex count is negative, or
+     *             either the error or the probability is not between 0 and
+     *             1, exclusive
+     * @param vertexCount the number of vertices of the graph
+     * @param error the largest error, as a fraction of the largest score
+     * @param failureProbability the chance of any error being larger
+     * @return the number of samples
+     */
+    public static int samplesFor(int vertexCount, double error,
+            double failureProbability) {
+        if (vertexCount < 0 || !(error > 0 && error < 1)
+                || !(failureProbability > 0 && failureProbability < 1)) {
+            throw new IllegalArgumentException("Invalid sampling bound");
+        }
+        double needed = Math.log(2.0 * Math.max(1, vertexCount)
+                / failureProbability) / (2 * error * error);
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(needed));
+    }
+
+    /**
+     * Validates a graph and gets its indexed form.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the indexed graph
+     */
+    private static <T> IndexedGraph<T> index(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return IndexedGraph.of(graph);
+    }
+
+    /**
+     * Gets whether a graph's weights change its shortest paths, which they
+     * do unless every edge has the same positive weight.
+     *
+     * @param indexed the graph
+     * @return true if the weights must be used
+     */
+    private static boolean needsWeights(IndexedGraph<?> indexed) {
+        int[] weights = indexed.getWeights();
+        for (int weight : weights) {
+            if (weight != weights[0]) {
+                return true;
+            }
+        }
+        return weights.length > 0 && weights[0] <= 0;
+    }
+
+    /**
+     * Computes exact or sampled scores.
+     *
+     * @throws IllegalArgumentException if the graph is null, or weights
+     *             are asked for and a weight is not positive
+     * @param graph the graph
+     * @param weighted whether to use edge weights
+     * @param samples the number of sources, or more than V for all of them
+     * @param seed the seed of the random choice of sources
+     * @param <T> the data type representing the vertices in the graph
+     * @return the scores
+     */
+    private static <T> BetweennessCentrality<T> compute(Graph<T> graph,
+            boolean weighted, int samples, long seed) {
+        IndexedGraph<T> indexed = index(graph);
+        if (weighted) {
+            for (int weight : indexed.getWeights()) {
+                if (weight <= 0) {
+                    throw new IllegalArgumentException("Weighted "
+                            + "betweenness needs positive weights");
+                }
+            }
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int n = indexed.getVertexCount();
+        int[] sources = new int[n];
+        for (int i = 0; i < n; i++) {
+            sources[i] = i;
+        }
+        int count = Math.min(n, samples);
+        if (count < n) {
+            SplittableRandom random = new SplittableRandom(seed);
+            for (int i = 0; i < count; i++) {
+                int j = i + random.nextInt(n - i);
+                int swap = sources[i];
+                sources[i] = sources[j];
+                sources[j] = swap;
+            }
+        }
+        int tasks = Math.max(1, Math.min(count,
+                ForkJoinPool.getCommonPoolParallelism() * TASKS_PER_CORE));
+        double[] scores = IntStream.range(0, tasks).parallel()
+                .mapToObj(task -> {
+                    Worker worker = new Worker(indexed, weighted);
+                    int from = (int) ((long) count * task / tasks);
+                    int to = (int) ((long) count * (task + 1) / tasks);
+                    for (int i = from; i < to; i++) {
+                        worker.accumulate(sources[i]);
+                    }
+                    return worker.scores;
+                })
+                .reduce(BetweennessCentrality::add)
+                .orElse(new double[n]);
+        double scale = (double) n / Math.max(1, count)
+                * (indexed.isDirected() ? 1 : 0.5);
+        if (scale != 1) {
+            for (int i = 0; i < n; i++) {
+                scores[i] *= scale;
+            }
+        }
+        if (event != null) {
+            event.finish(count < n ? "betweenness-est" : "betweenness",
+                    indexed, null, count);
+        }
+        return new BetweennessCentrality<T>(indexed, scores, weighted,
+                count);
+    }
+
+    /**
+     * Adds one array of scores into another.
+     *
+     * @param into the scores to add to
+     * @param from the scores to add
+     * @return into
+     */
+    private static double[] add(double[] into, double[] from) {
+        for (int i = 0; i < into.length; i++) {
+            into[i] += from[i];
+        }
+        return into;
+    }
+
+    /**
+     * Gets the score of a vertex.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the score
+     */
+    public double getScore(Vertex<T> vertex) {
+        int id = graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return scores[id];
+    }
+
+    /**
+     * Gets the score of the vertex with an id.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param id the id of the vertex
+     * @return the score
+     */
+    public double getScore(int id) {
+        return scores[id];
+    }
+
+    /**
+     * Gets the score of every vertex, indexed by id. The array is shared,
+     * not copied; callers must not modify it.
+     *
+     * @return the scores
+     */
+    public double[] getScores() {
+        return scores;
+    }
+
+    /**
+     * Gets the vertices with the highest scores, highest first, and those
+     * with equal scores in id order.
+     *
+     * @throws IllegalArgumentException if count is negative
+     * @param count the largest number of vertices to return
+     * @return the vertices
+     */
+    public List<Vertex<T>> top(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count is negative");
+        }
+        Integer[] ids = new Integer[scores.length];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        Arrays.sort(ids, (a, b) -> Double.compare(scores[b], scores[a]));
+        List<Vertex<T>> top = new ArrayList<Vertex<T>>();
+        for (int i = 0; i < Math.min(count, ids.length); i++) {
+            top.add(graph.getVertex(ids[i]));
+        }
+        return top;
+    }
+
+    /**
+     * Gets the bound used for sampling errors: a vertex lies on paths from
+     * each source to at most {@code V - 2} targets, so no score is larger
+     * than {@code V * (V - 2)}, or half that in an undirected graph.
+     *
+     * @return the largest score
+     */
+    public double getMaxScore() {
+        int n = graph.getVertexCount();
+        return Math.max(0, (double) n * (n - 2))
+                * (graph.isDirected() ? 1 : 0.5);
+    }
+
+    /**
+     * Gets how far the estimated scores can be from the exact ones. By
+     * Hoeffding's inequality, which holds for sampling without replacement,
+     * and a union bound over the vertices, with probability at least
+     * {@code 1 - failureProbability} every score is within the returned
+     * amount of its exact value.
+     *
+     * @throws IllegalArgumentException if the probability is not between
+     *             0 and 1, exclusive
+     * @param failureProbability the chance of any error being larger
+     * @return the largest error, or 0 if the scores are exact
+     */
+    public double getErrorBound(double failureProbability) {
+        if (!(failureProbability > 0 && failureProbability < 1)) {
+            throw new IllegalArgumentException("Invalid probability");
+        }
+        if (isExact()) {
+            return 0;
+        }
+        return getMaxScore() * Math.sqrt(Math.log(2.0
+                * graph.getVertexCount() / failureProbability)
+                / (2.0 * samples));
+    }
+
+    /**
+     * Gets the number of sources searched from.
+     *
+     * @return the number of sources
+     */
+    public int getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * Gets whether every vertex was a source, so the scores are exact.
+     *
+     * @return true if the scores are exact
+     */
+    public boolean isExact() {
+        return samples == graph.getVertexCount();
+    }
+
+    /**
+     * Gets whether paths were measured by edge weight.
+     *
+     * @return true if edge weights were used
+     */
+    public boolean isWeighted() {
+        return weighted;
+    }
+
+    /**
+     * Gets the graph the scores are for.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * The search arrays and score totals of one worker.
+     */
+    private static final class Worker {
+        private final IndexedGraph<?> graph;
+        private final IndexedGraph<?> reverse;
+        private final boolean weighted;
+        private final double[] scores;
+        private final long[] distances;
+        private final double[] paths;
+        private final int[] pathScales;
+        private final double[] dependencies;
+        private final int[] order;
+        private final IndexedMinHeap heap;
+
+        /**
+         * Creates a worker.
+         *
+         * @param graph the graph
+         * @param weighted whether to use edge weights
+         */
+        private Worker(IndexedGraph<?> graph, boolean weighted) {
+            int n = graph.getVertexCount();
+            this.graph = graph;
+            this.reverse = graph.transpose();
+            this.weighted = weighted;
+            scores = new double[n];
+            distances = new long[n];
+            paths = new double[n];
+            pathScales = new int[n];
+            dependencies = new double[n];
+            order = new int[n];
+            heap = weighted ? new IndexedMinHeap(n) : null;
+            Arrays.fill(distances, -1);
+        }
+
+        /**
+         * Adds the dependencies of every vertex on one source to the
+         * totals.
+         *
+         * @param source the id of the source
+         */
+        private void accumulate(int source) {
+            int reached = weighted ? dijkstras(source)
+                    : breadthFirst(source);
+            int[] offsets = reverse.getOffsets();
+            int[] targets = reverse.getTargets();
+            int[] weights = reverse.getWeights();
+            for (int i = reached - 1; i > 0; i--) {
+                int w = order[i];
+                double share = (1 + dependencies[w]) / paths[w];
+                long before = distances[w] - 1;
+                for (int a = offsets[w]; a < offsets[w + 1]; a++) {
+                    int v = targets[a];
+                    if (distances[v] >= 0 && distances[v] == (weighted
+                            ? distances[w] - weights[a] : before)) {
+                        double part = paths[v] * share;
+                        if (pathScales[v] != pathScales[w]) {
+                            part = Math.scalb(part,
+                                    pathScales[v] - pathScales[w]);
+                        }
+                        dependencies[v] += part;
+                    }
+                }
+                scores[w] += dependencies[w];
+            }
+            for (int i = 0; i < reached; i++) {
+                int v = order[i];
+                distances[v] = -1;
+                paths[v] = 0;
+                pathScales[v] = 0;
+                dependencies[v] = 0;
+            }
+        }
+
+        /**
+         * Adds the shortest paths to one vertex to those of another, which
+         * is further from the source. The sum takes the larger of the two
+         * scales and is scaled down again if it passes the limit, so every
+         * unscaled count is at least one and a vertex's scale is never
+         * smaller than that of a vertex before it on a shortest path.
+         *
+         * @param v the id of the vertex to add to
+         * @param u the id of the vertex whose paths are added
+         */
+        private void addPaths(int v, int u) {
+            int gap = pathScales[u] - pathScales[v];
+            if (gap == 0) {
+                paths[v] += paths[u];
+            } else if (gap > 0) {
+                paths[v] = Math.scalb(paths[v], -gap) + paths[u];
+                pathScales[v] = pathScales[u];
+            } else {
+                paths[v] += Math.scalb(paths[u], gap);
+            }
+            if (paths[v] > PATH_LIMIT) {
+                paths[v] = Math.scalb(paths[v], -PATH_SCALE);
+                pathScales[v] += PATH_SCALE;
+            }
+        }
+
+        /**
+         * Counts shortest paths by number of edges with a breadth first
+         * search.
+         *
+         * @param source the id of the source
+         * @return the number of vertices reached, which are in
+         *         {@code order} by distance
+         */
+        private int breadthFirst(int source) {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            distances[source] = 0;
+            paths[source] = 1;
+            order[0] = source;
+            int tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int u = order[head];
+                long next = distances[u] + 1;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    if (distances[v] < 0) {
+                        distances[v] = next;
+                        order[tail++] = v;
+                    }
+                    if (distances[v] == next) {
+                        addPaths(v, u);
+                    }
+                }
+            }
+            return tail;
+        }
+
+        /**
+         * Counts shortest paths by weight with Dijkstra's algorithm.
+         *
+         * @param source the id of the source
+         * @return the number of vertices reached, which are in
+         *         {@code order} by distance
+         */
+        private int dijkstras(int source) {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int[] weights = graph.getWeights();
+            heap.insert(source, 0);
+            paths[source] = 1;
+            int settled = 0;
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                long distance = heap.getKey(u);
+                distances[u] = distance;
+                order[settled++] = u;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    if (distances[v] >= 0) {
+                        continue;
+                    }
+                    long candidate = distance + weights[i];
+                    if (!heap.contains(v)) {
+                        heap.insert(v, candidate);
+                        paths[v] = paths[u];
+                        pathScales[v] = pathScales[u];
+                    } else if (candidate < heap.getKey(v)) {
+                        heap.decreaseKey(v, candidate);
+                        paths[v] = paths[u];
+                        pathScales[v] = pathScales[u];
+                    } else if (candidate == heap.getKey(v)) {
+                        addPaths(v, u);
+                    }
+                }
+            }
+            return settled;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for BetweennessCentrality.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class BetweennessCentralityTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+    private static final double DELTA = 1e-6;
+
+    @Test(timeout = TIMEOUT)
+    public void testPath() {
+        List<Vertex<Integer>> path = vertices(7);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < 7; i++) {
+            edges.add(new Edge<>(path.get(i), path.get(i + 1), 3, false));
+        }
+        BetweennessCentrality<Integer> scores =
+                BetweennessCentrality.compute(new Graph<>(edges));
+        assertFalse(scores.isWeighted());
+        assertTrue(scores.isExact());
+        for (int i = 0; i < 7; i++) {
+            assertEquals(i * (6 - i), scores.getScore(path.get(i)), DELTA);
+        }
+        assertEquals(Arrays.asList(path.get(3)), scores.top(1));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testStarAndDirectedPath() {
+        List<Vertex<Integer>> vertices = vertices(6);
+        LinkedHashSet<Edge<Integer>> star = new LinkedHashSet<>();
+        LinkedHashSet<Edge<Integer>> directed = new LinkedHashSet<>();
+        for (int i = 1; i < 6; i++) {
+            star.add(new Edge<>(vertices.get(0), vertices.get(i), 1, false));
+            directed.add(new Edge<>(vertices.get(i - 1), vertices.get(i), 1,
+                    true));
+        }
+        assertEquals(10, BetweennessCentrality.compute(new Graph<>(star))
+                .getScore(vertices.get(0)), DELTA);
+        BetweennessCentrality<Integer> scores =
+                BetweennessCentrality.compute(new Graph<>(directed));
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i * (5 - i), scores.getScore(vertices.get(i)), DELTA);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesPathCounting() {
+        Random random = new Random(3);
+        for (int round = 0; round < 12; round++) {
+            boolean directed = round % 2 == 1;
+            List<Vertex<Integer>> vertices = vertices(25);
+            LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+            for (int i = 0; i < 60; i++) {
+                edges.add(new Edge<>(vertices.get(random.nextInt(25)),
+                        vertices.get(random.nextInt(25)),
+                        1 + random.nextInt(round < 6 ? 1 : 3), directed));
+            }
+            Graph<Integer> graph = new Graph<>(edges);
+            for (boolean weighted : new boolean[] {false, true}) {
+                BetweennessCentrality<Integer> scores =
+                        BetweennessCentrality.compute(graph, weighted);
+                double[] expected = bruteForce(IndexedGraph.of(graph),
+                        weighted);
+                for (int v = 0; v < expected.length; v++) {
+                    assertEquals(expected[v], scores.getScore(v), DELTA);
+                }
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSampling() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(400, 1600, 4);
+        BetweennessCentrality<Integer> exact =
+                BetweennessCentrality.compute(graph, false);
+        BetweennessCentrality<Integer> sampled =
+                BetweennessCentrality.sample(graph, false, 100, 5);
+        assertEquals(100, sampled.getSampleCount());
+        assertFalse(sampled.isExact());
+        assertTrue(sampled.getErrorBound(0.01) > 0);
+        double[] few = samplingErrors(graph, exact, 40, 40);
+        double[] many = samplingErrors(graph, exact, 160, 40);
+        assertTrue(few[0] < 0.5);
+        assertEquals(0.41, many[0] / few[0], 0.12);
+        assertTrue(few[1] < 0.1);
+        assertTrue(many[1] < 0.04);
+        assertTrue(Arrays.equals(sampled.getScores(), BetweennessCentrality
+                .sample(graph, false, 100, 5).getScores()));
+        BetweennessCentrality<Integer> all =
+                BetweennessCentrality.sample(graph, false, 1000, 6);
+        assertTrue(all.isExact());
+        assertEquals(0, all.getErrorBound(0.01), 0);
+        for (int v = 0; v < 400; v++) {
+            assertEquals(exact.getScore(v), all.getScore(v), DELTA);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPathCountsBeyondDoubleRange() {
+        // layers of two vertices, each joined to both of the next, so the
+        // number of shortest paths doubles with every layer, past 2^1100
+        int layers = 1100;
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i + 1 < layers; i++) {
+            for (int a = 0; a < 2; a++) {
+                for (int b = 0; b < 2; b++) {
+                    edges.add(new Edge<>(new Vertex<>(2 * i + a),
+                            new Vertex<>(2 * i + 2 + b), 1, false));
+                }
+            }
+        }
+        for (boolean weighted : new boolean[] {false, true}) {
+            BetweennessCentrality<Integer> scores = BetweennessCentrality
+                    .compute(new Graph<>(edges), weighted);
+            for (int i = 2; i < layers - 2; i++) {
+                // half of every pair of vertices on opposite sides, and a
+                // quarter of each of the two pairs next to it
+                double expected = 2.0 * i * (layers - 1 - i) + 0.5;
+                for (int a = 0; a < 2; a++) {
+                    assertEquals(expected, scores.getScore(
+                            new Vertex<>(2 * i + a)), expected * 1e-12);
+                }
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSamplesFor() {
+        int samples = BetweennessCentrality.samplesFor(1000, 0.05, 0.01);
+        assertEquals((int) Math.ceil(Math.log(2000 / 0.01) / 0.005),
+                samples);
+        assertTrue(BetweennessCentrality.samplesFor(1000, 0.01, 0.01)
+                > samples);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testWeightedNeedsPositiveWeights() {
+        List<Vertex<Integer>> vertices = vertices(3);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(vertices.get(0), vertices.get(1), 0, false));
+        edges.add(new Edge<>(vertices.get(1), vertices.get(2), 2, false));
+        BetweennessCentrality.compute(new Graph<>(edges));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNoSamples() {
+        BetweennessCentrality.sample(GraphGenerators.path(3, 1), false, 0,
+                1);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        BetweennessCentrality.compute(null);
+    }
+
+    /**
+     * Creates vertices labeled 0 to count - 1.
+     *
+     * @param count the number of vertices
+     * @return the vertices
+     */
+    private static List<Vertex<Integer>> vertices(int count) {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        return vertices;
+    }
+
+    /**
+     * Measures the error of sampled scores over many seeds. Four times the
+     * samples should halve the mean absolute error, times the finite
+     * population correction, and the mean of independent estimates should
+     * converge on the exact scores.
+     *
+     * @param graph the graph
+     * @param exact its exact scores
+     * @param samples the sources per estimate
+     * @param seeds the number of estimates, with seeds 0 and up
+     * @return the mean absolute error of an estimate and the absolute
+     *         error of the mean estimate, both over the exact total
+     */
+    private static double[] samplingErrors(Graph<Integer> graph,
+            BetweennessCentrality<Integer> exact, int samples, int seeds) {
+        int n = exact.getScores().length;
+        double[] means = new double[n];
+        double absolute = 0;
+        for (int seed = 0; seed < seeds; seed++) {
+            BetweennessCentrality<Integer> sampled =
+                    BetweennessCentrality.sample(graph, false, samples, seed);
+            for (int v = 0; v < n; v++) {
+                means[v] += sampled.getScore(v) / seeds;
+                absolute += Math.abs(sampled.getScore(v) - exact.getScore(v));
+            }
+        }
+        double total = 0;
+        double bias = 0;
+        for (int v = 0; v < n; v++) {
+            total += exact.getScore(v);
+            bias += Math.abs(means[v] - exact.getScore(v));
+        }
+        return new double[] {absolute / seeds / total, bias / total};
+    }
+
+    /**
+     * Computes betweenness from the definition: all-pairs distances and
+     * path counts, then for every pair the share of its shortest paths
+     * through each other vertex.
+     *
+     * @param graph the graph
+     * @param weighted whether to use edge weights
+     * @return the score of every vertex
+     */
+    private static double[] bruteForce(IndexedGraph<Integer> graph,
+            boolean weighted) {
+        int n = graph.getVertexCount();
+        long[][] distance = new long[n][n];
+        double[][] paths = new double[n][n];
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        for (int s = 0; s < n; s++) {
+            long[] d = distance[s];
+            Arrays.fill(d, Long.MAX_VALUE);
+            d[s] = 0;
+            boolean changed = true;
+            while (changed) {
+                changed = false;
+                for (int u = 0; u < n; u++) {
+                    for (int i = offsets[u]; d[u] != Long.MAX_VALUE
+                            && i < offsets[u + 1]; i++) {
+                        long next = d[u] + (weighted ? weights[i] : 1);
+                        if (next < d[targets[i]]) {
+                            d[targets[i]] = next;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            Integer[] order = new Integer[n];
+            for (int v = 0; v < n; v++) {
+                order[v] = v;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(d[a], d[b]));
+            paths[s][s] = 1;
+            for (int v : order) {
+                for (int u = 0; u < n && d[v] != Long.MAX_VALUE; u++) {
+                    for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                        if (targets[i] == v && u != v
+                                && d[u] != Long.MAX_VALUE && d[u]
+                                + (weighted ? weights[i] : 1) == d[v]) {
+                            paths[s][v] += paths[s][u];
+                        }
+                    }
+                }
+            }
+        }
+        double[] scores = new double[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < n; t++) {
+                if (s == t || distance[s][t] == Long.MAX_VALUE) {
+                    continue;
+                }
+                for (int v = 0; v < n; v++) {
+                    if (v != s && v != t
+                            && distance[s][v] != Long.MAX_VALUE
+                            && distance[v][t] != Long.MAX_VALUE
+                            && distance[s][v] + distance[v][t]
+                            == distance[s][t]) {
+                        scores[v] += paths[s][v] * paths[v][t]
+                                / paths[s][t];
+                    }
+                }
+            }
+        }
+        if (!graph.isDirected()) {
+            for (int v = 0; v < n; v++) {
+                scores[v] /= 2;
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * The components of a graph, numbered from 0 to
+ * {@code getComponentCount() - 1}. The algorithm that computes the labels
+ * decides the order of the numbering. Labels of a subgraph view give the
+ * vertices it hides the label -1, and count only visible vertices.
+ *
+ * The arrays are shared, not copied; callers must not modify them.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class ComponentLabels<T> {
+
+    private final IndexedGraph<T> graph;
+    private final int[] labels;
+    private final int[] sizes;
+
+    /**
+     * Creates labels. The arrays are used as they are.
+     *
+     * @param graph the graph that was labeled
+     * @param labels the component of every vertex, indexed by id
+     * @param sizes the number of vertices in every component
+     */
+    ComponentLabels(IndexedGraph<T> graph, int[] labels, int[] sizes) {
+        this.graph = graph;
+        this.labels = labels;
+        this.sizes = sizes;
+    }
+
+    /**
+     * Gets the number of components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return sizes.length;
+    }
+
+    /**
+     * Gets whether the graph has at most one component.
+     *
+     * @return true if every vertex is in the same component
+     */
+    public boolean isConnected() {
+        return sizes.length <= 1;
+    }
+
+    /**
+     * Gets the component of a vertex.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the component of the vertex, or -1 if it is hidden
+     */
+    public int componentOf(Vertex<T> vertex) {
+        int id = graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return labels[id];
+    }
+
+    /**
+     * Gets the component of the vertex with an id.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param id the id of the vertex
+     * @return the component of the vertex, or -1 if it is hidden
+     */
+    public int componentOf(int id) {
+        return labels[id];
+    }
+
+    /**
+     * Gets the number of vertices in a component.
+     *
+     * @throws IndexOutOfBoundsException if there is no such component
+     * @param component the component
+     * @return the size of the component
+     */
+    public int getSize(int component) {
+        return sizes[component];
+    }
+
+    /**
+     * Gets the component of every vertex, indexed by vertex id.
+     *
+     * @return the labels array
+     */
+    public int[] getLabels() {
+        return labels;
+    }
+
+    /**
+     * Gets the size of every component, indexed by component.
+     *
+     * @return the sizes array
+     */
+    public int[] getSizes() {
+        return sizes;
+    }
+
+    /**
+     * Gets the graph that was labeled.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+}
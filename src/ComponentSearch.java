@@ -0,0 +1,137 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Connected component labeling over an IndexedGraph, or the part of it a
+ * SubgraphView shows, used by GraphAlgorithms.
+ *
+ * The work is split across all cores with a lock-free union-find in the
+ * style of Afforest: every vertex is first linked to its first
+ * {@value #SAMPLED_NEIGHBORS} neighbors, the largest component is
+ * estimated by sampling, and then only vertices outside that component
+ * link the rest of their neighbors. In an undirected graph every edge is
+ * stored in both directions, so the edges skipped inside the largest
+ * component are still seen from their other end. A view can hide one
+ * direction of an edge, so on views the largest component is not skipped.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class ComponentSearch {
+
+    /**
+     * The number of neighbors of each vertex linked before the largest
+     * component is sampled.
+     */
+    static final int SAMPLED_NEIGHBORS = 2;
+
+    /**
+     * The number of vertices sampled to find the largest component.
+     */
+    private static final int COMPONENT_SAMPLES = 1024;
+
+    /**
+     * Prevents instantiation.
+     */
+    private ComponentSearch() {
+    }
+
+    /**
+     * Labels the connected components of an indexed graph, or of the part
+     * of it a view shows.
+     *
+     * @param indexed
+     *            the indexed graph to label
+     * @param view
+     *            the view to label, or null for the whole graph
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the component of every vertex
+     */
+    static <T> ComponentLabels<T> label(IndexedGraph<T> indexed,
+            SubgraphView<T> view) {
+        int n = indexed.getVertexCount();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        ConcurrentUnionFind forest = new ConcurrentUnionFind(n);
+        boolean parallel =
+                indexed.getArcCount() >= GraphAlgorithms.PARALLEL_THRESHOLD;
+
+        for (int round = 0; round < SAMPLED_NEIGHBORS; round++) {
+            final int r = round;
+            GraphAlgorithms.forEachChunk(n, parallel, u -> {
+                int arc = offsets[u] + r;
+                if (arc < offsets[u + 1] && (view == null
+                        || view.containsVertex(u) && view.containsArc(arc))) {
+                    forest.union(u, targets[arc]);
+                }
+            });
+        }
+        GraphAlgorithms.forEachChunk(n, parallel, forest::compress);
+
+        int largest = -1;
+        if (!indexed.isDirected() && view == null && n > 0) {
+            largest = largestSampledComponent(forest, n);
+        }
+        final int skip = largest;
+        GraphAlgorithms.forEachChunk(n, parallel, u -> {
+            if (skip >= 0 && forest.find(u) == skip
+                    || view != null && !view.containsVertex(u)) {
+                return;
+            }
+            for (int i = offsets[u] + SAMPLED_NEIGHBORS; i < offsets[u + 1];
+                    i++) {
+                if (view == null || view.containsArc(i)) {
+                    forest.union(u, targets[i]);
+                }
+            }
+        });
+        GraphAlgorithms.forEachChunk(n, parallel, forest::compress);
+
+        int[] labels = new int[n];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            if (view != null && !view.containsVertex(u)) {
+                labels[u] = -1;
+                continue;
+            }
+            int root = forest.parent(u);
+            labels[u] = root == u ? count++ : labels[root];
+        }
+        int[] sizes = new int[count];
+        for (int u = 0; u < n; u++) {
+            if (labels[u] >= 0) {
+                sizes[labels[u]]++;
+            }
+        }
+        return new ComponentLabels<T>(indexed, labels, sizes);
+    }
+
+    /**
+     * Estimates the root of the largest set in a compressed forest from a
+     * fixed sample of ids.
+     *
+     * @param forest
+     *            the forest, with every id compressed
+     * @param n
+     *            the number of ids
+     * @return the most common root in the sample
+     */
+    static int largestSampledComponent(ConcurrentUnionFind forest,
+            int n) {
+        SplittableRandom random = new SplittableRandom(n);
+        Map<Integer, Integer> counts = new HashMap<>();
+        int best = forest.parent(0);
+        int bestCount = 0;
+        for (int i = 0; i < COMPONENT_SAMPLES; i++) {
+            int root = forest.parent(random.nextInt(n));
+            int count = counts.merge(root, 1, Integer::sum);
+            if (count > bestCount) {
+                best = root;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+}
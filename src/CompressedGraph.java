@@ -0,0 +1,362 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A compact read-only form of an {@link IndexedGraph}, for graphs too large
+ * to keep as plain int arrays. It has the same vertices and ids, but stores
+ * each neighbor list sorted by id as variable length gaps, and the weights
+ * bit-packed in blocks of {@value #BLOCK} adjacency entries.
+ *
+ * A neighbor list is stored as the distance from the vertex to its first
+ * neighbor, zigzag encoded so that either sign is short, followed by the
+ * gap to each next neighbor. Each number takes 7 bits per byte with the
+ * high bit marking that more bytes follow, so small gaps take one byte.
+ * Renumbering the graph first with
+ * {@link IndexedGraph#reorder(VertexOrdering)} keeps gaps small:
+ *
+ * <pre>
+ * CompressedGraph&lt;Integer&gt; compressed = new CompressedGraph&lt;&gt;(
+ *         IndexedGraph.of(graph).reorder(VertexOrdering.BFS));
+ * </pre>
+ *
+ * Each block of weights is stored as its smallest weight and each weight's
+ * difference from it, in as many bits as the largest difference needs; a
+ * block of equal weights takes no bits at all.
+ *
+ * Neighbor lists are read with a {@link Cursor}, which decodes one entry
+ * at a time without allocating.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class CompressedGraph<T> implements IndexedVertices<T> {
+
+    /**
+     * The number of adjacency entries whose weights share a bit width.
+     */
+    static final int BLOCK = 64;
+
+    private static final int BLOCK_SHIFT = 6;
+    private static final int WORD_SHIFT = 6;
+    private static final int PAYLOAD_BITS = 7;
+    private static final int PAYLOAD = 0x7F;
+    private static final int MORE = 0x80;
+
+    private final Vertex<T>[] vertices;
+    private final Map<Vertex<T>, Integer> ids;
+    private final boolean directed;
+    private final int maxDegree;
+    private final int[] arcOffsets;
+    private final int[] byteOffsets;
+    private final byte[] neighbors;
+    private final int[] blockBases;
+    private final byte[] blockWidths;
+    private final long[] blockStarts;
+    private final long[] weightBits;
+
+    /**
+     * Compresses an indexed graph. The compressed graph shares the indexed
+     * graph's vertices and ids but none of its adjacency arrays, so the
+     * indexed graph can be dropped afterwards.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to compress
+     */
+    public CompressedGraph(IndexedGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        vertices = graph.vertices();
+        ids = graph.ids();
+        directed = graph.isDirected();
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        arcOffsets = offsets.clone();
+        byteOffsets = new int[n + 1];
+        int largest = 0;
+        for (int u = 0; u < n; u++) {
+            largest = Math.max(largest, graph.getDegree(u));
+        }
+        maxDegree = largest;
+        long[] row = new long[maxDegree];
+        int[] sortedWeights = new int[targets.length];
+        byte[] encoded = new byte[Math.max(16, targets.length * 2)];
+        int length = 0;
+        for (int u = 0; u < n; u++) {
+            int degree = offsets[u + 1] - offsets[u];
+            for (int i = 0; i < degree; i++) {
+                row[i] = ((long) targets[offsets[u] + i] << Integer.SIZE)
+                        | (weights[offsets[u] + i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+            int previous = u;
+            for (int i = 0; i < degree; i++) {
+                int target = (int) (row[i] >>> Integer.SIZE);
+                sortedWeights[offsets[u] + i] = (int) row[i];
+                int gap = i == 0 ? (target - u) << 1 ^ (target - u) >> 31
+                        : target - previous;
+                previous = target;
+                if (length + 5 > encoded.length) {
+                    encoded = Arrays.copyOf(encoded,
+                            Math.max(encoded.length * 3 / 2, length + 5));
+                }
+                while ((gap & ~PAYLOAD) != 0) {
+                    encoded[length++] = (byte) ((gap & PAYLOAD) | MORE);
+                    gap >>>= PAYLOAD_BITS;
+                }
+                encoded[length++] = (byte) gap;
+            }
+            byteOffsets[u + 1] = length;
+        }
+        neighbors = Arrays.copyOf(encoded, length);
+
+        int blocks = (targets.length + BLOCK - 1) / BLOCK;
+        blockBases = new int[blocks];
+        blockWidths = new byte[blocks];
+        blockStarts = new long[blocks + 1];
+        for (int b = 0; b < blocks; b++) {
+            int from = b * BLOCK;
+            int to = Math.min(targets.length, from + BLOCK);
+            long min = Integer.MAX_VALUE;
+            long max = Integer.MIN_VALUE;
+            for (int i = from; i < to; i++) {
+                min = Math.min(min, sortedWeights[i]);
+                max = Math.max(max, sortedWeights[i]);
+            }
+            blockBases[b] = (int) min;
+            blockWidths[b] = (byte) (Long.SIZE
+                    - Long.numberOfLeadingZeros(max - min));
+            blockStarts[b + 1] = blockStarts[b]
+                    + (long) blockWidths[b] * (to - from);
+        }
+        weightBits = new long[(int) ((blockStarts[blocks] + Long.SIZE - 1)
+                / Long.SIZE)];
+        for (int i = 0; i < targets.length; i++) {
+            int b = i >>> BLOCK_SHIFT;
+            int width = blockWidths[b];
+            if (width > 0) {
+                long bit = blockStarts[b] + (long) (i & (BLOCK - 1)) * width;
+                long value = (long) sortedWeights[i] - blockBases[b];
+                int word = (int) (bit >>> WORD_SHIFT);
+                int shift = (int) (bit & (Long.SIZE - 1));
+                weightBits[word] |= value << shift;
+                if (shift + width > Long.SIZE) {
+                    weightBits[word + 1] |= value >>> (Long.SIZE - shift);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the weight of an adjacency entry.
+     *
+     * @param arc the index of the entry, counting every neighbor list in
+     *            vertex order
+     * @return the weight
+     */
+    int weight(int arc) {
+        int b = arc >>> BLOCK_SHIFT;
+        int width = blockWidths[b];
+        if (width == 0) {
+            return blockBases[b];
+        }
+        long bit = blockStarts[b] + (long) (arc & (BLOCK - 1)) * width;
+        int word = (int) (bit >>> WORD_SHIFT);
+        int shift = (int) (bit & (Long.SIZE - 1));
+        long value = weightBits[word] >>> shift;
+        if (shift + width > Long.SIZE) {
+            value |= weightBits[word + 1] << (Long.SIZE - shift);
+        }
+        return (int) (blockBases[b] + (value & ((1L << width) - 1)));
+    }
+
+    /**
+     * Decodes the whole neighbor list of a vertex at once, which is faster
+     * than a cursor when every neighbor is needed.
+     *
+     * @throws IndexOutOfBoundsException if there is no such vertex, or the
+     *             buffer is shorter than the vertex's degree
+     * @param id the id of the vertex
+     * @param buffer where to put the neighbor ids, in increasing order
+     * @return the number of neighbors
+     */
+    public int neighbors(int id, int[] buffer) {
+        int position = byteOffsets[id];
+        int end = byteOffsets[id + 1];
+        int count = 0;
+        int target = id;
+        while (position < end) {
+            int value = neighbors[position++];
+            if (value < 0) {
+                value &= PAYLOAD;
+                int shift = PAYLOAD_BITS;
+                int b = neighbors[position++];
+                while (b < 0) {
+                    value |= (b & PAYLOAD) << shift;
+                    shift += PAYLOAD_BITS;
+                    b = neighbors[position++];
+                }
+                value |= b << shift;
+            }
+            target += count == 0 ? value >>> 1 ^ -(value & 1) : value;
+            buffer[count++] = target;
+        }
+        return count;
+    }
+
+    /**
+     * Creates a cursor for reading neighbor lists.
+     *
+     * @return a new cursor, not positioned on any vertex
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    @Override
+    public int getArcCount() {
+        return arcOffsets[vertices.length];
+    }
+
+    @Override
+    public int getId(Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public Vertex<T> getVertex(int id) {
+        return vertices[id];
+    }
+
+    /**
+     * Gets the number of neighbors of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the degree of the vertex
+     */
+    public int getDegree(int id) {
+        return arcOffsets[id + 1] - arcOffsets[id];
+    }
+
+    /**
+     * Gets the largest number of neighbors of any vertex, which is the
+     * buffer length {@link #neighbors(int, int[])} needs.
+     *
+     * @return the largest degree
+     */
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+
+    /**
+     * Gets the number of bytes the adjacency data takes, counting the
+     * offsets, the encoded neighbors and the packed weights but not the
+     * vertices. The same data as plain int arrays takes
+     * {@code 4 * (2 * getArcCount() + getVertexCount() + 1)} bytes.
+     *
+     * @return the size of the adjacency data in bytes
+     */
+    public long getByteCount() {
+        return Integer.BYTES * ((long) arcOffsets.length + byteOffsets.length
+                + blockBases.length) + neighbors.length + blockWidths.length
+                + Long.BYTES * ((long) blockStarts.length + weightBits.length);
+    }
+
+    /**
+     * Reads the neighbor list of one vertex at a time, in increasing
+     * neighbor id order. A cursor is not thread safe, but any number of
+     * cursors can read the same graph at once.
+     */
+    public final class Cursor {
+        private int position;
+        private int end;
+        private int arc;
+        private int target;
+        private boolean first;
+
+        /**
+         * Creates a cursor with nothing to read.
+         */
+        private Cursor() {
+        }
+
+        /**
+         * Moves this cursor to the start of a vertex's neighbor list.
+         *
+         * @throws IndexOutOfBoundsException if there is no such vertex
+         * @param id the id of the vertex
+         * @return this cursor
+         */
+        public Cursor reset(int id) {
+            position = byteOffsets[id];
+            end = byteOffsets[id + 1];
+            arc = arcOffsets[id] - 1;
+            target = id;
+            first = true;
+            return this;
+        }
+
+        /**
+         * Moves to the next neighbor.
+         *
+         * @return true if there was another neighbor, false at the end of
+         *         the list
+         */
+        public boolean next() {
+            if (position >= end) {
+                return false;
+            }
+            int value = 0;
+            int shift = 0;
+            byte b = neighbors[position++];
+            while ((b & MORE) != 0) {
+                value |= (b & PAYLOAD) << shift;
+                shift += PAYLOAD_BITS;
+                b = neighbors[position++];
+            }
+            value |= b << shift;
+            if (first) {
+                target += value >>> 1 ^ -(value & 1);
+                first = false;
+            } else {
+                target += value;
+            }
+            arc++;
+            return true;
+        }
+
+        /**
+         * Gets the id of the current neighbor.
+         *
+         * @return the neighbor id
+         */
+        public int target() {
+            return target;
+        }
+
+        /**
+         * Gets the weight of the edge to the current neighbor. Weights are
+         * only decoded when asked for, so searches that ignore them do not
+         * pay for them.
+         *
+         * @return the weight
+         */
+        public int weight() {
+            return CompressedGraph.this.weight(arc);
+        }
+    }
+}
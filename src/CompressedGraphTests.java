@@ -0,0 +1,204 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for CompressedGraph and the compressed traversals.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class CompressedGraphTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testRoundTrip() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(500, 2000, 1)
+                    : GraphGenerators.erdosRenyi(500, 2000, 1);
+            IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+            CompressedGraph<Integer> compressed =
+                    new CompressedGraph<>(indexed);
+            assertEquals(directed, compressed.isDirected());
+            assertEquals(indexed.getVertexCount(),
+                    compressed.getVertexCount());
+            assertEquals(indexed.getArcCount(), compressed.getArcCount());
+            assertRows(indexed, compressed);
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testExtremeWeightsAndIds() {
+        Random random = new Random(2);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        int[] weights = {Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1};
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i < 1500; i++) {
+            edges.add(new Edge<Integer>(vertices.get(random.nextInt(300)),
+                    vertices.get(random.nextInt(300)),
+                    i % 7 == 0 ? weights[random.nextInt(weights.length)]
+                            : random.nextInt(), true));
+        }
+        // a vertex whose neighbors are far below and far above it
+        edges.add(new Edge<Integer>(vertices.get(150), vertices.get(0), 3,
+                true));
+        edges.add(new Edge<Integer>(vertices.get(150), vertices.get(299), 3,
+                true));
+        IndexedGraph<Integer> indexed = IndexedGraph.of(
+                new Graph<Integer>(edges));
+        assertRows(indexed, new CompressedGraph<>(indexed));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testUniformWeightsTakeNoBits() {
+        Random random = new Random(3);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        LinkedHashSet<Edge<Integer>> uniform = new LinkedHashSet<>();
+        LinkedHashSet<Edge<Integer>> mixed = new LinkedHashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            Vertex<Integer> u = vertices.get(random.nextInt(500));
+            Vertex<Integer> v = vertices.get(random.nextInt(500));
+            uniform.add(new Edge<Integer>(u, v, 5, true));
+            mixed.add(new Edge<Integer>(u, v, 5 + (i & 1), true));
+        }
+        IndexedGraph<Integer> indexed = IndexedGraph.of(
+                new Graph<Integer>(uniform));
+        CompressedGraph<Integer> compressed = new CompressedGraph<>(indexed);
+        assertRows(indexed, compressed);
+        IndexedGraph<Integer> mixedIndexed = IndexedGraph.of(
+                new Graph<Integer>(mixed));
+        CompressedGraph<Integer> mixedCompressed =
+                new CompressedGraph<>(mixedIndexed);
+        assertRows(mixedIndexed, mixedCompressed);
+        assertTrue(compressed.getByteCount() + mixedIndexed.getArcCount() / 8
+                <= mixedCompressed.getByteCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSmaller() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(20000, 100000, 4);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph)
+                .reorder(VertexOrdering.BFS);
+        CompressedGraph<Integer> compressed = new CompressedGraph<>(indexed);
+        long plain = 4L * (2L * indexed.getArcCount()
+                + indexed.getVertexCount() + 1);
+        assertTrue(compressed.getByteCount() * 3 / 2 < plain);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSearchesAgree() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(400, 1000, 5)
+                    : GraphGenerators.erdosRenyi(400, 1000, 5);
+            IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+            CompressedGraph<Integer> compressed = new CompressedGraph<>(
+                    indexed.reorder(VertexOrdering.DEGREE));
+            for (int s = 0; s < 400; s += 37) {
+                Vertex<Integer> start = indexed.getVertex(s);
+                List<Vertex<Integer>> visited = GraphAlgorithms
+                        .compressedBreadthFirstSearch(start, compressed);
+                List<Vertex<Integer>> expected = GraphAlgorithms
+                        .breadthFirstSearch(start, graph);
+                assertSame(start, visited.get(0));
+                assertEquals(expected.size(), visited.size());
+                assertEquals(new HashSet<>(expected), new HashSet<>(visited));
+                assertEquals(GraphAlgorithms.dijkstras(start, graph),
+                        GraphAlgorithms.compressedDijkstras(start,
+                                compressed));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCursorReuse() {
+        IndexedGraph<Integer> indexed = IndexedGraph.of(
+                GraphGenerators.path(10, 6));
+        CompressedGraph<Integer> compressed = new CompressedGraph<>(indexed);
+        CompressedGraph<Integer>.Cursor cursor = compressed.cursor();
+        assertFalse(cursor.next());
+        for (int pass = 0; pass < 2; pass++) {
+            for (int u = 0; u < 10; u++) {
+                cursor.reset(u);
+                int count = 0;
+                while (cursor.next()) {
+                    count++;
+                }
+                assertEquals(compressed.getDegree(u), count);
+                assertFalse(cursor.next());
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        new CompressedGraph<Integer>(null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingStart() {
+        GraphAlgorithms.compressedDijkstras(new Vertex<>(-1),
+                new CompressedGraph<>(IndexedGraph.of(
+                        GraphGenerators.path(5, 1))));
+    }
+
+    /**
+     * Checks that every neighbor list of a compressed graph has the same
+     * neighbors and weights as the indexed graph it was built from, in
+     * increasing id order, through both a cursor and bulk decoding.
+     *
+     * @param indexed the indexed graph
+     * @param compressed the compressed graph
+     */
+    private static void assertRows(IndexedGraph<Integer> indexed,
+            CompressedGraph<Integer> compressed) {
+        int[] offsets = indexed.getOffsets();
+        CompressedGraph<Integer>.Cursor cursor = compressed.cursor();
+        int[] buffer = new int[compressed.getMaxDegree()];
+        for (int u = 0; u < indexed.getVertexCount(); u++) {
+            assertSame(indexed.getVertex(u), compressed.getVertex(u));
+            assertEquals(u, compressed.getId(indexed.getVertex(u)));
+            int degree = indexed.getDegree(u);
+            long[] expected = new long[degree];
+            for (int i = 0; i < degree; i++) {
+                expected[i] = ((long) indexed.getTargets()[offsets[u] + i]
+                        << Integer.SIZE)
+                        | (indexed.getWeights()[offsets[u] + i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(expected);
+            cursor.reset(u);
+            for (int i = 0; i < degree; i++) {
+                assertTrue(cursor.next());
+                assertEquals((int) (expected[i] >>> Integer.SIZE),
+                        cursor.target());
+                assertEquals((int) expected[i], cursor.weight());
+            }
+            assertFalse(cursor.next());
+            assertEquals(degree, compressed.neighbors(u, buffer));
+            for (int i = 0; i < degree; i++) {
+                assertEquals((int) (expected[i] >>> Integer.SIZE),
+                        buffer[i]);
+            }
+        }
+        assertEquals(-1, compressed.getId(new Vertex<>(-7)));
+    }
+}
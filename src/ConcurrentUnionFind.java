@@ -0,0 +1,89 @@
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A lock-free disjoint set forest over the ids 0 to {@code size - 1}.
+ *
+ * Roots are linked with compare-and-set, always from the larger id to the
+ * smaller one, so the root of every set is its smallest id no matter how
+ * the unions of different threads interleave. Finds use path halving,
+ * which is also done with compare-and-set and so never breaks a set apart.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class ConcurrentUnionFind {
+
+    private final AtomicIntegerArray parents;
+
+    /**
+     * Creates a forest where every id is in a set of its own.
+     *
+     * @param size the number of ids
+     */
+    ConcurrentUnionFind(int size) {
+        parents = new AtomicIntegerArray(size);
+        for (int i = 0; i < size; i++) {
+            parents.lazySet(i, i);
+        }
+    }
+
+    /**
+     * Finds the root of the set containing an id.
+     *
+     * @param id the id
+     * @return the root of its set
+     */
+    int find(int id) {
+        int parent = parents.get(id);
+        while (parent != id) {
+            int grandparent = parents.get(parent);
+            if (grandparent != parent) {
+                parents.compareAndSet(id, parent, grandparent);
+            }
+            id = parent;
+            parent = grandparent;
+        }
+        return id;
+    }
+
+    /**
+     * Merges the sets containing two ids.
+     *
+     * @param a one id
+     * @param b another id
+     */
+    void union(int a, int b) {
+        while (true) {
+            int rootA = find(a);
+            int rootB = find(b);
+            if (rootA == rootB) {
+                return;
+            }
+            int high = Math.max(rootA, rootB);
+            int low = Math.min(rootA, rootB);
+            if (parents.compareAndSet(high, high, low)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Points an id directly at the root of its set. Once every id has been
+     * compressed after the last union, {@link #parent(int)} is the root.
+     *
+     * @param id the id
+     */
+    void compress(int id) {
+        parents.set(id, find(id));
+    }
+
+    /**
+     * Gets the parent of an id.
+     *
+     * @param id the id
+     * @return the parent of the id
+     */
+    int parent(int id) {
+        return parents.get(id);
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * The strongly connected components of a graph together with its
+ * condensation: the directed acyclic graph with one vertex per component
+ * and an arc from one component to another whenever some edge of the graph
+ * does. The vertex of component {@code c} in the condensation has data
+ * {@code c} and id {@code c}, and each arc has the smallest weight of the
+ * edges it stands for.
+ *
+ * Components are numbered in a topological order of the condensation, so
+ * every arc goes from a smaller component to a larger one.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class Condensation<T> {
+
+    private final ComponentLabels<T> components;
+    private final IndexedGraph<Integer> dag;
+
+    /**
+     * Creates a condensation.
+     *
+     * @param components the component of every vertex
+     * @param dag the condensation graph
+     */
+    Condensation(ComponentLabels<T> components, IndexedGraph<Integer> dag) {
+        this.components = components;
+        this.dag = dag;
+    }
+
+    /**
+     * Gets the component of every vertex.
+     *
+     * @return the component labels
+     */
+    public ComponentLabels<T> getComponents() {
+        return components;
+    }
+
+    /**
+     * Gets the condensation graph.
+     *
+     * @return the directed acyclic graph of components
+     */
+    public IndexedGraph<Integer> getDag() {
+        return dag;
+    }
+
+    /**
+     * Gets the number of strongly connected components.
+     *
+     * @return the number of components
+     */
+    public int getComponentCount() {
+        return components.getComponentCount();
+    }
+
+    /**
+     * Gets the component of a vertex.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the component of the vertex
+     */
+    public int componentOf(Vertex<T> vertex) {
+        return components.componentOf(vertex);
+    }
+}
@@ -0,0 +1,137 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for GraphAlgorithms.connectedComponents.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class ConnectedComponentsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 20000;
+
+    @Test(timeout = TIMEOUT)
+    public void testSmallGraph() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        Vertex<String> d = new Vertex<>("d");
+        Vertex<String> e = new Vertex<>("e");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, false));
+        edges.add(new Edge<String>(c, d, 1, false));
+        edges.add(new Edge<String>(b, e, 1, false));
+        ComponentLabels<String> labels = GraphAlgorithms.connectedComponents(
+                new Graph<>(edges));
+
+        assertEquals(2, labels.getComponentCount());
+        assertFalse(labels.isConnected());
+        assertEquals(0, labels.componentOf(a));
+        assertEquals(0, labels.componentOf(b));
+        assertEquals(0, labels.componentOf(e));
+        assertEquals(1, labels.componentOf(c));
+        assertEquals(1, labels.componentOf(d));
+        assertEquals(3, labels.getSize(0));
+        assertEquals(2, labels.getSize(1));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDirectedEdgesAreWeak() {
+        Vertex<Integer> v0 = new Vertex<>(0);
+        Vertex<Integer> v1 = new Vertex<>(1);
+        Vertex<Integer> v2 = new Vertex<>(2);
+        Vertex<Integer> v3 = new Vertex<>(3);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<Integer>(v0, v1, 1, true));
+        edges.add(new Edge<Integer>(v0, v2, 1, true));
+        edges.add(new Edge<Integer>(v0, v3, 1, true));
+        edges.add(new Edge<Integer>(v2, v1, 1, true));
+        edges.add(new Edge<Integer>(v3, v1, 1, true));
+        ComponentLabels<Integer> labels = GraphAlgorithms.connectedComponents(
+                new Graph<>(edges));
+        assertTrue(labels.isConnected());
+        assertEquals(4, labels.getSize(0));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingVertex() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(new Vertex<>("a"), new Vertex<>("b"), 1,
+                false));
+        GraphAlgorithms.connectedComponents(new Graph<>(edges))
+                .componentOf(new Vertex<>("z"));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        GraphAlgorithms.connectedComponents(null);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSparseRandomGraphMatchesSearch() {
+        // below the giant component threshold, so many components
+        assertMatchesSearch(GraphGenerators.erdosRenyi(200000, 80000, 1));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testGiantComponentMatchesSearch() {
+        assertMatchesSearch(GraphGenerators.erdosRenyi(100000, 300000, 2));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSkewedGraphMatchesSearch() {
+        assertMatchesSearch(GraphGenerators.rmat(16, 300000, 3));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testGridIsConnected() {
+        ComponentLabels<Integer> labels = GraphAlgorithms.connectedComponents(
+                GraphGenerators.grid(300, 300, 4));
+        assertTrue(labels.isConnected());
+        assertEquals(90000, labels.getSize(0));
+    }
+
+    /**
+     * Checks that the components agree with the vertices reached by a
+     * breadth first search from every unlabeled vertex.
+     *
+     * @param graph the graph to label
+     */
+    private void assertMatchesSearch(Graph<Integer> graph) {
+        ComponentLabels<Integer> labels =
+                GraphAlgorithms.connectedComponents(graph);
+        IndexedGraph<Integer> indexed = labels.getGraph();
+        Map<Vertex<Integer>, Integer> seen = new HashMap<>();
+        int components = 0;
+        for (int id = 0; id < indexed.getVertexCount(); id++) {
+            Vertex<Integer> vertex = indexed.getVertex(id);
+            if (seen.containsKey(vertex)) {
+                assertEquals((int) seen.get(vertex),
+                        labels.componentOf(id));
+                continue;
+            }
+            // components are numbered by their smallest vertex id
+            assertEquals(components, labels.componentOf(id));
+            List<Vertex<Integer>> reached = GraphAlgorithms
+                    .indexedBreadthFirstSearch(vertex, indexed);
+            assertEquals(reached.size(), labels.getSize(components));
+            for (Vertex<Integer> other : reached) {
+                seen.put(other, components);
+            }
+            components++;
+        }
+        assertEquals(components, labels.getComponentCount());
+        assertNotEquals(0, components);
+    }
+}
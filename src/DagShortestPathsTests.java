@@ -0,0 +1,116 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for topologicalSort and dagShortestPaths.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class DagShortestPathsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 20000;
+    private Graph<String> graph;
+    private Vertex<String> a = new Vertex<>("a");
+    private Vertex<String> b = new Vertex<>("b");
+    private Vertex<String> c = new Vertex<>("c");
+    private Vertex<String> d = new Vertex<>("d");
+    private Vertex<String> e = new Vertex<>("e");
+
+    @Before
+    public void setUp() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(e, a, 3, true));
+        edges.add(new Edge<String>(a, b, 2, true));
+        edges.add(new Edge<String>(a, c, 6, true));
+        edges.add(new Edge<String>(b, c, -5, true));
+        edges.add(new Edge<String>(c, d, 1, true));
+        edges.add(new Edge<String>(b, d, 4, true));
+        graph = new Graph<>(edges);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testTopologicalSort() {
+        List<Vertex<String>> order = GraphAlgorithms.topologicalSort(graph);
+        assertEquals(5, order.size());
+        for (Edge<String> edge : graph.getEdgeList()) {
+            assertTrue(order.indexOf(edge.getU()) < order.indexOf(edge.getV()));
+        }
+        assertEquals(e, order.get(0));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testTopologicalSortCycle() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, true));
+        edges.add(new Edge<String>(b, c, 1, true));
+        edges.add(new Edge<String>(c, a, 1, true));
+        GraphAlgorithms.topologicalSort(new Graph<>(edges));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testTopologicalSortUndirected() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, false));
+        GraphAlgorithms.topologicalSort(new Graph<>(edges));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testNegativeWeights() {
+        DistanceTable<String> table = GraphAlgorithms.dagShortestPaths(a,
+                graph);
+        assertEquals(0, table.distanceTo(a));
+        assertEquals(2, table.distanceTo(b));
+        assertEquals(-3, table.distanceTo(c));
+        assertEquals(-2, table.distanceTo(d));
+        // e comes before a in every topological order
+        assertEquals(DistanceTable.UNREACHABLE, table.distanceTo(e));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMetrics() {
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        GraphAlgorithms.dagShortestPaths(a, graph, metrics);
+        assertEquals(4, metrics.getVerticesSettled());
+        assertEquals(5, metrics.getEdgesScanned());
+        assertEquals(5, metrics.getEdgesRelaxed());
+        assertEquals(0, metrics.getQueuePushes());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testShortestPathsCycle() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, true));
+        edges.add(new Edge<String>(b, a, 1, true));
+        GraphAlgorithms.dagShortestPaths(a, new Graph<>(edges));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingStart() {
+        GraphAlgorithms.dagShortestPaths(new Vertex<>("z"), graph);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesDijkstras() {
+        Graph<Integer> dag = GraphGenerators.randomDag(20000, 100000, 3);
+        for (int source = 0; source < 5; source++) {
+            Vertex<Integer> start = new Vertex<>(source);
+            if (!dag.getAdjacencyList().containsKey(start)) {
+                continue;
+            }
+            Map<Vertex<Integer>, Integer> expected = new HashMap<>(
+                    GraphAlgorithms.dijkstras(start, dag));
+            assertEquals(expected,
+                    GraphAlgorithms.dagShortestPaths(start, dag).asMap());
+        }
+    }
+}
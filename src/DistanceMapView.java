@@ -0,0 +1,88 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Read-only Map view of a per-vertex array result such as a DistanceTable.
+ * Lookups go through the graph's vertex ids, and values are boxed only
+ * when they are read.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ * @param <V> the value type
+ */
+final class DistanceMapView<T, V> extends AbstractMap<Vertex<T>, V> {
+
+    private final IndexedVertices<T> graph;
+    private final IntFunction<V> values;
+
+    /**
+     * Creates a view.
+     *
+     * @param graph the graph whose vertices are the keys
+     * @param values the value of each vertex id
+     */
+    DistanceMapView(IndexedVertices<T> graph, IntFunction<V> values) {
+        this.graph = graph;
+        this.values = values;
+    }
+
+    @Override
+    public int size() {
+        return graph.getVertexCount();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean containsKey(Object key) {
+        return key instanceof Vertex
+                && graph.getId((Vertex<T>) key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (!(key instanceof Vertex)) {
+            return null;
+        }
+        int id = graph.getId((Vertex<T>) key);
+        return id < 0 ? null : values.apply(id);
+    }
+
+    @Override
+    public Set<Map.Entry<Vertex<T>, V>> entrySet() {
+        return new AbstractSet<Map.Entry<Vertex<T>, V>>() {
+            @Override
+            public int size() {
+                return graph.getVertexCount();
+            }
+
+            @Override
+            public Iterator<Map.Entry<Vertex<T>, V>> iterator() {
+                return new Iterator<Map.Entry<Vertex<T>, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < graph.getVertexCount();
+                    }
+
+                    @Override
+                    public Map.Entry<Vertex<T>, V> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int id = next++;
+                        return new SimpleImmutableEntry<Vertex<T>, V>(
+                                graph.getVertex(id), values.apply(id));
+                    }
+                };
+            }
+        };
+    }
+}
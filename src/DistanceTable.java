@@ -0,0 +1,106 @@
+import java.util.Map;
+
+/**
+ * Shortest distances from a source vertex, stored in an {@code int[]}
+ * indexed by the dense vertex ids of an IndexedGraph.
+ *
+ * Distances that do not fit in an int, and distances to unreachable
+ * vertices, are {@link #UNREACHABLE}. Use a LongDistanceTable when path
+ * weights may exceed {@code Integer.MAX_VALUE - 1}.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class DistanceTable<T> {
+
+    /**
+     * The distance to a vertex that cannot be reached.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final IndexedGraph<T> graph;
+    private final int source;
+    private final int[] distances;
+
+    /**
+     * Creates a table. The array is used as it is.
+     *
+     * @param graph the graph the distances are in
+     * @param source the id of the source vertex
+     * @param distances the distance to every vertex, indexed by id
+     */
+    DistanceTable(IndexedGraph<T> graph, int source, int[] distances) {
+        this.graph = graph;
+        this.source = source;
+        this.distances = distances;
+    }
+
+    /**
+     * Gets the distance from the source to a vertex.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public int distanceTo(Vertex<T> vertex) {
+        int id = graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return distances[id];
+    }
+
+    /**
+     * Gets the distance from the source to the vertex with an id.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param id the id of the vertex
+     * @return the distance, or {@link #UNREACHABLE}
+     */
+    public int distanceTo(int id) {
+        return distances[id];
+    }
+
+    /**
+     * Gets whether a vertex can be reached from the source.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return true if the vertex is reachable
+     */
+    public boolean isReachable(Vertex<T> vertex) {
+        return distanceTo(vertex) != UNREACHABLE;
+    }
+
+    /**
+     * Gets the source vertex.
+     *
+     * @return the source vertex
+     */
+    public Vertex<T> getSource() {
+        return graph.getVertex(source);
+    }
+
+    /**
+     * Gets the graph the distances are in.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Presents this table as a read-only map from every vertex in the graph
+     * to its distance, in the format returned by
+     * {@link GraphAlgorithms#dijkstras(Vertex, Graph)}. Values are boxed
+     * only when read.
+     *
+     * @return the map view
+     */
+    public Map<Vertex<T>, Integer> asMap() {
+        return new DistanceMapView<T, Integer>(graph, id -> distances[id]);
+    }
+}
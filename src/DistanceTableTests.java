@@ -0,0 +1,128 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for DistanceTable, LongDistanceTable and their map views.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class DistanceTableTests {
+
+    private static final int TIMEOUT = 200;
+    private Graph<String> graph;
+    private Vertex<String> a = new Vertex<>("a");
+    private Vertex<String> b = new Vertex<>("b");
+    private Vertex<String> c = new Vertex<>("c");
+    private Vertex<String> d = new Vertex<>("d");
+    private Vertex<String> e = new Vertex<>("e");
+
+    @Before
+    public void setUp() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, true));
+        edges.add(new Edge<String>(a, c, 5, true));
+        edges.add(new Edge<String>(b, c, 1, true));
+        edges.add(new Edge<String>(c, d, 1, true));
+        edges.add(new Edge<String>(e, a, 1, true));
+        graph = new Graph<>(edges);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSearchesSeeChangedGraph() {
+        IndexedGraph<String> before = IndexedGraph.of(graph);
+        assertFalse(GraphAlgorithms.breadthFirstSearch(a, graph).contains(e));
+        graph.getAdjacencyList().get(d)
+                .add(new VertexDistancePair<String>(e, 1));
+        assertTrue(GraphAlgorithms.breadthFirstSearch(a, graph).contains(e));
+        assertEquals(4, (int) GraphAlgorithms.dijkstras(a, graph).get(e));
+        assertEquals(before.getArcCount() + 1,
+                IndexedGraph.of(graph).getArcCount());
+        Vertex<String> f = new Vertex<>("f");
+        Vertex<String> g = new Vertex<>("g");
+        graph.getEdgeList().add(new Edge<String>(d, f, 1, true));
+        graph.getAdjacencyList().get(a)
+                .add(new VertexDistancePair<String>(g, 2));
+        IndexedGraph<String> after = IndexedGraph.of(graph);
+        assertEquals(before.getVertexCount() + 2, after.getVertexCount());
+        assertEquals(0, after.getDegree(after.getId(f)));
+        assertEquals(0, after.getDegree(after.getId(g)));
+        assertEquals(2, (int) GraphAlgorithms.dijkstras(a, graph).get(g));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDistanceTo() {
+        DistanceTable<String> table = GraphAlgorithms.dijkstrasTable(a,
+                graph);
+        assertEquals(a, table.getSource());
+        assertEquals(0, table.distanceTo(a));
+        assertEquals(1, table.distanceTo(b));
+        assertEquals(2, table.distanceTo(c));
+        assertEquals(3, table.distanceTo(d));
+        assertEquals(DistanceTable.UNREACHABLE, table.distanceTo(e));
+        assertTrue(table.isReachable(d));
+        assertFalse(table.isReachable(e));
+        int id = table.getGraph().getId(c);
+        assertEquals(2, table.distanceTo(id));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testDistanceToMissingVertex() {
+        GraphAlgorithms.dijkstrasTable(a, graph)
+                .distanceTo(new Vertex<>("z"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMapView() {
+        Map<Vertex<String>, Integer> expected = new HashMap<>();
+        expected.put(a, 0);
+        expected.put(b, 1);
+        expected.put(c, 2);
+        expected.put(d, 3);
+        expected.put(e, Integer.MAX_VALUE);
+        Map<Vertex<String>, Integer> actual =
+                GraphAlgorithms.dijkstrasTable(a, graph).asMap();
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(null, actual.get(new Vertex<>("z")));
+        assertFalse(actual.containsKey("a"));
+        assertEquals(expected, GraphAlgorithms.dijkstras(a, graph));
+    }
+
+    @Test(timeout = TIMEOUT, expected = UnsupportedOperationException.class)
+    public void testMapViewIsReadOnly() {
+        GraphAlgorithms.dijkstras(a, graph).put(a, 7);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testLongTableDoesNotOverflow() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, Integer.MAX_VALUE, true));
+        edges.add(new Edge<String>(b, c, Integer.MAX_VALUE, true));
+        Graph<String> heavy = new Graph<>(edges);
+
+        LongDistanceTable<String> table =
+                GraphAlgorithms.dijkstrasLongTable(a, heavy);
+        assertEquals(Integer.MAX_VALUE, table.distanceTo(b));
+        assertEquals(2L * Integer.MAX_VALUE, table.distanceTo(c));
+        assertEquals(Long.valueOf(2L * Integer.MAX_VALUE),
+                table.asMap().get(c));
+
+        DistanceTable<String> clamped = GraphAlgorithms.dijkstrasTable(a,
+                heavy);
+        assertEquals(DistanceTable.UNREACHABLE, clamped.distanceTo(c));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingStart() {
+        GraphAlgorithms.dijkstrasTable(new Vertex<>("z"), graph);
+    }
+}
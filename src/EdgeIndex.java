@@ -0,0 +1,234 @@
+import java.util.Arrays;
+
+/**
+ * Constant time edge lookups for an {@link IndexedGraph}: whether there is
+ * an edge from u to v, its weight, and where it is in the graph's arrays.
+ *
+ * The index is an open addressing hash table keyed by the pair of vertex
+ * ids packed into one long, probed linearly and kept at most half full,
+ * so a lookup is a hash and a few adjacent array reads whatever the
+ * degrees of u and v. Only ids are hashed; Edge's own hash code, which
+ * collides whenever the endpoints and weight XOR to the same value, is
+ * never used.
+ *
+ * Lookups follow the adjacency entries of the graph, so an undirected
+ * edge is found from either end and a directed edge only from its tail.
+ * When several edges join the same pair the index keeps the lightest,
+ * and of equally light ones the first in the graph's arrays.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class EdgeIndex<T> {
+
+    private static final long EMPTY = -1L;
+
+    /**
+     * The largest table, the largest power of two an array can hold; at
+     * most half of it is used, so at most {@code MAX_CAPACITY / 2} arcs
+     * can be indexed.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final IndexedGraph<T> graph;
+    private final long[] keys;
+    private final int[] arcs;
+    private final int mask;
+    private final int size;
+
+    /**
+     * Builds the edge index of a graph.
+     *
+     * @throws IllegalArgumentException if the graph is null or has more
+     *         than {@code MAX_CAPACITY / 2} adjacency entries
+     * @param graph the graph to index
+     */
+    public EdgeIndex(IndexedGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        this.graph = graph;
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int capacity = capacityFor(targets.length);
+        keys = new long[capacity];
+        arcs = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        int count = 0;
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                long key = key(u, targets[i]);
+                int slot = slot(key);
+                if (keys[slot] == EMPTY) {
+                    keys[slot] = key;
+                    arcs[slot] = i;
+                    count++;
+                } else if (weights[i] < weights[arcs[slot]]) {
+                    arcs[slot] = i;
+                }
+            }
+        }
+        size = count;
+    }
+
+    /**
+     * Gets the size of the table for a number of adjacency entries: twice
+     * the smallest power of two that holds them, so the table is at most
+     * half full.
+     *
+     * @throws IllegalArgumentException if the table would be larger than
+     *         {@code MAX_CAPACITY}
+     * @param arcs the number of adjacency entries
+     * @return the number of slots
+     */
+    static int capacityFor(long arcs) {
+        long capacity = Long.highestOneBit(Math.max(2, arcs) * 2 - 1) << 1;
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Graph has too many edges to "
+                    + "index");
+        }
+        return (int) capacity;
+    }
+
+    /**
+     * Builds the edge index of a graph's indexed form.
+     *
+     * @throws IllegalArgumentException if the graph is null or has more
+     *         than {@code MAX_CAPACITY / 2} adjacency entries
+     * @param graph the graph to index
+     * @param <T> the data type representing the vertices in the graph
+     * @return the edge index
+     */
+    public static <T> EdgeIndex<T> of(Graph<T> graph) {
+        return new EdgeIndex<T>(IndexedGraph.of(graph));
+    }
+
+    /**
+     * Packs a pair of ids into a key.
+     *
+     * @param u the id of the tail
+     * @param v the id of the head
+     * @return the key
+     */
+    private static long key(int u, int v) {
+        return (long) u << Integer.SIZE | v;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it would go.
+     *
+     * @param key the key
+     * @return the slot
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        int slot = (int) (hash ^ hash >>> Integer.SIZE) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Gets the position of the edge from u to v in the graph's targets and
+     * weights arrays.
+     *
+     * @param u the id of the tail
+     * @param v the id of the head
+     * @return the position of the lightest such edge, or -1 if there is
+     *         none or either id is out of range
+     */
+    public int edgeId(int u, int v) {
+        int n = graph.getVertexCount();
+        if (u < 0 || u >= n || v < 0 || v >= n) {
+            return -1;
+        }
+        int slot = slot(key(u, v));
+        return keys[slot] == EMPTY ? -1 : arcs[slot];
+    }
+
+    /**
+     * Gets the position of the edge from u to v in the graph's targets and
+     * weights arrays.
+     *
+     * @param u the tail
+     * @param v the head
+     * @return the position of the lightest such edge, or -1 if there is
+     *         none or either vertex is not in the graph
+     */
+    public int edgeId(Vertex<T> u, Vertex<T> v) {
+        return edgeId(graph.getId(u), graph.getId(v));
+    }
+
+    /**
+     * Gets whether there is an edge from u to v.
+     *
+     * @param u the id of the tail
+     * @param v the id of the head
+     * @return true if there is such an edge
+     */
+    public boolean hasEdge(int u, int v) {
+        return edgeId(u, v) >= 0;
+    }
+
+    /**
+     * Gets whether there is an edge from u to v.
+     *
+     * @param u the tail
+     * @param v the head
+     * @return true if there is such an edge
+     */
+    public boolean hasEdge(Vertex<T> u, Vertex<T> v) {
+        return edgeId(u, v) >= 0;
+    }
+
+    /**
+     * Gets the weight of the edge from u to v.
+     *
+     * @throws IllegalArgumentException if there is no such edge
+     * @param u the id of the tail
+     * @param v the id of the head
+     * @return the weight of the lightest such edge
+     */
+    public int weight(int u, int v) {
+        int arc = edgeId(u, v);
+        if (arc < 0) {
+            throw new IllegalArgumentException("Edge does not exist in graph");
+        }
+        return graph.getWeights()[arc];
+    }
+
+    /**
+     * Gets the weight of the edge from u to v.
+     *
+     * @throws IllegalArgumentException if there is no such edge
+     * @param u the tail
+     * @param v the head
+     * @return the weight of the lightest such edge
+     */
+    public int weight(Vertex<T> u, Vertex<T> v) {
+        return weight(graph.getId(u), graph.getId(v));
+    }
+
+    /**
+     * Gets the number of distinct ordered pairs joined by an edge. An
+     * undirected edge between two different vertices counts twice.
+     *
+     * @return the number of pairs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the graph this index is for.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+}
@@ -0,0 +1,152 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for EdgeIndex.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class EdgeIndexTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testMatchesScan() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(150, 600, 1)
+                    : GraphGenerators.erdosRenyi(150, 600, 1);
+            EdgeIndex<Integer> index = EdgeIndex.of(graph);
+            IndexedGraph<Integer> indexed = index.getGraph();
+            int pairs = 0;
+            for (int u = 0; u < 150; u++) {
+                for (int v = 0; v < 150; v++) {
+                    int expected = scan(indexed, u, v);
+                    assertEquals(expected, index.edgeId(u, v));
+                    assertEquals(expected >= 0, index.hasEdge(
+                            indexed.getVertex(u), indexed.getVertex(v)));
+                    if (expected >= 0) {
+                        pairs++;
+                        assertEquals(indexed.getWeights()[expected],
+                                index.weight(indexed.getVertex(u),
+                                        indexed.getVertex(v)));
+                        assertEquals(v, indexed.getTargets()[expected]);
+                        if (!directed) {
+                            assertTrue(index.hasEdge(v, u));
+                            assertEquals(index.weight(u, v),
+                                    index.weight(v, u));
+                        }
+                    }
+                }
+            }
+            assertEquals(pairs, index.size());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testParallelEdges() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 9, true));
+        edges.add(new Edge<String>(a, b, 4, true));
+        edges.add(new Edge<String>(a, b, 4, false));
+        edges.add(new Edge<String>(b, c, 2, true));
+        EdgeIndex<String> index = EdgeIndex.of(new Graph<String>(edges));
+        assertEquals(4, index.weight(a, b));
+        assertEquals(1, index.edgeId(a, b));
+        assertEquals(4, index.weight(b, a));
+        assertTrue(index.hasEdge(b, c));
+        assertFalse(index.hasEdge(c, b));
+        assertFalse(index.hasEdge(a, c));
+        assertEquals(3, index.size());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testHub() {
+        Random random = new Random(2);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 50001; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 1; i < vertices.size(); i++) {
+            edges.add(new Edge<Integer>(vertices.get(0), vertices.get(i),
+                    random.nextInt(), false));
+        }
+        EdgeIndex<Integer> index = EdgeIndex.of(new Graph<Integer>(edges));
+        for (int i = 1; i < vertices.size(); i++) {
+            assertTrue(index.hasEdge(vertices.get(0), vertices.get(i)));
+            assertTrue(index.hasEdge(vertices.get(i), vertices.get(0)));
+            assertFalse(index.hasEdge(vertices.get(i),
+                    vertices.get(i % 50000 + 1)));
+        }
+        assertEquals(100000, index.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMissing() {
+        EdgeIndex<Integer> index = EdgeIndex.of(
+                GraphGenerators.path(5, 3));
+        assertEquals(-1, index.edgeId(-1, 0));
+        assertEquals(-1, index.edgeId(0, 5));
+        assertFalse(index.hasEdge(new Vertex<>(0), new Vertex<>(99)));
+        assertFalse(index.hasEdge(null, new Vertex<>(0)));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingWeight() {
+        EdgeIndex.of(GraphGenerators.path(5, 3)).weight(new Vertex<>(0),
+                new Vertex<>(99));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCapacity() {
+        assertEquals(4, EdgeIndex.capacityFor(0));
+        assertEquals(8, EdgeIndex.capacityFor(3));
+        assertEquals(8, EdgeIndex.capacityFor(4));
+        assertEquals(EdgeIndex.MAX_CAPACITY,
+                EdgeIndex.capacityFor(EdgeIndex.MAX_CAPACITY / 2));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testTooManyArcs() {
+        EdgeIndex.capacityFor(EdgeIndex.MAX_CAPACITY / 2 + 1);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        new EdgeIndex<Integer>(null);
+    }
+
+    /**
+     * Finds the lightest edge from u to v by scanning u's neighbors.
+     *
+     * @param graph the graph
+     * @param u the tail
+     * @param v the head
+     * @return the position of the lightest, first such edge, or -1
+     */
+    private static int scan(IndexedGraph<?> graph, int u, int v) {
+        int best = -1;
+        for (int i = graph.getOffsets()[u]; i < graph.getOffsets()[u + 1];
+                i++) {
+            if (graph.getTargets()[i] == v && (best < 0
+                    || graph.getWeights()[i] < graph.getWeights()[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+}
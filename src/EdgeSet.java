@@ -0,0 +1,133 @@
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A hash set of edges that does not rely on {@link Edge#hashCode()}.
+ *
+ * Edge hashes its endpoints with XOR, so edges between vertices with
+ * similar hashes (consecutive Integers, for example) all land in a handful
+ * of buckets and a HashSet of them degrades to linear time per operation.
+ * This set mixes the endpoint hashes before combining them. Membership is
+ * still decided by {@link Edge#equals(Object)}, and equals and hashCode
+ * follow the {@link java.util.Set} contract, so it is interchangeable with
+ * any other set of edges.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public class EdgeSet<T> extends AbstractSet<Edge<T>> {
+
+    private final Map<Key, Edge<T>> edges;
+
+    /**
+     * Creates an empty set.
+     */
+    public EdgeSet() {
+        edges = new HashMap<Key, Edge<T>>();
+    }
+
+    /**
+     * Creates an empty set with room for the given number of edges.
+     *
+     * @param expected the expected number of edges
+     */
+    public EdgeSet(int expected) {
+        edges = new HashMap<Key, Edge<T>>(Math.max(16,
+                (int) (expected / 0.75f) + 1));
+    }
+
+    @Override
+    public boolean add(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("Cannot add a null edge");
+        }
+        return edges.putIfAbsent(new Key(edge), edge) == null;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Edge && edges.containsKey(new Key((Edge<?>) o));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Edge && edges.remove(new Key((Edge<?>) o)) != null;
+    }
+
+    @Override
+    public Iterator<Edge<T>> iterator() {
+        return edges.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return edges.size();
+    }
+
+    @Override
+    public void clear() {
+        edges.clear();
+    }
+
+    /**
+     * Gets a well distributed hash code for an edge, consistent with
+     * {@link Edge#equals(Object)}. Undirected edges hash symmetrically
+     * because Edge considers (u, v) and (v, u) equal.
+     *
+     * @param edge the edge
+     * @return the hash code
+     */
+    static int hash(Edge<?> edge) {
+        int u = mix(edge.getU() == null ? 0 : edge.getU().hashCode());
+        int v = mix(edge.getV() == null ? 0 : edge.getV().hashCode());
+        int ends = edge.isDirected() ? 31 * u + v : u + v;
+        return mix(ends + 0x9e3779b9 * edge.getWeight())
+                ^ (edge.isDirected() ? 1 : 0);
+    }
+
+    /**
+     * Spreads the bits of a hash code (the murmur3 finalizer).
+     *
+     * @param h the hash code
+     * @return the mixed hash code
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Wraps an edge with a well distributed hash code.
+     */
+    private static final class Key {
+        private final Edge<?> edge;
+        private final int hash;
+
+        /**
+         * Creates the key of an edge.
+         *
+         * @param edge the edge
+         */
+        private Key(Edge<?> edge) {
+            this.edge = edge;
+            this.hash = EdgeSet.hash(edge);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && edge.equals(((Key) o).edge);
+        }
+    }
+}
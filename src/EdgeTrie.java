@@ -0,0 +1,377 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable set of edges stored as a hash array mapped trie.
+ *
+ * Each level of the trie uses five bits of {@link EdgeSet#hash(Edge)} to
+ * pick one of up to 32 children, and a node only stores the children that
+ * exist, found through a bitmap. Adding or removing an edge copies the
+ * nodes on the path to it, at most seven, and shares every other node with
+ * the previous version, so versions of a large set are cheap to make and
+ * to keep.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+final class EdgeTrie<T> implements Iterable<Edge<T>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int HASH_BITS = 32;
+    // seven levels of nodes, then a level of collisions
+    private static final int MAX_DEPTH = HASH_BITS / BITS + 2;
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Creates a trie.
+     *
+     * @param root the root node
+     * @param size the number of edges
+     */
+    private EdgeTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets an empty trie.
+     *
+     * @param <T> the data type representing the vertices in the graph
+     * @return the empty trie
+     */
+    static <T> EdgeTrie<T> empty() {
+        return new EdgeTrie<T>(EMPTY_NODE, 0);
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the trie contains an edge equal to the given one.
+     *
+     * @param edge the edge
+     * @return true if the edge is in the trie
+     */
+    boolean contains(Edge<?> edge) {
+        int hash = EdgeSet.hash(edge);
+        Object current = root;
+        for (int shift = 0; current != null; shift += BITS) {
+            if (current instanceof Node) {
+                Node node = (Node) current;
+                int bit = 1 << ((hash >>> shift) & MASK);
+                if ((node.bitmap & bit) == 0) {
+                    return false;
+                }
+                current = node.slots[node.index(bit)];
+            } else if (current instanceof Collision) {
+                for (Object e : ((Collision) current).edges) {
+                    if (e.equals(edge)) {
+                        return true;
+                    }
+                }
+                return false;
+            } else {
+                return current.equals(edge);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets this trie with an edge added.
+     *
+     * @param edge the edge
+     * @return the new trie, or this trie if the edge is already in it
+     */
+    EdgeTrie<T> with(Edge<T> edge) {
+        Node added = (Node) with(root, edge, EdgeSet.hash(edge), 0);
+        return added == root ? this : new EdgeTrie<T>(added, size + 1);
+    }
+
+    /**
+     * Gets this trie with an edge removed.
+     *
+     * @param edge the edge
+     * @return the new trie, or this trie if the edge is not in it
+     */
+    EdgeTrie<T> without(Edge<?> edge) {
+        Object removed = without(root, edge, EdgeSet.hash(edge), 0);
+        if (removed == root) {
+            return this;
+        }
+        return new EdgeTrie<T>(removed == null ? EMPTY_NODE : (Node) removed,
+                size - 1);
+    }
+
+    /**
+     * Adds an edge below a trie entry.
+     *
+     * @param entry a node, collision or edge
+     * @param edge the edge to add
+     * @param hash the hash of the edge
+     * @param shift the number of hash bits used above the entry
+     * @return the new entry, or the same entry if the edge is present
+     */
+    private static Object with(Object entry, Object edge, int hash,
+            int shift) {
+        if (entry instanceof Collision) {
+            Collision collision = (Collision) entry;
+            for (Object e : collision.edges) {
+                if (e.equals(edge)) {
+                    return entry;
+                }
+            }
+            Object[] edges = Arrays.copyOf(collision.edges,
+                    collision.edges.length + 1);
+            edges[collision.edges.length] = edge;
+            return new Collision(edges);
+        }
+        Node node = (Node) entry;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        int index = node.index(bit);
+        if ((node.bitmap & bit) == 0) {
+            Object[] slots = new Object[node.slots.length + 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            slots[index] = edge;
+            System.arraycopy(node.slots, index, slots, index + 1,
+                    node.slots.length - index);
+            return new Node(node.bitmap | bit, slots);
+        }
+        Object child = node.slots[index];
+        Object replacement;
+        if (!isEdge(child)) {
+            replacement = with(child, edge, hash, shift + BITS);
+        } else if (child.equals(edge)) {
+            return node;
+        } else {
+            replacement = pair(child, EdgeSet.hash((Edge<?>) child), edge,
+                    hash, shift + BITS);
+        }
+        if (replacement == child) {
+            return node;
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new Node(node.bitmap, slots);
+    }
+
+    /**
+     * Builds the smallest subtrie holding two different edges.
+     *
+     * @param a one edge
+     * @param hashA the hash of a
+     * @param b the other edge
+     * @param hashB the hash of b
+     * @param shift the number of hash bits already used
+     * @return the subtrie
+     */
+    private static Object pair(Object a, int hashA, Object b, int hashB,
+            int shift) {
+        if (shift >= HASH_BITS) {
+            return new Collision(new Object[] {a, b});
+        }
+        int indexA = (hashA >>> shift) & MASK;
+        int indexB = (hashB >>> shift) & MASK;
+        if (indexA == indexB) {
+            return new Node(1 << indexA, new Object[] {
+                pair(a, hashA, b, hashB, shift + BITS)});
+        }
+        Object[] slots = indexA < indexB ? new Object[] {a, b}
+                : new Object[] {b, a};
+        return new Node((1 << indexA) | (1 << indexB), slots);
+    }
+
+    /**
+     * Removes an edge below a trie entry. A node or collision below the
+     * root that is left with a single edge is replaced by that edge, so the
+     * trie stays as shallow as possible. Collisions are never moved up,
+     * since they are only valid once every hash bit is used.
+     *
+     * @param entry a node, collision or edge
+     * @param edge the edge to remove
+     * @param hash the hash of the edge
+     * @param shift the number of hash bits used above the entry
+     * @return the new entry, null if nothing is left, or the same entry if
+     *         the edge is not present
+     */
+    private static Object without(Object entry, Object edge, int hash,
+            int shift) {
+        if (entry instanceof Collision) {
+            Object[] edges = ((Collision) entry).edges;
+            for (int i = 0; i < edges.length; i++) {
+                if (edges[i].equals(edge)) {
+                    if (edges.length == 2) {
+                        return edges[1 - i];
+                    }
+                    Object[] rest = new Object[edges.length - 1];
+                    System.arraycopy(edges, 0, rest, 0, i);
+                    System.arraycopy(edges, i + 1, rest, i, rest.length - i);
+                    return new Collision(rest);
+                }
+            }
+            return entry;
+        }
+        Node node = (Node) entry;
+        int bit = 1 << ((hash >>> shift) & MASK);
+        if ((node.bitmap & bit) == 0) {
+            return node;
+        }
+        int index = node.index(bit);
+        Object child = node.slots[index];
+        Object replacement;
+        if (!isEdge(child)) {
+            replacement = without(child, edge, hash, shift + BITS);
+            if (replacement == child) {
+                return node;
+            }
+        } else if (child.equals(edge)) {
+            replacement = null;
+        } else {
+            return node;
+        }
+        if (replacement == null) {
+            if (node.slots.length == 1) {
+                return null;
+            }
+            Object[] slots = new Object[node.slots.length - 1];
+            System.arraycopy(node.slots, 0, slots, 0, index);
+            System.arraycopy(node.slots, index + 1, slots, index,
+                    slots.length - index);
+            if (slots.length == 1 && isEdge(slots[0]) && shift > 0) {
+                return slots[0];
+            }
+            return new Node(node.bitmap & ~bit, slots);
+        }
+        if (node.slots.length == 1 && isEdge(replacement) && shift > 0) {
+            return replacement;
+        }
+        Object[] slots = node.slots.clone();
+        slots[index] = replacement;
+        return new Node(node.bitmap, slots);
+    }
+
+    /**
+     * Gets whether a trie entry is a single edge.
+     *
+     * @param entry a node, collision or edge
+     * @return true if the entry is an edge
+     */
+    private static boolean isEdge(Object entry) {
+        return !(entry instanceof Node) && !(entry instanceof Collision);
+    }
+
+    @Override
+    public Iterator<Edge<T>> iterator() {
+        return new Iterator<Edge<T>>() {
+            private final Object[][] arrays = new Object[MAX_DEPTH][];
+            private final int[] positions = new int[arrays.length];
+            private int depth;
+            private Object next;
+
+            {
+                arrays[0] = root.slots;
+                advance();
+            }
+
+            /**
+             * Moves to the next edge, depth first.
+             */
+            private void advance() {
+                next = null;
+                while (depth >= 0) {
+                    if (positions[depth] == arrays[depth].length) {
+                        depth--;
+                        continue;
+                    }
+                    Object entry = arrays[depth][positions[depth]++];
+                    if (entry instanceof Node) {
+                        depth++;
+                        arrays[depth] = ((Node) entry).slots;
+                        positions[depth] = 0;
+                    } else if (entry instanceof Collision) {
+                        depth++;
+                        arrays[depth] = ((Collision) entry).edges;
+                        positions[depth] = 0;
+                    } else {
+                        next = entry;
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Edge<T> next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                Edge<T> edge = (Edge<T>) next;
+                advance();
+                return edge;
+            }
+        };
+    }
+
+    /**
+     * An inner node: a bitmap of the child positions in use and the
+     * children in position order.
+     */
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] slots;
+
+        /**
+         * Creates a node.
+         *
+         * @param bitmap the positions in use
+         * @param slots the children
+         */
+        private Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        /**
+         * Gets the slot of a position.
+         *
+         * @param bit the bit of the position
+         * @return the index in slots
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+    }
+
+    /**
+     * Different edges whose hashes are entirely equal.
+     */
+    private static final class Collision {
+        private final Object[] edges;
+
+        /**
+         * Creates a collision.
+         *
+         * @param edges the edges
+         */
+        private Collision(Object[] edges) {
+            this.edges = edges;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event emitted around every GraphAlgorithms call and
+ * every run of the whole-graph algorithms built on it.
+ *
+ * The event is disabled by default. Enable it in a recording with
+ * {@code jfr configure} or a settings file, for example
+ * {@code -XX:StartFlightRecording:settings=graphing.jfc} where the file
+ * sets {@code graphing.GraphAlgorithm#enabled=true}. Without a running
+ * Flight Recorder the event class is never even loaded, and with one the
+ * fields are only computed when the event is enabled.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+@Name("graphing.GraphAlgorithm")
+@Label("Graph Algorithm")
+@Category("Graphing")
+@Description("Execution of a graph algorithm")
+@Enabled(false)
+@StackTrace(false)
+public final class GraphAlgorithmEvent extends Event {
+
+    @Label("Algorithm")
+    @Description("Name of the algorithm, such as bfs, dfs, dijkstras, "
+            + "prims, dag, sp-bfs, k-hop, k-shortest, apsp-fw, "
+            + "apsp-repeated, betweenness, betweenness-est, triangles, "
+            + "hyperball or reachability; a -filtered, -indexed or "
+            + "-compressed suffix (dijk- for dijkstras) names the graph "
+            + "form searched")
+    private String algorithm;
+
+    @Label("Vertex Count")
+    private int vertexCount;
+
+    @Label("Edge Count")
+    private int edgeCount;
+
+    @Label("Start Vertex")
+    private String startVertex;
+
+    @Label("Result Size")
+    @Description("Vertices visited or reached, edges in the MST, paths "
+            + "found, hops, sources, vertices or triangles, depending on "
+            + "the algorithm")
+    private int resultSize;
+
+    /**
+     * Creates and starts the timing of an event. Callers check
+     * {@code FlightRecorder.isInitialized()} first: loading this class
+     * initializes Flight Recorder support, which takes far longer than the
+     * algorithms themselves when no recording is running.
+     *
+     * @return the started event
+     */
+    static GraphAlgorithmEvent started() {
+        GraphAlgorithmEvent event = new GraphAlgorithmEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the timing of this event and commits it if the event is enabled
+     * and over its threshold. The graph is only inspected when committing.
+     *
+     * @param name the name of the algorithm
+     * @param graph the graph the algorithm ran on
+     * @param start the start vertex, or null if there is none
+     * @param size the size of the result
+     */
+    void finish(String name, Graph<?> graph, Vertex<?> start, int size) {
+        end();
+        if (shouldCommit()) {
+            algorithm = name;
+            vertexCount = graph.getAdjacencyList().size();
+            edgeCount = graph.getEdgeList().size();
+            startVertex = start == null ? null : String.valueOf(start);
+            resultSize = size;
+            commit();
+        }
+    }
+
+    /**
+     * Ends the timing of this event like
+     * {@link #finish(String, Graph, Vertex, int)} for an algorithm that ran
+     * on an array based form of a graph. An undirected graph's edges are
+     * counted once.
+     *
+     * @param name the name of the algorithm
+     * @param graph the graph the algorithm ran on
+     * @param start the start vertex, or null if there is none
+     * @param size the size of the result
+     */
+    void finish(String name, IndexedVertices<?> graph, Vertex<?> start,
+            int size) {
+        end();
+        if (shouldCommit()) {
+            algorithm = name;
+            vertexCount = graph.getVertexCount();
+            edgeCount = graph.isDirected() ? graph.getArcCount()
+                    : graph.getArcCount() / 2;
+            startVertex = start == null ? null : String.valueOf(start);
+            resultSize = size;
+            commit();
+        }
+    }
+}
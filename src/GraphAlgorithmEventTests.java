@@ -0,0 +1,125 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the Flight Recorder events emitted by GraphAlgorithms.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphAlgorithmEventTests {
+
+    private static final int TIMEOUT = 20000;
+    private Graph<String> graph;
+    private Vertex<String> a = new Vertex<>("a");
+    private Vertex<String> b = new Vertex<>("b");
+    private Vertex<String> c = new Vertex<>("c");
+    private Vertex<String> d = new Vertex<>("d");
+
+    @Before
+    public void setUp() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, false));
+        edges.add(new Edge<String>(a, c, 5, false));
+        edges.add(new Edge<String>(b, d, 1, false));
+        graph = new Graph<>(edges);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDisabledByDefault() throws IOException {
+        List<RecordedEvent> events = record(false, false);
+        assertEquals(0, events.size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testAlgorithmEvents() throws IOException {
+        List<RecordedEvent> events = record(true, false);
+        assertEquals(6, events.size());
+        RecordedEvent bfs = events.get(0);
+        assertEquals("graphing.GraphAlgorithm", bfs.getEventType().getName());
+        assertEquals("bfs", bfs.getString("algorithm"));
+        assertEquals(4, bfs.getInt("vertexCount"));
+        assertEquals(3, bfs.getInt("edgeCount"));
+        assertEquals("a", bfs.getString("startVertex"));
+        assertEquals(4, bfs.getInt("resultSize"));
+        assertEquals("prims", events.get(3).getString("algorithm"));
+        assertEquals(3, events.get(3).getInt("resultSize"));
+        assertEquals("dijk-filtered", events.get(4).getString("algorithm"));
+        assertEquals("prims-filtered", events.get(5).getString("algorithm"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBfsLevelEvents() throws IOException {
+        List<RecordedEvent> events = record(false, true);
+        List<RecordedEvent> levels = new ArrayList<>();
+        for (RecordedEvent event : events) {
+            if ("bfs".equals(event.getString("algorithm"))) {
+                levels.add(event);
+            }
+        }
+        // levels {a}, {b, c} and {d}
+        assertEquals(3, levels.size());
+        assertEquals(0, levels.get(0).getInt("phase"));
+        assertEquals(1, levels.get(0).getInt("settled"));
+        assertEquals(2, levels.get(0).getInt("frontierSize"));
+        assertEquals(2, levels.get(1).getInt("settled"));
+        assertEquals(1, levels.get(2).getInt("settled"));
+        assertEquals(0, levels.get(2).getInt("frontierSize"));
+        assertTrue(events.size() > levels.size());
+    }
+
+    /**
+     * Runs every algorithm once inside a recording and reads the graphing
+     * events back, in commit order.
+     *
+     * @param algorithms whether to enable the algorithm event
+     * @param phases whether to enable the phase event
+     * @return the recorded events
+     * @throws IOException if the recording cannot be written or read
+     */
+    private List<RecordedEvent> record(boolean algorithms, boolean phases)
+            throws IOException {
+        Path file = Files.createTempFile("graphing", ".jfr");
+        try (Recording recording = new Recording()) {
+            if (algorithms) {
+                recording.enable(GraphAlgorithmEvent.class);
+            }
+            if (phases) {
+                recording.enable(GraphPhaseEvent.class);
+            }
+            recording.start();
+            GraphAlgorithms.breadthFirstSearch(a, graph);
+            GraphAlgorithms.depthFirstSearch(a, graph);
+            GraphAlgorithms.dijkstras(a, graph);
+            GraphAlgorithms.prims(a, graph);
+            SubgraphView<String> view = SubgraphView.of(graph);
+            GraphAlgorithms.filteredDijkstras(a, view);
+            GraphAlgorithms.filteredPrims(a, view);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = new ArrayList<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            if (event.getEventType().getName().startsWith("graphing.")) {
+                events.add(event);
+            }
+        }
+        events.sort((x, y) -> x.getStartTime().compareTo(y.getStartTime()));
+        Files.delete(file);
+        return events;
+    }
+}
@@ -1,22 +1,41 @@
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.Set;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import jdk.jfr.FlightRecorder;
 
 /**
  * Your implementations of various graph algorithms.
  *
+ * The searches run on {@link IndexedGraph#of(Graph)}, which indexes the
+ * graph as it is at each call, so changes made through its adjacency map
+ * or edge set are always seen. The indexed forms of the searches take an
+ * IndexedGraph built once, for many searches on a graph that no longer
+ * changes.
+ *
  * @author jredston3
  * @version 1.0
  */
 public class GraphAlgorithms {
 
+    /**
+     * The number of adjacency entries below which parallel passes run on
+     * the calling thread instead.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The number of vertices handled by one task of a parallel pass.
+     */
+    private static final int CHUNK_SIZE = 4096;
+
     /**
      * Perform breadth first search on the given graph, starting at the start
      * Vertex. You will return a List of the vertices in the order that you
@@ -44,250 +63,1865 @@ public class GraphAlgorithms {
      */
     public static <T> List<Vertex<T>> breadthFirstSearch(Vertex<T> start,
             Graph<T> graph) {
-        if (start == null || graph == null) {
-            throw new IllegalArgumentException("Either start or graph is null");
-        }
-        if (graph.getAdjacencyList().get(start) == null) {
-            throw new IllegalArgumentException("Start does not exist in graph");
-        }
-        List<Vertex<T>> list = new ArrayList<Vertex<T>>();
-        Queue<Vertex<T>> queue = new LinkedList<Vertex<T>>();
-
-        queue.add(start);
-        while (queue.size() != 0) {
-            Vertex<T> temp = queue.poll();
-            if (!list.contains(temp)) {
-                list.add(temp);
-            }
-            for (VertexDistancePair<T> i : graph.getAdjacencyList().get(temp)) {
-                if (!list.contains(i.getVertex())) {
-                    queue.add(i.getVertex());
-                }
-            }
-        }
-        return list;
-
+        return breadthFirstSearch(start, graph, null);
     }
 
     /**
-     * Perform depth first search on the given graph, starting at the start
-     * Vertex. You will return a List of the vertices in the order that you
-     * visited them. Make sure to include the starting vertex at the beginning
-     * of the list.
+     * Perform breadth first search exactly as
+     * {@link #breadthFirstSearch(Vertex, Graph)} does, recording the work
+     * done in the given metrics.
      *
-     * When exploring a Vertex, make sure you explore in the order that the
-     * adjacency list returns the neighbors to you. Failure to do so may cause
-     * you to lose points.
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> breadthFirstSearch(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics) {
+        return breadthFirstSearch(start, graph, metrics,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Perform breadth first search exactly as
+     * {@link #breadthFirstSearch(Vertex, Graph)} does, recording the work
+     * done in the given metrics and keeping its scratch arrays in the given
+     * workspace, so that only the returned list is allocated.
      *
-     * You MUST implement this method recursively. Do not use any data structure
-     * as a stack to avoid recursion. Implementing it any other way WILL cause
-     * you to lose points!
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> breadthFirstSearch(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.breadthFirstSearch(indexed, null,
+                indexed.getId(start), "bfs", metrics, workspace);
+    }
+
+    /**
+     * Perform breadth first search on an indexed graph, which may have been
+     * renumbered with {@link IndexedGraph#reorder(VertexOrdering)}. The
+     * search visits the same vertices as
+     * {@link #breadthFirstSearch(Vertex, Graph)} on the graph it was built
+     * from, in the order of the indexed graph's neighbor lists.
      *
-     * You may import/use {@code java.util.Set}, {@code java.util.Map},
-     * {@code java.util.List}, and any classes that implement the aforementioned
-     * interfaces.
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the indexed graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> indexedBreadthFirstSearch(
+            Vertex<T> start, IndexedGraph<T> graph) {
+        return indexedBreadthFirstSearch(start, graph,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Perform breadth first search on an indexed graph exactly as
+     * {@link #indexedBreadthFirstSearch(Vertex, IndexedGraph)} does,
+     * keeping its scratch arrays in the given workspace.
      *
      * @throws IllegalArgumentException
-     *             if any input is null, or if {@code start} doesn't exist in
-     *             the graph
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
      * @param start
      *            the Vertex you are starting at
      * @param graph
-     *            the Graph we are searching
+     *            the indexed graph we are searching
+     * @param workspace
+     *            the workspace to search in
      * @param <T>
      *            the data type representing the vertices in the graph.
      * @return a List of vertices in the order that you visited them
      */
-    public static <T> List<Vertex<T>> depthFirstSearch(Vertex<T> start,
-            Graph<T> graph) {
+    public static <T> List<Vertex<T>> indexedBreadthFirstSearch(
+            Vertex<T> start, IndexedGraph<T> graph,
+            SearchWorkspace workspace) {
         if (start == null || graph == null) {
             throw new IllegalArgumentException("Either start or graph is null");
         }
-        if (graph.getAdjacencyList().get(start) == null) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int source = graph.getId(start);
+        if (source < 0) {
             throw new IllegalArgumentException("Start does not exist in graph");
         }
-        Stack<Vertex<T>> stack = new Stack<Vertex<T>>();
-        List<Vertex<T>> list = depthFirstSearch(graph, stack, start);
-        return list;
+        return IndexedSearch.breadthFirstSearch(graph, null, source,
+                "bfs-indexed", null, workspace);
+    }
 
+    /**
+     * Perform breadth first search on a compressed graph, decoding each
+     * neighbor list as it is scanned. The search visits the same vertices
+     * as {@link #breadthFirstSearch(Vertex, Graph)} on the graph it was
+     * built from, taking each vertex's neighbors in increasing id order.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the compressed graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> compressedBreadthFirstSearch(
+            Vertex<T> start, CompressedGraph<T> graph) {
+        return compressedBreadthFirstSearch(start, graph,
+                SearchWorkspace.current());
     }
 
     /**
-     * recursive part of dfs
-     * 
+     * Perform breadth first search on a compressed graph exactly as
+     * {@link #compressedBreadthFirstSearch(Vertex, CompressedGraph)} does,
+     * keeping its queue and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
      * @param graph
-     *            graph given
-     * @param stack
-     *            stack of vertex to search
-     * @param vertex
-     *            current vertex
+     *            the compressed graph we are searching
+     * @param workspace
+     *            the workspace to search in
      * @param <T>
      *            the data type representing the vertices in the graph.
-     * @return list of vertex searched thus far
+     * @return a List of vertices in the order that you visited them
      */
-    private static <T> List<Vertex<T>> depthFirstSearch(Graph<T> graph,
-            Stack<Vertex<T>> stack, Vertex<T> vertex) {
-        List<Vertex<T>> list = new ArrayList<Vertex<T>>();
-        stack.add(vertex);
-        list.add(vertex);
-        for (VertexDistancePair<T> pair : graph
-                .getAdjacencyList().get(vertex)) {
-            if (!stack.contains(pair.getVertex())) {
-                list.addAll(depthFirstSearch(graph, stack, pair.getVertex()));
+    public static <T> List<Vertex<T>> compressedBreadthFirstSearch(
+            Vertex<T> start, CompressedGraph<T> graph,
+            SearchWorkspace workspace) {
+        int source = compressedId(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int[] row = new int[graph.getMaxDegree()];
+        int[] queue = workspace.begin(graph.getVertexCount()).queue();
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        workspace.visit(source);
+        while (head < tail) {
+            int degree = graph.neighbors(queue[head++], row);
+            for (int i = 0; i < degree; i++) {
+                if (workspace.visit(row[i])) {
+                    queue[tail++] = row[i];
+                }
             }
         }
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>(tail);
+        for (int i = 0; i < tail; i++) {
+            list.add(graph.getVertex(queue[i]));
+        }
+        if (event != null) {
+            event.finish("bfs-compressed", graph, start, tail);
+        }
         return list;
-
     }
 
     /**
-     * Find the shortest distance between the start vertex and all other
-     * vertices given a weighted graph where the edges only have positive
-     * weights.
-     *
-     * Return a map of the shortest distances such that the key of each entry is
-     * a node in the graph and the value for the key is the shortest distance to
-     * that node from start, or Integer.MAX_VALUE (representing infinity) if no
-     * path exists. You may assume that going from a vertex to itself has a
-     * distance of 0.
+     * Find the shortest distances from start to every vertex of a
+     * compressed graph, decoding each neighbor list as it is scanned. The
+     * distances are those {@link #dijkstras(Vertex, Graph)} finds on the
+     * graph the compressed graph was built from.
      *
-     * There are guaranteed to be no negative edge weights in the graph.
-     *
-     * You may import/use {@code java.util.PriorityQueue}, {@code java.util.Map}
-     * , and any class that implements the aforementioned interface.
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the compressed graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a map of the shortest distances from start to every other node
+     *         in the graph
+     */
+    public static <T> Map<Vertex<T>, Integer> compressedDijkstras(
+            Vertex<T> start, CompressedGraph<T> graph) {
+        return compressedDijkstras(start, graph, SearchWorkspace.current());
+    }
+
+    /**
+     * Find the shortest distances on a compressed graph exactly as
+     * {@link #compressedDijkstras(Vertex, CompressedGraph)} does, keeping
+     * the heap and visited marks in the given workspace.
      *
      * @throws IllegalArgumentException
-     *             if any input is null, or if {@code start} doesn't exist in
-     *             the graph
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
      * @param start
      *            the Vertex you are starting at
      * @param graph
-     *            the Graph we are searching
+     *            the compressed graph we are searching
+     * @param workspace
+     *            the workspace to search in
      * @param <T>
      *            the data type representing the vertices in the graph.
-     * @return a map of the shortest distances from start to every other node in
-     *         the graph.
+     * @return a map of the shortest distances from start to every other node
+     *         in the graph
      */
-    public static <T> Map<Vertex<T>, Integer> dijkstras(Vertex<T> start,
-            Graph<T> graph) {
-        if (start == null || graph == null) {
-            throw new IllegalArgumentException("Either start or graph is null");
-        }
-        if (graph.getAdjacencyList().get(start) == null) {
-            throw new IllegalArgumentException("Start does not exist in graph");
+    public static <T> Map<Vertex<T>, Integer> compressedDijkstras(
+            Vertex<T> start, CompressedGraph<T> graph,
+            SearchWorkspace workspace) {
+        int source = compressedId(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
         }
-        // priority queue
-        PriorityQueue<VertexDistancePair<T>> queue =
-                new PriorityQueue<VertexDistancePair<T>>();
-        Map<Vertex<T>, Integer> distances = new HashMap<Vertex<T>, Integer>();
-        List<Vertex<T>> visted = new ArrayList<Vertex<T>>();
-        queue.add(new VertexDistancePair<T>(start, 0));
-        distances.put(start, 0);
-        while (queue.size() != 0) {
-            VertexDistancePair<T> temp = queue.poll();
-            visted.add(temp.getVertex());
-
-            for (VertexDistancePair<T> i : graph.getAdjacencyList().get(
-                    temp.getVertex())) {
-                if (!visted.contains(i.getVertex())) {
-                    if (distances.get(i.getVertex()) == null
-                            || distances.get(i.getVertex()) > i.getDistance()
-                                    + distances.get(temp.getVertex())) {
-                        distances.put(i.getVertex(), i.getDistance()
-                                + distances.get(temp.getVertex()));
-
-                    }
-                    queue.add(new VertexDistancePair<T>(i.getVertex(),
-                            distances.get(i.getVertex())));
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int n = graph.getVertexCount();
+        CompressedGraph<T>.Cursor cursor = graph.cursor();
+        int[] distances = new int[n];
+        Arrays.fill(distances, DistanceTable.UNREACHABLE);
+        IndexedMinHeap heap = workspace.begin(n).heap();
+        int reached = 0;
+        heap.insert(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            long distance = heap.getKey(u);
+            workspace.visit(u);
+            reached++;
+            distances[u] = (int) Math.min(distance,
+                    DistanceTable.UNREACHABLE);
+            cursor.reset(u);
+            while (cursor.next()) {
+                int v = cursor.target();
+                if (workspace.isVisited(v)) {
+                    continue;
+                }
+                long candidate = distance + cursor.weight();
+                if (!heap.contains(v)) {
+                    heap.insert(v, candidate);
+                } else if (candidate < heap.getKey(v)) {
+                    heap.decreaseKey(v, candidate);
                 }
-
             }
-
         }
-        return distances;
-
+        if (event != null) {
+            event.finish("dijk-compressed", graph, start, reached);
+        }
+        return new DistanceMapView<T, Integer>(graph, id -> distances[id]);
     }
 
     /**
-     * Run Prim's algorithm on the given graph and return the minimum spanning
-     * tree in the form of a set of Edges. If the graph is disconnected, and
-     * therefore there is no valid MST, return null.
-     *
-     * When exploring a Vertex, make sure you explore in the order that the
-     * adjacency list returns the neighbors to you. Failure to do so may cause
-     * you to lose points.
-     *
-     * You may assume that for a given starting vertex, there will only be one
-     * valid MST that can be formed. In addition, only an undirected graph will
-     * be passed in.
-     *
-     * You may import/use {@code java.util.PriorityQueue}, {@code java.util.Set}
-     * , and any class that implements the aforementioned interface.
+     * Validates the arguments of an algorithm on a compressed graph.
      *
      * @throws IllegalArgumentException
-     *             if any input is null, or if {@code start} doesn't exist in
-     *             the graph
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
      * @param start
-     *            the Vertex you are starting at
+     *            the start vertex
      * @param graph
-     *            the Graph we are searching
+     *            the graph
      * @param <T>
      *            the data type representing the vertices in the graph.
-     * @return the MST of the graph; null if no valid MST exists.
+     * @return the id of the start vertex
      */
-    public static <T> Set<Edge<T>> prims(Vertex<T> start, Graph<T> graph) {
+    private static <T> int compressedId(Vertex<T> start,
+            CompressedGraph<T> graph) {
         if (start == null || graph == null) {
             throw new IllegalArgumentException("Either start or graph is null");
         }
-        if (graph.getAdjacencyList().get(start) == null) {
+        int source = graph.getId(start);
+        if (source < 0) {
             throw new IllegalArgumentException("Start does not exist in graph");
         }
+        return source;
+    }
 
-        Set<Edge<T>> set = new HashSet<Edge<T>>();
-        List<Vertex<T>> visited = new ArrayList<Vertex<T>>();
+    /**
+     * Perform breadth first search on a subgraph view, skipping hidden
+     * vertices and edges as they are scanned. The search visits the same
+     * vertices in the same order as
+     * {@link #breadthFirstSearch(Vertex, Graph)} on a Graph rebuilt from the
+     * edges the view shows.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, or if {@code start} doesn't
+     *             exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> filteredBreadthFirstSearch(
+            Vertex<T> start, SubgraphView<T> view) {
+        return filteredBreadthFirstSearch(start, view,
+                SearchWorkspace.current());
+    }
 
-        PriorityQueue<Edge<T>> queue2 = new PriorityQueue<Edge<T>>();
-        queue2.add(new Edge<T>(null, start, 0, false));
-        int graphSize = 0;
-        Set<Vertex<T>> sizeArray = new HashSet<Vertex<T>>();
-        for (Edge<T> edge : graph.getEdgeList()) {
-            if (!sizeArray.contains(edge.getU())) {
-                sizeArray.add(edge.getU());
-                graphSize++;
-            }
-            if (!sizeArray.contains(edge.getV())) {
-                sizeArray.add(edge.getV());
-                graphSize++;
-            }
+    /**
+     * Perform breadth first search on a subgraph view exactly as
+     * {@link #filteredBreadthFirstSearch(Vertex, SubgraphView)} does, keeping
+     * its queue and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, or if {@code start}
+     *             doesn't exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> filteredBreadthFirstSearch(
+            Vertex<T> start, SubgraphView<T> view, SearchWorkspace workspace) {
+        int source = filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
         }
-        while (queue2.size() != 0 && visited.size() < graphSize) {
-            Edge<T> tempEdge = queue2.poll();
-            VertexDistancePair<T> tempPair = new VertexDistancePair<T>(
-                    tempEdge.getV(), tempEdge.getWeight());
-            if (tempEdge.getU() != null
-                    && !visited.contains(tempPair.getVertex())) {
-                set.add(tempEdge);
-            }
-            visited.add(tempPair.getVertex());
-
-            for (VertexDistancePair<T> pair : graph.getAdjacencyList().get(
-                    tempPair.getVertex())) {
-                if (!visited.contains(pair.getVertex())) {
-                    queue2.add(new Edge<T>(tempPair.getVertex(), pair
-                            .getVertex(), pair.getDistance(), false));
-                }
-            }
+        return IndexedSearch.breadthFirstSearch(view.getGraph(), view, source,
+                "bfs-filtered", null, workspace);
+    }
 
-        }
+    /**
+     * Perform depth first search on a subgraph view, skipping hidden
+     * vertices and edges as they are scanned. The search visits the same
+     * vertices in the same order as
+     * {@link #depthFirstSearch(Vertex, Graph)} on a Graph rebuilt from the
+     * edges the view shows, but keeps its path on an explicit stack, so
+     * graphs of any depth can be searched.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, or if {@code start} doesn't
+     *             exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> filteredDepthFirstSearch(
+            Vertex<T> start, SubgraphView<T> view) {
+        return filteredDepthFirstSearch(start, view,
+                SearchWorkspace.current());
+    }
 
-        if (visited.size() < graphSize) {
-            return null;
+    /**
+     * Perform depth first search on a subgraph view exactly as
+     * {@link #filteredDepthFirstSearch(Vertex, SubgraphView)} does, keeping
+     * its stack and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, or if {@code start}
+     *             doesn't exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> filteredDepthFirstSearch(
+            Vertex<T> start, SubgraphView<T> view, SearchWorkspace workspace) {
+        int source = filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
         }
+        return IndexedSearch.depthFirstSearch(view, source, workspace);
+    }
 
-        return set;
+    /**
+     * Find the shortest distances from start to every vertex of a subgraph
+     * view, skipping hidden vertices and edges as they are scanned. The
+     * distances are those {@link #dijkstras(Vertex, Graph)} finds on a
+     * Graph rebuilt from the edges the view shows; hidden vertices are
+     * unreachable.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, or if {@code start} doesn't
+     *             exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start, indexed by the ids of the
+     *         view's graph
+     */
+    public static <T> DistanceTable<T> filteredDijkstras(Vertex<T> start,
+            SubgraphView<T> view) {
+        return filteredDijkstras(start, view, SearchWorkspace.current());
+    }
 
+    /**
+     * Find the shortest distances on a subgraph view exactly as
+     * {@link #filteredDijkstras(Vertex, SubgraphView)} does, keeping the heap
+     * and visited marks in the given workspace, so that only the returned
+     * table is allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, or if {@code start}
+     *             doesn't exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start, indexed by the ids of the
+     *         view's graph
+     */
+    public static <T> DistanceTable<T> filteredDijkstras(Vertex<T> start,
+            SubgraphView<T> view, SearchWorkspace workspace) {
+        int source = filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        IndexedGraph<T> indexed = view.getGraph();
+        int[] distances = new int[indexed.getVertexCount()];
+        IndexedSearch.dijkstras(indexed, view, source, distances, null, null,
+                workspace);
+        return new DistanceTable<T>(indexed, source, distances);
     }
 
+    /**
+     * Validates the arguments of an algorithm on a subgraph view.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, or if {@code start} doesn't
+     *             exist in the graph or is hidden
+     * @param start
+     *            the start vertex
+     * @param view
+     *            the view
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the id of the start vertex
+     */
+    static <T> int filteredId(Vertex<T> start, SubgraphView<T> view) {
+        if (start == null || view == null) {
+            throw new IllegalArgumentException("Either start or view is null");
+        }
+        int source = view.getGraph().getId(start);
+        if (source < 0) {
+            throw new IllegalArgumentException("Start does not exist in graph");
+        }
+        if (!view.containsVertex(source)) {
+            throw new IllegalArgumentException("Start is hidden in the view");
+        }
+        return source;
+    }
 
+    /**
+     * Find every vertex within k hops of start, grouped by hop count. The
+     * search is a breadth first search that stops expanding at depth k, so
+     * its cost depends only on the size of the neighborhood, not of the
+     * graph. Level i of the result holds the vertices exactly i hops away,
+     * in the order {@link #breadthFirstSearch(Vertex, Graph)} visits them;
+     * level 0 is start itself. Levels after the last non-empty one are
+     * left out. Directed edges are followed forwards only.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, if {@code start} doesn't exist
+     *             in the graph, or if k is negative
+     * @param start
+     *            the Vertex you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> kHopNeighborhood(
+            Vertex<T> start, int k, Graph<T> graph) {
+        return kHopNeighborhood(start, k, graph, SearchWorkspace.current());
+    }
 
+    /**
+     * Find every vertex within k hops of start exactly as
+     * {@link #kHopNeighborhood(Vertex, int, Graph)} does, keeping the queue
+     * and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, if {@code start}
+     *             doesn't exist in the graph, or if k is negative
+     * @param start
+     *            the Vertex you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param graph
+     *            the Graph we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> kHopNeighborhood(
+            Vertex<T> start, int k, Graph<T> graph,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.kHopNeighborhood(indexed, null,
+                Collections.singletonList(start), k, start, workspace);
+    }
+
+    /**
+     * Find every vertex within k hops of start in a subgraph view, like
+     * {@link #kHopNeighborhood(Vertex, int, Graph)}, skipping hidden
+     * vertices and edges as they are scanned.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, if {@code start} doesn't exist
+     *             in the graph or is hidden, or if k is negative
+     * @param start
+     *            the Vertex you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> filteredKHopNeighborhood(
+            Vertex<T> start, int k, SubgraphView<T> view) {
+        return filteredKHopNeighborhood(start, k, view,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find every vertex within k hops of start in a subgraph view exactly
+     * as {@link #filteredKHopNeighborhood(Vertex, int, SubgraphView)} does,
+     * keeping the queue and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, if {@code start}
+     *             doesn't exist in the graph or is hidden, or if k is
+     *             negative
+     * @param start
+     *            the Vertex you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> filteredKHopNeighborhood(
+            Vertex<T> start, int k, SubgraphView<T> view,
+            SearchWorkspace workspace) {
+        filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.kHopNeighborhood(view.getGraph(), view,
+                Collections.singletonList(start), k, start, workspace);
+    }
+
+    /**
+     * Find every vertex within k hops of any of the given vertices, like
+     * {@link #kHopNeighborhood(Vertex, int, Graph)}. Level i of the result
+     * holds the vertices whose nearest start is exactly i hops away, so a
+     * vertex reached from several starts appears once. Level 0 holds the
+     * starts in iteration order, each once.
+     *
+     * @throws IllegalArgumentException
+     *             if starts or graph is null, if any start is null or
+     *             doesn't exist in the graph, or if k is negative
+     * @param starts
+     *            the Vertices you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> multiSourceKHopNeighborhood(
+            Collection<Vertex<T>> starts, int k, Graph<T> graph) {
+        return multiSourceKHopNeighborhood(starts, k, graph,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find every vertex within k hops of any of the given vertices exactly
+     * as {@link #multiSourceKHopNeighborhood(Collection, int, Graph)} does,
+     * keeping the queue and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if starts, graph or workspace is null, if any start is
+     *             null or doesn't exist in the graph, or if k is negative
+     * @param starts
+     *            the Vertices you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param graph
+     *            the Graph we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>> multiSourceKHopNeighborhood(
+            Collection<Vertex<T>> starts, int k, Graph<T> graph,
+            SearchWorkspace workspace) {
+        if (starts == null || graph == null) {
+            throw new IllegalArgumentException("Either starts or graph is "
+                    + "null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.kHopNeighborhood(IndexedGraph.of(graph), null,
+                starts, k, null, workspace);
+    }
+
+    /**
+     * Find every vertex within k hops of any of the given vertices in a
+     * subgraph view, like
+     * {@link #multiSourceKHopNeighborhood(Collection, int, Graph)},
+     * skipping hidden vertices and edges as they are scanned.
+     *
+     * @throws IllegalArgumentException
+     *             if starts or view is null, if any start is null, doesn't
+     *             exist in the graph or is hidden, or if k is negative
+     * @param starts
+     *            the Vertices you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>>
+            filteredMultiSourceKHopNeighborhood(Collection<Vertex<T>> starts,
+            int k, SubgraphView<T> view) {
+        return filteredMultiSourceKHopNeighborhood(starts, k, view,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find every vertex within k hops of any of the given vertices in a
+     * subgraph view exactly as
+     * {@link #filteredMultiSourceKHopNeighborhood(Collection, int,
+     * SubgraphView)} does, keeping the queue and visited marks in the given
+     * workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if starts, view or workspace is null, if any start is
+     *             null, doesn't exist in the graph or is hidden, or if k is
+     *             negative
+     * @param starts
+     *            the Vertices you are starting at
+     * @param k
+     *            the largest number of hops
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level, as unmodifiable lists
+     */
+    public static <T> List<List<Vertex<T>>>
+            filteredMultiSourceKHopNeighborhood(Collection<Vertex<T>> starts,
+            int k, SubgraphView<T> view, SearchWorkspace workspace) {
+        if (starts == null || view == null) {
+            throw new IllegalArgumentException("Either starts or view is "
+                    + "null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.kHopNeighborhood(view.getGraph(), view, starts,
+                k, null, workspace);
+    }
+
+    /**
+     * Perform depth first search on the given graph, starting at the start
+     * Vertex. You will return a List of the vertices in the order that you
+     * visited them. Make sure to include the starting vertex at the beginning
+     * of the list.
+     *
+     * When exploring a Vertex, make sure you explore in the order that the
+     * adjacency list returns the neighbors to you. Failure to do so may cause
+     * you to lose points.
+     *
+     * You MUST implement this method recursively. Do not use any data structure
+     * as a stack to avoid recursion. Implementing it any other way WILL cause
+     * you to lose points!
+     *
+     * You may import/use {@code java.util.Set}, {@code java.util.Map},
+     * {@code java.util.List}, and any classes that implement the aforementioned
+     * interfaces.
+     *
+     * @throws IllegalArgumentException
+     *             if any input is null, or if {@code start} doesn't exist in
+     *             the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> depthFirstSearch(Vertex<T> start,
+            Graph<T> graph) {
+        return depthFirstSearch(start, graph, null);
+    }
+
+    /**
+     * Perform depth first search exactly as
+     * {@link #depthFirstSearch(Vertex, Graph)} does, recording the work done
+     * in the given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> depthFirstSearch(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics) {
+        return depthFirstSearch(start, graph, metrics,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Perform depth first search exactly as
+     * {@link #depthFirstSearch(Vertex, Graph)} does, recording the work done
+     * in the given metrics and keeping its visited marks in the given
+     * workspace, so that only the returned list is allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a List of vertices in the order that you visited them
+     */
+    public static <T> List<Vertex<T>> depthFirstSearch(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        long begin = metrics == null ? 0 : System.nanoTime();
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>();
+        depthFirstSearch(indexed, workspace.begin(indexed.getVertexCount()),
+                list, indexed.getId(start), metrics, 1);
+        if (metrics != null) {
+            metrics.finished(System.nanoTime() - begin);
+        }
+        if (event != null) {
+            event.finish("dfs", graph, start, list.size());
+        }
+        return list;
+
+    }
+
+    /**
+     * recursive part of dfs
+     * 
+     * @param graph
+     *            indexed form of the graph given
+     * @param workspace
+     *            the workspace holding the vertices visited thus far
+     * @param list
+     *            list of vertex searched thus far, in visit order
+     * @param u
+     *            id of the current vertex
+     * @param metrics
+     *            the metrics to record into, or null
+     * @param depth
+     *            the recursion depth of this call
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     */
+    private static <T> void depthFirstSearch(IndexedGraph<T> graph,
+            SearchWorkspace workspace, List<Vertex<T>> list, int u,
+            AlgorithmMetrics metrics, int depth) {
+        workspace.visit(u);
+        list.add(graph.getVertex(u));
+        if (metrics != null) {
+            metrics.settled();
+            metrics.frontier(depth);
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            if (metrics != null) {
+                metrics.scanned();
+            }
+            if (!workspace.isVisited(targets[i])) {
+                if (metrics != null) {
+                    metrics.relaxed();
+                }
+                depthFirstSearch(graph, workspace, list, targets[i],
+                        metrics, depth + 1);
+            }
+        }
+
+    }
+
+    /**
+     * Find the shortest distance between the start vertex and all other
+     * vertices given a weighted graph where the edges only have positive
+     * weights.
+     *
+     * Return a map of the shortest distances such that the key of each entry is
+     * a node in the graph and the value for the key is the shortest distance to
+     * that node from start, or Integer.MAX_VALUE (representing infinity) if no
+     * path exists. You may assume that going from a vertex to itself has a
+     * distance of 0.
+     *
+     * There are guaranteed to be no negative edge weights in the graph.
+     *
+     * You may import/use {@code java.util.PriorityQueue}, {@code java.util.Map}
+     * , and any class that implements the aforementioned interface.
+     *
+     * @throws IllegalArgumentException
+     *             if any input is null, or if {@code start} doesn't exist in
+     *             the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a map of the shortest distances from start to every other node in
+     *         the graph.
+     */
+    public static <T> Map<Vertex<T>, Integer> dijkstras(Vertex<T> start,
+            Graph<T> graph) {
+        return dijkstras(start, graph, null);
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstras(Vertex, Graph)} does, recording the work done in the
+     * given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a map of the shortest distances from start to every other node in
+     *         the graph.
+     */
+    public static <T> Map<Vertex<T>, Integer> dijkstras(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics) {
+        return dijkstrasTable(start, graph, metrics).asMap();
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstras(Vertex, Graph)} does, recording the work done in the
+     * given metrics and keeping the heap and visited marks in the given
+     * workspace, so that only the returned distances are allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return a map of the shortest distances from start to every other node in
+     *         the graph.
+     */
+    public static <T> Map<Vertex<T>, Integer> dijkstras(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        return dijkstrasTable(start, graph, metrics, workspace).asMap();
+    }
+
+    /**
+     * Find the shortest distances from start to every vertex, like
+     * {@link #dijkstras(Vertex, Graph)}, as a table of primitive ints
+     * indexed by the vertex ids of {@code IndexedGraph.of(graph)}.
+     * Unreachable vertices have distance {@link DistanceTable#UNREACHABLE}.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dijkstrasTable(Vertex<T> start,
+            Graph<T> graph) {
+        return dijkstrasTable(start, graph, null);
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstrasTable(Vertex, Graph)} does, recording the work done
+     * in the given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dijkstrasTable(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics) {
+        return dijkstrasTable(start, graph, metrics,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstrasTable(Vertex, Graph)} does, recording the work done
+     * in the given metrics and keeping the heap and visited marks in the
+     * given workspace, so that only the returned table is allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dijkstrasTable(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int source = indexed.getId(start);
+        int[] distances = new int[indexed.getVertexCount()];
+        IndexedSearch.dijkstras(indexed, null, source, distances, null, metrics,
+                workspace);
+        return new DistanceTable<T>(indexed, source, distances);
+    }
+
+    /**
+     * Find the shortest distances from start to every vertex, like
+     * {@link #dijkstrasTable(Vertex, Graph)}, but as longs so that long
+     * paths of large weights cannot overflow. Unreachable vertices have
+     * distance {@link LongDistanceTable#UNREACHABLE}.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> LongDistanceTable<T> dijkstrasLongTable(
+            Vertex<T> start, Graph<T> graph) {
+        return dijkstrasLongTable(start, graph, null);
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstrasLongTable(Vertex, Graph)} does, recording the work
+     * done in the given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> LongDistanceTable<T> dijkstrasLongTable(
+            Vertex<T> start, Graph<T> graph, AlgorithmMetrics metrics) {
+        return dijkstrasLongTable(start, graph, metrics,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dijkstrasLongTable(Vertex, Graph)} does, recording the work
+     * done in the given metrics and keeping the heap and visited marks in
+     * the given workspace, so that only the returned table is allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> LongDistanceTable<T> dijkstrasLongTable(
+            Vertex<T> start, Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int source = indexed.getId(start);
+        long[] distances = new long[indexed.getVertexCount()];
+        IndexedSearch.dijkstras(indexed, null, source, null, distances, metrics,
+                workspace);
+        return new LongDistanceTable<T>(indexed, source, distances);
+    }
+
+    /**
+     * Find the k shortest loopless paths from source to target with Yen's
+     * algorithm, cheapest first. The order of paths of equal cost is
+     * fixed for a graph but otherwise unspecified. Paths are told apart by
+     * the vertices they visit, so parallel edges count once at their
+     * lightest weight. If there are fewer than k such paths, all of them
+     * are returned; if target cannot be reached, the list is empty.
+     *
+     * @throws IllegalArgumentException
+     *             if source, target or graph is null, if source or target
+     *             doesn't exist in the graph, if k is not positive, or if
+     *             the graph has a negative edge weight
+     * @param source
+     *            the Vertex the paths start at
+     * @param target
+     *            the Vertex the paths end at
+     * @param k
+     *            the largest number of paths to find
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the paths with their costs
+     */
+    public static <T> List<WeightedPath<T>> kShortestPaths(Vertex<T> source,
+            Vertex<T> target, int k, Graph<T> graph) {
+        return kShortestPaths(source, target, k, graph,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the k shortest loopless paths from source to target exactly as
+     * {@link #kShortestPaths(Vertex, Vertex, int, Graph)} does, keeping the
+     * heap and visited marks of every search in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if source, target, graph or workspace is null, if source
+     *             or target doesn't exist in the graph, if k is not
+     *             positive, or if the graph has a negative edge weight
+     * @param source
+     *            the Vertex the paths start at
+     * @param target
+     *            the Vertex the paths end at
+     * @param k
+     *            the largest number of paths to find
+     * @param graph
+     *            the Graph we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the paths with their costs
+     */
+    public static <T> List<WeightedPath<T>> kShortestPaths(Vertex<T> source,
+            Vertex<T> target, int k, Graph<T> graph,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(source, graph);
+        if (target == null || indexed.getId(target) < 0) {
+            throw new IllegalArgumentException("Target does not exist in "
+                    + "graph");
+        }
+        return kShortestPaths(indexed, null, indexed.getId(source),
+                indexed.getId(target), k, workspace);
+    }
+
+    /**
+     * Find the k shortest loopless paths from source to target in a
+     * subgraph view, like
+     * {@link #kShortestPaths(Vertex, Vertex, int, Graph)} on a Graph rebuilt
+     * from the edges the view shows. Hidden vertices and edges are masked
+     * the way the search masks the vertices and edges of each spur, so the
+     * graph is never copied.
+     *
+     * @throws IllegalArgumentException
+     *             if source, target or view is null, if source or target
+     *             doesn't exist in the graph or is hidden, if k is not
+     *             positive, or if the graph has a negative edge weight
+     * @param source
+     *            the Vertex the paths start at
+     * @param target
+     *            the Vertex the paths end at
+     * @param k
+     *            the largest number of paths to find
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the paths with their costs
+     */
+    public static <T> List<WeightedPath<T>> filteredKShortestPaths(
+            Vertex<T> source, Vertex<T> target, int k, SubgraphView<T> view) {
+        return filteredKShortestPaths(source, target, k, view,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the k shortest loopless paths from source to target in a
+     * subgraph view exactly as
+     * {@link #filteredKShortestPaths(Vertex, Vertex, int, SubgraphView)}
+     * does, keeping the heap and visited marks of every search in the given
+     * workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if source, target, view or workspace is null, if source
+     *             or target doesn't exist in the graph or is hidden, if k is
+     *             not positive, or if the graph has a negative edge weight
+     * @param source
+     *            the Vertex the paths start at
+     * @param target
+     *            the Vertex the paths end at
+     * @param k
+     *            the largest number of paths to find
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the paths with their costs
+     */
+    public static <T> List<WeightedPath<T>> filteredKShortestPaths(
+            Vertex<T> source, Vertex<T> target, int k, SubgraphView<T> view,
+            SearchWorkspace workspace) {
+        int from = filteredId(source, view);
+        if (target == null || view.getGraph().getId(target) < 0) {
+            throw new IllegalArgumentException("Target does not exist in "
+                    + "graph");
+        }
+        if (!view.containsVertex(target)) {
+            throw new IllegalArgumentException("Target is hidden in the view");
+        }
+        return kShortestPaths(view.getGraph(), view, from,
+                view.getGraph().getId(target), k, workspace);
+    }
+
+    /**
+     * Runs Yen's algorithm over an indexed graph, or the part of it a view
+     * shows.
+     *
+     * @throws IllegalArgumentException
+     *             if k is not positive, or if the graph has a negative
+     *             edge weight
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param source
+     *            the id of the source
+     * @param target
+     *            the id of the target
+     * @param k
+     *            the largest number of paths to find
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the paths with their costs
+     */
+    private static <T> List<WeightedPath<T>> kShortestPaths(
+            IndexedGraph<T> indexed, SubgraphView<T> view, int source,
+            int target, int k, SearchWorkspace workspace) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Path count is not positive");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        List<WeightedPath<T>> paths = KShortestPaths.search(indexed, view,
+                source, target, k, workspace);
+        if (event != null) {
+            event.finish(view == null ? "k-shortest" : "k-shortest-filtered",
+                    indexed, indexed.getVertex(source), paths.size());
+        }
+        return paths;
+    }
+
+    /**
+     * Validates the arguments of an algorithm and gets the indexed form of
+     * the graph.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the start vertex
+     * @param graph
+     *            the graph
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the indexed graph
+     */
+    static <T> IndexedGraph<T> index(Vertex<T> start,
+            Graph<T> graph) {
+        if (start == null || graph == null) {
+            throw new IllegalArgumentException("Either start or graph is null");
+        }
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        if (indexed.getId(start) < 0) {
+            throw new IllegalArgumentException("Start does not exist in graph");
+        }
+        return indexed;
+    }
+
+    /**
+     * Sorts the vertices of the given directed acyclic graph so that every
+     * edge goes from an earlier vertex to a later one, using Kahn's
+     * algorithm. The order is deterministic: vertices with no incoming
+     * edges are taken in the order they first appear in the edge list, and
+     * every other vertex is taken as soon as its last incoming edge is.
+     *
+     * @throws IllegalArgumentException
+     *             if the graph is null, or if it has a cycle (every
+     *             undirected edge is a cycle)
+     * @param graph
+     *            the graph to sort
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices in topological order
+     */
+    public static <T> List<Vertex<T>> topologicalSort(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        int[] order = IndexedSearch.topologicalOrder(indexed);
+        if (order == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>(order.length);
+        for (int id : order) {
+            list.add(indexed.getVertex(id));
+        }
+        return list;
+    }
+
+    /**
+     * Sorts the vertices a subgraph view shows, like
+     * {@link #topologicalSort(Graph)} on a Graph rebuilt from the edges the
+     * view shows, so a view that hides an edge of every cycle of a graph
+     * can be sorted. Vertices the view shows but no visible edge touches
+     * are sorted as vertices with no incoming edges.
+     *
+     * @throws IllegalArgumentException
+     *             if the view is null, or if the visible edges have a cycle
+     * @param view
+     *            the view to sort
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the visible vertices in topological order
+     */
+    public static <T> List<Vertex<T>> filteredTopologicalSort(
+            SubgraphView<T> view) {
+        if (view == null) {
+            throw new IllegalArgumentException("View is null");
+        }
+        IndexedGraph<T> indexed = view.getGraph();
+        int[] order = IndexedSearch.topologicalOrder(indexed, view);
+        if (order == null) {
+            throw new IllegalArgumentException("View has a cycle");
+        }
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>(order.length);
+        for (int id : order) {
+            list.add(indexed.getVertex(id));
+        }
+        return list;
+    }
+
+    /**
+     * Find the shortest distances from start to every vertex of a directed
+     * acyclic graph by relaxing edges in topological order, which takes
+     * time linear in the size of the graph and, unlike
+     * {@link #dijkstras(Vertex, Graph)}, allows negative edge weights.
+     *
+     * Distances are summed as longs. Unreachable vertices, and distances
+     * above the int range, are {@link DistanceTable#UNREACHABLE}; distances
+     * below the int range are {@code Integer.MIN_VALUE}.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, if {@code start} doesn't exist
+     *             in the graph, or if the graph has a cycle
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dagShortestPaths(Vertex<T> start,
+            Graph<T> graph) {
+        return dagShortestPaths(start, graph, null);
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dagShortestPaths(Vertex, Graph)} does, recording the work done
+     * in the given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, if {@code start} doesn't exist
+     *             in the graph, or if the graph has a cycle
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dagShortestPaths(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics) {
+        return dagShortestPaths(start, graph, metrics,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the shortest distances exactly as
+     * {@link #dagShortestPaths(Vertex, Graph)} does, recording the work done
+     * in the given metrics and relaxing the distances in the given
+     * workspace, so that only the order and the returned table are
+     * allocated.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, if {@code start}
+     *             doesn't exist in the graph, or if the graph has a cycle
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> dagShortestPaths(Vertex<T> start,
+            Graph<T> graph, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int[] order = IndexedSearch.topologicalOrder(indexed);
+        if (order == null) {
+            throw new IllegalArgumentException("Graph has a cycle");
+        }
+        return IndexedSearch.dagShortestPaths(indexed, null, order,
+                indexed.getId(start), metrics, workspace);
+    }
+
+    /**
+     * Find the shortest distances from start in a subgraph view whose
+     * visible edges are acyclic, like
+     * {@link #dagShortestPaths(Vertex, Graph)} on a Graph rebuilt from the
+     * edges the view shows. The graph itself may have cycles as long as
+     * the view hides an edge of each. Hidden vertices are unreachable.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, if {@code start} doesn't exist
+     *             in the graph or is hidden, or if the visible edges have a
+     *             cycle
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> filteredDagShortestPaths(
+            Vertex<T> start, SubgraphView<T> view) {
+        return filteredDagShortestPaths(start, view,
+                SearchWorkspace.current());
+    }
+
+    /**
+     * Find the shortest distances from start in a subgraph view exactly as
+     * {@link #filteredDagShortestPaths(Vertex, SubgraphView)} does, relaxing
+     * the distances in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, if {@code start}
+     *             doesn't exist in the graph or is hidden, or if the visible
+     *             edges have a cycle
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from start
+     */
+    public static <T> DistanceTable<T> filteredDagShortestPaths(
+            Vertex<T> start, SubgraphView<T> view, SearchWorkspace workspace) {
+        int source = filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int[] order = IndexedSearch.topologicalOrder(view.getGraph(), view);
+        if (order == null) {
+            throw new IllegalArgumentException("View has a cycle");
+        }
+        return IndexedSearch.dagShortestPaths(view.getGraph(), view, order,
+                source, null, workspace);
+    }
+
+    /**
+     * Run Prim's algorithm on the given graph and return the minimum spanning
+     * tree in the form of a set of Edges. If the graph is disconnected, and
+     * therefore there is no valid MST, return null.
+     *
+     * When exploring a Vertex, make sure you explore in the order that the
+     * adjacency list returns the neighbors to you. Failure to do so may cause
+     * you to lose points.
+     *
+     * You may assume that for a given starting vertex, there will only be one
+     * valid MST that can be formed. In addition, only an undirected graph will
+     * be passed in.
+     *
+     * You may import/use {@code java.util.PriorityQueue}, {@code java.util.Set}
+     * , and any class that implements the aforementioned interface.
+     *
+     * @throws IllegalArgumentException
+     *             if any input is null, or if {@code start} doesn't exist in
+     *             the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the graph; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> prims(Vertex<T> start, Graph<T> graph) {
+        return prims(start, graph, null);
+    }
+
+    /**
+     * Run Prim's algorithm exactly as {@link #prims(Vertex, Graph)} does,
+     * recording the work done in the given metrics.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the graph; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> prims(Vertex<T> start, Graph<T> graph,
+            AlgorithmMetrics metrics) {
+        return prims(start, graph, metrics, SearchWorkspace.current());
+    }
+
+    /**
+     * Run Prim's algorithm exactly as {@link #prims(Vertex, Graph)} does,
+     * recording the work done in the given metrics and keeping the queue of
+     * edges and the visited marks in the given workspace, so that only the
+     * returned edges are allocated. The queue orders and moves edges the
+     * way a PriorityQueue of Edges does, so ties between equal weights are
+     * broken the same way and the tree is the same.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the Graph we are searching
+     * @param metrics
+     *            the metrics to record into, or null to record nothing
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the graph; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> prims(Vertex<T> start, Graph<T> graph,
+            AlgorithmMetrics metrics, SearchWorkspace workspace) {
+        IndexedGraph<T> indexed = index(start, graph);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.prims(indexed, null, indexed.getId(start), metrics,
+                workspace);
+    }
+
+    /**
+     * Run Prim's algorithm on a subgraph view, skipping hidden vertices and
+     * edges as they are scanned. The tree is the one
+     * {@link #prims(Vertex, Graph)} finds on a Graph rebuilt from the edges
+     * the view shows, so it spans every vertex the view shows or is null.
+     *
+     * @throws IllegalArgumentException
+     *             if start or view is null, or if {@code start} doesn't
+     *             exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the view; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> filteredPrims(Vertex<T> start,
+            SubgraphView<T> view) {
+        return filteredPrims(start, view, SearchWorkspace.current());
+    }
+
+    /**
+     * Run Prim's algorithm on a subgraph view exactly as
+     * {@link #filteredPrims(Vertex, SubgraphView)} does, keeping the heap
+     * and visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, view or workspace is null, or if {@code start}
+     *             doesn't exist in the graph or is hidden
+     * @param start
+     *            the Vertex you are starting at
+     * @param view
+     *            the view we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the view; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> filteredPrims(Vertex<T> start,
+            SubgraphView<T> view, SearchWorkspace workspace) {
+        int source = filteredId(start, view);
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        return IndexedSearch.prims(view.getGraph(), view, source, null,
+                workspace);
+    }
+
+    /**
+     * Run Prim's algorithm on an indexed graph, which may have been
+     * renumbered with {@link IndexedGraph#reorder(VertexOrdering)}. The
+     * tree is the one {@link #prims(Vertex, Graph)} finds on the graph the
+     * index was built from when the neighbor lists are in the same order.
+     *
+     * @throws IllegalArgumentException
+     *             if start or graph is null, or if {@code start} doesn't
+     *             exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the indexed graph we are searching
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the graph; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> indexedPrims(Vertex<T> start,
+            IndexedGraph<T> graph) {
+        return indexedPrims(start, graph, SearchWorkspace.current());
+    }
+
+    /**
+     * Run Prim's algorithm on an indexed graph exactly as
+     * {@link #indexedPrims(Vertex, IndexedGraph)} does, keeping the queue
+     * of edges and the visited marks in the given workspace.
+     *
+     * @throws IllegalArgumentException
+     *             if start, graph or workspace is null, or if {@code start}
+     *             doesn't exist in the graph
+     * @param start
+     *            the Vertex you are starting at
+     * @param graph
+     *            the indexed graph we are searching
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST of the graph; null if no valid MST exists.
+     */
+    public static <T> Set<Edge<T>> indexedPrims(Vertex<T> start,
+            IndexedGraph<T> graph, SearchWorkspace workspace) {
+        if (start == null || graph == null) {
+            throw new IllegalArgumentException("Either start or graph is null");
+        }
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        int source = graph.getId(start);
+        if (source < 0) {
+            throw new IllegalArgumentException("Start does not exist in graph");
+        }
+        return IndexedSearch.prims(graph, null, source, null, workspace);
+    }
+
+
+
+
+    /**
+     * Labels the connected components of the given graph, treating directed
+     * edges as undirected (for a directed graph these are its weakly
+     * connected components).
+     *
+     * The work is split across all cores with a lock-free union-find in the
+     * style of Afforest, which links most vertices through only a few of
+     * their edges.
+     *
+     * Components are numbered in the order of the smallest vertex id they
+     * contain, so the labels do not depend on how many threads ran.
+     *
+     * @throws IllegalArgumentException
+     *             if the graph is null
+     * @param graph
+     *            the graph to label
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the component of every vertex
+     */
+    public static <T> ComponentLabels<T> connectedComponents(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return ComponentSearch.label(IndexedGraph.of(graph), null);
+    }
+
+    /**
+     * Labels the connected components of the part of a graph a subgraph
+     * view shows, like {@link #connectedComponents(Graph)} on a Graph
+     * rebuilt from the edges the view shows. Hidden vertices are in no
+     * component and have the label -1. The view may hide only one
+     * direction of an undirected edge, so the largest component is not
+     * skipped in the last pass.
+     *
+     * @throws IllegalArgumentException
+     *             if the view is null
+     * @param view
+     *            the view to label
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the component of every vertex
+     */
+    public static <T> ComponentLabels<T> filteredConnectedComponents(
+            SubgraphView<T> view) {
+        if (view == null) {
+            throw new IllegalArgumentException("View is null");
+        }
+        return ComponentSearch.label(view.getGraph(), view);
+    }
+
+    /**
+     * Finds the strongly connected components of the given graph and its
+     * condensation. The search is iterative, so graphs of any depth can be
+     * searched without overflowing the stack. In an undirected graph the
+     * strongly connected components are the connected components.
+     *
+     * @throws IllegalArgumentException
+     *             if the graph is null
+     * @param graph
+     *            the graph to search
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the components, numbered in topological order, and the
+     *         condensation
+     */
+    public static <T> Condensation<T> stronglyConnectedComponents(
+            Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return StrongComponentSearch.sequential(IndexedGraph.of(graph));
+    }
+
+    /**
+     * Finds the same components as
+     * {@link #stronglyConnectedComponents(Graph)} using all cores, by
+     * trimming and forward-backward splitting. Trimming runs to a fixpoint,
+     * so directed acyclic graphs and other graphs of mostly one-vertex
+     * components never reach the splitting. Small graphs, and any graph
+     * when the common pool has a single thread, are searched
+     * sequentially. The components may be numbered in a different
+     * topological order than the sequential search uses, but the numbering
+     * of a graph is always the same.
+     *
+     * @throws IllegalArgumentException
+     *             if the graph is null
+     * @param graph
+     *            the graph to search
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the components, numbered in topological order, and the
+     *         condensation
+     */
+    public static <T> Condensation<T> parallelStronglyConnectedComponents(
+            Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        if (indexed.getArcCount() < PARALLEL_THRESHOLD
+                || ForkJoinPool.getCommonPoolParallelism() < 2) {
+            return StrongComponentSearch.sequential(indexed);
+        }
+        return StrongComponentSearch.parallel(indexed);
+    }
+
+    /**
+     * Runs an action for every id from 0 to {@code n - 1}, in chunks spread
+     * over the common fork/join pool when parallel is true.
+     *
+     * @param n
+     *            the number of ids
+     * @param parallel
+     *            whether to run the chunks in parallel
+     * @param action
+     *            the action to run for each id
+     */
+    static void forEachChunk(int n, boolean parallel, IntConsumer action) {
+        int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream stream = IntStream.range(0, chunks);
+        if (parallel) {
+            stream = stream.parallel();
+        }
+        stream.forEach(chunk -> {
+            int end = Math.min(n, (chunk + 1) * CHUNK_SIZE);
+            for (int i = chunk * CHUNK_SIZE; i < end; i++) {
+                action.accept(i);
+            }
+        });
+    }
 }
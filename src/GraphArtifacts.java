@@ -0,0 +1,710 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32C;
+
+/**
+ * Precomputed structures over a graph, saved in a directory so that a
+ * restarted process can load them instead of computing them again.
+ *
+ * Each {@link ArtifactType} is kept in its own file, named after the type,
+ * which holds a header and the type's int arrays. The header records the
+ * file format, the type's version, a checksum of the graph and a checksum
+ * of the arrays. Loading reads the file through one reused direct buffer
+ * and copies the arrays out with bulk reads, so a valid artifact loads at
+ * the speed of the disk cache and no mapping outlives the load to keep
+ * the file from being replaced. A file is stale if any of the recorded
+ * versions or checksums differ, which happens whenever the graph's edges,
+ * vertex names or edge order change; stale files are never loaded.
+ *
+ * {@link #warmStart(ArtifactType)} loads a valid artifact right away and
+ * otherwise rebuilds it in the background, so a service can start
+ * answering with what is ready. Files are written to a temporary file and
+ * moved into place, so a reader never sees a partly written artifact and
+ * concurrent writers of the same artifact leave one whole file.
+ *
+ * The graph checksum is taken over the edge list in order, which fixes the
+ * indexed form of the graph, and includes the string form of every
+ * vertex's data, so it is stable across runs only if the data's
+ * {@code toString} is. It is computed in one pass without indexing the
+ * graph, and the indexed form is only built once an artifact is decoded,
+ * encoded or asked for, so checking for a stale file costs little.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class GraphArtifacts<T> {
+
+    /**
+     * The first int of every artifact file, "GART".
+     */
+    static final int MAGIC = 0x47415254;
+
+    /**
+     * The version of the file layout.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * The extension of artifact files.
+     */
+    static final String EXTENSION = ".gart";
+
+    /**
+     * The size of the fixed part of the header, before the array lengths.
+     */
+    private static final int HEADER_BYTES = 32;
+
+    /**
+     * The most bytes copied or read at a time.
+     */
+    private static final int CHUNK_BYTES = 1 << 24;
+
+    /**
+     * The size of the buffer the edge list is checksummed through.
+     */
+    private static final int STREAM_BYTES = 1 << 16;
+
+    private final Path directory;
+    private final Graph<T> graph;
+    private volatile IndexedGraph<T> indexed;
+    private volatile long checksum;
+    private volatile boolean summed;
+
+    /**
+     * Creates the artifacts of a graph, kept in a directory.
+     *
+     * @throws IllegalArgumentException if the directory or graph is null
+     * @param directory the directory, created when the first artifact is
+     *        saved
+     * @param graph the graph
+     */
+    public GraphArtifacts(Path directory, Graph<T> graph) {
+        if (directory == null || graph == null) {
+            throw new IllegalArgumentException("Either directory or graph is "
+                    + "null");
+        }
+        this.directory = directory;
+        this.graph = graph;
+    }
+
+    /**
+     * Gets the checksum of the graph that artifacts are tied to, computing
+     * it on first use.
+     *
+     * @return the checksum
+     */
+    public long getChecksum() {
+        if (!summed) {
+            checksum = checksum(graph);
+            summed = true;
+        }
+        return checksum;
+    }
+
+    /**
+     * Computes the checksum of a graph from its edge list: a CRC-32C of the
+     * vertex data in the order the vertices first appear, which is their
+     * id order in the indexed form, in the high half, and one of every
+     * edge's endpoint ids, weight and directedness in the low half.
+     *
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the checksum
+     */
+    static <T> long checksum(Graph<T> graph) {
+        Map<Vertex<T>, Integer> ids = new HashMap<Vertex<T>, Integer>(
+                Math.max(16, graph.getAdjacencyList().size() * 4 / 3 + 1));
+        CRC32C names = new CRC32C();
+        CRC32C edges = new CRC32C();
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer buffer = ByteBuffer.allocate(STREAM_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        for (Edge<T> edge : graph.getEdgeList()) {
+            if (buffer.remaining() < 4 * Integer.BYTES) {
+                buffer.flip();
+                edges.update(buffer);
+                buffer.clear();
+            }
+            buffer.putInt(number(ids, edge.getU(), names, length))
+                    .putInt(number(ids, edge.getV(), names, length))
+                    .putInt(edge.getWeight())
+                    .putInt(edge.isDirected() ? 1 : 0);
+        }
+        buffer.flip();
+        edges.update(buffer);
+        return names.getValue() << Integer.SIZE | edges.getValue();
+    }
+
+    /**
+     * Gets the id of a vertex in the order vertices first appear, adding
+     * the vertex's data to the checksum of names when it is new.
+     *
+     * @param ids the ids given so far
+     * @param vertex the vertex
+     * @param names the checksum of names
+     * @param length a buffer of one int for the length of a name
+     * @param <T> the data type representing the vertices in the graph
+     * @return the id
+     */
+    private static <T> int number(Map<Vertex<T>, Integer> ids,
+            Vertex<T> vertex, CRC32C names, ByteBuffer length) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            id = ids.size();
+            ids.put(vertex, id);
+            byte[] name = String.valueOf(vertex.getData())
+                    .getBytes(StandardCharsets.UTF_8);
+            length.clear();
+            names.update(length.putInt(name.length).array());
+            names.update(name);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the file an artifact type is saved in.
+     *
+     * @throws IllegalArgumentException if the type is null or its name is
+     *         not a valid file name
+     * @param type the artifact type
+     * @return the path of the file
+     */
+    public Path fileOf(ArtifactType<T, ?> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type is null");
+        }
+        String name = type.getName();
+        if (name == null || !name.matches("[A-Za-z0-9_-]+")) {
+            throw new IllegalArgumentException("Invalid artifact name: "
+                    + name);
+        }
+        return directory.resolve(name + EXTENSION);
+    }
+
+    /**
+     * Loads an artifact if its file is valid for this graph.
+     *
+     * @throws IllegalArgumentException if the type is null or has an
+     *         invalid name
+     * @throws UncheckedIOException if the file exists but cannot be read
+     * @param type the artifact type
+     * @param <A> the type of the structure
+     * @return the structure, or null if the file is missing or stale
+     */
+    public <A> A load(ArtifactType<T, A> type) {
+        Path file = fileOf(type);
+        int[][] arrays;
+        try {
+            arrays = read(file, type.getVersion(), getChecksum(),
+                    graph.getAdjacencyList().size());
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return arrays == null ? null : type.decode(getIndexedGraph(), arrays);
+    }
+
+    /**
+     * Saves an artifact, replacing any earlier file of its type.
+     *
+     * @throws IllegalArgumentException if the type or artifact is null, or
+     *         the type has an invalid name
+     * @throws UncheckedIOException if the file cannot be written
+     * @param type the artifact type
+     * @param artifact the structure, built for this graph
+     * @param <A> the type of the structure
+     */
+    public <A> void save(ArtifactType<T, A> type, A artifact) {
+        Path file = fileOf(type);
+        if (artifact == null) {
+            throw new IllegalArgumentException("Artifact is null");
+        }
+        IndexedGraph<T> built = getIndexedGraph();
+        int[][] arrays = type.encode(built, artifact);
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, type.getName(),
+                    ".tmp");
+            try {
+                write(temporary, arrays, type.getVersion(), getChecksum(),
+                        built.getVertexCount());
+                Files.move(temporary, file,
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads an artifact, or builds and saves it if its file is missing or
+     * stale.
+     *
+     * @throws IllegalArgumentException if the type is null or has an
+     *         invalid name
+     * @throws UncheckedIOException if the file cannot be read or written
+     * @param type the artifact type
+     * @param <A> the type of the structure
+     * @return the structure
+     */
+    public <A> A get(ArtifactType<T, A> type) {
+        A artifact = load(type);
+        return artifact != null ? artifact : rebuild(type);
+    }
+
+    /**
+     * Builds and saves an artifact.
+     *
+     * @param type the artifact type
+     * @param <A> the type of the structure
+     * @return the structure
+     */
+    private <A> A rebuild(ArtifactType<T, A> type) {
+        A artifact = type.build(graph);
+        save(type, artifact);
+        return artifact;
+    }
+
+    /**
+     * Loads an artifact on the calling thread if its file is valid, and
+     * otherwise builds and saves it in the common fork/join pool.
+     *
+     * @throws IllegalArgumentException if the type is null or has an
+     *         invalid name
+     * @param type the artifact type
+     * @param <A> the type of the structure
+     * @return a future of the structure, already complete if it was loaded,
+     *         which completes exceptionally if it cannot be built or saved
+     */
+    public <A> CompletableFuture<A> warmStart(ArtifactType<T, A> type) {
+        return warmStart(type, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Loads an artifact on the calling thread if its file is valid, and
+     * otherwise builds and saves it with the given executor.
+     *
+     * @throws IllegalArgumentException if the type or executor is null, or
+     *         the type has an invalid name
+     * @param type the artifact type
+     * @param executor the executor to rebuild with
+     * @param <A> the type of the structure
+     * @return a future of the structure, already complete if it was loaded,
+     *         which completes exceptionally if it cannot be built or saved
+     */
+    public <A> CompletableFuture<A> warmStart(ArtifactType<T, A> type,
+            Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor is null");
+        }
+        A artifact;
+        try {
+            artifact = load(type);
+        } catch (UncheckedIOException e) {
+            artifact = null;
+        }
+        if (artifact != null) {
+            return CompletableFuture.completedFuture(artifact);
+        }
+        return CompletableFuture.supplyAsync(() -> rebuild(type), executor);
+    }
+
+    /**
+     * Gets the graph the artifacts are for.
+     *
+     * @return the graph
+     */
+    public Graph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the indexed form of the graph, whose ids the artifacts use. It
+     * is built on first use and kept.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getIndexedGraph() {
+        IndexedGraph<T> built = indexed;
+        if (built == null) {
+            synchronized (this) {
+                built = indexed;
+                if (built == null) {
+                    built = IndexedGraph.of(graph);
+                    indexed = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Writes an artifact file.
+     *
+     * @throws IOException if the file cannot be written
+     * @param file the file
+     * @param arrays the arrays
+     * @param version the version of the artifact type
+     * @param graphChecksum the checksum of the graph
+     * @param vertexCount the number of vertices in the graph
+     */
+    static void write(Path file, int[][] arrays, int version,
+            long graphChecksum, int vertexCount) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES
+                + arrays.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(header.capacity());
+            for (int[] array : arrays) {
+                for (int from = 0; from < array.length;
+                        from += CHUNK_BYTES / Integer.BYTES) {
+                    int count = Math.min(array.length - from,
+                            CHUNK_BYTES / Integer.BYTES);
+                    buffer.clear();
+                    buffer.asIntBuffer().put(array, from, count);
+                    buffer.limit(count * Integer.BYTES);
+                    crc.update(buffer);
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+            }
+            header.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(version)
+                    .putInt(arrays.length).putLong(graphChecksum)
+                    .putInt(vertexCount).putInt((int) crc.getValue());
+            for (int[] array : arrays) {
+                header.putInt(array.length);
+            }
+            header.flip();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads an artifact file through one direct buffer, which is reused
+     * for every chunk and dropped with the load, so no mapping of the file
+     * is left behind.
+     *
+     * @throws IOException if the file cannot be read, or ends early
+     * @param file the file
+     * @param version the expected version of the artifact type
+     * @param graphChecksum the expected checksum of the graph
+     * @param vertexCount the expected number of vertices
+     * @return the arrays, or null if the file is stale or damaged
+     */
+    static int[][] read(Path file, int version, long graphChecksum,
+            int vertexCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(
+                    (int) Math.min(CHUNK_BYTES, size))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(HEADER_BYTES);
+            readFully(channel, buffer, 0);
+            int count = buffer.getInt(12);
+            if (buffer.getInt(0) != MAGIC
+                    || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getInt(8) != version
+                    || buffer.getLong(16) != graphChecksum
+                    || buffer.getInt(24) != vertexCount
+                    || count < 0 || HEADER_BYTES
+                    + (long) count * Integer.BYTES > size) {
+                return null;
+            }
+            int expectedCrc = buffer.getInt(28);
+            int[] lengths = new int[count];
+            long position = readInts(channel, buffer, HEADER_BYTES, lengths,
+                    null);
+            long total = position;
+            for (int length : lengths) {
+                if (length < 0) {
+                    return null;
+                }
+                total += (long) length * Integer.BYTES;
+            }
+            if (total != size) {
+                return null;
+            }
+            CRC32C crc = new CRC32C();
+            int[][] arrays = new int[count][];
+            for (int i = 0; i < count; i++) {
+                arrays[i] = new int[lengths[i]];
+                position = readInts(channel, buffer, position, arrays[i], crc);
+            }
+            return (int) crc.getValue() == expectedCrc ? arrays : null;
+        }
+    }
+
+    /**
+     * Reads little-endian ints from a file into an array, a buffer at a
+     * time.
+     *
+     * @throws IOException if the file cannot be read, or ends early
+     * @param channel the file
+     * @param buffer the buffer to read through
+     * @param position the offset in the file of the first int
+     * @param array the array to fill
+     * @param crc the checksum to add the bytes read to, or null
+     * @return the offset in the file after the last int
+     */
+    private static long readInts(FileChannel channel, ByteBuffer buffer,
+            long position, int[] array, CRC32C crc) throws IOException {
+        int step = buffer.capacity() / Integer.BYTES;
+        for (int from = 0; from < array.length; from += step) {
+            int chunk = Math.min(array.length - from, step);
+            buffer.clear();
+            buffer.limit(chunk * Integer.BYTES);
+            readFully(channel, buffer, position);
+            buffer.flip();
+            buffer.asIntBuffer().get(array, from, chunk);
+            if (crc != null) {
+                crc.update(buffer);
+            }
+            position += (long) chunk * Integer.BYTES;
+        }
+        return position;
+    }
+
+    /**
+     * Fills the rest of a buffer from a file.
+     *
+     * @throws IOException if the file cannot be read, or ends before the
+     *         buffer is full
+     * @param channel the file
+     * @param buffer the buffer
+     * @param position the offset in the file to read from
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer,
+            long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Artifact file ended early");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Gets the type of an artifact holding the connected components of a
+     * graph, as {@link GraphAlgorithms#connectedComponents(Graph)} finds
+     * them.
+     *
+     * @param <T> the data type representing the vertices in the graph
+     * @return the artifact type
+     */
+    public static <T> ArtifactType<T, ComponentLabels<T>> components() {
+        return new ArtifactType<T, ComponentLabels<T>>() {
+            @Override
+            public String getName() {
+                return "components";
+            }
+
+            @Override
+            public int getVersion() {
+                return 1;
+            }
+
+            @Override
+            public ComponentLabels<T> build(Graph<T> graph) {
+                return GraphAlgorithms.connectedComponents(graph);
+            }
+
+            @Override
+            public int[][] encode(IndexedGraph<T> graph,
+                    ComponentLabels<T> artifact) {
+                return new int[][] {artifact.getLabels(),
+                    artifact.getSizes()};
+            }
+
+            @Override
+            public ComponentLabels<T> decode(IndexedGraph<T> graph,
+                    int[][] arrays) {
+                if (arrays.length != 2
+                        || arrays[0].length != graph.getVertexCount()) {
+                    return null;
+                }
+                return new ComponentLabels<T>(graph, arrays[0], arrays[1]);
+            }
+        };
+    }
+
+    /**
+     * Gets the type of an artifact holding a graph renumbered with
+     * {@link IndexedGraph#reorder(VertexOrdering)}. The renumbered graph's
+     * arrays are saved whole, so loading it sorts nothing.
+     *
+     * @throws IllegalArgumentException if the ordering is null
+     * @param ordering the ordering
+     * @param <T> the data type representing the vertices in the graph
+     * @return the artifact type
+     */
+    public static <T> ArtifactType<T, IndexedGraph<T>> reordered(
+            VertexOrdering ordering) {
+        if (ordering == null) {
+            throw new IllegalArgumentException("Ordering is null");
+        }
+        return new ArtifactType<T, IndexedGraph<T>>() {
+            @Override
+            public String getName() {
+                return "reordered-" + ordering.name().toLowerCase(Locale.ROOT);
+            }
+
+            @Override
+            public int getVersion() {
+                return 1;
+            }
+
+            @Override
+            public IndexedGraph<T> build(Graph<T> graph) {
+                return IndexedGraph.of(graph).reorder(ordering);
+            }
+
+            @Override
+            public int[][] encode(IndexedGraph<T> graph,
+                    IndexedGraph<T> artifact) {
+                int[] order = new int[artifact.getVertexCount()];
+                for (int u = 0; u < order.length; u++) {
+                    order[u] = graph.getId(artifact.getVertex(u));
+                }
+                return new int[][] {order, artifact.getOffsets(),
+                    artifact.getTargets(), artifact.getWeights()};
+            }
+
+            @Override
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            public IndexedGraph<T> decode(IndexedGraph<T> graph,
+                    int[][] arrays) {
+                int n = graph.getVertexCount();
+                if (arrays.length != 4 || arrays[0].length != n
+                        || arrays[1].length != n + 1) {
+                    return null;
+                }
+                Vertex<T>[] vertices = (Vertex<T>[]) new Vertex[n];
+                Map<Vertex<T>, Integer> ids = new HashMap<Vertex<T>, Integer>(
+                        Math.max(16, n * 4 / 3 + 1));
+                for (int u = 0; u < n; u++) {
+                    vertices[u] = graph.getVertex(arrays[0][u]);
+                    ids.put(vertices[u], u);
+                }
+                return new IndexedGraph<T>(vertices, ids, arrays[1],
+                        arrays[2], arrays[3], graph.isDirected());
+            }
+        };
+    }
+
+    /**
+     * Gets the type of an artifact holding the shortest distances from
+     * each of a list of landmark vertices, as
+     * {@link GraphAlgorithms#dijkstrasTable(Vertex, Graph)} finds them.
+     * A file saved for other landmarks is stale.
+     *
+     * @throws IllegalArgumentException if the list is null or contains
+     *         null
+     * @param landmarks the landmark vertices
+     * @param <T> the data type representing the vertices in the graph
+     * @return the artifact type
+     */
+    public static <T> ArtifactType<T, List<DistanceTable<T>>> landmarks(
+            List<Vertex<T>> landmarks) {
+        if (landmarks == null || landmarks.contains(null)) {
+            throw new IllegalArgumentException("Landmarks are null");
+        }
+        List<Vertex<T>> sources = new ArrayList<Vertex<T>>(landmarks);
+        return new ArtifactType<T, List<DistanceTable<T>>>() {
+            @Override
+            public String getName() {
+                return "landmarks";
+            }
+
+            @Override
+            public int getVersion() {
+                return 1;
+            }
+
+            @Override
+            public List<DistanceTable<T>> build(Graph<T> graph) {
+                List<DistanceTable<T>> tables =
+                        new ArrayList<DistanceTable<T>>(sources.size());
+                for (Vertex<T> source : sources) {
+                    tables.add(GraphAlgorithms.dijkstrasTable(source, graph));
+                }
+                return Collections.unmodifiableList(tables);
+            }
+
+            @Override
+            public int[][] encode(IndexedGraph<T> graph,
+                    List<DistanceTable<T>> artifact) {
+                int[][] arrays = new int[artifact.size() + 1][];
+                arrays[0] = new int[artifact.size()];
+                for (int i = 0; i < artifact.size(); i++) {
+                    DistanceTable<T> table = artifact.get(i);
+                    arrays[0][i] = graph.getId(table.getSource());
+                    arrays[i + 1] = new int[graph.getVertexCount()];
+                    for (int v = 0; v < arrays[i + 1].length; v++) {
+                        arrays[i + 1][v] = table.distanceTo(v);
+                    }
+                }
+                return arrays;
+            }
+
+            @Override
+            public List<DistanceTable<T>> decode(IndexedGraph<T> graph,
+                    int[][] arrays) {
+                if (arrays.length != sources.size() + 1) {
+                    return null;
+                }
+                List<DistanceTable<T>> tables =
+                        new ArrayList<DistanceTable<T>>(sources.size());
+                for (int i = 0; i < sources.size(); i++) {
+                    int source = graph.getId(sources.get(i));
+                    if (source < 0 || arrays[0][i] != source
+                            || arrays[i + 1].length
+                            != graph.getVertexCount()) {
+                        return null;
+                    }
+                    tables.add(new DistanceTable<T>(graph, source,
+                            arrays[i + 1]));
+                }
+                return Collections.unmodifiableList(tables);
+            }
+        };
+    }
+}
@@ -0,0 +1,237 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for GraphArtifacts.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphArtifactsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testRoundTrip() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(2000, 5000, 1);
+        GraphArtifacts<Integer> artifacts =
+                new GraphArtifacts<>(directory, graph);
+        ArtifactType<Integer, IndexedGraph<Integer>> reordered =
+                GraphArtifacts.reordered(VertexOrdering.REVERSE_CUTHILL_MCKEE);
+        List<Vertex<Integer>> sources = Arrays.asList(new Vertex<>(3),
+                new Vertex<>(10));
+        ComponentLabels<Integer> components =
+                artifacts.get(GraphArtifacts.components());
+        IndexedGraph<Integer> ordered = artifacts.get(reordered);
+        List<DistanceTable<Integer>> tables =
+                artifacts.get(GraphArtifacts.landmarks(sources));
+
+        GraphArtifacts<Integer> restarted = new GraphArtifacts<>(directory,
+                new Graph<>(new LinkedHashSet<>(graph.getEdgeList())));
+        assertEquals(artifacts.getChecksum(), restarted.getChecksum());
+        ComponentLabels<Integer> loadedComponents =
+                restarted.load(GraphArtifacts.components());
+        assertArrayEquals(components.getLabels(),
+                loadedComponents.getLabels());
+        assertArrayEquals(components.getSizes(), loadedComponents.getSizes());
+        IndexedGraph<Integer> loaded = restarted.load(reordered);
+        assertArrayEquals(ordered.getOffsets(), loaded.getOffsets());
+        assertArrayEquals(ordered.getTargets(), loaded.getTargets());
+        assertArrayEquals(ordered.getWeights(), loaded.getWeights());
+        for (int u = 0; u < ordered.getVertexCount(); u++) {
+            assertEquals(ordered.getVertex(u), loaded.getVertex(u));
+            assertEquals(u, loaded.getId(ordered.getVertex(u)));
+        }
+        List<DistanceTable<Integer>> loadedTables =
+                restarted.load(GraphArtifacts.landmarks(sources));
+        for (int i = 0; i < sources.size(); i++) {
+            assertEquals(sources.get(i), loadedTables.get(i).getSource());
+            assertEquals(tables.get(i).asMap(), loadedTables.get(i).asMap());
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testStaleAfterGraphChanges() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        Graph<Integer> graph = GraphGenerators.grid(10, 10, 2);
+        new GraphArtifacts<>(directory, graph)
+                .get(GraphArtifacts.components());
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (Edge<Integer> edge : graph.getEdgeList()) {
+            edges.add(new Edge<>(edge.getU(), edge.getV(),
+                    edge.getWeight() + 1, edge.isDirected()));
+        }
+        GraphArtifacts<Integer> changed =
+                new GraphArtifacts<>(directory, new Graph<>(edges));
+        assertNull(changed.load(GraphArtifacts.components()));
+        assertNull(changed.load(GraphArtifacts.landmarks(
+                Arrays.asList(new Vertex<>(0)))));
+        changed.get(GraphArtifacts.components());
+        assertEquals(1, changed.load(GraphArtifacts.components())
+                .getComponentCount());
+        assertNull(new GraphArtifacts<>(directory, graph)
+                .load(GraphArtifacts.components()));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testChecksumFollowsEdgeOrder() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(400, 1200, 8);
+        List<Edge<Integer>> reversed = new ArrayList<>(graph.getEdgeList());
+        Collections.reverse(reversed);
+        GraphArtifacts<Integer> artifacts =
+                new GraphArtifacts<>(directory, graph);
+        assertNotEquals(artifacts.getChecksum(), new GraphArtifacts<>(
+                directory, new Graph<>(new LinkedHashSet<>(reversed)))
+                .getChecksum());
+        ArtifactType<Integer, ComponentLabels<Integer>> type =
+                GraphArtifacts.components();
+        ComponentLabels<Integer> built = artifacts.get(type);
+        assertArrayEquals(built.getLabels(),
+                artifacts.load(type).getLabels());
+        // a loaded file is not held open or mapped, so it can be replaced
+        artifacts.save(type, built);
+        assertArrayEquals(built.getLabels(),
+                artifacts.load(type).getLabels());
+        assertEquals(IndexedGraph.of(graph).getVertexCount(),
+                artifacts.getIndexedGraph().getVertexCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testDamagedFiles() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        GraphArtifacts<Integer> artifacts = new GraphArtifacts<>(directory,
+                GraphGenerators.erdosRenyi(500, 1000, 3));
+        ArtifactType<Integer, ComponentLabels<Integer>> type =
+                GraphArtifacts.components();
+        artifacts.get(type);
+        Path file = artifacts.fileOf(type);
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] flipped = bytes.clone();
+        flipped[bytes.length - 5] ^= 1;
+        Files.write(file, flipped);
+        assertNull(artifacts.load(type));
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertNull(artifacts.load(type));
+        Files.write(file, new byte[] {1, 2, 3});
+        assertNull(artifacts.load(type));
+        Files.write(file, bytes);
+        assertArrayEquals(artifacts.get(type).getLabels(),
+                artifacts.load(type).getLabels());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testTypeVersion() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        GraphArtifacts<Integer> artifacts = new GraphArtifacts<>(directory,
+                GraphGenerators.path(20, 4));
+        artifacts.get(GraphArtifacts.components());
+        ArtifactType<Integer, ComponentLabels<Integer>> components =
+                GraphArtifacts.components();
+        assertNull(artifacts.load(new RenamedComponents(
+                components.getName(), components.getVersion() + 1)));
+        assertEquals(19, artifacts.load(new RenamedComponents(
+                components.getName(), components.getVersion()))
+                .getSizes()[0] - 1);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testWarmStart() throws Exception {
+        Path directory = folder.newFolder().toPath().resolve("missing");
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(3000, 9000, 5);
+        ArtifactType<Integer, IndexedGraph<Integer>> type =
+                GraphArtifacts.reordered(VertexOrdering.BFS);
+        CompletableFuture<IndexedGraph<Integer>> cold =
+                new GraphArtifacts<>(directory, graph).warmStart(type);
+        IndexedGraph<Integer> built = cold.get();
+        assertTrue(Files.exists(directory.resolve("reordered-bfs"
+                + GraphArtifacts.EXTENSION)));
+        CompletableFuture<IndexedGraph<Integer>> warm =
+                new GraphArtifacts<>(directory, graph).warmStart(type);
+        assertTrue(warm.isDone());
+        assertArrayEquals(built.getTargets(), warm.get().getTargets());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testInvalidName() {
+        new GraphArtifacts<>(folder.getRoot().toPath(),
+                GraphGenerators.path(3, 6)).fileOf(
+                        new RenamedComponents("../escape", 1));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        new GraphArtifacts<Integer>(folder.getRoot().toPath(), null);
+    }
+
+    /**
+     * The components artifact type under another name and version.
+     */
+    private static final class RenamedComponents
+            implements ArtifactType<Integer, ComponentLabels<Integer>> {
+        private final ArtifactType<Integer, ComponentLabels<Integer>>
+                components = GraphArtifacts.components();
+        private final String name;
+        private final int version;
+
+        /**
+         * Creates the type.
+         *
+         * @param name the name
+         * @param version the version
+         */
+        private RenamedComponents(String name, int version) {
+            this.name = name;
+            this.version = version;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public int getVersion() {
+            return version;
+        }
+
+        @Override
+        public ComponentLabels<Integer> build(Graph<Integer> graph) {
+            return components.build(graph);
+        }
+
+        @Override
+        public int[][] encode(IndexedGraph<Integer> graph,
+                ComponentLabels<Integer> artifact) {
+            return components.encode(graph, artifact);
+        }
+
+        @Override
+        public ComponentLabels<Integer> decode(IndexedGraph<Integer> graph,
+                int[][] arrays) {
+            return components.decode(graph, arrays);
+        }
+    }
+}
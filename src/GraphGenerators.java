@@ -0,0 +1,332 @@
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic graph generators for testing and benchmarking at scale.
+ *
+ * Every generator is deterministic for a given seed, produces edges
+ * between {@code Vertex<Integer>} objects numbered from 0, never produces
+ * self loops or parallel edges, and draws edge weights uniformly from 1 to
+ * {@link #MAX_WEIGHT}. Edges are undirected unless the generator says
+ * otherwise.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public final class GraphGenerators {
+
+    /**
+     * The largest edge weight any generator produces.
+     */
+    public static final int MAX_WEIGHT = 1000;
+
+    private static final double RMAT_A = 0.57;
+    private static final double RMAT_B = 0.19;
+    private static final double RMAT_C = 0.19;
+
+    /**
+     * Hidden constructor, this is a static utility class.
+     */
+    private GraphGenerators() {
+    }
+
+    /**
+     * Generates an Erdos-Renyi G(n, m) random graph: {@code edges} distinct
+     * vertex pairs chosen uniformly at random.
+     *
+     * @throws IllegalArgumentException if {@code vertices} is less than 2,
+     *             or if {@code edges} is negative or more than the number
+     *             of distinct vertex pairs
+     * @param vertices the number of vertices to choose endpoints from
+     * @param edges the number of edges
+     * @param seed the random seed
+     * @return the generated graph
+     */
+    public static Graph<Integer> erdosRenyi(int vertices, long edges,
+            long seed) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Need at least 2 vertices");
+        }
+        if (edges < 0 || edges > (long) vertices * (vertices - 1) / 2) {
+            throw new IllegalArgumentException("Invalid edge count " + edges);
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(edges, false);
+        while (collector.size() < edges) {
+            collector.add(vertexList, random.nextInt(vertices),
+                    random.nextInt(vertices), random);
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates a directed Erdos-Renyi graph: {@code edges} distinct
+     * ordered vertex pairs chosen uniformly at random, each made a directed
+     * edge from the first vertex to the second.
+     *
+     * @throws IllegalArgumentException if {@code vertices} is less than 2,
+     *             or if {@code edges} is negative or more than the number
+     *             of distinct ordered vertex pairs
+     * @param vertices the number of vertices to choose endpoints from
+     * @param edges the number of edges
+     * @param seed the random seed
+     * @return the generated graph
+     */
+    public static Graph<Integer> directedErdosRenyi(int vertices, long edges,
+            long seed) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Need at least 2 vertices");
+        }
+        if (edges < 0 || edges > (long) vertices * (vertices - 1)) {
+            throw new IllegalArgumentException("Invalid edge count " + edges);
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(edges, true);
+        while (collector.size() < edges) {
+            collector.add(vertexList, random.nextInt(vertices),
+                    random.nextInt(vertices), random);
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates a random directed acyclic graph: {@code edges} distinct
+     * vertex pairs chosen uniformly at random, each made a directed edge
+     * from the smaller vertex to the larger, so that the vertex numbering is
+     * a topological order.
+     *
+     * @throws IllegalArgumentException if {@code vertices} is less than 2,
+     *             or if {@code edges} is negative or more than the number
+     *             of distinct vertex pairs
+     * @param vertices the number of vertices to choose endpoints from
+     * @param edges the number of edges
+     * @param seed the random seed
+     * @return the generated graph
+     */
+    public static Graph<Integer> randomDag(int vertices, long edges,
+            long seed) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Need at least 2 vertices");
+        }
+        if (edges < 0 || edges > (long) vertices * (vertices - 1) / 2) {
+            throw new IllegalArgumentException("Invalid edge count " + edges);
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(edges, true);
+        while (collector.size() < edges) {
+            int u = random.nextInt(vertices);
+            int v = random.nextInt(vertices);
+            collector.add(vertexList, Math.min(u, v), Math.max(u, v), random);
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates an R-MAT graph over {@code 2^scale} vertices, which has the
+     * skewed power-law degree distribution of social and web graphs. Each
+     * edge is placed by recursively choosing a quadrant of the adjacency
+     * matrix with the standard (0.57, 0.19, 0.19, 0.05) probabilities.
+     * Vertices that end up with no edges do not appear in the graph.
+     *
+     * @throws IllegalArgumentException if {@code scale} is not between 1 and
+     *             30, or if {@code edges} is negative or more than half the
+     *             number of vertex pairs
+     * @param scale the base 2 logarithm of the number of vertices
+     * @param edges the number of edges
+     * @param seed the random seed
+     * @return the generated graph
+     */
+    public static Graph<Integer> rmat(int scale, long edges, long seed) {
+        if (scale < 1 || scale > 30) {
+            throw new IllegalArgumentException("Invalid scale " + scale);
+        }
+        int vertices = 1 << scale;
+        if (edges < 0 || edges > (long) vertices * (vertices - 1) / 4) {
+            throw new IllegalArgumentException("Invalid edge count " + edges);
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(edges, false);
+        while (collector.size() < edges) {
+            int u = 0;
+            int v = 0;
+            for (int bit = scale - 1; bit >= 0; bit--) {
+                double p = random.nextDouble();
+                if (p >= RMAT_A + RMAT_B + RMAT_C) {
+                    u |= 1 << bit;
+                    v |= 1 << bit;
+                } else if (p >= RMAT_A + RMAT_B) {
+                    u |= 1 << bit;
+                } else if (p >= RMAT_A) {
+                    v |= 1 << bit;
+                }
+            }
+            collector.add(vertexList, u, v, random);
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates a two dimensional grid where every vertex is connected to
+     * its horizontal and vertical neighbors, a stand-in for road networks
+     * with their low degree and large diameter. Vertex {@code r * cols + c}
+     * is at row r and column c.
+     *
+     * @throws IllegalArgumentException if the grid has fewer than 2 vertices
+     * @param rows the number of rows
+     * @param cols the number of columns
+     * @param seed the random seed used for the weights
+     * @return the generated graph
+     */
+    public static Graph<Integer> grid(int rows, int cols, long seed) {
+        if (rows < 1 || cols < 1 || (long) rows * cols < 2) {
+            throw new IllegalArgumentException("Grid needs at least 2 "
+                    + "vertices");
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(rows * cols);
+        EdgeCollector collector = new EdgeCollector(2L * rows * cols, false);
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int id = r * cols + c;
+                if (c + 1 < cols) {
+                    collector.add(vertexList, id, id + 1, random);
+                }
+                if (r + 1 < rows) {
+                    collector.add(vertexList, id, id + cols, random);
+                }
+            }
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates a complete graph, where every pair of vertices is connected.
+     *
+     * @throws IllegalArgumentException if {@code vertices} is less than 2
+     * @param vertices the number of vertices
+     * @param seed the random seed used for the weights
+     * @return the generated graph
+     */
+    public static Graph<Integer> complete(int vertices, long seed) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Need at least 2 vertices");
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(
+                (long) vertices * (vertices - 1) / 2, false);
+        for (int u = 0; u < vertices; u++) {
+            for (int v = u + 1; v < vertices; v++) {
+                collector.add(vertexList, u, v, random);
+            }
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Generates a path 0 - 1 - ... - (vertices - 1), the worst case for
+     * anything whose cost grows with search depth.
+     *
+     * @throws IllegalArgumentException if {@code vertices} is less than 2
+     * @param vertices the number of vertices
+     * @param seed the random seed used for the weights
+     * @return the generated graph
+     */
+    public static Graph<Integer> path(int vertices, long seed) {
+        if (vertices < 2) {
+            throw new IllegalArgumentException("Need at least 2 vertices");
+        }
+        Random random = new Random(seed);
+        List<Vertex<Integer>> vertexList = createVertices(vertices);
+        EdgeCollector collector = new EdgeCollector(vertices - 1, false);
+        for (int u = 0; u + 1 < vertices; u++) {
+            collector.add(vertexList, u, u + 1, random);
+        }
+        return collector.toGraph();
+    }
+
+    /**
+     * Creates the vertices 0 to {@code count - 1}.
+     *
+     * @param count the number of vertices
+     * @return the vertices, indexed by their data
+     */
+    private static List<Vertex<Integer>> createVertices(int count) {
+        List<Vertex<Integer>> vertices = new ArrayList<Vertex<Integer>>(
+                count);
+        for (int i = 0; i < count; i++) {
+            vertices.add(new Vertex<Integer>(i));
+        }
+        return vertices;
+    }
+
+    /**
+     * Collects generated edges, dropping self loops and repeated pairs.
+     */
+    private static final class EdgeCollector {
+        private final LinkedHashSet<Edge<Integer>> edges;
+        private final Set<Long> pairs;
+        private final boolean directed;
+
+        /**
+         * Creates a collector sized for the expected number of edges.
+         *
+         * @param expected the expected number of edges
+         * @param directed whether to collect directed edges
+         */
+        private EdgeCollector(long expected, boolean directed) {
+            int capacity = (int) Math.min(1 << 30, expected * 4 / 3 + 16);
+            edges = new LinkedHashSet<Edge<Integer>>(capacity);
+            pairs = new HashSet<Long>(capacity);
+            this.directed = directed;
+        }
+
+        /**
+         * Adds an edge from u to v with a random weight unless it is a self
+         * loop or its endpoints are already connected in that direction.
+         *
+         * @param vertices the vertices, indexed by their data
+         * @param u one endpoint
+         * @param v the other endpoint
+         * @param random the source of the weight
+         */
+        private void add(List<Vertex<Integer>> vertices, int u, int v,
+                Random random) {
+            if (u == v) {
+                return;
+            }
+            long key = directed ? ((long) u << 32) | v
+                    : ((long) Math.min(u, v) << 32) | Math.max(u, v);
+            if (pairs.add(key)) {
+                edges.add(new Edge<Integer>(vertices.get(u), vertices.get(v),
+                        1 + random.nextInt(MAX_WEIGHT), directed));
+            }
+        }
+
+        /**
+         * Gets the number of edges collected so far.
+         *
+         * @return the number of edges
+         */
+        private int size() {
+            return edges.size();
+        }
+
+        /**
+         * Builds a Graph from the collected edges.
+         *
+         * @return the graph
+         */
+        private Graph<Integer> toGraph() {
+            return new Graph<Integer>(edges);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one phase of a GraphAlgorithms call: a
+ * level of breadthFirstSearch, or a sample of {@link #SAMPLE_INTERVAL}
+ * settled vertices of dijkstras or rounds of prims.
+ *
+ * The event is disabled by default and is much more frequent than
+ * {@link GraphAlgorithmEvent}, so enable it separately with
+ * {@code graphing.GraphPhase#enabled=true}. Algorithms check
+ * {@link #isRecording()} once per call, after checking that Flight
+ * Recorder is initialized at all, and skip phase tracking entirely when it
+ * is off.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+@Name("graphing.GraphPhase")
+@Label("Graph Algorithm Phase")
+@Category("Graphing")
+@Description("One level or sampled round of a GraphAlgorithms method")
+@Enabled(false)
+@StackTrace(false)
+public final class GraphPhaseEvent extends Event {
+
+    /**
+     * Number of settled vertices or MST rounds covered by one phase event
+     * of dijkstras and prims.
+     */
+    public static final int SAMPLE_INTERVAL = 1024;
+
+    @Label("Algorithm")
+    @Description("Name of the algorithm, as in the enclosing Graph "
+            + "Algorithm event: a form of bfs, dijkstras or prims")
+    private String algorithm;
+
+    @Label("Phase")
+    @Description("BFS level, or index of the sampled round")
+    private int phase;
+
+    @Label("Vertices Settled")
+    @Description("Vertices settled during this phase")
+    private int settled;
+
+    @Label("Frontier Size")
+    @Description("Queue size at the end of this phase")
+    private int frontierSize;
+
+    /**
+     * Checks whether phase events are being recorded. This allocates, so
+     * call it once per algorithm run rather than once per phase.
+     *
+     * @return true if phase events are enabled in a running recording
+     */
+    static boolean isRecording() {
+        return new GraphPhaseEvent().isEnabled();
+    }
+
+    /**
+     * Creates and starts the timing of a phase event.
+     *
+     * @return the started event
+     */
+    static GraphPhaseEvent started() {
+        GraphPhaseEvent event = new GraphPhaseEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the timing of this phase and commits it.
+     *
+     * @param name the name of the algorithm
+     * @param index the index of the phase
+     * @param count the number of vertices settled during the phase
+     * @param frontier the frontier size at the end of the phase
+     */
+    void finish(String name, int index, int count, int frontier) {
+        end();
+        if (shouldCommit()) {
+            algorithm = name;
+            phase = index;
+            settled = count;
+            frontierSize = frontier;
+            commit();
+        }
+    }
+}
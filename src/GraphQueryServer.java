@@ -0,0 +1,805 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local HTTP server answering graph queries against the latest snapshot
+ * of a {@link GraphStore}. Responses are JSON. The endpoints are:
+ *
+ * <pre>
+ * GET  /bfs?source=s                 vertices in breadth first order
+ * GET  /shortest?source=s[&amp;target=t] shortest distances from s
+ * GET  /mst?source=s                 minimum spanning tree edges, or null
+ * GET  /reach?source=s&amp;target=t     whether t is reachable from s
+ * POST /reach                        one "source target" pair per line
+ * GET  /stats                        request and batching counters
+ * </pre>
+ *
+ * Requests run on virtual threads when the JDK has them, and on a cached
+ * pool of daemon threads otherwise. A virtual thread runs one request, so
+ * the per-thread {@link SearchWorkspace#current()} would be a new
+ * workspace, grown from nothing, for every search. Searches instead borrow
+ * a workspace from a pool kept by the server and return it when done. The
+ * pool keeps at most {@link #MAX_POOLED_WORKSPACES} workspaces, each as
+ * large as the largest graph it searched; searches beyond that many at
+ * once use workspaces that are dropped afterwards.
+ *
+ * Concurrent breadth first, shortest path and spanning tree requests for
+ * the same source and snapshot are coalesced: the first runs the search
+ * and the rest wait for its result. Reachability requests are collected
+ * for {@value #BATCH_WINDOW_MICROS} microseconds and answered together by
+ * bit-parallel searches from up to 64 sources at a time, and a POST to
+ * /reach is answered the same way without waiting.
+ *
+ * Vertices are named in requests by the string form of their data, which
+ * the parser given to the constructor turns back into data.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class GraphQueryServer<T> {
+
+    /**
+     * How long a reachability request waits for others to batch with.
+     */
+    static final long BATCH_WINDOW_MICROS = 500;
+
+    /**
+     * The number of waiting reachability requests that starts a batch
+     * without waiting for the window to end.
+     */
+    static final int MAX_BATCH = 1024;
+
+    /**
+     * The most idle search workspaces kept for reuse. Searches take a core
+     * each, so more workspaces than cores are rarely busy at once.
+     */
+    static final int MAX_POOLED_WORKSPACES =
+            Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final int OK = 200;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int BAD_METHOD = 405;
+    private static final int SERVER_ERROR = 500;
+
+    private final GraphStore<T> store;
+    private final Function<String, T> parser;
+    private final Map<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<String, CompletableFuture<Object>>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong batchedQueries = new AtomicLong();
+    private final Queue<SearchWorkspace> workspaces =
+            new ConcurrentLinkedQueue<SearchWorkspace>();
+    private final AtomicInteger pooledWorkspaces = new AtomicInteger();
+    private final Object batchLock = new Object();
+    private List<Query> waiting = new ArrayList<Query>();
+    private boolean flushScheduled;
+    private volatile Plan<T> plan;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a server for a store. The server does not listen until it is
+     * started.
+     *
+     * @throws IllegalArgumentException if either argument is null
+     * @param store the graphs to query
+     * @param parser turns vertex names in requests into vertex data
+     */
+    public GraphQueryServer(GraphStore<T> store, Function<String, T> parser) {
+        if (store == null || parser == null) {
+            throw new IllegalArgumentException("Store or parser is null");
+        }
+        this.store = store;
+        this.parser = parser;
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     *
+     * @throws IllegalStateException if the server is already started
+     * @throws IOException if the port cannot be bound
+     * @param port the port, or 0 for any free port
+     */
+    public synchronized void start(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("Server is already started");
+        }
+        executor = newRequestExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "graph-query-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(
+                InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(executor);
+        server.createContext("/bfs", handler(this::bfs));
+        server.createContext("/shortest", handler(this::shortest));
+        server.createContext("/mst", handler(this::mst));
+        server.createContext("/reach", handler(this::reach));
+        server.createContext("/stats", handler(this::stats));
+        server.start();
+    }
+
+    /**
+     * Stops listening and abandons requests in progress.
+     */
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+            scheduler.shutdownNow();
+            server = null;
+        }
+    }
+
+    /**
+     * Gets the port the server is listening on.
+     *
+     * @throws IllegalStateException if the server is not started
+     * @return the port
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("Server is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Gets the number of requests received.
+     *
+     * @return the number of requests
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Gets the number of requests answered by another request's search.
+     *
+     * @return the number of coalesced requests
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Gets the number of multi-source searches run for reachability.
+     *
+     * @return the number of batches
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Gets the number of reachability queries answered by batches.
+     *
+     * @return the number of batched queries
+     */
+    public long getBatchedQueryCount() {
+        return batchedQueries.get();
+    }
+
+    /**
+     * Creates a virtual thread per task executor if this JDK has virtual
+     * threads, or a cached pool of daemon threads if not. Reflection keeps
+     * the source compatible with JDKs that predate virtual threads.
+     *
+     * @return the executor for requests
+     */
+    private static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod(
+                    "newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "graph-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Wraps an endpoint in the request counting, parameter parsing, error
+     * handling and response writing every endpoint shares.
+     *
+     * @param endpoint the endpoint, from a request to a JSON body
+     * @return the handler
+     */
+    private HttpHandler handler(Function<Request, String> endpoint) {
+        return exchange -> {
+            requests.incrementAndGet();
+            int status = OK;
+            String body;
+            try {
+                body = endpoint.apply(new Request(exchange));
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                status = status(cause);
+                body = error(cause);
+            } catch (RuntimeException e) {
+                status = status(e);
+                body = error(e);
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type",
+                    "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        };
+    }
+
+    /**
+     * Gets the status code for a failed request.
+     *
+     * @param error what went wrong
+     * @return the status code
+     */
+    private static int status(Throwable error) {
+        if (error instanceof NoSuchElementException) {
+            return NOT_FOUND;
+        } else if (error instanceof UnsupportedOperationException) {
+            return BAD_METHOD;
+        } else if (error instanceof IllegalArgumentException) {
+            return BAD_REQUEST;
+        }
+        return SERVER_ERROR;
+    }
+
+    /**
+     * Gets the body for a failed request.
+     *
+     * @param error what went wrong
+     * @return the JSON body
+     */
+    private static String error(Throwable error) {
+        return "{\"error\":" + quote(String.valueOf(error.getMessage())) + "}";
+    }
+
+    /**
+     * Answers a breadth first search request.
+     *
+     * @param request the request
+     * @return the vertices in visit order
+     */
+    private String bfs(Request request) {
+        GraphSnapshot<T> snapshot = store.snapshot();
+        Vertex<T> source = vertex(snapshot, request.require("source"));
+        return (String) coalesce("bfs", snapshot, source, () -> {
+            StringBuilder json = new StringBuilder("[");
+            List<Vertex<T>> visited = withWorkspace(workspace ->
+                    GraphAlgorithms.indexedBreadthFirstSearch(source,
+                            snapshot.getIndexedGraph(), workspace));
+            for (Vertex<T> vertex : visited) {
+                json.append(json.length() > 1 ? "," : "")
+                        .append(quote(vertex));
+            }
+            return json.append(']').toString();
+        });
+    }
+
+    /**
+     * Answers a shortest path request, using the snapshot's planner.
+     *
+     * @param request the request
+     * @return the distance to the target, or to every reachable vertex
+     */
+    @SuppressWarnings("unchecked")
+    private String shortest(Request request) {
+        GraphSnapshot<T> snapshot = store.snapshot();
+        Vertex<T> source = vertex(snapshot, request.require("source"));
+        String targetName = request.get("target");
+        Vertex<T> target = targetName == null ? null
+                : vertex(snapshot, targetName);
+        DistanceTable<T> table = (DistanceTable<T>) coalesce("shortest",
+                snapshot, source, () -> withWorkspace(workspace ->
+                        planner(snapshot).distances(source, null, workspace)));
+        if (target != null) {
+            int distance = table.distanceTo(target);
+            return "{\"source\":" + quote(source) + ",\"target\":"
+                    + quote(target) + ",\"distance\":"
+                    + (distance == DistanceTable.UNREACHABLE ? "null"
+                    : String.valueOf(distance)) + "}";
+        }
+        StringBuilder json = new StringBuilder("{");
+        IndexedGraph<T> graph = table.getGraph();
+        for (int id = 0; id < graph.getVertexCount(); id++) {
+            int distance = table.distanceTo(id);
+            if (distance != DistanceTable.UNREACHABLE) {
+                json.append(json.length() > 1 ? "," : "")
+                        .append(quote(graph.getVertex(id))).append(':')
+                        .append(distance);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Answers a minimum spanning tree request.
+     *
+     * @param request the request
+     * @return the edges of the tree, or null if the graph is disconnected
+     */
+    private String mst(Request request) {
+        GraphSnapshot<T> snapshot = store.snapshot();
+        Vertex<T> source = vertex(snapshot, request.require("source"));
+        return (String) coalesce("mst", snapshot, source, () -> {
+            Set<Edge<T>> tree = withWorkspace(workspace ->
+                    GraphAlgorithms.indexedPrims(source,
+                            snapshot.getIndexedGraph(), workspace));
+            if (tree == null) {
+                return "null";
+            }
+            StringBuilder json = new StringBuilder("[");
+            for (Edge<T> edge : tree) {
+                json.append(json.length() > 1 ? "," : "")
+                        .append("{\"u\":").append(quote(edge.getU()))
+                        .append(",\"v\":").append(quote(edge.getV()))
+                        .append(",\"weight\":").append(edge.getWeight())
+                        .append('}');
+            }
+            return json.append(']').toString();
+        });
+    }
+
+    /**
+     * Answers reachability requests: a GET joins the next batch, and a
+     * POST is a batch of its own.
+     *
+     * @param request the request
+     * @return true or false, or an array of them for a POST
+     */
+    private String reach(Request request) {
+        if ("POST".equals(request.method)) {
+            List<Query> queries = new ArrayList<Query>();
+            for (String line : request.body().split("\n")) {
+                String[] names = line.trim().split("\\s+");
+                if (names.length == 2) {
+                    queries.add(new Query(parser.apply(names[0]),
+                            parser.apply(names[1])));
+                } else if (!line.trim().isEmpty()) {
+                    throw new IllegalArgumentException("Expected a source "
+                            + "and a target: " + line);
+                }
+            }
+            answer(store.snapshot(), queries);
+            StringBuilder json = new StringBuilder("[");
+            for (Query query : queries) {
+                json.append(json.length() > 1 ? "," : "")
+                        .append(query.result.join());
+            }
+            return json.append(']').toString();
+        }
+        if (!"GET".equals(request.method)) {
+            throw new UnsupportedOperationException("Use GET or POST");
+        }
+        Query query = new Query(parser.apply(request.require("source")),
+                parser.apply(request.require("target")));
+        boolean flushNow = false;
+        synchronized (batchLock) {
+            waiting.add(query);
+            if (waiting.size() >= MAX_BATCH) {
+                flushNow = true;
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                scheduler.schedule(() -> executor.execute(this::flush),
+                        BATCH_WINDOW_MICROS, TimeUnit.MICROSECONDS);
+            }
+        }
+        if (flushNow) {
+            flush();
+        }
+        return String.valueOf(query.result.join());
+    }
+
+    /**
+     * Answers every waiting reachability request.
+     */
+    private void flush() {
+        List<Query> batch;
+        synchronized (batchLock) {
+            batch = waiting;
+            waiting = new ArrayList<Query>();
+            flushScheduled = false;
+        }
+        if (!batch.isEmpty()) {
+            answer(store.snapshot(), batch);
+        }
+    }
+
+    /**
+     * Answers reachability queries on a snapshot. If answering fails, every
+     * query not yet answered fails with the same error, so that no request
+     * waits forever on a batch that died, even one run on the executor
+     * where nothing else would see the error.
+     *
+     * @param snapshot the snapshot to search
+     * @param queries the queries to answer
+     */
+    private void answer(GraphSnapshot<T> snapshot, List<Query> queries) {
+        try {
+            answer(snapshot.getIndexedGraph(), queries);
+        } catch (RuntimeException | Error e) {
+            for (Query query : queries) {
+                query.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Answers reachability queries on a graph, grouping them into searches
+     * of up to 64 distinct sources.
+     *
+     * @param graph the graph to search
+     * @param queries the queries to answer
+     */
+    private void answer(IndexedGraph<T> graph, List<Query> queries) {
+        Map<Integer, Integer> slots = new HashMap<Integer, Integer>();
+        int[] sources = new int[MultiSourceSearch.MAX_SOURCES];
+        List<Query> group = new ArrayList<Query>();
+        for (Query query : queries) {
+            int source = graph.getId(new Vertex<T>(query.source));
+            int target = graph.getId(new Vertex<T>(query.target));
+            if (source < 0 || target < 0) {
+                query.result.completeExceptionally(new NoSuchElementException(
+                        "Vertex does not exist in graph"));
+                continue;
+            }
+            Integer slot = slots.get(source);
+            if (slot == null) {
+                if (slots.size() == sources.length) {
+                    search(graph, sources, group);
+                    slots.clear();
+                    group.clear();
+                }
+                slot = slots.size();
+                slots.put(source, slot);
+                sources[slot] = source;
+            }
+            query.slot = slot;
+            query.targetId = target;
+            group.add(query);
+        }
+        if (!group.isEmpty()) {
+            search(graph, Arrays.copyOf(sources, slots.size()), group);
+        }
+    }
+
+    /**
+     * Runs one multi-source search and completes its queries.
+     *
+     * @param graph the graph to search
+     * @param sources the source ids
+     * @param group the queries on those sources
+     */
+    private void search(IndexedGraph<T> graph, int[] sources,
+            List<Query> group) {
+        long[] seen = MultiSourceSearch.reach(graph, sources);
+        batches.incrementAndGet();
+        batchedQueries.addAndGet(group.size());
+        for (Query query : group) {
+            query.result.complete(
+                    ((seen[query.targetId] >>> query.slot) & 1) != 0);
+        }
+    }
+
+    /**
+     * Answers a counters request.
+     *
+     * @param request the request
+     * @return the counters
+     */
+    private String stats(Request request) {
+        return "{\"version\":" + store.snapshot().getVersion()
+                + ",\"requests\":" + requests.get() + ",\"coalesced\":"
+                + coalesced.get() + ",\"batches\":" + batches.get()
+                + ",\"batchedQueries\":" + batchedQueries.get() + "}";
+    }
+
+    /**
+     * Runs a search unless the same search is already running, in which
+     * case waits for that one's result instead.
+     *
+     * @param operation the kind of search
+     * @param snapshot the snapshot searched
+     * @param source the source vertex
+     * @param search computes the result
+     * @return the result
+     */
+    Object coalesce(String operation, GraphSnapshot<T> snapshot,
+            Vertex<T> source, Supplier<Object> search) {
+        String key = operation + '|' + snapshot.getVersion() + '|'
+                + System.identityHashCode(snapshot) + '|' + source;
+        CompletableFuture<Object> mine = new CompletableFuture<Object>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return running.join();
+        }
+        try {
+            Object result = search.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Runs a search in a workspace borrowed from the pool, or in a new one
+     * if the pool is empty, and then returns the workspace to the pool
+     * unless the pool is full.
+     *
+     * @param search the search, given the workspace to run in
+     * @param <R> the type of the search result
+     * @return the result of the search
+     */
+    <R> R withWorkspace(Function<SearchWorkspace, R> search) {
+        SearchWorkspace workspace = workspaces.poll();
+        if (workspace == null) {
+            workspace = new SearchWorkspace();
+        } else {
+            pooledWorkspaces.decrementAndGet();
+        }
+        try {
+            return search.apply(workspace);
+        } finally {
+            if (pooledWorkspaces.incrementAndGet() <= MAX_POOLED_WORKSPACES) {
+                workspaces.offer(workspace);
+            } else {
+                pooledWorkspaces.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of idle workspaces in the pool.
+     *
+     * @return the number of pooled workspaces
+     */
+    int getPooledWorkspaceCount() {
+        return pooledWorkspaces.get();
+    }
+
+    /**
+     * Gets the shortest path planner of a snapshot, planning it if the
+     * snapshot is newer than the last one planned.
+     *
+     * @param snapshot the snapshot
+     * @return the planner
+     */
+    private ShortestPaths<T> planner(GraphSnapshot<T> snapshot) {
+        Plan<T> current = plan;
+        if (current == null || current.snapshot != snapshot) {
+            current = new Plan<T>(snapshot,
+                    ShortestPaths.planIndexed(snapshot.getIndexedGraph()));
+            plan = current;
+        }
+        return current.planner;
+    }
+
+    /**
+     * Looks up a vertex by name in a snapshot.
+     *
+     * @throws NoSuchElementException if the snapshot has no such vertex
+     * @param snapshot the snapshot
+     * @param name the name of the vertex
+     * @return the vertex
+     */
+    private Vertex<T> vertex(GraphSnapshot<T> snapshot, String name) {
+        Vertex<T> vertex = new Vertex<T>(parser.apply(name));
+        if (snapshot.getIndexedGraph().getId(vertex) < 0) {
+            throw new NoSuchElementException("Vertex " + name
+                    + " does not exist in graph");
+        }
+        return vertex;
+    }
+
+    /**
+     * Quotes the name of a vertex as a JSON string.
+     *
+     * @param vertex the vertex
+     * @return the JSON string
+     */
+    private static String quote(Vertex<?> vertex) {
+        return quote(String.valueOf(vertex.getData()));
+    }
+
+    /**
+     * Quotes text as a JSON string.
+     *
+     * @param text the text
+     * @return the JSON string
+     */
+    private static String quote(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < ' ') {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * The parts of an HTTP request the endpoints use.
+     */
+    private static final class Request {
+        private final HttpExchange exchange;
+        private final String method;
+        private final Map<String, String> parameters =
+                new HashMap<String, String>();
+
+        /**
+         * Reads the method and query parameters of an exchange.
+         *
+         * @param exchange the exchange
+         */
+        private Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.method = exchange.getRequestMethod();
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    int equals = pair.indexOf('=');
+                    if (equals > 0) {
+                        parameters.put(decode(pair.substring(0, equals)),
+                                decode(pair.substring(equals + 1)));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Decodes a URL encoded string.
+         *
+         * @param text the encoded text
+         * @return the decoded text
+         */
+        private static String decode(String text) {
+            return URLDecoder.decode(text, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Gets a query parameter.
+         *
+         * @param name the parameter name
+         * @return the value, or null if absent
+         */
+        private String get(String name) {
+            return parameters.get(name);
+        }
+
+        /**
+         * Gets a query parameter that must be present.
+         *
+         * @throws IllegalArgumentException if the parameter is absent
+         * @param name the parameter name
+         * @return the value
+         */
+        private String require(String name) {
+            String value = parameters.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing parameter "
+                        + name);
+            }
+            return value;
+        }
+
+        /**
+         * Reads the request body as UTF-8 text.
+         *
+         * @return the body
+         */
+        private String body() {
+            try (InputStream in = exchange.getRequestBody()) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read = in.read(buffer);
+                while (read >= 0) {
+                    bytes.write(buffer, 0, read);
+                    read = in.read(buffer);
+                }
+                return new String(bytes.toByteArray(),
+                        StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Unreadable body", e);
+            }
+        }
+    }
+
+    /**
+     * A reachability query waiting for its batch.
+     */
+    private final class Query {
+        private final T source;
+        private final T target;
+        private final CompletableFuture<Boolean> result =
+                new CompletableFuture<Boolean>();
+        private int slot;
+        private int targetId;
+
+        /**
+         * Creates a query.
+         *
+         * @param source the data of the source vertex
+         * @param target the data of the target vertex
+         */
+        private Query(T source, T target) {
+            this.source = source;
+            this.target = target;
+        }
+    }
+
+    /**
+     * The shortest path planner of one snapshot.
+     *
+     * @param <T> the data type representing the vertices in the graph
+     */
+    private static final class Plan<T> {
+        private final GraphSnapshot<T> snapshot;
+        private final ShortestPaths<T> planner;
+
+        /**
+         * Creates a plan.
+         *
+         * @param snapshot the snapshot planned for
+         * @param planner its planner
+         */
+        private Plan(GraphSnapshot<T> snapshot, ShortestPaths<T> planner) {
+            this.snapshot = snapshot;
+            this.planner = planner;
+        }
+    }
+}
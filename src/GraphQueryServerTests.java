@@ -0,0 +1,448 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for GraphQueryServer and MultiSourceSearch.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphQueryServerTests {
+
+    private static final int TIMEOUT = 5000;
+    private static final int LARGE_TIMEOUT = 20000;
+
+    private GraphStore<Integer> store;
+    private GraphQueryServer<Integer> server;
+
+    /**
+     * Serves a directed graph 0 -> 1 -> 2 -> 3 with a shortcut 0 -> 2 and
+     * an isolated edge 4 -> 5.
+     *
+     * @throws IOException if the server cannot start
+     */
+    @Before
+    public void init() throws IOException {
+        Vertex<Integer>[] v = vertices(6);
+        store = new GraphStore<>();
+        store.update(List.of(new Edge<Integer>(v[0], v[1], 1, true),
+                new Edge<Integer>(v[1], v[2], 2, true),
+                new Edge<Integer>(v[2], v[3], 3, true),
+                new Edge<Integer>(v[0], v[2], 7, true),
+                new Edge<Integer>(v[4], v[5], 4, true)), List.of());
+        server = new GraphQueryServer<>(store, Integer::valueOf);
+        server.start(0);
+    }
+
+    /**
+     * Stops the server.
+     */
+    @After
+    public void close() {
+        server.stop();
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBfs() throws IOException {
+        String body = get("/bfs?source=0", 200);
+        assertTrue(body.startsWith("[\"0\","));
+        for (String name : new String[] {"\"1\"", "\"2\"", "\"3\""}) {
+            assertTrue(body.contains(name));
+        }
+        assertTrue(!body.contains("\"4\""));
+        assertEquals("[\"5\"]", get("/bfs?source=5", 200));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testShortest() throws IOException {
+        assertEquals("{\"source\":\"0\",\"target\":\"3\",\"distance\":6}",
+                get("/shortest?source=0&target=3", 200));
+        assertEquals("{\"source\":\"0\",\"target\":\"5\",\"distance\":null}",
+                get("/shortest?source=0&target=5", 200));
+        String all = get("/shortest?source=1", 200);
+        assertEquals(3, all.split(",").length);
+        assertTrue(all.contains("\"3\":5"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMst() throws IOException {
+        assertEquals("null", get("/mst?source=0", 200));
+        Vertex<Integer>[] v = vertices(3);
+        GraphStore<Integer> triangle = new GraphStore<>();
+        triangle.update(List.of(new Edge<Integer>(v[0], v[1], 1, false),
+                new Edge<Integer>(v[1], v[2], 2, false),
+                new Edge<Integer>(v[0], v[2], 5, false)), List.of());
+        server.stop();
+        server = new GraphQueryServer<>(triangle, Integer::valueOf);
+        server.start(0);
+        String body = get("/mst?source=0", 200);
+        assertEquals(2, body.split("\"weight\"").length - 1);
+        assertTrue(!body.contains("\"weight\":5"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testReach() throws IOException {
+        assertEquals("true", get("/reach?source=0&target=3", 200));
+        assertEquals("false", get("/reach?source=3&target=0", 200));
+        assertEquals("false", get("/reach?source=0&target=5", 200));
+        assertEquals("true", get("/reach?source=4&target=4", 200));
+        assertEquals("[true,false,true]",
+                post("/reach", "0 3\n3 0\n4 5\n", 200));
+        assertTrue(server.getBatchedQueryCount() >= 7);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testErrors() throws IOException {
+        assertTrue(get("/bfs", 400).contains("source"));
+        assertTrue(get("/bfs?source=x", 400).startsWith("{\"error\":"));
+        assertTrue(get("/shortest?source=9", 404).contains("9"));
+        get("/reach?source=0&target=9", 404);
+        post("/reach", "0 1 2\n", 400);
+        assertTrue(get("/stats", 200).contains("\"requests\":6"));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFailedBatchAnswersEveryQuery() throws IOException {
+        GraphStore<Object> objects = new GraphStore<>();
+        objects.update(List.of(new Edge<Object>(new Vertex<Object>(0),
+                new Vertex<Object>(1), 1, true)), List.of());
+        GraphQueryServer<Object> failing = new GraphQueryServer<>(objects,
+            name -> "poison".equals(name) ? new Poison()
+                    : Integer.valueOf(name));
+        failing.start(0);
+        try {
+            assertTrue(read(open(failing, "/reach?source=poison&target=1"),
+                    500).contains("poison"));
+            assertTrue(post(failing, "/reach", "0 1\npoison 1\n", 500)
+                    .contains("poison"));
+            assertEquals("true", read(open(failing,
+                    "/reach?source=0&target=1"), 200));
+        } finally {
+            failing.stop();
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSeesUpdates() throws IOException {
+        assertEquals("false", get("/reach?source=3&target=4", 200));
+        Vertex<Integer>[] v = vertices(5);
+        store.addEdge(new Edge<Integer>(v[3], v[4], 1, true));
+        assertEquals("true", get("/reach?source=3&target=4", 200));
+        assertEquals("{\"source\":\"0\",\"target\":\"5\",\"distance\":11}",
+                get("/shortest?source=0&target=5", 200));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testWorkspacePool() throws IOException {
+        assertEquals(0, server.getPooledWorkspaceCount());
+        get("/bfs?source=0", 200);
+        get("/shortest?source=1", 200);
+        get("/mst?source=0", 200);
+        assertEquals(1, server.getPooledWorkspaceCount());
+        SearchWorkspace pooled = server.withWorkspace(workspace -> workspace);
+        assertSame(pooled, server.withWorkspace(workspace -> workspace));
+        int depth = GraphQueryServer.MAX_POOLED_WORKSPACES + 2;
+        assertEquals(depth, nest(depth, new ArrayList<>()));
+        assertEquals(GraphQueryServer.MAX_POOLED_WORKSPACES,
+                server.getPooledWorkspaceCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testCoalesce() throws InterruptedException {
+        GraphSnapshot<Integer> snapshot = store.snapshot();
+        Vertex<Integer> source = new Vertex<>(0);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger searches = new AtomicInteger();
+        AtomicReference<Object> leader = new AtomicReference<>();
+        AtomicReference<Object> follower = new AtomicReference<>();
+        Thread first = new Thread(() -> leader.set(server.coalesce("op",
+                snapshot, source, () -> {
+                    searches.incrementAndGet();
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return "result";
+                })));
+        first.start();
+        entered.await();
+        Thread second = new Thread(() -> follower.set(server.coalesce("op",
+                snapshot, source, () -> {
+                    searches.incrementAndGet();
+                    return "other";
+                })));
+        second.start();
+        while (server.getCoalescedCount() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        first.join();
+        second.join();
+        assertEquals(1, searches.get());
+        assertEquals("result", leader.get());
+        assertEquals("result", follower.get());
+
+        // finished searches are not reused
+        assertEquals("again", server.coalesce("op", snapshot, source,
+                () -> "again"));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testConcurrentReach() throws InterruptedException {
+        List<Thread> clients = new ArrayList<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int c = 0; c < 16; c++) {
+            final int source = c % 6;
+            Thread client = new Thread(() -> {
+                for (int target = 0; target < 6; target++) {
+                    boolean expected = source == target
+                            || source < 4 && target < 4 && source < target
+                            || source == 4 && target == 5;
+                    try {
+                        String body = get("/reach?source=" + source
+                                + "&target=" + target, 200);
+                        assertEquals(String.valueOf(expected), body);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+            client.setUncaughtExceptionHandler((thread, e) ->
+                    failure.compareAndSet(null, e));
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+        assertEquals(null, failure.get());
+        assertEquals(96, server.getBatchedQueryCount());
+        assertTrue(server.getBatchCount() <= 96);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLargeBatch() throws IOException {
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(500, 900,
+                5);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        server.stop();
+        server = new GraphQueryServer<>(new GraphStore<>(graph),
+                Integer::valueOf);
+        server.start(0);
+        StringBuilder body = new StringBuilder();
+        StringBuilder expected = new StringBuilder("[");
+        for (int s = 0; s < 150; s++) {
+            Vertex<Integer> source = indexed.getVertex(s);
+            List<Vertex<Integer>> reached =
+                    GraphAlgorithms.breadthFirstSearch(source, graph);
+            for (int t = 0; t < 4; t++) {
+                Vertex<Integer> target = indexed.getVertex((s * 7 + t * 31)
+                        % indexed.getVertexCount());
+                body.append(source.getData()).append(' ')
+                        .append(target.getData()).append('\n');
+                expected.append(expected.length() > 1 ? "," : "")
+                        .append(reached.contains(target));
+            }
+        }
+        assertEquals(expected.append(']').toString(),
+                post("/reach", body.toString(), 200));
+        assertEquals(3, server.getBatchCount());
+        assertEquals(600, server.getBatchedQueryCount());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMultiSourceSearch() {
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(300, 500,
+                6);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        int[] sources = new int[64];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = (i * 13) % 40;
+        }
+        long[] seen = MultiSourceSearch.reach(indexed, sources);
+        for (int i = 0; i < sources.length; i++) {
+            List<Vertex<Integer>> reached = GraphAlgorithms
+                    .breadthFirstSearch(indexed.getVertex(sources[i]), graph);
+            int count = 0;
+            for (int v = 0; v < seen.length; v++) {
+                if (((seen[v] >>> i) & 1) != 0) {
+                    count++;
+                    assertTrue(reached.contains(indexed.getVertex(v)));
+                }
+            }
+            assertEquals(reached.size(), count);
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testTooManySources() {
+        MultiSourceSearch.reach(store.snapshot().getIndexedGraph(),
+                new int[65]);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullStore() {
+        new GraphQueryServer<Integer>(null, Integer::valueOf);
+    }
+
+    /**
+     * Borrows workspaces from the server's pool while holding the ones
+     * borrowed before, as that many concurrent searches would.
+     *
+     * @param depth the number of workspaces left to borrow
+     * @param held the workspaces held so far
+     * @return the number of distinct workspaces held at the deepest point
+     */
+    private int nest(int depth, List<SearchWorkspace> held) {
+        if (depth == 0) {
+            return (int) held.stream().distinct().count();
+        }
+        return server.withWorkspace(workspace -> {
+            held.add(workspace);
+            return nest(depth - 1, held);
+        });
+    }
+
+    /**
+     * Creates vertices 0 to count - 1.
+     *
+     * @param count the number of vertices
+     * @return the vertices
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Vertex<Integer>[] vertices(int count) {
+        Vertex<Integer>[] vertices = new Vertex[count];
+        for (int i = 0; i < count; i++) {
+            vertices[i] = new Vertex<>(i);
+        }
+        return vertices;
+    }
+
+    /**
+     * Sends a GET request and checks its status.
+     *
+     * @param path the path and query
+     * @param status the expected status
+     * @return the response body
+     * @throws IOException if the request fails
+     */
+    private String get(String path, int status) throws IOException {
+        HttpURLConnection connection = open(path);
+        return read(connection, status);
+    }
+
+    /**
+     * Sends a POST request and checks its status.
+     *
+     * @param path the path
+     * @param body the request body
+     * @param status the expected status
+     * @return the response body
+     * @throws IOException if the request fails
+     */
+    private String post(String path, String body, int status)
+        throws IOException {
+        return post(server, path, body, status);
+    }
+
+    /**
+     * Sends a POST request to a server and checks its status.
+     *
+     * @param target the server
+     * @param path the path
+     * @param body the request body
+     * @param status the expected status
+     * @return the response body
+     * @throws IOException if the request fails
+     */
+    private static String post(GraphQueryServer<?> target, String path,
+            String body, int status) throws IOException {
+        HttpURLConnection connection = open(target, path);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return read(connection, status);
+    }
+
+    /**
+     * Opens a connection to the server.
+     *
+     * @param path the path and query
+     * @return the connection
+     * @throws IOException if the connection fails
+     */
+    private HttpURLConnection open(String path) throws IOException {
+        return open(server, path);
+    }
+
+    /**
+     * Opens a connection to a server.
+     *
+     * @param target the server
+     * @param path the path and query
+     * @return the connection
+     * @throws IOException if the connection fails
+     */
+    private static HttpURLConnection open(GraphQueryServer<?> target,
+            String path) throws IOException {
+        return (HttpURLConnection) new URL("http://127.0.0.1:"
+                + target.getPort() + path).openConnection();
+    }
+
+    /**
+     * Reads a response and checks its status.
+     *
+     * @param connection the connection
+     * @param status the expected status
+     * @return the response body
+     * @throws IOException if reading fails
+     */
+    private static String read(HttpURLConnection connection, int status)
+        throws IOException {
+        assertEquals(status, connection.getResponseCode());
+        try (InputStream in = status < 400 ? connection.getInputStream()
+                : connection.getErrorStream()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            in.transferTo(bytes);
+            return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Vertex data that cannot be looked up, so any batch holding it fails.
+     */
+    private static final class Poison {
+        @Override
+        public boolean equals(Object o) {
+            throw new IllegalStateException("poison");
+        }
+
+        @Override
+        public int hashCode() {
+            throw new IllegalStateException("poison");
+        }
+    }
+}
@@ -0,0 +1,216 @@
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One immutable version of the edges in a {@link GraphStore}.
+ *
+ * A snapshot never changes, so any number of threads can read it without
+ * locking while the store moves on to later versions. The IndexedGraph of
+ * a snapshot is built straight from the edge trie by the writer, before
+ * the snapshot is published, so readers that only need it never build
+ * anything or take a lock. The Graph is built the first time a reader
+ * asks for it and then shared by every reader of that snapshot.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class GraphSnapshot<T> {
+
+    private final long version;
+    private final EdgeTrie<T> edges;
+    private volatile Graph<T> graph;
+    private final IndexedGraph<T> indexed;
+
+    /**
+     * Creates a snapshot and builds its indexed form.
+     *
+     * @param version the version number
+     * @param edges the edges
+     */
+    GraphSnapshot(long version, EdgeTrie<T> edges) {
+        this.version = version;
+        this.edges = edges;
+        this.indexed = index();
+    }
+
+    /**
+     * Gets the version of this snapshot. Every change to a store makes a
+     * snapshot with a larger version.
+     *
+     * @return the version number
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the edges of this snapshot for building the next version.
+     *
+     * @return the edge trie
+     */
+    EdgeTrie<T> edgeTrie() {
+        return edges;
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    /**
+     * Gets whether this snapshot has an edge equal to the given one.
+     *
+     * @throws IllegalArgumentException if the edge is null
+     * @param edge the edge
+     * @return true if the edge is in this snapshot
+     */
+    public boolean containsEdge(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("Edge is null");
+        }
+        return edges.contains(edge);
+    }
+
+    /**
+     * Gets the edges as an unmodifiable set.
+     *
+     * @return the edges
+     */
+    public Set<Edge<T>> getEdges() {
+        return new AbstractSet<Edge<T>>() {
+            @Override
+            public Iterator<Edge<T>> iterator() {
+                return edges.iterator();
+            }
+
+            @Override
+            public int size() {
+                return edges.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Edge && edges.contains((Edge<?>) o);
+            }
+        };
+    }
+
+    /**
+     * Gets this snapshot as a Graph, building it on first use. The edge
+     * list, and so the order of every adjacency list, follows the order of
+     * {@link #getEdges()}, which depends on the edges' hashes rather than
+     * the order they were added in. The Graph is shared; callers must not
+     * modify it.
+     *
+     * @return the graph
+     */
+    public Graph<T> getGraph() {
+        Graph<T> built = graph;
+        if (built == null) {
+            synchronized (this) {
+                built = graph;
+                if (built == null) {
+                    LinkedHashSet<Edge<T>> list =
+                            new LinkedHashSet<Edge<T>>(Math.max(16,
+                                    (int) (edges.size() / 0.75f) + 1));
+                    for (Edge<T> edge : edges) {
+                        list.add(edge);
+                    }
+                    built = new Graph<T>(list);
+                    graph = built;
+                }
+            }
+        }
+        return built;
+    }
+
+    /**
+     * Gets the indexed form of this snapshot, which was built when the
+     * snapshot was made. Vertex ids and neighbor lists are in the same
+     * order as in the indexed form of {@link #getGraph()}, but the Graph
+     * is not built.
+     *
+     * @return the indexed graph
+     */
+    public IndexedGraph<T> getIndexedGraph() {
+        return indexed;
+    }
+
+    /**
+     * Builds the indexed form of the edges in two passes over the trie.
+     * The first numbers the vertices in order of first appearance and
+     * counts the arcs leaving each; the second places every arc at the end
+     * of its row, so rows keep the edge order, as a Graph's adjacency
+     * lists do. An undirected edge is an arc in each direction.
+     *
+     * @return the indexed graph
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private IndexedGraph<T> index() {
+        Map<Vertex<T>, Integer> ids = new HashMap<Vertex<T>, Integer>(
+                Math.max(16, edges.size() * 4 / 3 + 1));
+        Vertex<T>[] vertices = (Vertex<T>[]) new Vertex[16];
+        int[] offsets = new int[17];
+        int n = 0;
+        boolean directed = false;
+        int[] ends = new int[2];
+        for (Edge<T> edge : edges) {
+            for (int end = 0; end < 2; end++) {
+                Vertex<T> vertex = end == 0 ? edge.getU() : edge.getV();
+                Integer id = ids.get(vertex);
+                if (id == null) {
+                    if (n == vertices.length) {
+                        vertices = Arrays.copyOf(vertices, 2 * n);
+                        offsets = Arrays.copyOf(offsets, 2 * n + 1);
+                    }
+                    id = n;
+                    ids.put(vertex, id);
+                    vertices[n++] = vertex;
+                }
+                ends[end] = id;
+            }
+            offsets[ends[0] + 1]++;
+            if (edge.isDirected()) {
+                directed = true;
+            } else {
+                offsets[ends[1] + 1]++;
+            }
+        }
+        vertices = Arrays.copyOf(vertices, n);
+        offsets = Arrays.copyOf(offsets, n + 1);
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (Edge<T> edge : edges) {
+            int u = ids.get(edge.getU());
+            int v = ids.get(edge.getV());
+            targets[next[u]] = v;
+            weights[next[u]++] = edge.getWeight();
+            if (!edge.isDirected()) {
+                targets[next[v]] = u;
+                weights[next[v]++] = edge.getWeight();
+            }
+        }
+        return new IndexedGraph<T>(vertices, ids, offsets, targets, weights,
+                directed);
+    }
+
+    @Override
+    public String toString() {
+        return "GraphSnapshot[version=" + version + ", edges=" + edges.size()
+                + "]";
+    }
+}
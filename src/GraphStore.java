@@ -0,0 +1,127 @@
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * A mutable graph for many concurrent readers and a single stream of
+ * updates, kept as a series of immutable {@link GraphSnapshot}s.
+ *
+ * Readers call {@link #snapshot()} and run any algorithm on the snapshot's
+ * graph; taking a snapshot is a single volatile read, and the snapshot
+ * stays the same however the store changes afterwards. Writers build the
+ * next version from the current one, index it, and publish it with a
+ * volatile write, so the indexing cost falls on the writer.
+ * The edges of consecutive versions are kept in a persistent hash trie, so
+ * an update copies a handful of small nodes rather than the whole graph,
+ * and old snapshots stay valid for as long as someone holds them.
+ *
+ * Updates are serialized with a lock that readers never take.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class GraphStore<T> {
+
+    private final Object writeLock = new Object();
+    private volatile GraphSnapshot<T> current;
+
+    /**
+     * Creates an empty store at version 0.
+     */
+    public GraphStore() {
+        current = new GraphSnapshot<T>(0, EdgeTrie.<T>empty());
+    }
+
+    /**
+     * Creates a store holding the edges of a graph at version 0.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to start from
+     */
+    public GraphStore(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        EdgeTrie<T> edges = EdgeTrie.<T>empty();
+        for (Edge<T> edge : graph.getEdgeList()) {
+            edges = edges.with(edge);
+        }
+        current = new GraphSnapshot<T>(0, edges);
+    }
+
+    /**
+     * Gets the latest version of the graph without locking.
+     *
+     * @return the current snapshot
+     */
+    public GraphSnapshot<T> snapshot() {
+        return current;
+    }
+
+    /**
+     * Adds an edge.
+     *
+     * @throws IllegalArgumentException if the edge is null
+     * @param edge the edge to add
+     * @return the snapshot with the edge, which is the current snapshot if
+     *         the edge was already there
+     */
+    public GraphSnapshot<T> addEdge(Edge<T> edge) {
+        return update(Collections.singleton(edge),
+                Collections.<Edge<T>>emptySet());
+    }
+
+    /**
+     * Removes an edge.
+     *
+     * @throws IllegalArgumentException if the edge is null
+     * @param edge the edge to remove
+     * @return the snapshot without the edge, which is the current snapshot
+     *         if the edge was not there
+     */
+    public GraphSnapshot<T> removeEdge(Edge<T> edge) {
+        return update(Collections.<Edge<T>>emptySet(),
+                Collections.singleton(edge));
+    }
+
+    /**
+     * Removes and then adds edges as one new version, so readers see either
+     * none or all of the changes.
+     *
+     * @throws IllegalArgumentException if either collection is null or
+     *             contains null
+     * @param added the edges to add
+     * @param removed the edges to remove
+     * @return the new snapshot, which is the current snapshot if nothing
+     *         changed
+     */
+    public GraphSnapshot<T> update(Collection<Edge<T>> added,
+            Collection<Edge<T>> removed) {
+        if (added == null || removed == null) {
+            throw new IllegalArgumentException("Edges are null");
+        }
+        synchronized (writeLock) {
+            GraphSnapshot<T> previous = current;
+            EdgeTrie<T> edges = previous.edgeTrie();
+            for (Edge<T> edge : removed) {
+                if (edge == null) {
+                    throw new IllegalArgumentException("Edge is null");
+                }
+                edges = edges.without(edge);
+            }
+            for (Edge<T> edge : added) {
+                if (edge == null) {
+                    throw new IllegalArgumentException("Edge is null");
+                }
+                edges = edges.with(edge);
+            }
+            if (edges == previous.edgeTrie()) {
+                return previous;
+            }
+            GraphSnapshot<T> next = new GraphSnapshot<T>(
+                    previous.getVersion() + 1, edges);
+            current = next;
+            return next;
+        }
+    }
+}
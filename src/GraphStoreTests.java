@@ -0,0 +1,249 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests for GraphStore and GraphSnapshot.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class GraphStoreTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 20000;
+
+    @Test(timeout = TIMEOUT)
+    public void testVersions() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        GraphStore<String> store = new GraphStore<>();
+        GraphSnapshot<String> empty = store.snapshot();
+        assertEquals(0, empty.getVersion());
+
+        GraphSnapshot<String> one = store.addEdge(
+                new Edge<String>(a, b, 1, false));
+        assertEquals(1, one.getVersion());
+        assertSame(one, store.snapshot());
+        assertSame(one, store.addEdge(new Edge<String>(b, a, 1, false)));
+
+        GraphSnapshot<String> two = store.update(
+                Arrays.asList(new Edge<String>(b, c, 2, false),
+                        new Edge<String>(a, c, 5, false)),
+                Arrays.asList(new Edge<String>(a, b, 1, false)));
+        assertEquals(2, two.getVersion());
+        assertEquals(2, two.getEdgeCount());
+        assertFalse(two.containsEdge(new Edge<String>(a, b, 1, false)));
+        assertTrue(two.containsEdge(new Edge<String>(c, b, 2, false)));
+
+        // older snapshots are unaffected
+        assertEquals(0, empty.getEdgeCount());
+        assertEquals(1, one.getEdgeCount());
+        assertTrue(one.containsEdge(new Edge<String>(a, b, 1, false)));
+        assertEquals(Arrays.asList(a, b),
+                GraphAlgorithms.breadthFirstSearch(a, one.getGraph()));
+
+        Graph<String> graph = two.getGraph();
+        assertSame(graph, two.getGraph());
+        assertEquals(7, GraphAlgorithms.dijkstras(a, graph).get(b)
+                .intValue());
+        assertSame(two, store.removeEdge(new Edge<String>(a, b, 1, false)));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testInitialGraph() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(200, 500, 1);
+        GraphStore<Integer> store = new GraphStore<>(graph);
+        assertEquals(graph.getEdgeList(), store.snapshot().getEdges());
+        assertEquals(graph.getAdjacencyList().size(), store.snapshot()
+                .getIndexedGraph().getVertexCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testIndexedGraphMatchesGraph() {
+        Random random = new Random(5);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        GraphStore<Integer> store = new GraphStore<>();
+        for (int i = 0; i < 400; i++) {
+            store.addEdge(new Edge<Integer>(vertices.get(random.nextInt(100)),
+                    vertices.get(random.nextInt(100)), random.nextInt(9),
+                    random.nextInt(4) == 0));
+            if (i % 50 == 0 || i == 399) {
+                GraphSnapshot<Integer> snapshot = store.snapshot();
+                IndexedGraph<Integer> indexed = snapshot.getIndexedGraph();
+                assertSame(indexed, snapshot.getIndexedGraph());
+                IndexedGraph<Integer> expected =
+                        new IndexedGraph<>(snapshot.getGraph());
+                assertEquals(expected.isDirected(), indexed.isDirected());
+                assertEquals(expected.getVertexCount(),
+                        indexed.getVertexCount());
+                for (int v = 0; v < expected.getVertexCount(); v++) {
+                    assertEquals(expected.getVertex(v), indexed.getVertex(v));
+                    assertEquals(v, indexed.getId(expected.getVertex(v)));
+                }
+                assertArrayEquals(expected.getOffsets(), indexed.getOffsets());
+                assertArrayEquals(expected.getTargets(), indexed.getTargets());
+                assertArrayEquals(expected.getWeights(), indexed.getWeights());
+            }
+        }
+        GraphSnapshot<Integer> snapshot = store.snapshot();
+        Vertex<Integer> start = snapshot.getIndexedGraph().getVertex(0);
+        assertEquals(GraphAlgorithms.dijkstras(start, snapshot.getGraph()),
+                ShortestPaths.planIndexed(snapshot.getIndexedGraph())
+                        .distances(start).asMap());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesHashSet() {
+        Random random = new Random(2);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        GraphStore<Integer> store = new GraphStore<>();
+        Set<Edge<Integer>> expected = new EdgeSet<>();
+        for (int i = 0; i < 20000; i++) {
+            Edge<Integer> edge = new Edge<Integer>(
+                    vertices.get(random.nextInt(60)),
+                    vertices.get(random.nextInt(60)), random.nextInt(3),
+                    random.nextBoolean());
+            if (random.nextInt(3) == 0) {
+                expected.remove(edge);
+                store.removeEdge(edge);
+            } else {
+                expected.add(edge);
+                store.addEdge(edge);
+            }
+            assertEquals(expected.size(), store.snapshot().getEdgeCount());
+            if (i % 1000 == 0) {
+                assertEquals(expected, store.snapshot().getEdges());
+            }
+        }
+        assertEquals(expected, store.snapshot().getEdges());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testHashCollisions() {
+        List<Vertex<Colliding>> vertices = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            vertices.add(new Vertex<>(new Colliding(i)));
+        }
+        GraphStore<Colliding> store = new GraphStore<>();
+        Set<Edge<Colliding>> added = new HashSet<>();
+        for (int u = 0; u < 6; u++) {
+            for (int v = u + 1; v < 6; v++) {
+                Edge<Colliding> edge = new Edge<Colliding>(vertices.get(u),
+                        vertices.get(v), 1, false);
+                store.addEdge(edge);
+                added.add(edge);
+            }
+        }
+        assertEquals(15, store.snapshot().getEdgeCount());
+        assertEquals(added, store.snapshot().getEdges());
+        for (Edge<Colliding> edge : added) {
+            GraphSnapshot<Colliding> before = store.snapshot();
+            GraphSnapshot<Colliding> after = store.removeEdge(edge);
+            assertEquals(before.getEdgeCount() - 1, after.getEdgeCount());
+            assertFalse(after.containsEdge(edge));
+            assertTrue(before.containsEdge(edge));
+        }
+        assertEquals(0, store.snapshot().getEdgeCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testConcurrentReaders() throws InterruptedException {
+        GraphStore<Integer> store = new GraphStore<>(
+                GraphGenerators.erdosRenyi(300, 600, 3));
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread reader = new Thread(() -> {
+                long version = -1;
+                while (running.get()) {
+                    GraphSnapshot<Integer> snapshot = store.snapshot();
+                    if (snapshot.getVersion() < version) {
+                        throw new AssertionError("Version went back");
+                    }
+                    version = snapshot.getVersion();
+                    Graph<Integer> graph = snapshot.getGraph();
+                    if (graph.getEdgeList().size()
+                            != snapshot.getEdgeCount()) {
+                        throw new AssertionError("Torn snapshot");
+                    }
+                    Vertex<Integer> start = graph.getEdgeList().iterator()
+                            .next().getU();
+                    GraphAlgorithms.breadthFirstSearch(start, graph);
+                }
+            });
+            reader.setUncaughtExceptionHandler((thread, e) ->
+                    failure.compareAndSet(null, e));
+            readers.add(reader);
+            reader.start();
+        }
+        Random random = new Random(4);
+        for (int i = 0; i < 2000; i++) {
+            Edge<Integer> edge = new Edge<Integer>(
+                    new Vertex<>(random.nextInt(300)),
+                    new Vertex<>(random.nextInt(300)), 1 + random.nextInt(9),
+                    false);
+            store.update(Arrays.asList(edge), Arrays.asList(new Edge<Integer>(
+                    new Vertex<>(random.nextInt(300)),
+                    new Vertex<>(random.nextInt(300)), 1 + random.nextInt(9),
+                    false)));
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        assertEquals(null, failure.get());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullEdge() {
+        new GraphStore<String>().addEdge(null);
+    }
+
+    /**
+     * Vertex data whose hash codes are all equal.
+     */
+    private static final class Colliding {
+        private final int id;
+
+        /**
+         * Creates data with an id.
+         *
+         * @param id the id
+         */
+        private Colliding(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Colliding && ((Colliding) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return 0;
+        }
+    }
+}
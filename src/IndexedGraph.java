@@ -0,0 +1,379 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An array based view of a Graph, with every vertex numbered by a dense id
+ * from 0 to {@code getVertexCount() - 1} and the adjacency list stored in
+ * compressed sparse row form: the neighbors of vertex {@code u} are
+ * {@code getTargets()[i]} for {@code getOffsets()[u] <= i <
+ * getOffsets()[u + 1]}, with the edge weights at the same positions of
+ * {@code getWeights()}.
+ *
+ * Vertices are numbered in the order they first appear in the graph's edge
+ * list, and every neighbor list keeps the order of the graph's adjacency
+ * list, so searches over an IndexedGraph visit vertices in the same order
+ * as searches over the Graph.
+ *
+ * The arrays are shared, not copied; callers must not modify them.
+ *
+ * An IndexedGraph is a snapshot of its Graph when it was built. Graph
+ * hands out its live adjacency map and the edge set it was built from, so
+ * a graph can change afterwards, but the snapshot does not follow. The
+ * searches in GraphAlgorithms index the graph they are given on every
+ * call, so they always see its current contents; callers that run many
+ * searches on a graph that no longer changes can index it once and use
+ * the indexed forms of the searches, or keep it in a {@link GraphStore}.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class IndexedGraph<T> implements IndexedVertices<T> {
+
+    private final Vertex<T>[] vertices;
+    private final Map<Vertex<T>, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final boolean directed;
+    private volatile IndexedGraph<T> transpose;
+
+    /**
+     * Builds the indexed form of a graph. The rows come from the adjacency
+     * map, as the searches on the Graph used them, so a graph changed
+     * through its adjacency map or edge set after it was built is indexed
+     * as it is now: vertices are numbered by first appearance in the edge
+     * set, then in the adjacency map's keys, then as neighbors, and a
+     * vertex without a row has no neighbors.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to index
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndexedGraph(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        Map<Vertex<T>, List<VertexDistancePair<T>>> adjacency =
+                graph.getAdjacencyList();
+        List<Vertex<T>> seen = new ArrayList<Vertex<T>>(adjacency.size());
+        ids = new HashMap<Vertex<T>, Integer>(
+                Math.max(16, adjacency.size() * 4 / 3 + 1));
+        for (Edge<T> edge : graph.getEdgeList()) {
+            number(seen, edge.getU());
+            number(seen, edge.getV());
+        }
+        for (Vertex<T> vertex : adjacency.keySet()) {
+            number(seen, vertex);
+        }
+        int rows = seen.size();
+        int[] ends = new int[rows + 1];
+        for (int u = 0; u < rows; u++) {
+            List<VertexDistancePair<T>> row = adjacency.get(seen.get(u));
+            ends[u + 1] = ends[u] + (row == null ? 0 : row.size());
+        }
+        targets = new int[ends[rows]];
+        weights = new int[ends[rows]];
+        for (int u = 0; u < rows; u++) {
+            List<VertexDistancePair<T>> row = adjacency.get(seen.get(u));
+            if (row == null) {
+                continue;
+            }
+            int i = ends[u];
+            for (VertexDistancePair<T> pair : row) {
+                targets[i] = number(seen, pair.getVertex());
+                weights[i] = pair.getDistance();
+                i++;
+            }
+        }
+        int n = seen.size();
+        offsets = Arrays.copyOf(ends, n + 1);
+        Arrays.fill(offsets, rows + 1, n + 1, ends[rows]);
+        vertices = seen.toArray((Vertex<T>[]) new Vertex[n]);
+        directed = graph.isDirected();
+    }
+
+    /**
+     * Creates an indexed graph from prebuilt arrays. The arrays are used as
+     * they are.
+     *
+     * @param vertices the vertices, indexed by id
+     * @param ids the id of every vertex
+     * @param offsets the row offsets, of length {@code vertices.length + 1}
+     * @param targets the neighbor ids
+     * @param weights the edge weights
+     * @param directed whether the graph has directed edges
+     */
+    IndexedGraph(Vertex<T>[] vertices, Map<Vertex<T>, Integer> ids,
+            int[] offsets, int[] targets, int[] weights, boolean directed) {
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.directed = directed;
+    }
+
+    /**
+     * Gets the indexed form of a graph, as it is now. Every call indexes
+     * the graph again, in O(V + E) time, so that changes made to it
+     * through its adjacency map or the edge set it was built from are
+     * always seen; keep the result to search a graph that no longer
+     * changes many times.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to index
+     * @param <T> the data type representing the vertices in the graph
+     * @return the indexed graph
+     */
+    public static <T> IndexedGraph<T> of(Graph<T> graph) {
+        return new IndexedGraph<T>(graph);
+    }
+
+    /**
+     * Gets this graph with every edge reversed, sharing this graph's
+     * vertices and ids. The neighbors of each vertex in the transpose are
+     * in increasing id order. An undirected graph is its own transpose.
+     * The transpose is built on first use and kept.
+     *
+     * @return the transposed graph
+     */
+    public IndexedGraph<T> transpose() {
+        if (!directed) {
+            return this;
+        }
+        IndexedGraph<T> reversed = transpose;
+        if (reversed == null) {
+            reversed = transpose(null);
+            reversed.transpose = this;
+            transpose = reversed;
+        }
+        return reversed;
+    }
+
+    /**
+     * Builds the transpose of the part of this graph a view shows: an arc
+     * from v to u for every adjacency entry from u to v the view lets a
+     * search follow out of a vertex it shows. The result is built on every
+     * call and not kept, since the view can change.
+     *
+     * @param view the view of this graph, or null for the whole graph
+     * @return the transposed graph
+     */
+    IndexedGraph<T> transpose(SubgraphView<T> view) {
+        int n = vertices.length;
+        int[] reverseOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            if (view == null || view.containsVertex(u)) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    if (view == null || view.containsArc(i)) {
+                        reverseOffsets[targets[i] + 1]++;
+                    }
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            reverseOffsets[v + 1] += reverseOffsets[v];
+        }
+        int[] next = Arrays.copyOf(reverseOffsets, n);
+        int[] reverseTargets = new int[reverseOffsets[n]];
+        int[] reverseWeights = new int[reverseOffsets[n]];
+        for (int u = 0; u < n; u++) {
+            if (view != null && !view.containsVertex(u)) {
+                continue;
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (view == null || view.containsArc(i)) {
+                    int slot = next[targets[i]]++;
+                    reverseTargets[slot] = u;
+                    reverseWeights[slot] = weights[i];
+                }
+            }
+        }
+        return new IndexedGraph<T>(vertices, ids, reverseOffsets,
+                reverseTargets, reverseWeights, true);
+    }
+
+    /**
+     * Gets a copy of this graph with its vertices renumbered for locality.
+     * The copy has the same vertices and edges, so results computed on it
+     * name the same {@code Vertex} objects; only the ids differ. Every
+     * neighbor list of the copy is in increasing id order, so searches may
+     * visit vertices in a different order than they do on this graph.
+     *
+     * @throws IllegalArgumentException if the ordering is null
+     * @param ordering how to renumber the vertices
+     * @return the renumbered graph
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IndexedGraph<T> reorder(VertexOrdering ordering) {
+        if (ordering == null) {
+            throw new IllegalArgumentException("Ordering is null");
+        }
+        int n = vertices.length;
+        int[] order = ordering.order(this);
+        int[] rank = new int[n];
+        Vertex<T>[] renamed = (Vertex<T>[]) new Vertex[n];
+        Map<Vertex<T>, Integer> renamedIds = new HashMap<Vertex<T>, Integer>(
+                Math.max(16, n * 4 / 3 + 1));
+        int[] renamedOffsets = new int[n + 1];
+        int maxDegree = 0;
+        for (int u = 0; u < n; u++) {
+            rank[order[u]] = u;
+            renamed[u] = vertices[order[u]];
+            renamedIds.put(renamed[u], u);
+            renamedOffsets[u + 1] = renamedOffsets[u] + getDegree(order[u]);
+            maxDegree = Math.max(maxDegree, getDegree(order[u]));
+        }
+        int[] renamedTargets = new int[targets.length];
+        int[] renamedWeights = new int[targets.length];
+        long[] row = new long[maxDegree];
+        for (int u = 0; u < n; u++) {
+            int from = offsets[order[u]];
+            int degree = offsets[order[u] + 1] - from;
+            for (int i = 0; i < degree; i++) {
+                row[i] = ((long) rank[targets[from + i]] << Integer.SIZE)
+                        | (weights[from + i] & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+            for (int i = 0; i < degree; i++) {
+                renamedTargets[renamedOffsets[u] + i] =
+                        (int) (row[i] >>> Integer.SIZE);
+                renamedWeights[renamedOffsets[u] + i] = (int) row[i];
+            }
+        }
+        return new IndexedGraph<T>(renamed, renamedIds, renamedOffsets,
+                renamedTargets, renamedWeights, directed);
+    }
+
+    /**
+     * Assigns the next id to a vertex if it does not have one yet.
+     *
+     * @param seen the vertices numbered so far, by id
+     * @param vertex the vertex
+     * @return the id of the vertex
+     */
+    private int number(List<Vertex<T>> seen, Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        if (id == null) {
+            id = seen.size();
+            ids.put(vertex, id);
+            seen.add(vertex);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the vertices indexed by id, for other forms of this graph to
+     * share.
+     *
+     * @return the vertices array
+     */
+    Vertex<T>[] vertices() {
+        return vertices;
+    }
+
+    /**
+     * Gets the id of every vertex, for other forms of this graph to share.
+     *
+     * @return the ids
+     */
+    Map<Vertex<T>, Integer> ids() {
+        return ids;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    @Override
+    public int getVertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Gets the number of adjacency entries. Undirected edges count twice,
+     * once in each direction.
+     *
+     * @return the number of adjacency entries
+     */
+    @Override
+    public int getArcCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the id of a vertex.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    @Override
+    public int getId(Vertex<T> vertex) {
+        Integer id = ids.get(vertex);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the vertex with an id.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param id the id
+     * @return the vertex
+     */
+    @Override
+    public Vertex<T> getVertex(int id) {
+        return vertices[id];
+    }
+
+    /**
+     * Gets the number of neighbors of a vertex.
+     *
+     * @param id the id of the vertex
+     * @return the degree of the vertex
+     */
+    public int getDegree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /**
+     * Gets the row offsets, of length {@code getVertexCount() + 1}.
+     *
+     * @return the offsets array
+     */
+    public int[] getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * Gets the neighbor ids of every vertex, row by row.
+     *
+     * @return the targets array
+     */
+    public int[] getTargets() {
+        return targets;
+    }
+
+    /**
+     * Gets the edge weights, parallel to {@link #getTargets()}.
+     *
+     * @return the weights array
+     */
+    public int[] getWeights() {
+        return weights;
+    }
+
+    /**
+     * Gets whether or not any edge of this graph is directed.
+     *
+     * @return true if this graph is directed, false otherwise
+     */
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+}
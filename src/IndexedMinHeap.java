@@ -0,0 +1,171 @@
+import java.util.Arrays;
+
+/**
+ * A binary min heap of dense integer ids with long keys and decrease-key.
+ *
+ * Each id is in the heap at most once, so unlike a PriorityQueue of pairs
+ * an improved distance updates the existing entry instead of adding a
+ * duplicate. The key of an id stays readable after it is polled.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public final class IndexedMinHeap {
+
+    private final int[] heap;
+    private final int[] positions;
+    private final long[] keys;
+    private int size;
+
+    /**
+     * Creates an empty heap for the ids 0 to {@code capacity - 1}.
+     *
+     * @param capacity the number of ids
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new long[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Gets the number of ids in the heap.
+     *
+     * @return the size of the heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the heap is empty.
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets whether an id is currently in the heap.
+     *
+     * @param id the id
+     * @return true if the id is in the heap
+     */
+    public boolean contains(int id) {
+        return positions[id] >= 0;
+    }
+
+    /**
+     * Gets the key last given to an id. This remains available after the
+     * id is polled.
+     *
+     * @param id the id
+     * @return the key of the id
+     */
+    public long getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Adds an id that is not in the heap.
+     *
+     * @param id the id
+     * @param key the key of the id
+     */
+    public void insert(int id, long key) {
+        keys[id] = key;
+        heap[size] = id;
+        positions[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * Lowers the key of an id that is in the heap.
+     *
+     * @param id the id
+     * @param key the new key, no larger than the current one
+     */
+    public void decreaseKey(int id, long key) {
+        keys[id] = key;
+        siftUp(positions[id]);
+    }
+
+    /**
+     * Removes the id with the smallest key.
+     *
+     * @return the removed id
+     */
+    public int poll() {
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Removes every id from the heap.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Moves the entry at a position up until its parent is not larger.
+     *
+     * @param position the position
+     */
+    private void siftUp(int position) {
+        int id = heap[position];
+        long key = keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[position] = parentId;
+            positions[parentId] = position;
+            position = parent;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    /**
+     * Moves the entry at a position down until its children are not
+     * smaller.
+     *
+     * @param position the position
+     */
+    private void siftDown(int position) {
+        int id = heap[position];
+        long key = keys[id];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int childId = heap[child];
+            if (child + 1 < size && keys[heap[child + 1]] < keys[childId]) {
+                child++;
+                childId = heap[child];
+            }
+            if (key <= keys[childId]) {
+                break;
+            }
+            heap[position] = childId;
+            positions[childId] = position;
+            position = child;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
@@ -0,0 +1,618 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The searches over an IndexedGraph, or the part of it a SubgraphView
+ * shows, behind the entry points of GraphAlgorithms and ShortestPaths.
+ * Callers check their arguments and pass vertex ids; a null view searches
+ * the whole graph. Each search records the events and metrics of the
+ * entry points that call it.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class IndexedSearch {
+
+    /**
+     * Hidden constructor, this is a static utility class.
+     */
+    private IndexedSearch() {
+    }
+
+    /**
+     * Breadth first search over an indexed graph, or the part of it a view
+     * shows, recording a phase event per level when phases are recorded.
+     *
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param source
+     *            the id of the start vertex
+     * @param name
+     *            the algorithm name to record events under
+     * @param metrics
+     *            the metrics to record into, or null
+     * @param workspace
+     *            the workspace holding the queue and the visited marks
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices in the order they were visited
+     */
+    static <T> List<Vertex<T>> breadthFirstSearch(IndexedGraph<T> indexed,
+            SubgraphView<T> view, int source, String name,
+            AlgorithmMetrics metrics, SearchWorkspace workspace) {
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        long begin = metrics == null ? 0 : System.nanoTime();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] queue = workspace.begin(indexed.getVertexCount()).queue();
+        GraphPhaseEvent phase = FlightRecorder.isInitialized()
+                && GraphPhaseEvent.isRecording()
+                ? GraphPhaseEvent.started() : null;
+        int level = 0;
+        int levelRemaining = 1;
+        int levelSize = 1;
+
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = source;
+        workspace.visit(source);
+        if (metrics != null) {
+            metrics.pushed(tail - head);
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            if (metrics != null) {
+                metrics.popped();
+                metrics.settled();
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                if ((view == null || view.containsArc(i))
+                        && workspace.visit(targets[i])) {
+                    queue[tail++] = targets[i];
+                    if (metrics != null) {
+                        metrics.relaxed();
+                        metrics.pushed(tail - head);
+                    }
+                }
+            }
+            if (phase != null && --levelRemaining == 0) {
+                // the queue now holds exactly the next level
+                phase.finish(name, level++, levelSize, tail - head);
+                levelRemaining = tail - head;
+                levelSize = tail - head;
+                phase = GraphPhaseEvent.started();
+            }
+        }
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>(tail);
+        for (int i = 0; i < tail; i++) {
+            list.add(indexed.getVertex(queue[i]));
+        }
+        if (metrics != null) {
+            metrics.finished(System.nanoTime() - begin);
+        }
+        if (event != null) {
+            event.finish(name, indexed, indexed.getVertex(source), tail);
+        }
+        return list;
+    }
+
+    /**
+     * Depth first search over the part of an indexed graph a view shows,
+     * keeping its path on an explicit stack, so graphs of any depth can be
+     * searched.
+     *
+     * @param view
+     *            the view to search
+     * @param source
+     *            the id of the start vertex
+     * @param workspace
+     *            the workspace holding the stack and the visited marks
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices in the order they were visited
+     */
+    static <T> List<Vertex<T>> depthFirstSearch(SubgraphView<T> view,
+            int source, SearchWorkspace workspace) {
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        IndexedGraph<T> indexed = view.getGraph();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] stack = workspace.begin(indexed.getVertexCount()).queue();
+        int[] positions = workspace.parents();
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>();
+        int depth = 0;
+        stack[depth] = source;
+        positions[depth++] = offsets[source];
+        workspace.visit(source);
+        list.add(indexed.getVertex(source));
+        while (depth > 0) {
+            int u = stack[depth - 1];
+            int i = positions[depth - 1];
+            while (i < offsets[u + 1] && (!view.containsArc(i)
+                    || workspace.isVisited(targets[i]))) {
+                i++;
+            }
+            if (i == offsets[u + 1]) {
+                depth--;
+                continue;
+            }
+            positions[depth - 1] = i + 1;
+            int v = targets[i];
+            workspace.visit(v);
+            list.add(indexed.getVertex(v));
+            stack[depth] = v;
+            positions[depth++] = offsets[v];
+        }
+        if (event != null) {
+            event.finish("dfs-filtered", indexed, indexed.getVertex(source),
+                    list.size());
+        }
+        return list;
+    }
+
+    /**
+     * Runs a breadth first search from several vertices at once, stopping
+     * at depth k.
+     *
+     * @throws IllegalArgumentException
+     *             if any start is null, doesn't exist in the graph or is
+     *             hidden in the view, or if k is negative
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param starts
+     *            the start vertices
+     * @param k
+     *            the largest number of hops
+     * @param start
+     *            the start vertex to report, or null
+     * @param workspace
+     *            the workspace to search in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the vertices of each hop level
+     */
+    static <T> List<List<Vertex<T>>> kHopNeighborhood(
+            IndexedGraph<T> indexed, SubgraphView<T> view,
+            Collection<Vertex<T>> starts, int k, Vertex<T> start,
+            SearchWorkspace workspace) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Hop count is negative");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int[] queue = workspace.begin(indexed.getVertexCount()).queue();
+        int tail = 0;
+        for (Vertex<T> vertex : starts) {
+            int id = vertex == null ? -1 : indexed.getId(vertex);
+            if (id < 0) {
+                throw new IllegalArgumentException("Start does not exist in "
+                        + "graph");
+            }
+            if (view != null && !view.containsVertex(id)) {
+                throw new IllegalArgumentException("Start is hidden in the "
+                        + "view");
+            }
+            if (workspace.visit(id)) {
+                queue[tail++] = id;
+            }
+        }
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] ends = new int[Math.min(k, 15) + 1];
+        int levels = 0;
+        ends[levels++] = tail;
+        int head = 0;
+        while (levels <= k && head < tail) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int u = queue[head++];
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    if ((view == null || view.containsArc(i))
+                            && workspace.visit(targets[i])) {
+                        queue[tail++] = targets[i];
+                    }
+                }
+            }
+            if (tail > levelEnd) {
+                if (levels == ends.length) {
+                    ends = Arrays.copyOf(ends, levels * 2);
+                }
+                ends[levels++] = tail;
+            }
+        }
+        List<Vertex<T>> vertices = new ArrayList<Vertex<T>>(tail);
+        for (int i = 0; i < tail; i++) {
+            vertices.add(indexed.getVertex(queue[i]));
+        }
+        List<List<Vertex<T>>> result = new ArrayList<List<Vertex<T>>>(levels);
+        for (int level = 0; level < levels; level++) {
+            result.add(Collections.unmodifiableList(vertices.subList(
+                    level == 0 ? 0 : ends[level - 1], ends[level])));
+        }
+        if (event != null) {
+            event.finish(view == null ? "k-hop" : "k-hop-filtered", indexed,
+                    start, tail);
+        }
+        return result;
+    }
+
+    /**
+     * Dijkstra's algorithm over an indexed graph with an indexed heap, so
+     * each vertex is in the heap at most once and there are no stale
+     * entries. Distances are computed as longs and written to exactly one
+     * of the two output arrays; the int output saturates at
+     * {@link DistanceTable#UNREACHABLE}.
+     *
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param source
+     *            the id of the start vertex
+     * @param intOut
+     *            the int distances to fill, or null
+     * @param longOut
+     *            the long distances to fill, or null
+     * @param metrics
+     *            the metrics to record into, or null
+     * @param workspace
+     *            the workspace holding the heap and the settled vertices
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     */
+    static <T> void dijkstras(IndexedGraph<T> indexed, SubgraphView<T> view,
+            int source, int[] intOut, long[] longOut, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        long begin = metrics == null ? 0 : System.nanoTime();
+        GraphPhaseEvent phase = FlightRecorder.isInitialized()
+                && GraphPhaseEvent.isRecording()
+                ? GraphPhaseEvent.started() : null;
+        String name = view == null ? "dijkstras" : "dijk-filtered";
+        int round = 0;
+        int settled = 0;
+        int reached = 0;
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        IndexedMinHeap heap = workspace.begin(indexed.getVertexCount())
+                .heap();
+        if (intOut != null) {
+            Arrays.fill(intOut, DistanceTable.UNREACHABLE);
+        } else {
+            Arrays.fill(longOut, LongDistanceTable.UNREACHABLE);
+        }
+        heap.insert(source, 0);
+        if (metrics != null) {
+            metrics.pushed(heap.size());
+        }
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            long distance = heap.getKey(u);
+            workspace.visit(u);
+            reached++;
+            if (intOut != null) {
+                intOut[u] = (int) Math.min(distance,
+                        DistanceTable.UNREACHABLE);
+            } else {
+                longOut[u] = distance;
+            }
+            if (metrics != null) {
+                metrics.popped();
+                metrics.settled();
+            }
+            if (phase != null
+                    && ++settled == GraphPhaseEvent.SAMPLE_INTERVAL) {
+                phase.finish(name, round++, settled, heap.size());
+                settled = 0;
+                phase = GraphPhaseEvent.started();
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                if (workspace.isVisited(v)
+                        || (view != null && !view.containsArc(i))) {
+                    continue;
+                }
+                long candidate = distance + weights[i];
+                if (!heap.contains(v)) {
+                    heap.insert(v, candidate);
+                    if (metrics != null) {
+                        metrics.relaxed();
+                        metrics.pushed(heap.size());
+                    }
+                } else if (candidate < heap.getKey(v)) {
+                    heap.decreaseKey(v, candidate);
+                    if (metrics != null) {
+                        metrics.relaxed();
+                    }
+                }
+            }
+        }
+        if (phase != null && settled > 0) {
+            phase.finish(name, round, settled, 0);
+        }
+        if (metrics != null) {
+            metrics.finished(System.nanoTime() - begin);
+        }
+        if (event != null) {
+            event.finish(name, indexed, indexed.getVertex(source), reached);
+        }
+    }
+
+    /**
+     * Relaxes the edges of an indexed directed acyclic graph in a given
+     * topological order.
+     *
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param order
+     *            the ids of the vertices to relax in topological order,
+     *            which must include every vertex the source can reach
+     * @param source
+     *            the id of the start vertex
+     * @param metrics
+     *            the metrics to record into, or null
+     * @param workspace
+     *            the workspace whose distance array to relax in
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the shortest distances from the source
+     */
+    static <T> DistanceTable<T> dagShortestPaths(IndexedGraph<T> indexed,
+            SubgraphView<T> view, int[] order, int source,
+            AlgorithmMetrics metrics, SearchWorkspace workspace) {
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        long begin = metrics == null ? 0 : System.nanoTime();
+        int n = indexed.getVertexCount();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        long[] distances = workspace.begin(n).distances();
+        Arrays.fill(distances, 0, n, Long.MAX_VALUE);
+        distances[source] = 0;
+        int position = 0;
+        while (order[position] != source) {
+            position++;
+        }
+        int reached = 0;
+        for (; position < order.length; position++) {
+            int u = order[position];
+            if (distances[u] == Long.MAX_VALUE) {
+                continue;
+            }
+            reached++;
+            if (metrics != null) {
+                metrics.settled();
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                long candidate = distances[u] + weights[i];
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                if (candidate < distances[targets[i]]
+                        && (view == null || view.containsArc(i))) {
+                    distances[targets[i]] = candidate;
+                    if (metrics != null) {
+                        metrics.relaxed();
+                    }
+                }
+            }
+        }
+        int[] table = new int[n];
+        for (int v = 0; v < n; v++) {
+            table[v] = (int) Math.max(Integer.MIN_VALUE,
+                    Math.min(distances[v], DistanceTable.UNREACHABLE));
+        }
+        if (metrics != null) {
+            metrics.finished(System.nanoTime() - begin);
+        }
+        if (event != null) {
+            event.finish("dag", indexed, indexed.getVertex(source), reached);
+        }
+        return new DistanceTable<T>(indexed, source, table);
+    }
+
+    /**
+     * Orders the vertices of an indexed graph topologically with Kahn's
+     * algorithm, taking ready vertices first come, first served.
+     *
+     * @param graph
+     *            the graph to sort
+     * @return the vertex ids in topological order, or null if the graph
+     *         has a cycle
+     */
+    static int[] topologicalOrder(IndexedGraph<?> graph) {
+        return topologicalOrder(graph, null);
+    }
+
+    /**
+     * Orders the vertices a view shows topologically with Kahn's
+     * algorithm, following only the edges it shows.
+     *
+     * @param graph
+     *            the graph to sort
+     * @param view
+     *            the view to sort, or null for the whole graph
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the ids of the visible vertices in topological order, or null
+     *         if the visible edges have a cycle
+     */
+    static <T> int[] topologicalOrder(IndexedGraph<T> graph,
+            SubgraphView<T> view) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] indegree = new int[n];
+        if (view == null) {
+            for (int target : targets) {
+                indegree[target]++;
+            }
+        } else {
+            for (int u = 0; u < n; u++) {
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    if (view.containsVertex(u) && view.containsArc(i)) {
+                        indegree[targets[i]]++;
+                    }
+                }
+            }
+        }
+        int[] order = new int[view == null ? n : view.getVertexCount()];
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            if (indegree[v] == 0 && (view == null || view.containsVertex(v))) {
+                order[tail++] = v;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = order[head];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if ((view == null || view.containsArc(i))
+                        && --indegree[targets[i]] == 0) {
+                    order[tail++] = targets[i];
+                }
+            }
+        }
+        return tail == order.length ? order : null;
+    }
+
+    /**
+     * Prim's algorithm over an indexed graph, or the part of it a view
+     * shows.
+     *
+     * @param indexed
+     *            the indexed graph to search
+     * @param view
+     *            the view to search, or null for the whole graph
+     * @param source
+     *            the id of the start vertex
+     * @param metrics
+     *            the metrics to record into, or null
+     * @param workspace
+     *            the workspace holding the queue and the visited marks
+     * @param <T>
+     *            the data type representing the vertices in the graph.
+     * @return the MST; null if no valid MST exists.
+     */
+    static <T> Set<Edge<T>> prims(IndexedGraph<T> indexed,
+            SubgraphView<T> view, int source, AlgorithmMetrics metrics,
+            SearchWorkspace workspace) {
+        String name = view == null ? "prims" : "prims-filtered";
+        Vertex<T> start = indexed.getVertex(source);
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        long begin = metrics == null ? 0 : System.nanoTime();
+        GraphPhaseEvent phase = FlightRecorder.isInitialized()
+                && GraphPhaseEvent.isRecording()
+                ? GraphPhaseEvent.started() : null;
+        int round = 0;
+        int settled = 0;
+
+        int graphSize = view == null ? indexed.getVertexCount()
+                : view.getVertexCount();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        Set<Edge<T>> set = new EdgeSet<T>(graphSize);
+        int visited = 0;
+        workspace.begin(indexed.getVertexCount()).pushEdge(0, source, -1);
+        // the lightest edge pushed to each vertex, kept only for metrics
+        long[] lightest = null;
+        if (metrics != null) {
+            metrics.pushed(workspace.edgeCount());
+            lightest = workspace.distances();
+            Arrays.fill(lightest, 0, indexed.getVertexCount(),
+                    Long.MAX_VALUE);
+        }
+        while (workspace.edgeCount() != 0 && visited < graphSize) {
+            int weight = workspace.topWeight();
+            int u = workspace.topHead();
+            int tail = workspace.topTail();
+            workspace.pollEdge();
+            if (metrics != null) {
+                metrics.popped();
+            }
+            if (!workspace.visit(u)) {
+                // stale entry, the vertex was reached by a lighter edge
+                if (metrics != null) {
+                    metrics.stale();
+                }
+                continue;
+            }
+            visited++;
+            if (metrics != null) {
+                metrics.settled();
+            }
+            if (phase != null
+                    && ++settled == GraphPhaseEvent.SAMPLE_INTERVAL) {
+                phase.finish(name, round++, settled,
+                        workspace.edgeCount());
+                settled = 0;
+                phase = GraphPhaseEvent.started();
+            }
+            if (tail >= 0) {
+                set.add(new Edge<T>(indexed.getVertex(tail),
+                        indexed.getVertex(u), weight, false));
+            }
+
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                if (!workspace.isVisited(targets[i])
+                        && (view == null || view.containsArc(i))) {
+                    workspace.pushEdge(weights[i], targets[i], u);
+                    if (metrics != null) {
+                        if (weights[i] < lightest[targets[i]]) {
+                            lightest[targets[i]] = weights[i];
+                            metrics.relaxed();
+                        }
+                        metrics.pushed(workspace.edgeCount());
+                    }
+                }
+            }
+
+        }
+        if (phase != null && settled > 0) {
+            phase.finish(name, round, settled, workspace.edgeCount());
+        }
+        if (metrics != null) {
+            metrics.finished(System.nanoTime() - begin);
+        }
+
+        if (visited < graphSize) {
+            if (event != null) {
+                event.finish(name, indexed, start, 0);
+            }
+            return null;
+        }
+
+        if (event != null) {
+            event.finish(name, indexed, start, set.size());
+        }
+        return set;
+
+    }
+}
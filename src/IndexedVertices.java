@@ -0,0 +1,51 @@
+/**
+ * The numbering of a graph's vertices by dense ids from 0 to
+ * {@code getVertexCount() - 1}, shared by the array based graph forms so
+ * that per-vertex results can be mapped back to vertices whichever form
+ * produced them.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+interface IndexedVertices<T> {
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return the number of vertices
+     */
+    int getVertexCount();
+
+    /**
+     * Gets the id of a vertex.
+     *
+     * @param vertex the vertex
+     * @return the id of the vertex, or -1 if it is not in the graph
+     */
+    int getId(Vertex<T> vertex);
+
+    /**
+     * Gets the vertex with an id.
+     *
+     * @throws IndexOutOfBoundsException if there is no such id
+     * @param id the id
+     * @return the vertex
+     */
+    Vertex<T> getVertex(int id);
+
+    /**
+     * Gets the number of adjacency entries. Undirected edges count twice,
+     * once in each direction.
+     *
+     * @return the number of adjacency entries
+     */
+    int getArcCount();
+
+    /**
+     * Gets whether or not any edge of the graph is directed.
+     *
+     * @return true if the graph is directed, false otherwise
+     */
+    boolean isDirected();
+}
@@ -0,0 +1,171 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the k-hop neighborhood searches.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class KHopNeighborhoodTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesBreadthFirstSearch() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(300, 700, 1)
+                    : GraphGenerators.erdosRenyi(300, 500, 1);
+            for (int s = 0; s < 300; s += 29) {
+                Vertex<Integer> start = new Vertex<>(s);
+                if (!graph.getAdjacencyList().containsKey(start)) {
+                    continue;
+                }
+                List<Vertex<Integer>> order =
+                        GraphAlgorithms.breadthFirstSearch(start, graph);
+                Map<Vertex<Integer>, Integer> hops = hops(start, graph);
+                for (int k = 0; k < 6; k++) {
+                    List<List<Vertex<Integer>>> levels =
+                            GraphAlgorithms.kHopNeighborhood(start, k, graph);
+                    assertTrue(levels.size() <= k + 1);
+                    List<Vertex<Integer>> flat = new ArrayList<>();
+                    for (int level = 0; level < levels.size(); level++) {
+                        assertTrue(!levels.get(level).isEmpty());
+                        for (Vertex<Integer> vertex : levels.get(level)) {
+                            assertEquals(level, (int) hops.get(vertex));
+                        }
+                        flat.addAll(levels.get(level));
+                    }
+                    assertEquals(order.subList(0, flat.size()), flat);
+                    int within = 0;
+                    for (int hop : hops.values()) {
+                        within += hop <= k ? 1 : 0;
+                    }
+                    assertEquals(within, flat.size());
+                }
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPath() {
+        Graph<Integer> graph = GraphGenerators.path(10, 2);
+        Vertex<Integer> end = null;
+        for (Map.Entry<Vertex<Integer>, List<VertexDistancePair<Integer>>>
+                entry : graph.getAdjacencyList().entrySet()) {
+            if (entry.getValue().size() == 1) {
+                end = entry.getKey();
+            }
+        }
+        List<List<Vertex<Integer>>> levels =
+                GraphAlgorithms.kHopNeighborhood(end, 3, graph);
+        assertEquals(4, levels.size());
+        assertEquals(Arrays.asList(end), levels.get(0));
+        for (int level = 1; level < 4; level++) {
+            assertEquals(1, levels.get(level).size());
+        }
+        assertEquals(10, GraphAlgorithms.kHopNeighborhood(end,
+                Integer.MAX_VALUE, graph).size());
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMultiSourceDeduplicates() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(200, 400, 3);
+        List<Vertex<Integer>> starts = new ArrayList<>();
+        for (Vertex<Integer> vertex : graph.getAdjacencyList().keySet()) {
+            if (starts.size() < 5) {
+                starts.add(vertex);
+            }
+        }
+        starts.add(starts.get(0));
+        List<List<Vertex<Integer>>> levels = GraphAlgorithms
+                .multiSourceKHopNeighborhood(starts, 2, graph);
+        assertEquals(starts.subList(0, 5), levels.get(0));
+        List<Map<Vertex<Integer>, Integer>> hops = new ArrayList<>();
+        for (Vertex<Integer> start : starts) {
+            hops.add(hops(start, graph));
+        }
+        Set<Vertex<Integer>> seen = new HashSet<>();
+        for (int level = 0; level < levels.size(); level++) {
+            for (Vertex<Integer> vertex : levels.get(level)) {
+                assertTrue(seen.add(vertex));
+                int nearest = Integer.MAX_VALUE;
+                for (Map<Vertex<Integer>, Integer> from : hops) {
+                    Integer hop = from.get(vertex);
+                    if (hop != null) {
+                        nearest = Math.min(nearest, hop);
+                    }
+                }
+                assertEquals(level, nearest);
+            }
+        }
+        for (Vertex<Integer> start : starts) {
+            for (List<Vertex<Integer>> level : GraphAlgorithms
+                    .kHopNeighborhood(start, 2, graph)) {
+                assertTrue(seen.containsAll(level));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = UnsupportedOperationException.class)
+    public void testLevelsUnmodifiable() {
+        GraphAlgorithms.kHopNeighborhood(new Vertex<>(0), 1,
+                GraphGenerators.path(3, 4)).get(0).clear();
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNegativeK() {
+        Graph<Integer> graph = GraphGenerators.path(3, 5);
+        GraphAlgorithms.kHopNeighborhood(
+                graph.getAdjacencyList().keySet().iterator().next(), -1,
+                graph);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingStart() {
+        LinkedHashSet<Vertex<Integer>> starts = new LinkedHashSet<>();
+        starts.add(new Vertex<>(-1));
+        GraphAlgorithms.multiSourceKHopNeighborhood(starts, 1,
+                GraphGenerators.path(3, 6));
+    }
+
+    /**
+     * Finds the hop count to every reachable vertex with a plain breadth
+     * first search over the adjacency list.
+     *
+     * @param start the start vertex
+     * @param graph the graph
+     * @return the hop count of every reachable vertex
+     */
+    private static Map<Vertex<Integer>, Integer> hops(Vertex<Integer> start,
+            Graph<Integer> graph) {
+        Map<Vertex<Integer>, Integer> hops = new HashMap<>();
+        List<Vertex<Integer>> queue = new ArrayList<>();
+        hops.put(start, 0);
+        queue.add(start);
+        for (int head = 0; head < queue.size(); head++) {
+            Vertex<Integer> u = queue.get(head);
+            for (VertexDistancePair<Integer> pair
+                    : graph.getAdjacencyList().get(u)) {
+                if (!hops.containsKey(pair.getVertex())) {
+                    hops.put(pair.getVertex(), hops.get(u) + 1);
+                    queue.add(pair.getVertex());
+                }
+            }
+        }
+        return hops;
+    }
+}
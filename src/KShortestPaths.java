@@ -0,0 +1,414 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Yen's algorithm for the k shortest loopless paths between two vertices
+ * of an IndexedGraph, used by GraphAlgorithms.
+ *
+ * The search starts with one Dijkstra's algorithm backwards from the
+ * target, which gives the distance from every vertex to the target and
+ * the tree of shortest paths into it. The first path is read off the tree.
+ * Every later path deviates from an earlier one at a spur vertex: it
+ * shares the earlier path up to the spur, must avoid the vertices before
+ * it, and must not leave the spur along an edge that an already found
+ * path with the same prefix takes. Instead of copying the graph, those
+ * vertices and edges are masked with stamps that are renewed in constant
+ * time for each spur search.
+ *
+ * Each spur search is an A* search guided by the distances to the target,
+ * which never overestimate because masking only removes paths. It ends as
+ * soon as it takes a vertex whose tree path to the target is unmasked,
+ * since that tree path is then a shortest completion; in most searches
+ * this happens within a few vertices of the spur. Spur vertices before
+ * the point where a path left its parent are skipped, as their deviations
+ * were already generated from the parent (Lawler's improvement).
+ *
+ * On a subgraph view, the backward search runs on the transpose of the
+ * visible edges, so hidden vertices can never reach the target and are
+ * skipped like any vertex that cannot; the spur searches also skip hidden
+ * adjacency entries between visible vertices.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class KShortestPaths {
+
+    /**
+     * The distance to the target of a vertex that cannot reach it.
+     */
+    private static final long UNREACHABLE = Long.MAX_VALUE;
+
+    private final IndexedGraph<?> graph;
+    private final SubgraphView<?> view;
+    private final int target;
+    private final SearchWorkspace workspace;
+    private final long[] remaining;
+    private final int[] next;
+    private final int[] blocked;
+    private final int[] avoided;
+    private final int[] checked;
+    private final boolean[] clean;
+    private final int[] path;
+    private int blockEpoch;
+    private int spurEpoch;
+
+    /**
+     * Creates the state of a search and finds the distance from every
+     * vertex to the target.
+     *
+     * @param graph the graph to search
+     * @param view the view to search, or null for the whole graph
+     * @param target the id of the target
+     * @param workspace the workspace to search in
+     * @param <T> the data type representing the vertices in the graph
+     */
+    private <T> KShortestPaths(IndexedGraph<T> graph, SubgraphView<T> view,
+            int target, SearchWorkspace workspace) {
+        int n = graph.getVertexCount();
+        this.graph = graph;
+        this.view = view;
+        this.target = target;
+        this.workspace = workspace;
+        remaining = new long[n];
+        next = new int[n];
+        blocked = new int[n];
+        avoided = new int[n];
+        checked = new int[n];
+        clean = new boolean[n];
+        path = new int[n];
+        Arrays.fill(remaining, UNREACHABLE);
+        IndexedGraph<?> reverse = view == null ? graph.transpose()
+                : graph.transpose(view);
+        int[] offsets = reverse.getOffsets();
+        int[] targets = reverse.getTargets();
+        int[] weights = reverse.getWeights();
+        IndexedMinHeap heap = workspace.begin(n).heap();
+        heap.insert(target, 0);
+        next[target] = -1;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            long distance = heap.getKey(u);
+            remaining[u] = distance;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                long candidate = distance + weights[i];
+                if (remaining[v] != UNREACHABLE) {
+                    continue;
+                } else if (!heap.contains(v)) {
+                    heap.insert(v, candidate);
+                    next[v] = u;
+                } else if (candidate < heap.getKey(v)) {
+                    heap.decreaseKey(v, candidate);
+                    next[v] = u;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds up to k shortest loopless paths from source to target. Among
+     * the candidates of equal cost at any step, the one with the fewest
+     * edges and then the smallest vertex ids is taken first.
+     *
+     * @throws IllegalArgumentException if the graph has a negative weight
+     * @param graph the graph to search
+     * @param view the view to search, or null for the whole graph
+     * @param source the id of the source
+     * @param target the id of the target
+     * @param k the largest number of paths to find
+     * @param workspace the workspace to search in
+     * @param <T> the data type representing the vertices in the graph
+     * @return the paths, shortest first; fewer than k if there are no more
+     */
+    static <T> List<WeightedPath<T>> search(IndexedGraph<T> graph,
+            SubgraphView<T> view, int source, int target, int k,
+            SearchWorkspace workspace) {
+        for (int weight : graph.getWeights()) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Graph has negative "
+                        + "edge weights");
+            }
+        }
+        List<WeightedPath<T>> result = new ArrayList<WeightedPath<T>>();
+        KShortestPaths search = new KShortestPaths(graph, view, target,
+                workspace);
+        if (search.remaining[source] == UNREACHABLE) {
+            return result;
+        }
+        List<Path> found = new ArrayList<Path>();
+        found.add(search.treePath(source));
+        PriorityQueue<Path> candidates = new PriorityQueue<Path>();
+        Set<Path> seen = new HashSet<Path>(found);
+        while (found.size() < k) {
+            search.deviations(found, candidates, seen);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            found.add(candidates.poll());
+        }
+        for (Path p : found) {
+            result.add(new WeightedPath<T>(graph, p.ids, p.cost()));
+        }
+        return result;
+    }
+
+    /**
+     * Reads the shortest path from a vertex to the target off the tree.
+     *
+     * @param source the id of the vertex
+     * @return the path
+     */
+    private Path treePath(int source) {
+        int length = 0;
+        for (int v = source; v >= 0; v = next[v]) {
+            path[length++] = v;
+        }
+        int[] ids = Arrays.copyOf(path, length);
+        long[] costs = new long[length];
+        for (int i = 0; i < length; i++) {
+            costs[i] = remaining[source] - remaining[ids[i]];
+        }
+        return new Path(ids, costs, 0);
+    }
+
+    /**
+     * Adds every deviation from the last found path to the candidates.
+     *
+     * @param found the paths found so far
+     * @param candidates the candidate paths
+     * @param seen every found and candidate path
+     */
+    private void deviations(List<Path> found, PriorityQueue<Path> candidates,
+            Set<Path> seen) {
+        Path last = found.get(found.size() - 1);
+        blockEpoch++;
+        for (int i = 0; i < last.deviation; i++) {
+            blocked[last.ids[i]] = blockEpoch;
+        }
+        for (int i = last.deviation; i < last.ids.length - 1; i++) {
+            int spur = last.ids[i];
+            spurEpoch++;
+            for (Path p : found) {
+                if (p.ids.length > i + 1 && Arrays.equals(p.ids, 0, i + 1,
+                        last.ids, 0, i + 1)) {
+                    avoided[p.ids[i + 1]] = spurEpoch;
+                }
+            }
+            Path candidate = spurSearch(last, i);
+            if (candidate != null && seen.add(candidate)) {
+                candidates.add(candidate);
+            }
+            blocked[spur] = blockEpoch;
+        }
+    }
+
+    /**
+     * Finds the shortest path that follows a found path up to a spur
+     * vertex and then leaves it, with an A* search from the spur.
+     *
+     * @param root the found path
+     * @param index the index of the spur vertex on the found path
+     * @return the path, or null if there is none
+     */
+    private Path spurSearch(Path root, int index) {
+        int spur = root.ids[index];
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        IndexedMinHeap heap = workspace.begin(graph.getVertexCount()).heap();
+        long[] spent = workspace.distances();
+        int[] parents = workspace.parents();
+        heap.insert(spur, remaining[spur]);
+        spent[spur] = 0;
+        parents[spur] = -1;
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            workspace.visit(u);
+            if (u == target || isClean(u, spur)) {
+                Path found = join(root, index, u, workspace);
+                if (found != null) {
+                    return found;
+                }
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                if (blocked[v] == blockEpoch || workspace.isVisited(v)
+                        || remaining[v] == UNREACHABLE
+                        || u == spur && avoided[v] == spurEpoch
+                        || view != null && !view.containsArc(i)) {
+                    continue;
+                }
+                long cost = spent[u] + weights[i];
+                long estimate = cost + remaining[v];
+                if (!heap.contains(v)) {
+                    heap.insert(v, estimate);
+                } else if (estimate < heap.getKey(v)) {
+                    heap.decreaseKey(v, estimate);
+                } else {
+                    continue;
+                }
+                spent[v] = cost;
+                parents[v] = u;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets whether the tree path from a vertex to the target avoids every
+     * masked vertex and edge of the current spur search. Results are kept
+     * for the rest of the search, so each vertex is walked over once.
+     *
+     * @param vertex the id of the vertex
+     * @param spur the id of the spur vertex
+     * @return true if the tree path can be taken
+     */
+    private boolean isClean(int vertex, int spur) {
+        int length = 0;
+        int v = vertex;
+        boolean result;
+        while (true) {
+            if (v == spur && vertex != spur) {
+                result = false;
+                break;
+            }
+            if (checked[v] == spurEpoch) {
+                result = clean[v];
+                break;
+            }
+            if (v == target) {
+                result = true;
+                break;
+            }
+            if (blocked[v] == blockEpoch
+                    || v == spur && avoided[next[v]] == spurEpoch) {
+                result = false;
+                break;
+            }
+            path[length++] = v;
+            v = next[v];
+        }
+        for (int i = 0; i < length; i++) {
+            checked[path[i]] = spurEpoch;
+            clean[path[i]] = result;
+        }
+        return result;
+    }
+
+    /**
+     * Joins the root of a found path, the spur search's path to a vertex
+     * and the tree path from that vertex into one path.
+     *
+     * @param root the found path
+     * @param index the index of the spur vertex on the found path
+     * @param end the id of the vertex the spur search stopped at
+     * @param workspace the spur search's workspace
+     * @return the path, or null if it would visit a vertex twice
+     */
+    private Path join(Path root, int index, int end,
+            SearchWorkspace workspace) {
+        int[] parents = workspace.parents();
+        long[] spent = workspace.distances();
+        int searched = 0;
+        for (int v = end; v >= 0; v = parents[v]) {
+            searched++;
+        }
+        int tree = 0;
+        for (int v = next[end]; v >= 0; v = next[v]) {
+            if (workspace.isVisited(v) && onPath(parents, end, v)) {
+                return null;
+            }
+            tree++;
+        }
+        int length = index + searched + tree;
+        int[] ids = new int[length];
+        long[] costs = new long[length];
+        System.arraycopy(root.ids, 0, ids, 0, index);
+        System.arraycopy(root.costs, 0, costs, 0, index);
+        long base = root.costs[index];
+        int i = index + searched - 1;
+        for (int v = end; v >= 0; v = parents[v]) {
+            ids[i] = v;
+            costs[i--] = base + spent[v];
+        }
+        i = index + searched;
+        long reached = base + spent[end];
+        for (int v = next[end]; v >= 0; v = next[v]) {
+            ids[i] = v;
+            costs[i++] = reached + remaining[end] - remaining[v];
+        }
+        return new Path(ids, costs, index);
+    }
+
+    /**
+     * Gets whether a vertex is on the spur search's path to another.
+     *
+     * @param parents the spur search's parents
+     * @param end the id of the last vertex of the search path
+     * @param vertex the id of the vertex to look for
+     * @return true if the vertex is on the path
+     */
+    private static boolean onPath(int[] parents, int end, int vertex) {
+        for (int v = end; v >= 0; v = parents[v]) {
+            if (v == vertex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A found or candidate path.
+     */
+    private static final class Path implements Comparable<Path> {
+        private final int[] ids;
+        private final long[] costs;
+        private final int deviation;
+
+        /**
+         * Creates a path.
+         *
+         * @param ids the ids of the vertices on the path
+         * @param costs the cost from the source to each vertex on the path
+         * @param deviation the index of the vertex the path left its
+         *        parent at
+         */
+        private Path(int[] ids, long[] costs, int deviation) {
+            this.ids = ids;
+            this.costs = costs;
+            this.deviation = deviation;
+        }
+
+        /**
+         * Gets the total cost of the path.
+         *
+         * @return the cost
+         */
+        private long cost() {
+            return costs[costs.length - 1];
+        }
+
+        @Override
+        public int compareTo(Path other) {
+            int order = Long.compare(cost(), other.cost());
+            if (order == 0) {
+                order = Integer.compare(ids.length, other.ids.length);
+            }
+            return order == 0 ? Arrays.compare(ids, other.ids) : order;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path && Arrays.equals(ids, ((Path) o).ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ids);
+        }
+    }
+}
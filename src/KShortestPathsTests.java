@@ -0,0 +1,242 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the k shortest paths search.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class KShortestPathsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testYensExample() {
+        Map<Character, Vertex<Character>> v = new HashMap<>();
+        for (char c : "CDEFGH".toCharArray()) {
+            v.put(c, new Vertex<>(c));
+        }
+        LinkedHashSet<Edge<Character>> edges = new LinkedHashSet<>();
+        String[] arcs = {"CD3", "CE2", "DF4", "ED1", "EF2", "EG3", "FG2",
+            "FH1", "GH2"};
+        for (String arc : arcs) {
+            edges.add(new Edge<>(v.get(arc.charAt(0)), v.get(arc.charAt(1)),
+                    arc.charAt(2) - '0', true));
+        }
+        List<WeightedPath<Character>> paths = GraphAlgorithms
+                .kShortestPaths(v.get('C'), v.get('H'), 3, new Graph<>(edges));
+        assertEquals(3, paths.size());
+        assertEquals(Arrays.asList(v.get('C'), v.get('E'), v.get('F'),
+                v.get('H')), paths.get(0).getVertices());
+        assertEquals(5, paths.get(0).getCost());
+        assertEquals(Arrays.asList(v.get('C'), v.get('E'), v.get('G'),
+                v.get('H')), paths.get(1).getVertices());
+        assertEquals(7, paths.get(1).getCost());
+        assertEquals(Arrays.asList(v.get('C'), v.get('D'), v.get('F'),
+                v.get('H')), paths.get(2).getVertices());
+        assertEquals(8, paths.get(2).getCost());
+        assertEquals(3, paths.get(2).getEdgeCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesEnumeration() {
+        Random random = new Random(11);
+        for (int round = 0; round < 40; round++) {
+            boolean directed = round % 2 == 0;
+            List<Vertex<Integer>> vertices = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                vertices.add(new Vertex<>(i));
+            }
+            LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+            for (int i = 0; i < 18; i++) {
+                edges.add(new Edge<>(vertices.get(random.nextInt(8)),
+                        vertices.get(random.nextInt(8)),
+                        random.nextInt(round < 20 ? 3 : 20), directed));
+            }
+            Graph<Integer> graph = new Graph<>(edges);
+            IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+            int n = indexed.getVertexCount();
+            int source = random.nextInt(n);
+            int target = random.nextInt(n);
+            List<WeightedPath<Integer>> expected =
+                    enumerate(indexed, source, target);
+            List<WeightedPath<Integer>> actual = GraphAlgorithms
+                    .kShortestPaths(indexed.getVertex(source),
+                            indexed.getVertex(target), 60, graph);
+            assertEquals(Math.min(60, expected.size()), actual.size());
+            for (int i = 0; i < actual.size(); i++) {
+                assertEquals(expected.get(i).getCost(),
+                        actual.get(i).getCost());
+                assertTrue(expected.contains(actual.get(i)));
+            }
+            assertEquals(actual.size(), new HashSet<>(actual).size());
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testGrid() {
+        Graph<Integer> graph = GraphGenerators.grid(60, 60, 3);
+        Vertex<Integer> source = new Vertex<>(0);
+        Vertex<Integer> target = new Vertex<>(60 * 60 - 1);
+        List<WeightedPath<Integer>> paths =
+                GraphAlgorithms.kShortestPaths(source, target, 50, graph);
+        assertEquals(50, paths.size());
+        assertEquals((long) GraphAlgorithms.dijkstras(source, graph)
+                .get(target), paths.get(0).getCost());
+        Set<List<Vertex<Integer>>> distinct = new HashSet<>();
+        for (int i = 0; i < paths.size(); i++) {
+            WeightedPath<Integer> path = paths.get(i);
+            assertEquals(source, path.getSource());
+            assertEquals(target, path.getTarget());
+            assertTrue(i == 0 || paths.get(i - 1).getCost() <= path.getCost());
+            assertEquals(path.getVertices().size(),
+                    new HashSet<>(path.getVertices()).size());
+            assertEquals(cost(graph, path.getVertices()), path.getCost());
+            assertTrue(distinct.add(path.getVertices()));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFewerPaths() {
+        Graph<Integer> graph = GraphGenerators.path(6, 2);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        Vertex<Integer> a = indexed.getVertex(0);
+        Vertex<Integer> b = indexed.getVertex(5);
+        assertEquals(1, GraphAlgorithms.kShortestPaths(a, b, 5, graph)
+                .size());
+        List<WeightedPath<Integer>> self =
+                GraphAlgorithms.kShortestPaths(a, a, 5, graph);
+        assertEquals(1, self.size());
+        assertEquals(Collections.singletonList(a), self.get(0).getVertices());
+        assertEquals(0, self.get(0).getCost());
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(new Vertex<>("a"), new Vertex<>("b"), 1, true));
+        assertTrue(GraphAlgorithms.kShortestPaths(new Vertex<>("b"),
+                new Vertex<>("a"), 2, new Graph<>(edges)).isEmpty());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNegativeWeight() {
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<>(new Vertex<>("a"), new Vertex<>("b"), -1, true));
+        GraphAlgorithms.kShortestPaths(new Vertex<>("a"), new Vertex<>("b"),
+                1, new Graph<>(edges));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNoPathsRequested() {
+        Graph<Integer> graph = GraphGenerators.path(3, 4);
+        GraphAlgorithms.kShortestPaths(new Vertex<>(0), new Vertex<>(1), 0,
+                graph);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingTarget() {
+        Graph<Integer> graph = GraphGenerators.path(3, 5);
+        GraphAlgorithms.kShortestPaths(new Vertex<>(0), new Vertex<>(-1), 1,
+                graph);
+    }
+
+    /**
+     * Lists every loopless path from source to target with a depth first
+     * search, cheapest first.
+     *
+     * @param graph the graph
+     * @param source the id of the source
+     * @param target the id of the target
+     * @return every path
+     */
+    private static List<WeightedPath<Integer>> enumerate(
+            IndexedGraph<Integer> graph, int source, int target) {
+        Map<List<Integer>, Long> costs = new HashMap<>();
+        List<Integer> path = new ArrayList<>();
+        path.add(source);
+        extend(graph, target, path, 0, costs);
+        List<List<Integer>> paths = new ArrayList<>(costs.keySet());
+        paths.sort((a, b) -> {
+            int order = Long.compare(costs.get(a), costs.get(b));
+            if (order == 0) {
+                order = Integer.compare(a.size(), b.size());
+            }
+            for (int i = 0; order == 0 && i < a.size(); i++) {
+                order = Integer.compare(a.get(i), b.get(i));
+            }
+            return order;
+        });
+        List<WeightedPath<Integer>> result = new ArrayList<>();
+        for (List<Integer> ids : paths) {
+            result.add(new WeightedPath<>(graph,
+                    ids.stream().mapToInt(Integer::intValue).toArray(),
+                    costs.get(ids)));
+        }
+        return result;
+    }
+
+    /**
+     * Extends a path in every loopless way, recording the cheapest cost of
+     * each vertex sequence that reaches the target.
+     *
+     * @param graph the graph
+     * @param target the id of the target
+     * @param path the path so far
+     * @param cost the cost of the path so far
+     * @param costs the cost of every complete path
+     */
+    private static void extend(IndexedGraph<Integer> graph, int target,
+            List<Integer> path, long cost, Map<List<Integer>, Long> costs) {
+        int u = path.get(path.size() - 1);
+        if (u == target) {
+            costs.merge(new ArrayList<>(path), cost, Math::min);
+            return;
+        }
+        int[] offsets = graph.getOffsets();
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            int v = graph.getTargets()[i];
+            if (!path.contains(v)) {
+                path.add(v);
+                extend(graph, target, path, cost + graph.getWeights()[i],
+                        costs);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Adds up the lightest edge weight between each pair of consecutive
+     * vertices.
+     *
+     * @param graph the graph
+     * @param vertices the path
+     * @return the cost of the path
+     */
+    private static long cost(Graph<Integer> graph,
+            List<Vertex<Integer>> vertices) {
+        long cost = 0;
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            int best = Integer.MAX_VALUE;
+            for (VertexDistancePair<Integer> pair
+                    : graph.getAdjacencyList().get(vertices.get(i))) {
+                if (pair.getVertex().equals(vertices.get(i + 1))) {
+                    best = Math.min(best, pair.getDistance());
+                }
+            }
+            cost += best;
+        }
+        return cost;
+    }
+}
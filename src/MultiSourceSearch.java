@@ -0,0 +1,85 @@
+/**
+ * Bit-parallel breadth first search from up to 64 sources at once.
+ *
+ * Every vertex carries a 64 bit mask with one bit per source. A level of
+ * the search moves whole masks along each edge, so the sources share one
+ * pass over the adjacency arrays instead of making one pass each, and the
+ * sources' searches merge wherever they meet.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class MultiSourceSearch {
+
+    /**
+     * The largest number of sources one search can run.
+     */
+    static final int MAX_SOURCES = Long.SIZE;
+
+    /**
+     * Hidden constructor, this is a static utility class.
+     */
+    private MultiSourceSearch() {
+    }
+
+    /**
+     * Finds the vertices reachable from each source.
+     *
+     * @throws IllegalArgumentException if there are more than
+     *             {@link #MAX_SOURCES} sources
+     * @param graph the graph to search
+     * @param sources the ids of the sources
+     * @return a mask per vertex id, with bit {@code i} set if the vertex
+     *         is reachable from {@code sources[i]}
+     */
+    static long[] reach(IndexedGraph<?> graph, int[] sources) {
+        if (sources.length > MAX_SOURCES) {
+            throw new IllegalArgumentException("At most " + MAX_SOURCES
+                    + " sources");
+        }
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        long[] seen = new long[n];
+        long[] frontier = new long[n];
+        long[] next = new long[n];
+        int[] active = new int[n];
+        int[] nextActive = new int[n];
+        int count = 0;
+        for (int i = 0; i < sources.length; i++) {
+            int s = sources[i];
+            if (frontier[s] == 0) {
+                active[count++] = s;
+            }
+            frontier[s] |= 1L << i;
+            seen[s] |= 1L << i;
+        }
+        while (count > 0) {
+            int nextCount = 0;
+            for (int k = 0; k < count; k++) {
+                int u = active[k];
+                long bits = frontier[u];
+                frontier[u] = 0;
+                for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                    int v = targets[i];
+                    long fresh = bits & ~seen[v];
+                    if (fresh != 0) {
+                        if (next[v] == 0) {
+                            nextActive[nextCount++] = v;
+                        }
+                        next[v] |= fresh;
+                        seen[v] |= fresh;
+                    }
+                }
+            }
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            int[] swapActive = active;
+            active = nextActive;
+            nextActive = swapActive;
+            count = nextCount;
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,543 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Estimates of how many vertices every vertex reaches within each number
+ * of hops, computed with HyperBall, the HyperLogLog form of the
+ * approximate neighborhood function (ANF).
+ *
+ * Every vertex keeps a HyperLogLog counter of the set of vertices within h
+ * hops of it: {@code m} one-byte registers, each holding the largest rank
+ * of any hashed vertex that fell into it. A vertex's set at h + 1 hops is
+ * the union of its own set and its successors' sets at h hops, and the
+ * union of two counters is the register-wise maximum, so each hop is one
+ * pass over the edges. A successor whose counter did not change in the
+ * last pass is skipped, since its counter was already merged, so later
+ * passes touch only the part of the graph still growing. Passes stop when
+ * no counter changes or after the given number of hops, and each pass runs
+ * in parallel over chunks of vertices.
+ *
+ * Each estimate has a relative standard error of about
+ * {@code 1.04 / sqrt(m)}; {@link #compute(Graph, int, double)} picks the
+ * smallest power of two m that meets a requested error. Sizes are read
+ * from the registers with Ertl's improved estimator, which is unbiased
+ * for small and mid-sized sets as well as large ones. The counters take
+ * {@code 2 * m} bytes per vertex while running, and the estimates four
+ * bytes per vertex per hop. The registers are kept in segments of
+ * {@code 2^LOG2_SEGMENT_BYTES} bytes, each holding the counters of a run
+ * of vertices, so their total is not bounded by the largest array.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class NeighborhoodFunction<T> {
+
+    /**
+     * The fewest registers per counter, as a power of two.
+     */
+    static final int MIN_LOG2_REGISTERS = 4;
+
+    /**
+     * The most registers per counter, as a power of two.
+     */
+    static final int MAX_LOG2_REGISTERS = 16;
+
+    /**
+     * The size of each segment of registers, as a power of two; a segment
+     * holds the counters of {@code 2^(LOG2_SEGMENT_BYTES - log2Registers)}
+     * vertices.
+     */
+    static final int LOG2_SEGMENT_BYTES = 20;
+
+    /**
+     * The share of the reachable pairs that defines the effective
+     * diameter.
+     */
+    public static final double EFFECTIVE_DIAMETER_SHARE = 0.9;
+
+    /**
+     * The seed of the vertex hash.
+     */
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    /**
+     * The number of adjacency entries below which passes run on the
+     * calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final IndexedGraph<T> graph;
+    private final int log2Registers;
+    private final float[][] sizes;
+    private final double[] totals;
+
+    /**
+     * Creates the estimates.
+     *
+     * @param graph the graph
+     * @param log2Registers the base 2 logarithm of the registers per
+     *        counter
+     * @param sizes the estimate of every vertex at every hop
+     */
+    private NeighborhoodFunction(IndexedGraph<T> graph, int log2Registers,
+            float[][] sizes) {
+        this.graph = graph;
+        this.log2Registers = log2Registers;
+        this.sizes = sizes;
+        totals = new double[sizes.length];
+        for (int h = 0; h < sizes.length; h++) {
+            for (float size : sizes[h]) {
+                totals[h] += size;
+            }
+        }
+    }
+
+    /**
+     * Estimates neighborhood sizes for every number of hops, until they
+     * stop growing.
+     *
+     * @throws IllegalArgumentException if the graph is null or the error
+     *         is not between 0 and 1
+     * @param graph the graph
+     * @param relativeError the relative standard error to aim for
+     * @param <T> the data type representing the vertices in the graph
+     * @return the estimates
+     */
+    public static <T> NeighborhoodFunction<T> compute(Graph<T> graph,
+            double relativeError) {
+        return compute(graph, Integer.MAX_VALUE, relativeError);
+    }
+
+    /**
+     * Estimates neighborhood sizes for up to a number of hops. Directed
+     * edges are followed forwards, so a vertex's neighborhood is what it
+     * reaches.
+     *
+     * @throws IllegalArgumentException if the graph is null, maxHops is
+     *         negative, or the error is not between 0 and 1
+     * @param graph the graph
+     * @param maxHops the largest number of hops
+     * @param relativeError the relative standard error to aim for; a
+     *        smaller error takes more memory and time
+     * @param <T> the data type representing the vertices in the graph
+     * @return the estimates
+     */
+    public static <T> NeighborhoodFunction<T> compute(Graph<T> graph,
+            int maxHops, double relativeError) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        if (maxHops < 0) {
+            throw new IllegalArgumentException("Hop count is negative");
+        }
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("Error must be between 0 and "
+                    + "1");
+        }
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        int log2Registers = log2RegistersFor(relativeError);
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        Counters counters = new Counters(indexed, log2Registers);
+        List<float[]> sizes = new ArrayList<float[]>();
+        sizes.add(counters.estimates());
+        for (int h = 1; h <= maxHops && counters.pass(); h++) {
+            sizes.add(counters.estimates());
+        }
+        NeighborhoodFunction<T> function = new NeighborhoodFunction<T>(
+                indexed, log2Registers, sizes.toArray(new float[0][]));
+        if (event != null) {
+            event.finish("hyperball", graph, null, sizes.size() - 1);
+        }
+        return function;
+    }
+
+    /**
+     * Gets the number of registers per counter, as a power of two, that
+     * gives a relative standard error no larger than the given one, within
+     * the supported range.
+     *
+     * @param relativeError the relative standard error
+     * @return the base 2 logarithm of the number of registers
+     */
+    static int log2RegistersFor(double relativeError) {
+        double registers = Math.pow(1.04 / relativeError, 2);
+        int log2 = (int) Math.ceil(Math.log(registers) / Math.log(2));
+        return Math.max(MIN_LOG2_REGISTERS,
+                Math.min(MAX_LOG2_REGISTERS, log2));
+    }
+
+    /**
+     * Gets the estimated number of vertices within a number of hops of a
+     * vertex, including itself. Hops beyond the last pass give the last
+     * estimate, since nothing grew after it.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph or
+     *         hops is negative
+     * @param vertex the vertex
+     * @param hops the number of hops
+     * @return the estimated neighborhood size
+     */
+    public double getNeighborhoodSize(Vertex<T> vertex, int hops) {
+        return getNeighborhoodSize(id(vertex), hops);
+    }
+
+    /**
+     * Gets the estimated number of vertices within a number of hops of the
+     * vertex with an id.
+     *
+     * @throws IllegalArgumentException if hops is negative
+     * @param id the id of the vertex
+     * @param hops the number of hops
+     * @return the estimated neighborhood size
+     */
+    public double getNeighborhoodSize(int id, int hops) {
+        if (hops < 0) {
+            throw new IllegalArgumentException("Hop count is negative");
+        }
+        return sizes[Math.min(hops, sizes.length - 1)][id];
+    }
+
+    /**
+     * Gets the estimated number of vertices a vertex reaches within the
+     * hops computed, including itself.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the estimated number of reachable vertices
+     */
+    public double getReachable(Vertex<T> vertex) {
+        return sizes[sizes.length - 1][id(vertex)];
+    }
+
+    /**
+     * Gets the neighborhood function: for every number of hops from 0 to
+     * {@link #getHops()}, the estimated number of pairs (u, v) with v
+     * within that many hops of u, counting each vertex with itself.
+     *
+     * @return the estimated pair counts, indexed by hops
+     */
+    public double[] getNeighborhoodFunction() {
+        return totals.clone();
+    }
+
+    /**
+     * Gets the number of hops that were computed: the number of passes
+     * that changed some counter, or the hop limit if it was reached first.
+     *
+     * @return the number of hops
+     */
+    public int getHops() {
+        return sizes.length - 1;
+    }
+
+    /**
+     * Gets the effective diameter: the number of hops, interpolated
+     * between whole hops, within which {@link #EFFECTIVE_DIAMETER_SHARE}
+     * of the reachable pairs lie.
+     *
+     * @return the effective diameter
+     */
+    public double getEffectiveDiameter() {
+        return getEffectiveDiameter(EFFECTIVE_DIAMETER_SHARE);
+    }
+
+    /**
+     * Gets the number of hops, interpolated between whole hops, within
+     * which a share of the reachable pairs lie.
+     *
+     * @throws IllegalArgumentException if the share is not above 0 and at
+     *         most 1
+     * @param share the share of pairs
+     * @return the interpolated number of hops
+     */
+    public double getEffectiveDiameter(double share) {
+        if (!(share > 0 && share <= 1)) {
+            throw new IllegalArgumentException("Share must be above 0 and "
+                    + "at most 1");
+        }
+        double goal = share * totals[totals.length - 1];
+        int h = 0;
+        while (totals[h] < goal) {
+            h++;
+        }
+        if (h == 0 || totals[h] == totals[h - 1]) {
+            return h;
+        }
+        return h - 1 + (goal - totals[h - 1]) / (totals[h] - totals[h - 1]);
+    }
+
+    /**
+     * Gets the number of registers in each counter.
+     *
+     * @return the number of registers
+     */
+    public int getRegisterCount() {
+        return 1 << log2Registers;
+    }
+
+    /**
+     * Gets the relative standard error of each estimate.
+     *
+     * @return the relative standard error
+     */
+    public double getRelativeStandardError() {
+        return 1.04 / Math.sqrt(getRegisterCount());
+    }
+
+    /**
+     * Gets the graph the estimates are for.
+     *
+     * @return the graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the id of a vertex of the graph.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the id
+     */
+    private int id(Vertex<T> vertex) {
+        int id = vertex == null ? -1 : graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return id;
+    }
+
+    /**
+     * The HyperLogLog counters of every vertex, two generations at a time.
+     * The counter of vertex v is in segment {@code v >>> segmentShift}, at
+     * row {@code (v & segmentMask) * m}.
+     */
+    private static final class Counters {
+        private final IndexedGraph<?> graph;
+        private final int log2Registers;
+        private final int m;
+        private final int segmentShift;
+        private final int segmentMask;
+        private final boolean parallel;
+        private byte[][] current;
+        private byte[][] next;
+        private boolean[] changed;
+        private boolean[] changing;
+        private float[] estimates;
+
+        /**
+         * Creates counters holding each vertex alone.
+         *
+         * @param graph the graph
+         * @param log2Registers the base 2 logarithm of the registers per
+         *        counter
+         */
+        private Counters(IndexedGraph<?> graph, int log2Registers) {
+            int n = graph.getVertexCount();
+            this.graph = graph;
+            this.log2Registers = log2Registers;
+            m = 1 << log2Registers;
+            segmentShift = LOG2_SEGMENT_BYTES - log2Registers;
+            segmentMask = (1 << segmentShift) - 1;
+            parallel = graph.getArcCount() >= PARALLEL_THRESHOLD;
+            current = segments(n);
+            next = segments(n);
+            changed = new boolean[n];
+            changing = new boolean[n];
+            estimates = new float[n];
+            Arrays.fill(changed, true);
+            GraphAlgorithms.forEachChunk(n, parallel, v -> {
+                long hash = mix(v + SEED);
+                int register = (int) (hash >>> (Long.SIZE - log2Registers));
+                int rank = Long.numberOfLeadingZeros(
+                        (hash << log2Registers) | 1L << (log2Registers - 1))
+                        + 1;
+                byte[] segment = current[v >>> segmentShift];
+                int row = (v & segmentMask) << log2Registers;
+                segment[row + register] = (byte) rank;
+                estimates[v] = (float) estimate(segment, row);
+            });
+        }
+
+        /**
+         * Allocates the segments of one generation of counters.
+         *
+         * @param n the number of vertices
+         * @return the segments, the last one only as long as it needs to be
+         */
+        private byte[][] segments(int n) {
+            int count = (int) (((long) n + segmentMask) >>> segmentShift);
+            byte[][] segments = new byte[count][];
+            for (int s = 0; s < count; s++) {
+                int vertices = Math.min(segmentMask + 1,
+                        n - (s << segmentShift));
+                segments[s] = new byte[vertices << log2Registers];
+            }
+            return segments;
+        }
+
+        /**
+         * Mixes the bits of a long, as in SplitMix64.
+         *
+         * @param x the value
+         * @return the mixed value
+         */
+        private static long mix(long x) {
+            long z = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+
+        /**
+         * Advances every counter by one hop.
+         *
+         * @return true if any counter changed
+         */
+        private boolean pass() {
+            int[] offsets = graph.getOffsets();
+            int[] targets = graph.getTargets();
+            int n = graph.getVertexCount();
+            GraphAlgorithms.forEachChunk(n, parallel, v -> {
+                byte[] into = next[v >>> segmentShift];
+                int row = (v & segmentMask) << log2Registers;
+                System.arraycopy(current[v >>> segmentShift], row, into, row,
+                        m);
+                boolean grew = false;
+                for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                    int w = targets[i];
+                    if (w != v && changed[w]) {
+                        grew |= merge(into, row, current[w >>> segmentShift],
+                                (w & segmentMask) << log2Registers, m);
+                    }
+                }
+                changing[v] = grew;
+                if (grew) {
+                    estimates[v] = (float) estimate(into, row);
+                }
+            });
+            boolean any = false;
+            for (boolean grew : changing) {
+                any |= grew;
+            }
+            byte[][] swap = current;
+            current = next;
+            next = swap;
+            boolean[] flags = changed;
+            changed = changing;
+            changing = flags;
+            return any;
+        }
+
+        /**
+         * Merges one counter into another, keeping the larger of each pair
+         * of registers.
+         *
+         * @param into the segment of registers to merge into
+         * @param intoRow the position of the counter merged into
+         * @param from the segment of registers to merge from
+         * @param fromRow the position of the counter merged from
+         * @param m the number of registers
+         * @return true if any register grew
+         */
+        private static boolean merge(byte[] into, int intoRow, byte[] from,
+                int fromRow, int m) {
+            boolean grew = false;
+            for (int j = 0; j < m; j++) {
+                byte value = from[fromRow + j];
+                if (value > into[intoRow + j]) {
+                    into[intoRow + j] = value;
+                    grew = true;
+                }
+            }
+            return grew;
+        }
+
+        /**
+         * Estimates the size of the set a counter holds with Ertl's
+         * improved estimator, which works from the histogram of register
+         * values and, unlike the original HyperLogLog estimator, needs no
+         * switch to linear counting and has no bias for mid-sized sets.
+         *
+         * @param registers the segment of registers
+         * @param row the position of the counter in the segment
+         * @return the estimate
+         */
+        private double estimate(byte[] registers, int row) {
+            int q = Long.SIZE - log2Registers;
+            int[] histogram = new int[q + 2];
+            for (int j = 0; j < m; j++) {
+                histogram[registers[row + j]]++;
+            }
+            double z = m * tau(1 - (double) histogram[q + 1] / m);
+            for (int k = q; k > 0; k--) {
+                z = (z + histogram[k]) / 2;
+            }
+            z += m * sigma((double) histogram[0] / m);
+            return m * m / (2 * Math.log(2) * z);
+        }
+
+        /**
+         * Computes the series for the share of empty registers in Ertl's
+         * estimator.
+         *
+         * @param x the share of registers that are 0
+         * @return the sum of the series
+         */
+        private static double sigma(double x) {
+            if (x == 1) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double power = x;
+            double weight = 1;
+            double sum = x;
+            double last;
+            do {
+                power *= power;
+                last = sum;
+                sum += power * weight;
+                weight += weight;
+            } while (sum != last);
+            return sum;
+        }
+
+        /**
+         * Computes the series for the share of full registers in Ertl's
+         * estimator.
+         *
+         * @param x one minus the share of registers at their largest value
+         * @return the sum of the series
+         */
+        private static double tau(double x) {
+            if (x == 0 || x == 1) {
+                return 0;
+            }
+            double root = x;
+            double weight = 1;
+            double sum = 1 - x;
+            double last;
+            do {
+                root = Math.sqrt(root);
+                last = sum;
+                weight /= 2;
+                sum -= (1 - root) * (1 - root) * weight;
+            } while (sum != last);
+            return sum / 3;
+        }
+
+        /**
+         * Gets the current estimate of every counter.
+         *
+         * @return a copy of the estimates
+         */
+        private float[] estimates() {
+            return estimates.clone();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests for NeighborhoodFunction.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class NeighborhoodFunctionTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPath() {
+        NeighborhoodFunction<Integer> function = NeighborhoodFunction
+                .compute(GraphGenerators.path(5, 1), 0.02);
+        assertEquals(4, function.getHops());
+        assertEquals(5, function.getReachable(new Vertex<>(0)), 0.5);
+        assertEquals(3, function.getNeighborhoodSize(new Vertex<>(0), 2),
+                0.5);
+        assertEquals(5, function.getNeighborhoodSize(new Vertex<>(2), 2),
+                0.5);
+        assertEquals(5, function.getNeighborhoodSize(new Vertex<>(4), 9),
+                0.5);
+        double[] expected = {5, 13, 19, 23, 25};
+        double[] actual = function.getNeighborhoodFunction();
+        assertEquals(expected.length, actual.length);
+        for (int h = 0; h < expected.length; h++) {
+            assertEquals(expected[h], actual[h], 1);
+        }
+        assertEquals(2 + (22.5 - 19) / 4, function.getEffectiveDiameter(),
+                0.2);
+        assertEquals(4, function.getEffectiveDiameter(1), 0.2);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDirected() {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i < 4; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        for (int i = 0; i + 1 < 4; i++) {
+            edges.add(new Edge<>(vertices.get(i), vertices.get(i + 1), 1,
+                    true));
+        }
+        NeighborhoodFunction<Integer> function = NeighborhoodFunction
+                .compute(new Graph<>(edges), 0.05);
+        assertEquals(4, function.getReachable(vertices.get(0)), 0.5);
+        assertEquals(2, function.getReachable(vertices.get(2)), 0.5);
+        assertEquals(1, function.getReachable(vertices.get(3)), 0.5);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesBreadthFirstSearch() {
+        NeighborhoodFunction<Integer> function = NeighborhoodFunction
+                .compute(GraphGenerators.rmat(10, 3000, 5), 0.05);
+        assertEquals(512, function.getRegisterCount());
+        checkAgainstBreadthFirstSearch(function);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSegmentedRegisters() {
+        NeighborhoodFunction<Integer> function = NeighborhoodFunction
+                .compute(GraphGenerators.rmat(12, 12000, 7), 0.05);
+        // the counters span several segments of registers
+        assertTrue(function.getGraph().getVertexCount()
+                * function.getRegisterCount()
+                > 1 << NeighborhoodFunction.LOG2_SEGMENT_BYTES);
+        checkAgainstBreadthFirstSearch(function);
+    }
+
+    /**
+     * Checks that the estimates are within three standard errors of the
+     * exact neighborhood sizes for nearly every vertex and hop, and for the
+     * totals of every hop.
+     *
+     * @param function the estimates
+     */
+    private static void checkAgainstBreadthFirstSearch(
+            NeighborhoodFunction<Integer> function) {
+        IndexedGraph<Integer> indexed = function.getGraph();
+        int n = indexed.getVertexCount();
+        double[] total = function.getNeighborhoodFunction();
+        long[] exact = new long[total.length];
+        double error = 3 * function.getRelativeStandardError();
+        int outliers = 0;
+        for (int u = 0; u < n; u++) {
+            long[] counts = hopCounts(indexed, u);
+            long within = 0;
+            for (int h = 0; h < Math.max(counts.length, total.length); h++) {
+                within += h < counts.length ? counts[h] : 0;
+                if (h < total.length) {
+                    exact[h] += within;
+                }
+                double estimate = function.getNeighborhoodSize(u, h);
+                if (Math.abs(estimate - within) > error * within) {
+                    outliers++;
+                }
+            }
+        }
+        assertTrue("outliers " + outliers, outliers < n / 20);
+        for (int h = 0; h < total.length; h++) {
+            assertEquals(exact[h], total[h], error * exact[h]);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testHopLimit() {
+        Graph<Integer> graph = GraphGenerators.grid(30, 30, 2);
+        NeighborhoodFunction<Integer> limited =
+                NeighborhoodFunction.compute(graph, 5, 0.1);
+        NeighborhoodFunction<Integer> full =
+                NeighborhoodFunction.compute(graph, 0.1);
+        assertEquals(5, limited.getHops());
+        assertTrue(full.getHops() > 40 && full.getHops() <= 58);
+        assertTrue(Arrays.equals(Arrays.copyOf(
+                full.getNeighborhoodFunction(), 6),
+                limited.getNeighborhoodFunction()));
+        assertEquals(full.getNeighborhoodSize(0, 5),
+                limited.getNeighborhoodSize(0, 7), 0);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testRegistersForError() {
+        assertEquals(4, NeighborhoodFunction.log2RegistersFor(0.5));
+        assertEquals(10, NeighborhoodFunction.log2RegistersFor(0.0325));
+        assertEquals(11, NeighborhoodFunction.log2RegistersFor(0.03));
+        assertEquals(16, NeighborhoodFunction.log2RegistersFor(1e-6));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testBadError() {
+        NeighborhoodFunction.compute(GraphGenerators.path(3, 1), 0);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testBadShare() {
+        NeighborhoodFunction.compute(GraphGenerators.path(3, 1), 0.1)
+                .getEffectiveDiameter(1.5);
+    }
+
+    /**
+     * Counts the vertices at each distance from a vertex by breadth first
+     * search.
+     *
+     * @param graph the graph
+     * @param source the id of the vertex
+     * @return the number of vertices at each distance, up to the largest
+     */
+    private static long[] hopCounts(IndexedGraph<Integer> graph, int source) {
+        int[] distances = new int[graph.getVertexCount()];
+        Arrays.fill(distances, -1);
+        int[] queue = new int[distances.length];
+        int tail = 0;
+        queue[tail++] = source;
+        distances[source] = 0;
+        int farthest = 0;
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int i = graph.getOffsets()[u];
+                    i < graph.getOffsets()[u + 1]; i++) {
+                int v = graph.getTargets()[i];
+                if (distances[v] < 0) {
+                    distances[v] = distances[u] + 1;
+                    farthest = distances[v];
+                    queue[tail++] = v;
+                }
+            }
+        }
+        long[] counts = new long[farthest + 1];
+        for (int distance : distances) {
+            if (distance >= 0) {
+                counts[distance]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,362 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Builds an {@link IndexedGraph} straight from a collection of edges, in
+ * parallel and without building a {@link Graph} first.
+ *
+ * The edges are split into contiguous chunks, one per worker, and the
+ * build runs in passes over them:
+ *
+ * <ol>
+ * <li>each chunk numbers the vertices it meets in a private map;</li>
+ * <li>each chunk claims its vertices in a shared concurrent map, which
+ * keeps the lowest claiming chunk, the one where the vertex first
+ * appears;</li>
+ * <li>each chunk counts the vertices it owns, a prefix sum of the counts
+ * gives each chunk its first global id, and each chunk numbers its own
+ * vertices from there in local order, then looks up the ids of the rest;
+ * </li>
+ * <li>each chunk counts the adjacency entries it adds to each of its
+ * vertices, and the chunks, in order, turn their counts into starting
+ * positions in every row while summing the degrees;</li>
+ * <li>each chunk writes its entries into the preallocated arrays at its
+ * own positions.</li>
+ * </ol>
+ *
+ * Every pass but the degree sum runs on all chunks at once, and that one
+ * runs in parallel within each chunk. Besides the result, the build holds
+ * a few ints per edge and per vertex of each chunk, so its memory grows
+ * with the number of edges, not with the number of workers times the
+ * number of vertices.
+ *
+ * Because every chunk writes to positions fixed by the chunks before it,
+ * the result does not depend on the number of workers or their timing: it
+ * is exactly {@code new IndexedGraph<>(new Graph<>(edges))}, with vertices
+ * numbered in order of first appearance and each row in edge order, an
+ * undirected edge adding an entry at both of its ends. Searches on it
+ * visit vertices in the same order as on the Graph.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public final class ParallelGraphBuilder {
+
+    /**
+     * The fewest edges worth giving a worker of their own.
+     */
+    static final int MIN_CHUNK_EDGES = 1 << 16;
+
+    /**
+     * Hidden constructor, this is a static utility class.
+     */
+    private ParallelGraphBuilder() {
+    }
+
+    /**
+     * Builds the indexed form of the graph with the given edges, using the
+     * common fork/join pool.
+     *
+     * @throws IllegalArgumentException if the edges or any edge is null
+     * @param edges the edges, in the order a Graph would be given them;
+     *            equal edges are not removed, so pass a set to drop them
+     * @param <T> the data type representing the vertices in the graph
+     * @return the indexed graph
+     */
+    public static <T> IndexedGraph<T> build(Collection<Edge<T>> edges) {
+        if (edges == null) {
+            throw new IllegalArgumentException("Edges are null");
+        }
+        int chunks = Math.max(1, Math.min(
+                ForkJoinPool.getCommonPoolParallelism(),
+                edges.size() / MIN_CHUNK_EDGES));
+        return build(edges, chunks);
+    }
+
+    /**
+     * Builds the indexed form of a graph from its edge list, without
+     * looking at its adjacency list.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the indexed graph
+     */
+    public static <T> IndexedGraph<T> build(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return build(graph.getEdgeList());
+    }
+
+    /**
+     * Builds the indexed form of the graph with the given edges, split
+     * into a given number of chunks.
+     *
+     * @throws IllegalArgumentException if the edges or any edge is null
+     * @param edges the edges
+     * @param chunks the number of chunks, at least 1
+     * @param <T> the data type representing the vertices in the graph
+     * @return the indexed graph
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> IndexedGraph<T> build(Collection<Edge<T>> edges,
+            int chunks) {
+        if (edges == null) {
+            throw new IllegalArgumentException("Edges are null");
+        }
+        Edge<T>[] list = edges.toArray((Edge<T>[]) new Edge[0]);
+        int m = list.length;
+        int count = Math.max(1, Math.min(chunks, m));
+        List<Chunk<T>> parts = new ArrayList<Chunk<T>>(count);
+        for (int c = 0; c < count; c++) {
+            parts.add(new Chunk<T>(list, (int) ((long) m * c / count),
+                    (int) ((long) m * (c + 1) / count)));
+        }
+        boolean parallel = count > 1;
+        forEach(count, c -> parts.get(c).number());
+
+        int claimed = 0;
+        boolean directed = false;
+        for (Chunk<T> part : parts) {
+            claimed += part.vertices.size();
+            directed |= part.directed;
+        }
+        Map<Vertex<T>, Integer> ids =
+                new ConcurrentHashMap<Vertex<T>, Integer>(claimed);
+        forEach(count, c -> parts.get(c).claim(ids, c));
+        forEach(count, c -> parts.get(c).own(ids, c));
+        int[] bases = new int[count + 1];
+        for (int c = 0; c < count; c++) {
+            bases[c + 1] = bases[c] + parts.get(c).owned;
+        }
+        int n = bases[count];
+        Vertex<T>[] numbered = (Vertex<T>[]) new Vertex[n];
+        forEach(count, c -> parts.get(c).assign(ids, bases[c], numbered));
+        forEach(count, c -> parts.get(c).resolve(ids));
+        forEach(count, c -> parts.get(c).count());
+
+        int[] offsets = new int[n + 1];
+        for (Chunk<T> part : parts) {
+            part.place(offsets, parallel);
+        }
+        if (parallel) {
+            Arrays.parallelPrefix(offsets, Integer::sum);
+        } else {
+            for (int x = 0; x < n; x++) {
+                offsets[x + 1] += offsets[x];
+            }
+        }
+
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        forEach(count, c -> parts.get(c).scatter(offsets, targets, weights));
+        return new IndexedGraph<T>(numbered, ids, offsets, targets, weights,
+                directed);
+    }
+
+    /**
+     * Runs an action for every chunk, each chunk on a worker of its own
+     * when there is more than one.
+     *
+     * @param count the number of chunks
+     * @param action the action, given the chunk's index
+     */
+    private static void forEach(int count, IntConsumer action) {
+        IntStream stream = IntStream.range(0, count);
+        if (count > 1) {
+            stream = stream.parallel();
+        }
+        stream.forEach(action);
+    }
+
+    /**
+     * One contiguous run of the edges and the build state private to it.
+     *
+     * @param <T> the data type representing the vertices in the graph
+     */
+    private static final class Chunk<T> {
+        private final Edge<T>[] edges;
+        private final int from;
+        private final int to;
+        private final int[] ends;
+        private List<Vertex<T>> vertices;
+        private int[] globalIds;
+        private int[] starts;
+        private int owned;
+        private boolean directed;
+
+        /**
+         * Creates a chunk.
+         *
+         * @param edges all the edges
+         * @param from the index of the chunk's first edge
+         * @param to one past the index of its last edge
+         */
+        private Chunk(Edge<T>[] edges, int from, int to) {
+            this.edges = edges;
+            this.from = from;
+            this.to = to;
+            this.ends = new int[2 * (to - from)];
+        }
+
+        /**
+         * Numbers this chunk's vertices in order of first appearance and
+         * records the local ids of every edge's ends.
+         */
+        private void number() {
+            Map<Vertex<T>, Integer> local = new HashMap<Vertex<T>, Integer>();
+            vertices = new ArrayList<Vertex<T>>();
+            for (int i = from; i < to; i++) {
+                Edge<T> edge = edges[i];
+                if (edge == null) {
+                    throw new IllegalArgumentException("Edge is null");
+                }
+                ends[2 * (i - from)] = local(local, edge.getU());
+                ends[2 * (i - from) + 1] = local(local, edge.getV());
+                directed |= edge.isDirected();
+            }
+        }
+
+        /**
+         * Gets the local id of a vertex, numbering it if it is new.
+         *
+         * @param local the local ids
+         * @param vertex the vertex
+         * @return the local id
+         */
+        private int local(Map<Vertex<T>, Integer> local, Vertex<T> vertex) {
+            Integer id = local.get(vertex);
+            if (id == null) {
+                id = vertices.size();
+                local.put(vertex, id);
+                vertices.add(vertex);
+            }
+            return id;
+        }
+
+        /**
+         * Claims this chunk's vertices, leaving each mapped to the lowest
+         * chunk that has it.
+         *
+         * @param ids the shared map, from vertex to claiming chunk
+         * @param index the index of this chunk
+         */
+        private void claim(Map<Vertex<T>, Integer> ids, int index) {
+            for (Vertex<T> vertex : vertices) {
+                ids.merge(vertex, index, Math::min);
+            }
+        }
+
+        /**
+         * Finds the vertices this chunk owns, once every chunk has claimed,
+         * and ranks them in local order.
+         *
+         * @param ids the shared map, from vertex to claiming chunk
+         * @param index the index of this chunk
+         */
+        private void own(Map<Vertex<T>, Integer> ids, int index) {
+            globalIds = new int[vertices.size()];
+            for (int j = 0; j < globalIds.length; j++) {
+                globalIds[j] = ids.get(vertices.get(j)) == index
+                        ? owned++ : -1;
+            }
+        }
+
+        /**
+         * Gives the vertices this chunk owns their global ids.
+         *
+         * @param ids the shared map, set to the global ids of these vertices
+         * @param base the first global id of this chunk
+         * @param numbered the vertices by global id, to fill
+         */
+        private void assign(Map<Vertex<T>, Integer> ids, int base,
+                Vertex<T>[] numbered) {
+            for (int j = 0; j < globalIds.length; j++) {
+                if (globalIds[j] >= 0) {
+                    globalIds[j] += base;
+                    ids.put(vertices.get(j), globalIds[j]);
+                    numbered[globalIds[j]] = vertices.get(j);
+                }
+            }
+        }
+
+        /**
+         * Looks up the global ids of the vertices other chunks own, once
+         * every chunk has assigned.
+         *
+         * @param ids the shared map, from vertex to global id
+         */
+        private void resolve(Map<Vertex<T>, Integer> ids) {
+            for (int j = 0; j < globalIds.length; j++) {
+                if (globalIds[j] < 0) {
+                    globalIds[j] = ids.get(vertices.get(j));
+                }
+            }
+            vertices = null;
+        }
+
+        /**
+         * Counts the entries this chunk adds to each of its vertices' rows.
+         */
+        private void count() {
+            starts = new int[globalIds.length];
+            for (int i = 0; i < ends.length; i += 2) {
+                starts[ends[i]]++;
+                if (!edges[from + i / 2].isDirected()) {
+                    starts[ends[i + 1]]++;
+                }
+            }
+        }
+
+        /**
+         * Turns this chunk's counts into its starting positions in its
+         * vertices' rows, after the entries of the chunks before it, and
+         * adds them to the degrees. The chunks must be placed in order.
+         *
+         * @param degrees the degree of each vertex so far, one place after
+         *            its id
+         * @param parallel whether to run in parallel
+         */
+        private void place(int[] degrees, boolean parallel) {
+            GraphAlgorithms.forEachChunk(starts.length, parallel, j -> {
+                int added = starts[j];
+                starts[j] = degrees[globalIds[j] + 1];
+                degrees[globalIds[j] + 1] += added;
+            });
+        }
+
+        /**
+         * Writes this chunk's entries at its positions in every row.
+         *
+         * @param offsets the row offsets
+         * @param targets the neighbor ids to fill
+         * @param weights the weights to fill
+         */
+        private void scatter(int[] offsets, int[] targets, int[] weights) {
+            for (int i = 0; i < ends.length; i += 2) {
+                Edge<T> edge = edges[from + i / 2];
+                int u = ends[i];
+                int v = ends[i + 1];
+                int slot = offsets[globalIds[u]] + starts[u]++;
+                targets[slot] = globalIds[v];
+                weights[slot] = edge.getWeight();
+                if (!edge.isDirected()) {
+                    slot = offsets[globalIds[v]] + starts[v]++;
+                    targets[slot] = globalIds[u];
+                    weights[slot] = edge.getWeight();
+                }
+            }
+            starts = null;
+            globalIds = null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for ParallelGraphBuilder.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class ParallelGraphBuilderTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testMatchesGraph() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(300, 1500, 1)
+                    : GraphGenerators.erdosRenyi(300, 1500, 1);
+            IndexedGraph<Integer> expected = new IndexedGraph<>(graph);
+            for (int chunks : new int[] {1, 2, 3, 7, 64}) {
+                assertSameGraph(expected, ParallelGraphBuilder.build(
+                        graph.getEdgeList(), chunks));
+            }
+            assertSameGraph(expected, ParallelGraphBuilder.build(graph));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMixedEdgesAndSelfLoops() {
+        Random random = new Random(2);
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(new Vertex<>(random.nextInt()));
+        }
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 0; i < 800; i++) {
+            Vertex<Integer> u = vertices.get(random.nextInt(100));
+            Vertex<Integer> v = i % 9 == 0 ? u
+                    : vertices.get(random.nextInt(100));
+            edges.add(new Edge<Integer>(u, v, random.nextInt(50) - 10,
+                    random.nextBoolean()));
+        }
+        IndexedGraph<Integer> expected = new IndexedGraph<>(
+                new Graph<Integer>(edges));
+        for (int chunks : new int[] {1, 2, 5, 16}) {
+            assertSameGraph(expected,
+                    ParallelGraphBuilder.build(edges, chunks));
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLargeGraph() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(50000, 300000, 3);
+        IndexedGraph<Integer> expected = new IndexedGraph<>(graph);
+        assertSameGraph(expected, ParallelGraphBuilder.build(graph));
+        assertSameGraph(expected,
+                ParallelGraphBuilder.build(graph.getEdgeList(), 8));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSearchesAgree() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(200, 700, 4);
+        IndexedGraph<Integer> built =
+                ParallelGraphBuilder.build(graph.getEdgeList(), 5);
+        for (int s = 0; s < 200; s += 23) {
+            Vertex<Integer> start = built.getVertex(s);
+            assertEquals(GraphAlgorithms.breadthFirstSearch(start, graph),
+                    GraphAlgorithms.indexedBreadthFirstSearch(start, built));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testEmpty() {
+        IndexedGraph<Integer> built = ParallelGraphBuilder.build(
+                new LinkedHashSet<Edge<Integer>>(), 4);
+        assertEquals(0, built.getVertexCount());
+        assertEquals(0, built.getArcCount());
+        assertArrayEquals(new int[] {0}, built.getOffsets());
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullEdges() {
+        ParallelGraphBuilder.build((LinkedHashSet<Edge<Integer>>) null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullEdge() {
+        List<Edge<Integer>> edges = new ArrayList<>(Arrays.asList(
+                new Edge<Integer>(new Vertex<>(1), new Vertex<>(2), 1, true),
+                null));
+        ParallelGraphBuilder.build(edges, 2);
+    }
+
+    /**
+     * Checks that two indexed graphs have the same ids and arrays.
+     *
+     * @param expected the graph built from a Graph
+     * @param actual the graph built in parallel
+     */
+    private static void assertSameGraph(IndexedGraph<Integer> expected,
+            IndexedGraph<Integer> actual) {
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.isDirected(), actual.isDirected());
+        for (int u = 0; u < expected.getVertexCount(); u++) {
+            assertSame(expected.getVertex(u), actual.getVertex(u));
+            assertEquals(u, actual.getId(expected.getVertex(u)));
+        }
+        assertArrayEquals(expected.getOffsets(), actual.getOffsets());
+        assertArrayEquals(expected.getTargets(), actual.getTargets());
+        assertArrayEquals(expected.getWeights(), actual.getWeights());
+    }
+}
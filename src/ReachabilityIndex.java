@@ -0,0 +1,407 @@
+import java.util.stream.IntStream;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * An index that answers whether one vertex of a directed graph can reach
+ * another, usually without searching.
+ *
+ * The index is built on the condensation of the graph, so vertices in one
+ * strongly connected component reach each other and a query is a question
+ * about two components of a directed acyclic graph. Each component gets
+ * labels that rule most pairs out in constant time:
+ * <ul>
+ * <li>its topological number and its level, the length of the longest
+ * path to it from a source, both of which increase along every path;</li>
+ * <li>one GRAIL interval per randomized depth first traversal: its post
+ * order number and the smallest post order number it reaches, so that the
+ * interval of anything it reaches lies inside its own;</li>
+ * <li>two 64-bit Bloom filters of the components it reaches and the
+ * components that reach it, so that anything it reaches has a subset of
+ * its descendant bits and a superset of its ancestor bits. As in BFL, runs
+ * of components consecutive in post order share a bit, so that the
+ * descendants of a component, which are mostly consecutive, set few
+ * bits.</li>
+ * </ul>
+ * A pair that fails any of these tests is unreachable. A pair whose
+ * interval in the spanning forest of the first traversal nests is
+ * reachable through tree arcs. Any other pair is settled by a depth first
+ * search that skips every component failing the tests against the target,
+ * which on the graphs the labels are built for visits few components.
+ *
+ * Building takes one strongly connected component search, which is
+ * parallel on large graphs, and a few linear passes over the
+ * condensation, with the traversals run in parallel. The index holds
+ * {@code 2k + 2} ints and two longs per component for k traversals, plus
+ * the condensation. Queries may run concurrently; each thread searches
+ * with its own {@link SearchWorkspace}.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class ReachabilityIndex<T> {
+
+    /**
+     * The number of randomized traversals used by {@link #build(Graph)}.
+     */
+    public static final int DEFAULT_TRAVERSALS = 3;
+
+    /**
+     * The number of runs of consecutive components, in the post order of
+     * the first traversal, that are each hashed to one Bloom filter bit.
+     */
+    private static final int BLOOM_RUNS = 1 << 12;
+
+    /**
+     * The number of condensation arcs below which traversals run on the
+     * calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final Condensation<T> condensation;
+    private final int[] components;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int traversals;
+    private final int[] levels;
+    private final int[] lows;
+    private final int[] posts;
+    private final int[] treeLows;
+    private final long[] descendants;
+    private final long[] ancestors;
+
+    /**
+     * Builds the labels of a condensation.
+     *
+     * @param condensation the condensation of the graph
+     * @param traversals the number of randomized traversals
+     */
+    private ReachabilityIndex(Condensation<T> condensation, int traversals) {
+        IndexedGraph<Integer> dag = condensation.getDag();
+        int count = condensation.getComponentCount();
+        this.condensation = condensation;
+        this.traversals = traversals;
+        components = condensation.getComponents().getLabels();
+        offsets = dag.getOffsets();
+        targets = dag.getTargets();
+        levels = new int[count];
+        lows = new int[count * traversals];
+        posts = new int[count * traversals];
+        treeLows = new int[count];
+        IntStream stream = IntStream.range(0, traversals);
+        if (dag.getArcCount() >= PARALLEL_THRESHOLD) {
+            stream = stream.parallel();
+        }
+        stream.forEach(this::traverse);
+        descendants = new long[count];
+        ancestors = new long[count];
+        int run = Math.max(1, count / BLOOM_RUNS);
+        for (int c = 0; c < count; c++) {
+            ancestors[c] |= bit(posts[c * traversals] / run);
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int w = targets[i];
+                levels[w] = Math.max(levels[w], levels[c] + 1);
+                ancestors[w] |= ancestors[c];
+            }
+        }
+        for (int c = count - 1; c >= 0; c--) {
+            descendants[c] = bit(posts[c * traversals] / run);
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                descendants[c] |= descendants[targets[i]];
+            }
+        }
+    }
+
+    /**
+     * Builds an index with {@link #DEFAULT_TRAVERSALS} traversals.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the index
+     */
+    public static <T> ReachabilityIndex<T> build(Graph<T> graph) {
+        return build(graph, DEFAULT_TRAVERSALS);
+    }
+
+    /**
+     * Builds an index. More traversals rule out more pairs without a
+     * search, at the cost of two ints per component and one pass over the
+     * condensation each.
+     *
+     * @throws IllegalArgumentException if the graph is null, traversals is
+     *         not positive, or the labels would not fit in an array
+     * @param graph the graph
+     * @param traversals the number of randomized traversals
+     * @param <T> the data type representing the vertices in the graph
+     * @return the index
+     */
+    public static <T> ReachabilityIndex<T> build(Graph<T> graph,
+            int traversals) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        if (traversals < 1) {
+            throw new IllegalArgumentException("Need at least 1 traversal");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        Condensation<T> condensation =
+                GraphAlgorithms.parallelStronglyConnectedComponents(graph);
+        if ((long) condensation.getComponentCount() * traversals
+                > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many traversals");
+        }
+        ReachabilityIndex<T> index =
+                new ReachabilityIndex<T>(condensation, traversals);
+        if (event != null) {
+            event.finish("reachability", graph, null,
+                    condensation.getComponentCount());
+        }
+        return index;
+    }
+
+    /**
+     * Mixes the bits of a long, as in SplitMix64.
+     *
+     * @param x the value
+     * @return the mixed value
+     */
+    private static long mix(long x) {
+        long z = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Gets the Bloom filter bit of a run of components.
+     *
+     * @param run the number of the run
+     * @return a long with one bit set
+     */
+    private static long bit(int run) {
+        return 1L << (mix(run) >>> (Long.SIZE - 6));
+    }
+
+    /**
+     * Labels every component with its interval in one depth first
+     * traversal of the condensation. The first traversal takes roots and
+     * children in order and also records its spanning forest; the others
+     * start the root list and each child list at a pseudorandom place.
+     *
+     * @param traversal the number of the traversal
+     */
+    private void traverse(int traversal) {
+        int count = levels.length;
+        if (count == 0) {
+            return;
+        }
+        boolean[] visited = new boolean[count];
+        int[] stack = new int[count];
+        int[] next = new int[count];
+        int[] discovered = new int[count];
+        int post = 0;
+        int first = rotation(count, traversal, count);
+        for (int r = 0; r < count; r++) {
+            int root = (first + r) % count;
+            if (visited[root]) {
+                continue;
+            }
+            int size = 0;
+            stack[size++] = root;
+            visited[root] = true;
+            discovered[root] = post;
+            while (size > 0) {
+                int c = stack[size - 1];
+                int degree = offsets[c + 1] - offsets[c];
+                if (next[c] < degree) {
+                    int w = targets[offsets[c] + (next[c]
+                            + rotation(c, traversal, degree)) % degree];
+                    next[c]++;
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        discovered[w] = post;
+                        stack[size++] = w;
+                    }
+                } else {
+                    size--;
+                    finish(c, traversal, discovered[c], post++);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets where a traversal starts a list, 0 for the first traversal.
+     *
+     * @param key the component whose children are listed, or the number
+     *        of components for the list of roots
+     * @param traversal the number of the traversal
+     * @param length the length of the list, which must be positive
+     * @return the position to start at
+     */
+    private int rotation(int key, int traversal, int length) {
+        if (traversal == 0) {
+            return 0;
+        }
+        return Math.floorMod(mix((long) key * traversals + traversal),
+                length);
+    }
+
+    /**
+     * Finishes visiting a component in a traversal, once all of its
+     * children are finished.
+     *
+     * @param c the component
+     * @param traversal the number of the traversal
+     * @param discovered the post order number when it was reached
+     * @param post its post order number
+     */
+    private void finish(int c, int traversal, int discovered, int post) {
+        int low = post;
+        for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+            low = Math.min(low, lows[targets[i] * traversals + traversal]);
+        }
+        lows[c * traversals + traversal] = low;
+        posts[c * traversals + traversal] = post;
+        if (traversal == 0) {
+            treeLows[c] = discovered;
+        }
+    }
+
+    /**
+     * Tells whether a vertex can reach another by a path of edges. Every
+     * vertex reaches itself.
+     *
+     * @throws IllegalArgumentException if either vertex is not in the graph
+     * @param from the vertex the path starts at
+     * @param to the vertex the path ends at
+     * @return true if there is a path
+     */
+    public boolean reachable(Vertex<T> from, Vertex<T> to) {
+        ComponentLabels<T> labels = condensation.getComponents();
+        return reachableComponent(labels.componentOf(from),
+                labels.componentOf(to));
+    }
+
+    /**
+     * Tells whether the vertex with one id can reach the vertex with
+     * another, with ids from {@link #getGraph()}.
+     *
+     * @param from the id of the vertex the path starts at
+     * @param to the id of the vertex the path ends at
+     * @return true if there is a path
+     */
+    public boolean reachable(int from, int to) {
+        return reachableComponent(components[from], components[to]);
+    }
+
+    /**
+     * Tells whether one component of the condensation can reach another.
+     *
+     * @param from the component the path starts at
+     * @param to the component the path ends at
+     * @return true if there is a path
+     */
+    boolean reachableComponent(int from, int to) {
+        if (from == to) {
+            return true;
+        }
+        if (excluded(from, to)) {
+            return false;
+        }
+        if (spans(from, to)) {
+            return true;
+        }
+        SearchWorkspace workspace =
+                SearchWorkspace.current().begin(levels.length);
+        int[] stack = workspace.queue();
+        int size = 0;
+        stack[size++] = from;
+        workspace.visit(from);
+        while (size > 0) {
+            int c = stack[--size];
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                int w = targets[i];
+                if (w == to) {
+                    return true;
+                }
+                if (!excluded(w, to)) {
+                    if (spans(w, to)) {
+                        return true;
+                    }
+                    if (workspace.visit(w)) {
+                        stack[size++] = w;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether the labels of two distinct components rule out a path
+     * from one to the other.
+     *
+     * @param from the component the path would start at
+     * @param to the component the path would end at
+     * @return true if there is no path
+     */
+    private boolean excluded(int from, int to) {
+        if (from > to || levels[from] >= levels[to]
+                || (descendants[to] & ~descendants[from]) != 0
+                || (ancestors[from] & ~ancestors[to]) != 0) {
+            return true;
+        }
+        int f = from * traversals;
+        int t = to * traversals;
+        for (int i = 0; i < traversals; i++) {
+            if (lows[t + i] < lows[f + i] || posts[t + i] > posts[f + i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Tells whether one component is below another in the spanning forest
+     * of the first traversal, which makes it reachable.
+     *
+     * @param from the upper component
+     * @param to the lower component
+     * @return true if the forest has a path from one to the other
+     */
+    private boolean spans(int from, int to) {
+        return treeLows[from] <= treeLows[to]
+                && posts[to * traversals] <= posts[from * traversals];
+    }
+
+    /**
+     * Gets the condensation the index is built on.
+     *
+     * @return the condensation
+     */
+    public Condensation<T> getCondensation() {
+        return condensation;
+    }
+
+    /**
+     * Gets the graph the index is for, whose ids
+     * {@link #reachable(int, int)} takes.
+     *
+     * @return the graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return condensation.getComponents().getGraph();
+    }
+
+    /**
+     * Gets the number of randomized traversals the index labels with.
+     *
+     * @return the number of traversals
+     */
+    public int getTraversalCount() {
+        return traversals;
+    }
+}
@@ -0,0 +1,131 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests for ReachabilityIndex.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class ReachabilityIndexTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testCycleAndTail() {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        int[][] arcs = {{0, 1}, {1, 2}, {2, 0}, {2, 3}, {3, 4}, {5, 3}};
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int[] arc : arcs) {
+            edges.add(new Edge<>(vertices.get(arc[0]), vertices.get(arc[1]),
+                    1, true));
+        }
+        edges.add(new Edge<>(vertices.get(6), vertices.get(6), 1, true));
+        ReachabilityIndex<Integer> index =
+                ReachabilityIndex.build(new Graph<>(edges));
+        assertEquals(5, index.getCondensation().getComponentCount());
+        assertTrue(index.reachable(vertices.get(2), vertices.get(1)));
+        assertTrue(index.reachable(vertices.get(0), vertices.get(4)));
+        assertTrue(index.reachable(vertices.get(5), vertices.get(4)));
+        assertTrue(index.reachable(vertices.get(6), vertices.get(6)));
+        assertFalse(index.reachable(vertices.get(4), vertices.get(3)));
+        assertFalse(index.reachable(vertices.get(5), vertices.get(0)));
+        assertFalse(index.reachable(vertices.get(0), vertices.get(5)));
+        assertFalse(index.reachable(vertices.get(0), vertices.get(6)));
+        check(index);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesBreadthFirstSearch() {
+        for (int traversals = 1; traversals <= 4; traversals++) {
+            check(ReachabilityIndex.build(GraphGenerators
+                    .directedErdosRenyi(300, 360, traversals), traversals));
+            check(ReachabilityIndex.build(GraphGenerators
+                    .randomDag(300, 900, traversals), traversals));
+            check(ReachabilityIndex.build(GraphGenerators
+                    .rmat(8, 600, traversals), traversals));
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLargeDag() {
+        ReachabilityIndex<Integer> index = ReachabilityIndex.build(
+                GraphGenerators.randomDag(20000, 60000, 8));
+        assertEquals(3, index.getTraversalCount());
+        IndexedGraph<Integer> graph = index.getGraph();
+        Random random = new Random(8);
+        for (int i = 0; i < 100; i++) {
+            int source = random.nextInt(graph.getVertexCount());
+            boolean[] reached = reach(graph, source);
+            for (int v = 0; v < reached.length; v++) {
+                assertEquals(reached[v], index.reachable(source, v));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNoTraversals() {
+        ReachabilityIndex.build(GraphGenerators.path(3, 1), 0);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingVertex() {
+        ReachabilityIndex.build(GraphGenerators.path(3, 1))
+                .reachable(new Vertex<>(0), new Vertex<>(-1));
+    }
+
+    /**
+     * Compares every answer of an index with a breadth first search.
+     *
+     * @param index the index
+     */
+    private static void check(ReachabilityIndex<Integer> index) {
+        IndexedGraph<Integer> graph = index.getGraph();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            boolean[] reached = reach(graph, u);
+            for (int v = 0; v < reached.length; v++) {
+                assertEquals(u + " to " + v, reached[v],
+                        index.reachable(u, v));
+            }
+        }
+    }
+
+    /**
+     * Finds the vertices a vertex reaches by breadth first search.
+     *
+     * @param graph the graph
+     * @param source the id of the vertex
+     * @return whether each vertex is reached, by id
+     */
+    private static boolean[] reach(IndexedGraph<Integer> graph, int source) {
+        boolean[] reached = new boolean[graph.getVertexCount()];
+        int[] queue = new int[reached.length];
+        int tail = 0;
+        queue[tail++] = source;
+        reached[source] = true;
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int i = graph.getOffsets()[u];
+                    i < graph.getOffsets()[u + 1]; i++) {
+                int v = graph.getTargets()[i];
+                if (!reached[v]) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return reached;
+    }
+}
@@ -0,0 +1,289 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Scaling regression tests for GraphAlgorithms.
+ *
+ * Each test runs an algorithm on graphs of doubling size and fits the
+ * growth exponent of the work it does against the number of edges. Work is
+ * measured twice. The first measure counts the equals and hashCode calls
+ * made on vertex data over the whole call, indexing included, which covers
+ * every list scan, hash lookup and set insert whether or not the code
+ * under test reports it; a {@code List.contains} visited check or a linear
+ * rescan of the vertices measures close to 2. The second is the sum of
+ * the counters the search loops record in {@link AlgorithmMetrics}:
+ * vertices settled, adjacency entries scanned, edges relaxed, and
+ * frontier pushes and pops, which catches loops that re-enqueue settled
+ * vertices. Unlike wall clock time neither count depends on caches, the
+ * JIT or the machine, so the tests are deterministic. Every algorithm
+ * here is near linear in the graph size and should measure exponents
+ * close to 1.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class ScalingTests {
+
+    private static final int LONG_TIMEOUT = 60000;
+    private static final int BASE_EDGES = 10000;
+    private static final int DOUBLINGS = 3;
+    private static final long SEED = 1332;
+    private static final long STACK_SIZE = 1L << 28;
+
+    /**
+     * Largest growth exponent accepted for near linear algorithms.
+     */
+    private static final double MAX_EXPONENT = 1.25;
+
+    /**
+     * The graph models the scaling tests run on.
+     */
+    private enum Model {
+        ERDOS_RENYI, RMAT, GRID, PATH
+    }
+
+    /**
+     * The algorithms the scaling tests run.
+     */
+    private enum Algorithm {
+        BFS, DFS, DIJKSTRAS, PRIMS
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void generatorsAreDeterministic() {
+        Graph<Integer> first = GraphGenerators.rmat(10, 4000, SEED);
+        Graph<Integer> second = GraphGenerators.rmat(10, 4000, SEED);
+        assertEquals(first.getEdgeList(), second.getEdgeList());
+        assertEquals(4000, first.getEdgeList().size());
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void generatorShapes() {
+        assertEquals(45, GraphGenerators.complete(10, SEED)
+                .getEdgeList().size());
+        assertEquals(9, GraphGenerators.path(10, SEED)
+                .getEdgeList().size());
+        Graph<Integer> grid = GraphGenerators.grid(3, 4, SEED);
+        assertEquals(17, grid.getEdgeList().size());
+        assertEquals(12, grid.getAdjacencyList().size());
+        assertEquals(2, grid.getAdjacencyList().get(new Vertex<>(0)).size());
+        assertEquals(4, grid.getAdjacencyList().get(new Vertex<>(5)).size());
+        assertEquals(5000, GraphGenerators.erdosRenyi(1000, 5000, SEED)
+                .getEdgeList().size());
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void bfsScaling() {
+        assertScaling(Algorithm.BFS, Model.ERDOS_RENYI, BASE_EDGES);
+        assertScaling(Algorithm.BFS, Model.RMAT, BASE_EDGES);
+        assertScaling(Algorithm.BFS, Model.PATH, BASE_EDGES);
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void dfsScaling() {
+        assertScaling(Algorithm.DFS, Model.ERDOS_RENYI, BASE_EDGES);
+        assertScaling(Algorithm.DFS, Model.GRID, BASE_EDGES);
+        assertScaling(Algorithm.DFS, Model.PATH, BASE_EDGES);
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void dijkstrasScaling() {
+        assertScaling(Algorithm.DIJKSTRAS, Model.ERDOS_RENYI, BASE_EDGES);
+        assertScaling(Algorithm.DIJKSTRAS, Model.GRID, BASE_EDGES);
+        assertScaling(Algorithm.DIJKSTRAS, Model.PATH, BASE_EDGES);
+    }
+
+    @Test(timeout = LONG_TIMEOUT)
+    public void primsScaling() {
+        assertScaling(Algorithm.PRIMS, Model.GRID, BASE_EDGES);
+        assertScaling(Algorithm.PRIMS, Model.PATH, BASE_EDGES);
+    }
+
+    /**
+     * Asserts that the algorithm's work grows no faster than
+     * {@link #MAX_EXPONENT} when the number of edges doubles.
+     *
+     * @param algorithm the algorithm to measure
+     * @param model the graph model to measure it on
+     * @param baseEdges the approximate number of edges of the smallest graph
+     */
+    private void assertScaling(Algorithm algorithm, Model model,
+            int baseEdges) {
+        long[][] work = new long[DOUBLINGS + 1][];
+        int[] edges = new int[DOUBLINGS + 1];
+        for (int i = 0; i <= DOUBLINGS; i++) {
+            Graph<Counted> graph = counted(generate(model, baseEdges << i));
+            edges[i] = graph.getEdgeList().size();
+            work[i] = measure(algorithm, graph);
+        }
+        String[] measures = {"calls", "counters"};
+        for (int m = 0; m < measures.length; m++) {
+            double exponent = Math.log((double) work[DOUBLINGS][m]
+                    / work[0][m])
+                    / Math.log((double) edges[DOUBLINGS] / edges[0]);
+            assertTrue(algorithm + " on " + model + " " + measures[m]
+                    + " grow like E^" + String.format("%.2f", exponent),
+                    exponent < MAX_EXPONENT);
+        }
+    }
+
+    /**
+     * Generates a connected graph of the given model with approximately
+     * the given number of edges.
+     *
+     * @param model the graph model
+     * @param edges the approximate number of edges
+     * @return the graph
+     */
+    private Graph<Integer> generate(Model model, int edges) {
+        switch (model) {
+        case RMAT:
+            int scale = 32 - Integer.numberOfLeadingZeros(edges / 8);
+            return GraphGenerators.rmat(scale, edges, SEED);
+        case GRID:
+            int side = (int) Math.sqrt(edges / 2);
+            return GraphGenerators.grid(side, side, SEED);
+        case PATH:
+            return GraphGenerators.path(edges + 1, SEED);
+        default:
+            return GraphGenerators.erdosRenyi(edges / 4, edges, SEED);
+        }
+    }
+
+    /**
+     * Copies a generated graph, wrapping the vertex data so that the work
+     * done on it can be counted. Edge and adjacency order are unchanged.
+     *
+     * @param graph the generated graph
+     * @return the copy
+     */
+    private Graph<Counted> counted(Graph<Integer> graph) {
+        Map<Vertex<Integer>, Vertex<Counted>> vertices =
+                new HashMap<Vertex<Integer>, Vertex<Counted>>();
+        for (Vertex<Integer> vertex : graph.getAdjacencyList().keySet()) {
+            vertices.put(vertex, new Vertex<Counted>(
+                    new Counted(vertex.getData())));
+        }
+        LinkedHashSet<Edge<Counted>> edges = new LinkedHashSet<Edge<Counted>>();
+        for (Edge<Integer> edge : graph.getEdgeList()) {
+            edges.add(new Edge<Counted>(vertices.get(edge.getU()),
+                    vertices.get(edge.getV()), edge.getWeight(),
+                    edge.isDirected()));
+        }
+        return new Graph<Counted>(edges);
+    }
+
+    /**
+     * Runs the algorithm once, on a thread with a large stack for the
+     * recursive depthFirstSearch, and counts the work it does.
+     *
+     * @param algorithm the algorithm to run
+     * @param graph the graph to run it on
+     * @return the number of equals and hashCode calls on vertex data, and
+     *         the total of the work counters
+     */
+    private long[] measure(final Algorithm algorithm,
+            final Graph<Counted> graph) {
+        final AlgorithmMetrics metrics = new AlgorithmMetrics();
+        final long[] calls = new long[1];
+        final Throwable[] failure = new Throwable[1];
+        Thread thread = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Vertex<Counted> start = graph.getEdgeList().iterator()
+                            .next().getU();
+                    Counted.calls = 0;
+                    ScalingTests.this.run(algorithm, start, graph, metrics);
+                    calls[0] = Counted.calls;
+                } catch (Throwable t) {
+                    failure[0] = t;
+                }
+            }
+        }, "scaling-test", STACK_SIZE);
+        thread.start();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        if (failure[0] != null) {
+            throw new AssertionError(failure[0]);
+        }
+        assertEquals(1, metrics.getRuns());
+        long counters = metrics.getVerticesSettled()
+                + metrics.getEdgesScanned() + metrics.getEdgesRelaxed()
+                + metrics.getQueuePushes() + metrics.getQueuePops();
+        return new long[] {calls[0], counters};
+    }
+
+    /**
+     * Runs the algorithm once and sanity checks the result size.
+     *
+     * @param algorithm the algorithm to run
+     * @param start the start vertex
+     * @param graph the graph to run it on
+     * @param metrics the metrics to record into
+     */
+    private void run(Algorithm algorithm, Vertex<Counted> start,
+            Graph<Counted> graph, AlgorithmMetrics metrics) {
+        int vertices = graph.getAdjacencyList().size();
+        switch (algorithm) {
+        case BFS:
+            assertTrue(GraphAlgorithms.breadthFirstSearch(start, graph,
+                    metrics).size() <= vertices);
+            break;
+        case DFS:
+            assertTrue(GraphAlgorithms.depthFirstSearch(start, graph,
+                    metrics).size() <= vertices);
+            break;
+        case DIJKSTRAS:
+            Map<Vertex<Counted>, Integer> distances =
+                    GraphAlgorithms.dijkstras(start, graph, metrics);
+            assertTrue(distances.size() <= vertices);
+            break;
+        default:
+            Set<Edge<Counted>> mst = GraphAlgorithms.prims(start, graph,
+                    metrics);
+            assertEquals(vertices - 1, mst.size());
+            break;
+        }
+    }
+
+    /**
+     * Vertex data that counts the equals and hashCode calls made on it.
+     * The tests run one algorithm at a time, so a plain counter suffices.
+     */
+    private static final class Counted {
+        private static long calls;
+        private final int value;
+
+        /**
+         * Wraps a value.
+         *
+         * @param value the value
+         */
+        private Counted(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            calls++;
+            return o instanceof Counted && ((Counted) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            calls++;
+            return value;
+        }
+    }
+}
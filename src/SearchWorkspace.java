@@ -0,0 +1,267 @@
+import java.util.Arrays;
+
+/**
+ * Scratch arrays for graph searches, kept between searches so that a
+ * search on a graph no larger than earlier ones allocates nothing but its
+ * result. Arrays grow to the largest graph searched and are indexed by the
+ * vertex ids of an {@link IndexedGraph}.
+ *
+ * Visited marks are stamped with the number of the current search instead
+ * of being cleared: {@link #begin(int)} starts a new search by moving to
+ * the next number, which takes constant time however large the arrays are,
+ * and a vertex counts as visited only if it carries the current number.
+ *
+ * Every thread has a workspace of its own, available from
+ * {@link #current()}, which the searches in {@link GraphAlgorithms} use
+ * unless given one. A workspace is not thread safe and holds its arrays
+ * for as long as it is reachable; searches that must not keep memory can
+ * pass a new workspace instead.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public final class SearchWorkspace {
+
+    private static final ThreadLocal<SearchWorkspace> CURRENT =
+            ThreadLocal.withInitial(SearchWorkspace::new);
+
+    private int capacity;
+    private int epoch;
+    private int[] stamps = new int[0];
+    private int[] queue = new int[0];
+    private int[] parents = new int[0];
+    private long[] distances = new long[0];
+    private IndexedMinHeap heap = new IndexedMinHeap(0);
+    private int[] edgeWeights = new int[0];
+    private int[] edgeHeads = new int[0];
+    private int[] edgeTails = new int[0];
+    private int edgeCount;
+
+    /**
+     * Creates an empty workspace, which grows on first use.
+     */
+    public SearchWorkspace() {
+    }
+
+    /**
+     * Gets this thread's workspace.
+     *
+     * @return the workspace of the calling thread
+     */
+    public static SearchWorkspace current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Starts a new search over the ids 0 to {@code n - 1}, marking every
+     * vertex unvisited and emptying the heaps. The per-vertex arrays are
+     * grown if they are shorter than n; their other contents are left as
+     * they were.
+     *
+     * @throws IllegalArgumentException if n is negative
+     * @param n the number of vertices
+     * @return this workspace
+     */
+    public SearchWorkspace begin(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Size is negative");
+        }
+        if (n > capacity) {
+            capacity = Math.max(n, capacity + (capacity >> 1));
+            stamps = new int[capacity];
+            queue = new int[capacity];
+            parents = new int[capacity];
+            distances = new long[capacity];
+            heap = new IndexedMinHeap(capacity);
+            epoch = 0;
+        }
+        heap.clear();
+        edgeCount = 0;
+        if (epoch == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            epoch = 0;
+        }
+        epoch++;
+        return this;
+    }
+
+    /**
+     * Marks a vertex visited in the current search.
+     *
+     * @param id the id of the vertex
+     * @return true if the vertex was not visited before
+     */
+    public boolean visit(int id) {
+        if (stamps[id] == epoch) {
+            return false;
+        }
+        stamps[id] = epoch;
+        return true;
+    }
+
+    /**
+     * Gets whether a vertex was visited in the current search.
+     *
+     * @param id the id of the vertex
+     * @return true if the vertex was visited
+     */
+    public boolean isVisited(int id) {
+        return stamps[id] == epoch;
+    }
+
+    /**
+     * Gets a queue or stack of vertex ids, with room for every vertex.
+     *
+     * @return the array, with unspecified contents
+     */
+    public int[] queue() {
+        return queue;
+    }
+
+    /**
+     * Gets an array for the parent of every vertex.
+     *
+     * @return the array, with unspecified contents
+     */
+    public int[] parents() {
+        return parents;
+    }
+
+    /**
+     * Gets an array for the distance to every vertex.
+     *
+     * @return the array, with unspecified contents
+     */
+    public long[] distances() {
+        return distances;
+    }
+
+    /**
+     * Gets an indexed heap over every vertex, empty at the start of each
+     * search.
+     *
+     * @return the heap
+     */
+    public IndexedMinHeap heap() {
+        return heap;
+    }
+
+    /**
+     * Gets the number of vertices the per-vertex arrays have room for.
+     *
+     * @return the capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds an edge to the edge heap, which Prim's algorithm uses in place
+     * of a PriorityQueue of Edges. Entries are ordered by weight exactly as
+     * {@link Edge#compareTo(Edge)} orders edges, and moved exactly as
+     * PriorityQueue moves them, so equal weights come out in the same
+     * order as they would from a PriorityQueue.
+     *
+     * @param weight the weight of the edge
+     * @param head the id of the vertex the edge leads to
+     * @param tail the id of the vertex the edge leads from, or -1
+     */
+    void pushEdge(int weight, int head, int tail) {
+        if (edgeCount == edgeWeights.length) {
+            int grown = Math.max(16, edgeCount + (edgeCount >> 1));
+            edgeWeights = Arrays.copyOf(edgeWeights, grown);
+            edgeHeads = Arrays.copyOf(edgeHeads, grown);
+            edgeTails = Arrays.copyOf(edgeTails, grown);
+        }
+        int k = edgeCount++;
+        while (k > 0) {
+            int parent = (k - 1) >>> 1;
+            if (weight - edgeWeights[parent] >= 0) {
+                break;
+            }
+            moveEdge(parent, k);
+            k = parent;
+        }
+        edgeWeights[k] = weight;
+        edgeHeads[k] = head;
+        edgeTails[k] = tail;
+    }
+
+    /**
+     * Removes the lightest edge from the edge heap.
+     */
+    void pollEdge() {
+        int last = --edgeCount;
+        if (last == 0) {
+            return;
+        }
+        int weight = edgeWeights[last];
+        int head = edgeHeads[last];
+        int tail = edgeTails[last];
+        int k = 0;
+        int half = last >>> 1;
+        while (k < half) {
+            int child = 2 * k + 1;
+            int right = child + 1;
+            if (right < last && edgeWeights[child] - edgeWeights[right] > 0) {
+                child = right;
+            }
+            if (weight - edgeWeights[child] <= 0) {
+                break;
+            }
+            moveEdge(child, k);
+            k = child;
+        }
+        edgeWeights[k] = weight;
+        edgeHeads[k] = head;
+        edgeTails[k] = tail;
+    }
+
+    /**
+     * Copies an edge heap entry to another position.
+     *
+     * @param from the position to copy
+     * @param to the position to copy to
+     */
+    private void moveEdge(int from, int to) {
+        edgeWeights[to] = edgeWeights[from];
+        edgeHeads[to] = edgeHeads[from];
+        edgeTails[to] = edgeTails[from];
+    }
+
+    /**
+     * Gets the number of edges in the edge heap.
+     *
+     * @return the number of edges
+     */
+    int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Gets the weight of the lightest edge in the edge heap.
+     *
+     * @return the weight
+     */
+    int topWeight() {
+        return edgeWeights[0];
+    }
+
+    /**
+     * Gets the id of the vertex the lightest edge leads to.
+     *
+     * @return the head id
+     */
+    int topHead() {
+        return edgeHeads[0];
+    }
+
+    /**
+     * Gets the id of the vertex the lightest edge leads from.
+     *
+     * @return the tail id, or -1
+     */
+    int topTail() {
+        return edgeTails[0];
+    }
+}
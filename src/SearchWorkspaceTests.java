@@ -0,0 +1,275 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for SearchWorkspace and the searches that use it.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class SearchWorkspaceTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testEpochs() {
+        SearchWorkspace workspace = new SearchWorkspace().begin(10);
+        assertEquals(10, workspace.getCapacity());
+        assertTrue(workspace.visit(3));
+        assertFalse(workspace.visit(3));
+        assertTrue(workspace.isVisited(3));
+        workspace.begin(5);
+        assertEquals(10, workspace.getCapacity());
+        assertFalse(workspace.isVisited(3));
+        assertTrue(workspace.visit(3));
+        workspace.begin(12);
+        assertTrue(workspace.getCapacity() >= 12);
+        assertFalse(workspace.isVisited(3));
+        assertTrue(workspace.heap().isEmpty());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testReuseAcrossGraphs() {
+        SearchWorkspace workspace = new SearchWorkspace();
+        for (int round = 0; round < 6; round++) {
+            Graph<Integer> graph = round % 2 == 0
+                    ? GraphGenerators.erdosRenyi(300 + 97 * round, 1200, round)
+                    : GraphGenerators.directedErdosRenyi(100, 500, round);
+            for (int s = 0; s < 100; s += 31) {
+                Vertex<Integer> start = new Vertex<>(s);
+                assertEquals(referenceBreadthFirstSearch(start, graph),
+                        GraphAlgorithms.breadthFirstSearch(start, graph,
+                                null, workspace));
+                assertEquals(GraphAlgorithms.depthFirstSearch(start, graph,
+                        null, new SearchWorkspace()),
+                        GraphAlgorithms.depthFirstSearch(start, graph,
+                                null, workspace));
+                assertEquals(GraphAlgorithms.dijkstras(start, graph, null,
+                        new SearchWorkspace()),
+                        GraphAlgorithms.dijkstras(start, graph, null,
+                                workspace));
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testOverloadsMatchDefaults() {
+        SearchWorkspace workspace = new SearchWorkspace();
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(200, 900, 4);
+        Graph<Integer> undirected = GraphGenerators.erdosRenyi(200, 900, 4);
+        Graph<Integer> dag = GraphGenerators.randomDag(200, 900, 4);
+        CompressedGraph<Integer> compressed =
+                new CompressedGraph<>(IndexedGraph.of(graph));
+        SubgraphView<Integer> view = SubgraphView.of(graph)
+                .filterVertices(v -> v.getData() % 7 != 3);
+        SubgraphView<Integer> undirectedView = SubgraphView.of(undirected)
+                .filterVertices(v -> v.getData() % 7 != 3);
+        SubgraphView<Integer> dagView = SubgraphView.of(dag)
+                .filterVertices(v -> v.getData() % 7 != 3);
+        List<Vertex<Integer>> starts = new ArrayList<>();
+        for (int s = 0; s < 100; s += 34) {
+            starts.add(new Vertex<>(s));
+        }
+        for (Vertex<Integer> start : starts) {
+            Vertex<Integer> target = new Vertex<>(start.getData() + 50);
+            assertEquals(GraphAlgorithms.compressedBreadthFirstSearch(start,
+                    compressed), GraphAlgorithms.compressedBreadthFirstSearch(
+                    start, compressed, workspace));
+            assertEquals(GraphAlgorithms.compressedDijkstras(start,
+                    compressed), GraphAlgorithms.compressedDijkstras(start,
+                    compressed, workspace));
+            assertEquals(GraphAlgorithms.dijkstrasLongTable(start, graph)
+                    .asMap(), GraphAlgorithms.dijkstrasLongTable(start,
+                    graph, null, workspace).asMap());
+            assertEquals(GraphAlgorithms.dagShortestPaths(start, dag).asMap(),
+                    GraphAlgorithms.dagShortestPaths(start, dag, null,
+                            workspace).asMap());
+            assertEquals(GraphAlgorithms.kHopNeighborhood(start, 2, graph),
+                    GraphAlgorithms.kHopNeighborhood(start, 2, graph,
+                            workspace));
+            assertEquals(GraphAlgorithms.kShortestPaths(start, target, 4,
+                    graph), GraphAlgorithms.kShortestPaths(start, target, 4,
+                    graph, workspace));
+            assertEquals(GraphAlgorithms.filteredBreadthFirstSearch(start,
+                    view), GraphAlgorithms.filteredBreadthFirstSearch(start,
+                    view, workspace));
+            assertEquals(GraphAlgorithms.filteredDepthFirstSearch(start,
+                    view), GraphAlgorithms.filteredDepthFirstSearch(start,
+                    view, workspace));
+            assertEquals(GraphAlgorithms.filteredDijkstras(start, view)
+                    .asMap(), GraphAlgorithms.filteredDijkstras(start, view,
+                    workspace).asMap());
+            assertEquals(GraphAlgorithms.filteredDagShortestPaths(start,
+                    dagView).asMap(), GraphAlgorithms.filteredDagShortestPaths(
+                    start, dagView, workspace).asMap());
+            assertEquals(GraphAlgorithms.filteredKHopNeighborhood(start, 2,
+                    view), GraphAlgorithms.filteredKHopNeighborhood(start, 2,
+                    view, workspace));
+            assertEquals(GraphAlgorithms.filteredKShortestPaths(start,
+                    target, 4, view), GraphAlgorithms.filteredKShortestPaths(
+                    start, target, 4, view, workspace));
+            assertEquals(GraphAlgorithms.filteredPrims(start,
+                    undirectedView), GraphAlgorithms.filteredPrims(start,
+                    undirectedView, workspace));
+        }
+        assertEquals(GraphAlgorithms.multiSourceKHopNeighborhood(starts, 2,
+                graph), GraphAlgorithms.multiSourceKHopNeighborhood(starts, 2,
+                graph, workspace));
+        assertEquals(GraphAlgorithms.filteredMultiSourceKHopNeighborhood(
+                starts, 2, view),
+                GraphAlgorithms.filteredMultiSourceKHopNeighborhood(starts, 2,
+                        view, workspace));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullWorkspaceOnView() {
+        GraphAlgorithms.filteredDijkstras(new Vertex<>(0),
+                SubgraphView.of(GraphGenerators.path(3, 1)), null);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPrimsBreaksTiesLikePriorityQueue() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            List<Vertex<Integer>> vertices = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                vertices.add(new Vertex<>(random.nextInt()));
+            }
+            LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+            for (int i = 1; i < 60; i++) {
+                edges.add(new Edge<>(vertices.get(random.nextInt(i)),
+                        vertices.get(i), 1 + random.nextInt(3), false));
+            }
+            for (int i = 0; i < 150; i++) {
+                edges.add(new Edge<>(vertices.get(random.nextInt(60)),
+                        vertices.get(random.nextInt(60)),
+                        1 + random.nextInt(3), false));
+            }
+            Graph<Integer> graph = new Graph<>(edges);
+            Vertex<Integer> start = vertices.get(random.nextInt(60));
+            Set<Edge<Integer>> expected = referencePrims(start, graph);
+            Set<Edge<Integer>> actual = GraphAlgorithms.prims(start, graph);
+            assertEquals(expected.size(), actual.size());
+            for (Edge<Integer> edge : expected) {
+                assertTrue(actual.contains(edge));
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSteadyStateAllocatesOnlyResults() {
+        int n = 20000;
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(n, 80000, 9);
+        Vertex<Integer> start = new Vertex<>(0);
+        SearchWorkspace workspace = new SearchWorkspace();
+        // the Graph entry points index the graph on every call, so the
+        // steady state is that of the indexed ones
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        ShortestPaths<Integer> planner = ShortestPaths.planIndexed(indexed);
+        assertEquals(ShortestPaths.Engine.DIJKSTRA, planner.getEngine());
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        for (int round = 0; round < 3; round++) {
+            GraphAlgorithms.indexedBreadthFirstSearch(start, indexed,
+                    workspace);
+            planner.distances(start, null, workspace);
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        GraphAlgorithms.indexedBreadthFirstSearch(start, indexed, workspace);
+        long bfs = threads.getThreadAllocatedBytes(thread) - before;
+        before = threads.getThreadAllocatedBytes(thread);
+        planner.distances(start, null, workspace);
+        long dijkstras = threads.getThreadAllocatedBytes(thread) - before;
+        // one reference or int per vertex, plus headers and the table
+        assertTrue("bfs allocated " + bfs, bfs < 8L * n + 4096);
+        assertTrue("dijkstras allocated " + dijkstras,
+                dijkstras < 8L * n + 4096);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullWorkspace() {
+        GraphAlgorithms.breadthFirstSearch(new Vertex<>(0),
+                GraphGenerators.path(3, 1), null, null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNegativeSize() {
+        new SearchWorkspace().begin(-1);
+    }
+
+    /**
+     * Breadth first search over the Graph's own adjacency list, with fresh
+     * collections, as it was before workspaces.
+     *
+     * @param start the start vertex
+     * @param graph the graph
+     * @return the vertices in visit order
+     */
+    private static List<Vertex<Integer>> referenceBreadthFirstSearch(
+            Vertex<Integer> start, Graph<Integer> graph) {
+        List<Vertex<Integer>> list = new ArrayList<>();
+        Set<Vertex<Integer>> visited = new HashSet<>();
+        List<Vertex<Integer>> queue = new ArrayList<>();
+        queue.add(start);
+        visited.add(start);
+        for (int head = 0; head < queue.size(); head++) {
+            list.add(queue.get(head));
+            for (VertexDistancePair<Integer> pair
+                    : graph.getAdjacencyList().get(queue.get(head))) {
+                if (visited.add(pair.getVertex())) {
+                    queue.add(pair.getVertex());
+                }
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Prim's algorithm with a PriorityQueue of Edges, as it was before
+     * workspaces.
+     *
+     * @param start the start vertex
+     * @param graph the graph
+     * @return the edges of the tree
+     */
+    private static Set<Edge<Integer>> referencePrims(Vertex<Integer> start,
+            Graph<Integer> graph) {
+        Set<Edge<Integer>> set = new EdgeSet<>();
+        Set<Vertex<Integer>> visited = new HashSet<>();
+        PriorityQueue<Edge<Integer>> queue = new PriorityQueue<>();
+        queue.add(new Edge<Integer>(null, start, 0, false));
+        int size = graph.getAdjacencyList().size();
+        while (!queue.isEmpty() && visited.size() < size) {
+            Edge<Integer> edge = queue.poll();
+            if (!visited.add(edge.getV())) {
+                continue;
+            }
+            if (edge.getU() != null) {
+                set.add(edge);
+            }
+            for (VertexDistancePair<Integer> pair
+                    : graph.getAdjacencyList().get(edge.getV())) {
+                if (!visited.contains(pair.getVertex())) {
+                    queue.add(new Edge<Integer>(edge.getV(),
+                            pair.getVertex(), pair.getDistance(), false));
+                }
+            }
+        }
+        return set;
+    }
+}
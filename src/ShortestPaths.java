@@ -0,0 +1,527 @@
+import java.util.Arrays;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * A single-source shortest path planner for one graph. Planning inspects
+ * the graph once, recording its weight range, directedness, acyclicity and
+ * density, and picks the cheapest {@link Engine} that gives the same
+ * distances as {@link GraphAlgorithms#dijkstras(Vertex, Graph)}. Every
+ * query then runs on that engine.
+ *
+ * <pre>
+ * ShortestPaths&lt;String&gt; planner = ShortestPaths.plan(graph);
+ * DistanceTable&lt;String&gt; distances = planner.distances(start);
+ * </pre>
+ *
+ * The chosen engine is available from {@link #getEngine()}, and every
+ * query emits a {@link GraphAlgorithmEvent} named after its engine when
+ * Flight Recorder is running.
+ *
+ * A planner made by {@link #planFiltered(SubgraphView)} answers queries on
+ * the part of a graph a {@link SubgraphView} shows, skipping hidden
+ * vertices and edges as each engine scans them. The plan is made on the
+ * whole graph, whose weight range, uniformity and topological order hold
+ * for every subgraph of it, so one planner serves the view as its masks
+ * change.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class ShortestPaths<T> {
+
+    /**
+     * The largest edge weight for which the bucket queue is considered.
+     */
+    static final int BUCKET_LIMIT = 4096;
+
+    /**
+     * The algorithms a planner can choose between.
+     */
+    public enum Engine {
+        /**
+         * Breadth first search, when every edge has the same non-negative
+         * weight. Takes O(V + E) time.
+         */
+        BFS("sp-bfs"),
+
+        /**
+         * Relaxation in topological order, when the graph is directed and
+         * acyclic. Takes O(V + E) time and allows negative weights.
+         */
+        DAG("dag"),
+
+        /**
+         * Dial's algorithm with a circular array of buckets, when weights
+         * are small non-negative integers. Takes O(V * C + E) time for a
+         * largest weight C.
+         */
+        BUCKET("dial"),
+
+        /**
+         * Dijkstra's algorithm with an indexed binary heap. Takes
+         * O(E log V) time.
+         */
+        DIJKSTRA("dijkstras");
+
+        private final String eventName;
+
+        /**
+         * Creates an engine.
+         *
+         * @param eventName the algorithm name used in events
+         */
+        Engine(String eventName) {
+            this.eventName = eventName;
+        }
+    }
+
+    private final IndexedGraph<T> indexed;
+    private final SubgraphView<T> view;
+    private final int minWeight;
+    private final int maxWeight;
+    private final int[] order;
+    private final Engine engine;
+
+    /**
+     * Creates a planner.
+     *
+     * @param indexed the indexed form of the graph
+     * @param view the view to search, or null for the whole graph
+     */
+    private ShortestPaths(IndexedGraph<T> indexed, SubgraphView<T> view) {
+        this.indexed = indexed;
+        this.view = view;
+        int[] weights = indexed.getWeights();
+        int min = 0;
+        int max = 0;
+        if (weights.length > 0) {
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+            for (int weight : weights) {
+                min = Math.min(min, weight);
+                max = Math.max(max, weight);
+            }
+        }
+        minWeight = min;
+        maxWeight = max;
+        order = indexed.isDirected()
+                ? IndexedSearch.topologicalOrder(indexed) : null;
+        engine = choose();
+    }
+
+    /**
+     * Plans shortest path queries on a graph.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the planner
+     */
+    public static <T> ShortestPaths<T> plan(Graph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return new ShortestPaths<T>(IndexedGraph.of(graph), null);
+    }
+
+    /**
+     * Plans shortest path queries on an indexed graph, such as the one a
+     * {@link GraphSnapshot} builds, without indexing a Graph again. The
+     * tables returned are indexed by the ids of the given graph.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the indexed graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the planner
+     */
+    public static <T> ShortestPaths<T> planIndexed(IndexedGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return new ShortestPaths<T>(graph, null);
+    }
+
+    /**
+     * Plans shortest path queries on a graph whose vertices are first
+     * renumbered for locality. The distances are the same as those of
+     * {@link #plan(Graph)}, but the tables returned are indexed by the ids
+     * of the renumbered graph, available from
+     * {@link DistanceTable#getGraph()}. Renumbering costs about as much as
+     * indexing the graph again, so it pays off over many queries.
+     *
+     * @throws IllegalArgumentException if the graph or ordering is null
+     * @param graph the graph
+     * @param ordering how to renumber the vertices
+     * @param <T> the data type representing the vertices in the graph
+     * @return the planner
+     */
+    public static <T> ShortestPaths<T> plan(Graph<T> graph,
+            VertexOrdering ordering) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        return new ShortestPaths<T>(IndexedGraph.of(graph).reorder(ordering),
+                null);
+    }
+
+    /**
+     * Plans shortest path queries on the vertices and edges a view shows.
+     * The distances are those {@link #plan(Graph)} finds on a Graph
+     * rebuilt from the visible edges, and hidden vertices are unreachable.
+     * The tables returned are indexed by the ids of the view's graph.
+     *
+     * @throws IllegalArgumentException if the view is null
+     * @param view the view
+     * @param <T> the data type representing the vertices in the graph
+     * @return the planner
+     */
+    public static <T> ShortestPaths<T> planFiltered(SubgraphView<T> view) {
+        if (view == null) {
+            throw new IllegalArgumentException("View is null");
+        }
+        return new ShortestPaths<T>(view.getGraph(), view);
+    }
+
+    /**
+     * Picks the engine for the recorded properties. Uniform weights and
+     * acyclic graphs have linear time engines. The bucket queue scans up to
+     * one bucket per unit of distance, about V * C buckets in all, so it is
+     * only chosen when that is no more than the E log V of a heap.
+     *
+     * @return the engine to use
+     */
+    private Engine choose() {
+        if (minWeight >= 0 && minWeight == maxWeight) {
+            return Engine.BFS;
+        }
+        if (order != null) {
+            return Engine.DAG;
+        }
+        int n = indexed.getVertexCount();
+        long heapCost = (long) indexed.getArcCount()
+                * (32 - Integer.numberOfLeadingZeros(n));
+        if (minWeight >= 0 && maxWeight <= BUCKET_LIMIT
+                && (long) maxWeight * n <= heapCost) {
+            return Engine.BUCKET;
+        }
+        return Engine.DIJKSTRA;
+    }
+
+    /**
+     * Finds the shortest distances from start to every vertex. For graphs
+     * without negative weights these are the distances
+     * {@link GraphAlgorithms#dijkstras(Vertex, Graph)} finds. A directed
+     * acyclic graph with negative weights gets exact shortest distances.
+     *
+     * @throws IllegalArgumentException if start is null or not in the graph
+     * @param start the vertex to start at
+     * @return the shortest distances from start
+     */
+    public DistanceTable<T> distances(Vertex<T> start) {
+        return distances(start, null);
+    }
+
+    /**
+     * Finds the shortest distances exactly as {@link #distances(Vertex)}
+     * does, recording the work done in the given metrics.
+     *
+     * @throws IllegalArgumentException if start is null or not in the graph
+     * @param start the vertex to start at
+     * @param metrics the metrics to record into, or null to record nothing
+     * @return the shortest distances from start
+     */
+    public DistanceTable<T> distances(Vertex<T> start,
+            AlgorithmMetrics metrics) {
+        return distances(start, metrics, SearchWorkspace.current());
+    }
+
+    /**
+     * Finds the shortest distances exactly as {@link #distances(Vertex)}
+     * does, recording the work done in the given metrics and running
+     * Dijkstra's algorithm, when planned, in the given workspace.
+     *
+     * @throws IllegalArgumentException if start or workspace is null, or
+     *         start is not in the graph or is hidden by the view
+     * @param start the vertex to start at
+     * @param metrics the metrics to record into, or null to record nothing
+     * @param workspace the workspace to search in
+     * @return the shortest distances from start
+     */
+    public DistanceTable<T> distances(Vertex<T> start,
+            AlgorithmMetrics metrics, SearchWorkspace workspace) {
+        if (workspace == null) {
+            throw new IllegalArgumentException("Workspace is null");
+        }
+        if (start == null) {
+            throw new IllegalArgumentException("Start is null");
+        }
+        int source = view == null ? indexed.getId(start)
+                : GraphAlgorithms.filteredId(start, view);
+        if (source < 0) {
+            throw new IllegalArgumentException("Start does not exist in graph");
+        }
+        switch (engine) {
+        case DAG:
+            return IndexedSearch.dagShortestPaths(indexed, view, order,
+                    source, metrics, workspace);
+        case DIJKSTRA:
+            int[] distances = new int[indexed.getVertexCount()];
+            IndexedSearch.dijkstras(indexed, view, source, distances, null,
+                    metrics, workspace);
+            return new DistanceTable<T>(indexed, source, distances);
+        default:
+            GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                    ? GraphAlgorithmEvent.started() : null;
+            long begin = metrics == null ? 0 : System.nanoTime();
+            int[] result = new int[indexed.getVertexCount()];
+            Arrays.fill(result, DistanceTable.UNREACHABLE);
+            int reached = engine == Engine.BFS
+                    ? breadthFirst(source, result, metrics)
+                    : buckets(source, result, metrics);
+            if (metrics != null) {
+                metrics.finished(System.nanoTime() - begin);
+            }
+            if (event != null) {
+                event.finish(engine.eventName, indexed, start, reached);
+            }
+            return new DistanceTable<T>(indexed, source, result);
+        }
+    }
+
+    /**
+     * Finds distances by breadth first search, multiplying the number of
+     * edges on each shortest path by the common weight.
+     *
+     * @param source the id of the start vertex
+     * @param result the distances to fill, all unreachable to begin with
+     * @param metrics the metrics to record into, or null
+     * @return the number of vertices reached
+     */
+    private int breadthFirst(int source, int[] result,
+            AlgorithmMetrics metrics) {
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] hops = new int[indexed.getVertexCount()];
+        int[] queue = new int[indexed.getVertexCount()];
+        Arrays.fill(hops, -1);
+        hops[source] = 0;
+        queue[0] = source;
+        int tail = 1;
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            result[u] = (int) Math.min((long) hops[u] * minWeight,
+                    DistanceTable.UNREACHABLE);
+            if (metrics != null) {
+                metrics.settled();
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                if (hops[v] < 0 && shows(i)) {
+                    hops[v] = hops[u] + 1;
+                    queue[tail++] = v;
+                    if (metrics != null) {
+                        metrics.relaxed();
+                        metrics.pushed(tail - head - 1);
+                    }
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Finds distances with Dial's algorithm. Every tentative distance in
+     * the queue is within the largest weight of the distance being
+     * settled, so a circular array of {@code maxWeight + 1} buckets, each
+     * an intrusive doubly linked list of vertex ids, holds them all.
+     *
+     * @param source the id of the start vertex
+     * @param result the distances to fill, all unreachable to begin with
+     * @param metrics the metrics to record into, or null
+     * @return the number of vertices reached
+     */
+    private int buckets(int source, int[] result, AlgorithmMetrics metrics) {
+        int n = indexed.getVertexCount();
+        int[] offsets = indexed.getOffsets();
+        int[] targets = indexed.getTargets();
+        int[] weights = indexed.getWeights();
+        int width = maxWeight + 1;
+        int[] heads = new int[width];
+        int[] next = new int[n];
+        int[] previous = new int[n];
+        long[] distances = new long[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(heads, -1);
+        Arrays.fill(distances, Long.MAX_VALUE);
+        distances[source] = 0;
+        link(heads, next, previous, source, 0);
+        int queued = 1;
+        int reached = 0;
+        if (metrics != null) {
+            metrics.pushed(queued);
+        }
+        long current = 0;
+        while (queued > 0) {
+            int bucket = (int) (current % width);
+            if (heads[bucket] < 0) {
+                current++;
+                continue;
+            }
+            int u = heads[bucket];
+            unlink(heads, next, previous, u, bucket);
+            queued--;
+            done[u] = true;
+            reached++;
+            result[u] = (int) Math.min(current, DistanceTable.UNREACHABLE);
+            if (metrics != null) {
+                metrics.popped();
+                metrics.settled();
+            }
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = targets[i];
+                if (metrics != null) {
+                    metrics.scanned();
+                }
+                long candidate = current + weights[i];
+                if (done[v] || candidate >= distances[v] || !shows(i)) {
+                    continue;
+                }
+                if (distances[v] == Long.MAX_VALUE) {
+                    queued++;
+                    if (metrics != null) {
+                        metrics.pushed(queued);
+                    }
+                } else {
+                    unlink(heads, next, previous, v,
+                            (int) (distances[v] % width));
+                }
+                distances[v] = candidate;
+                link(heads, next, previous, v, (int) (candidate % width));
+                if (metrics != null) {
+                    metrics.relaxed();
+                }
+            }
+        }
+        return reached;
+    }
+
+    /**
+     * Tells whether an arc is searched, which every arc is unless the
+     * planner is for a view that hides it or its target.
+     *
+     * @param arc the index of the arc
+     * @return true if the arc is searched
+     */
+    private boolean shows(int arc) {
+        return view == null || view.containsArc(arc);
+    }
+
+    /**
+     * Adds a vertex to the front of a bucket.
+     *
+     * @param heads the first vertex of each bucket, or -1
+     * @param next the next vertex in each vertex's bucket, or -1
+     * @param previous the previous vertex in each vertex's bucket, or -1
+     * @param v the vertex
+     * @param bucket the bucket
+     */
+    private static void link(int[] heads, int[] next, int[] previous, int v,
+            int bucket) {
+        next[v] = heads[bucket];
+        previous[v] = -1;
+        if (heads[bucket] >= 0) {
+            previous[heads[bucket]] = v;
+        }
+        heads[bucket] = v;
+    }
+
+    /**
+     * Removes a vertex from its bucket.
+     *
+     * @param heads the first vertex of each bucket, or -1
+     * @param next the next vertex in each vertex's bucket, or -1
+     * @param previous the previous vertex in each vertex's bucket, or -1
+     * @param v the vertex
+     * @param bucket the bucket the vertex is in
+     */
+    private static void unlink(int[] heads, int[] next, int[] previous,
+            int v, int bucket) {
+        if (previous[v] >= 0) {
+            next[previous[v]] = next[v];
+        } else {
+            heads[bucket] = next[v];
+        }
+        if (next[v] >= 0) {
+            previous[next[v]] = previous[v];
+        }
+    }
+
+    /**
+     * Gets the engine every query runs on.
+     *
+     * @return the chosen engine
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Gets the smallest edge weight, or 0 if there are no edges.
+     *
+     * @return the smallest weight
+     */
+    public int getMinWeight() {
+        return minWeight;
+    }
+
+    /**
+     * Gets the largest edge weight, or 0 if there are no edges.
+     *
+     * @return the largest weight
+     */
+    public int getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets whether the graph is directed.
+     *
+     * @return true if the graph is directed
+     */
+    public boolean isDirected() {
+        return indexed.isDirected();
+    }
+
+    /**
+     * Gets whether the graph is directed and has no cycles.
+     *
+     * @return true if the graph is a directed acyclic graph
+     */
+    public boolean isAcyclic() {
+        return order != null;
+    }
+
+    /**
+     * Gets the density of the graph as the average number of adjacency
+     * entries per vertex.
+     *
+     * @return the average out degree
+     */
+    public double getAverageDegree() {
+        return indexed.getVertexCount() == 0 ? 0
+                : (double) indexed.getArcCount() / indexed.getVertexCount();
+    }
+
+    @Override
+    public String toString() {
+        return "ShortestPaths[engine=" + engine + ", vertices="
+                + indexed.getVertexCount() + ", arcs=" + indexed.getArcCount()
+                + ", weights=" + minWeight + ".." + maxWeight + ", directed="
+                + isDirected() + ", acyclic=" + isAcyclic() + "]";
+    }
+}
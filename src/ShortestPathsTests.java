@@ -0,0 +1,199 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Tests for the ShortestPaths planner and its engines.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class ShortestPathsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 20000;
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testUniformWeightsUseBreadthFirstSearch() {
+        Graph<Integer> graph = reweight(
+                GraphGenerators.erdosRenyi(5000, 15000, 1), 1, 7);
+        ShortestPaths<Integer> planner = ShortestPaths.plan(graph);
+        assertEquals(ShortestPaths.Engine.BFS, planner.getEngine());
+        assertEquals(7, planner.getMinWeight());
+        assertEquals(7, planner.getMaxWeight());
+        assertMatchesDijkstras(planner, graph);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testAcyclicGraphsUseTopologicalOrder() {
+        Graph<Integer> graph = GraphGenerators.randomDag(5000, 20000, 2);
+        ShortestPaths<Integer> planner = ShortestPaths.plan(graph);
+        assertEquals(ShortestPaths.Engine.DAG, planner.getEngine());
+        assertTrue(planner.isDirected());
+        assertTrue(planner.isAcyclic());
+        assertMatchesDijkstras(planner, graph);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSmallWeightsUseBuckets() {
+        Graph<Integer> graph = reweight(
+                GraphGenerators.erdosRenyi(5000, 20000, 3), 8, 0);
+        ShortestPaths<Integer> planner = ShortestPaths.plan(graph);
+        assertEquals(ShortestPaths.Engine.BUCKET, planner.getEngine());
+        assertEquals(0, planner.getMinWeight());
+        assertFalse(planner.isAcyclic());
+        assertMatchesDijkstras(planner, graph);
+
+        Graph<Integer> directed = reweight(
+                GraphGenerators.directedErdosRenyi(5000, 20000, 4), 20, 1);
+        planner = ShortestPaths.plan(directed);
+        assertEquals(ShortestPaths.Engine.BUCKET, planner.getEngine());
+        assertMatchesDijkstras(planner, directed);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLargeWeightsUseHeap() {
+        Graph<Integer> graph = GraphGenerators.grid(60, 60, 5);
+        ShortestPaths<Integer> planner = ShortestPaths.plan(graph);
+        assertEquals(ShortestPaths.Engine.DIJKSTRA, planner.getEngine());
+        assertEquals(4.0, planner.getAverageDegree(), 0.1);
+        assertMatchesDijkstras(planner, graph);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testNegativeWeightsInDag() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 4, true));
+        edges.add(new Edge<String>(a, c, 1, true));
+        edges.add(new Edge<String>(b, c, -6, true));
+        ShortestPaths<String> planner = ShortestPaths.plan(new Graph<>(edges));
+        assertEquals(ShortestPaths.Engine.DAG, planner.getEngine());
+        assertEquals(-2, planner.distances(a).distanceTo(c));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testMetricsAndDescription() {
+        Graph<Integer> graph = GraphGenerators.path(10, 6);
+        ShortestPaths<Integer> planner = ShortestPaths.plan(graph);
+        AlgorithmMetrics metrics = new AlgorithmMetrics();
+        planner.distances(new Vertex<>(0), metrics);
+        assertEquals(10, metrics.getVerticesSettled());
+        assertEquals(1, metrics.getRuns());
+        assertTrue(planner.toString().contains(
+                "engine=" + planner.getEngine()));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testFilteredPlannerMatchesRebuiltGraph() {
+        List<Graph<Integer>> graphs = Arrays.asList(
+                reweight(GraphGenerators.erdosRenyi(2000, 6000, 7), 1, 3),
+                GraphGenerators.randomDag(2000, 8000, 8),
+                reweight(GraphGenerators.erdosRenyi(2000, 8000, 9), 8, 0),
+                GraphGenerators.grid(40, 40, 10));
+        for (Graph<Integer> graph : graphs) {
+            SubgraphView<Integer> view = SubgraphView.of(graph);
+            view.filterVertices(vertex -> vertex.getData() % 11 != 5);
+            view.filterEdges((u, v, weight) -> (u.getData() + v.getData())
+                    % 5 != 0);
+            LinkedHashSet<Edge<Integer>> kept = new LinkedHashSet<>();
+            for (Edge<Integer> edge : graph.getEdgeList()) {
+                if (edge.getU().getData() % 11 != 5
+                        && edge.getV().getData() % 11 != 5
+                        && (edge.getU().getData() + edge.getV().getData())
+                        % 5 != 0) {
+                    kept.add(edge);
+                }
+            }
+            Graph<Integer> rebuilt = new Graph<>(kept);
+            ShortestPaths<Integer> planner = ShortestPaths.planFiltered(view);
+            assertEquals(ShortestPaths.plan(graph).getEngine(),
+                    planner.getEngine());
+            for (int source = 0; source < 50; source += 7) {
+                Vertex<Integer> start = new Vertex<>(source);
+                if (!view.containsVertex(start)) {
+                    continue;
+                }
+                Map<Vertex<Integer>, Integer> expected = new HashMap<>();
+                expected.put(start, 0);
+                if (rebuilt.getAdjacencyList().containsKey(start)) {
+                    expected.putAll(GraphAlgorithms.dijkstras(start, rebuilt));
+                }
+                DistanceTable<Integer> actual = planner.distances(start);
+                for (Vertex<Integer> vertex : graph.getAdjacencyList()
+                        .keySet()) {
+                    int distance = expected.containsKey(vertex)
+                            ? expected.get(vertex) : DistanceTable.UNREACHABLE;
+                    assertEquals(distance, actual.distanceTo(vertex));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testHiddenStart() {
+        SubgraphView<Integer> view = SubgraphView.of(
+                GraphGenerators.path(10, 6));
+        view.hideVertex(new Vertex<>(0));
+        ShortestPaths.planFiltered(view).distances(new Vertex<>(0));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingStart() {
+        ShortestPaths.plan(GraphGenerators.path(10, 6))
+                .distances(new Vertex<>(99));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        ShortestPaths.plan(null);
+    }
+
+    /**
+     * Checks the planner's distances against dijkstras from a few sources.
+     *
+     * @param planner the planner
+     * @param graph the graph it plans for
+     */
+    private void assertMatchesDijkstras(ShortestPaths<Integer> planner,
+            Graph<Integer> graph) {
+        for (int source = 0; source < 50; source += 7) {
+            Vertex<Integer> start = new Vertex<>(source);
+            if (!graph.getAdjacencyList().containsKey(start)) {
+                continue;
+            }
+            Map<Vertex<Integer>, Integer> expected = new HashMap<>(
+                    GraphAlgorithms.dijkstras(start, graph));
+            assertEquals(expected, planner.distances(start).asMap());
+        }
+    }
+
+    /**
+     * Copies a graph with new weights: the old weight modulo a range,
+     * plus an offset.
+     *
+     * @param graph the graph to copy
+     * @param range the number of distinct weights, or 1 for all the same
+     * @param offset the smallest new weight
+     * @return the copy
+     */
+    private Graph<Integer> reweight(Graph<Integer> graph, int range,
+            int offset) {
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (Edge<Integer> edge : graph.getEdgeList()) {
+            edges.add(new Edge<Integer>(edge.getU(), edge.getV(),
+                    edge.getWeight() % range + offset, edge.isDirected()));
+        }
+        return new Graph<>(edges);
+    }
+}
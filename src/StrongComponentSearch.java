@@ -0,0 +1,810 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Strongly connected component algorithms over an IndexedGraph, used by
+ * GraphAlgorithms.
+ *
+ * The sequential search is Pearce's space-efficient variant of Tarjan's
+ * algorithm, written with explicit stacks so that its depth is limited
+ * only by the heap. The parallel search first trims, to a fixpoint,
+ * vertices with no incoming or no outgoing edge and pairs of vertices
+ * whose only incoming or only outgoing edges join them to each other,
+ * which takes directed acyclic graphs and the acyclic parts of other
+ * graphs apart in linear work. It then repeatedly splits the rest with
+ * forward-backward reachability from a pivot: the vertices both reachable
+ * from and reaching the pivot form its component, and those reached only
+ * forwards, only backwards or not at all are independent subproblems that
+ * run as separate tasks. Subproblems of at most {@value #SEQUENTIAL_CUTOFF}
+ * vertices are finished by the sequential search.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+final class StrongComponentSearch {
+
+    /**
+     * The size below which a subproblem of the parallel search is solved
+     * sequentially.
+     */
+    static final int SEQUENTIAL_CUTOFF = 1 << 14;
+
+    /**
+     * The number of worklist entries each task of a trimming pass handles.
+     */
+    private static final int TRIM_CHUNK = 1 << 10;
+
+    /**
+     * The color of a vertex whose component is known.
+     */
+    private static final int DONE = -1;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] reverseOffsets;
+    private final int[] reverseTargets;
+    private final int[] colors;
+    private final int[] labels;
+    private final int[] rindex;
+    private final int[] next;
+    private final boolean[] root;
+    private final AtomicInteger components = new AtomicInteger();
+    private final AtomicInteger nextColor = new AtomicInteger(1);
+
+    /**
+     * Creates the state of a search. A sequential search does not need the
+     * transpose, colors or labels.
+     *
+     * @param graph the graph to search
+     * @param parallel whether the search is parallel
+     */
+    private StrongComponentSearch(IndexedGraph<?> graph, boolean parallel) {
+        int n = graph.getVertexCount();
+        offsets = graph.getOffsets();
+        targets = graph.getTargets();
+        reverseOffsets = parallel ? graph.transpose().getOffsets() : null;
+        reverseTargets = parallel ? graph.transpose().getTargets() : null;
+        colors = parallel ? new int[n] : null;
+        labels = parallel ? new int[n] : null;
+        rindex = new int[n];
+        next = new int[n];
+        root = new boolean[n];
+    }
+
+    /**
+     * Finds the strongly connected components of a graph on the calling
+     * thread.
+     *
+     * @param graph the graph to search
+     * @param <T> the data type representing the vertices in the graph
+     * @return the components and their condensation
+     */
+    static <T> Condensation<T> sequential(IndexedGraph<T> graph) {
+        StrongComponentSearch search = new StrongComponentSearch(graph,
+                false);
+        int count = search.pearce(null, graph.getVertexCount(), 0);
+        return condense(graph, search.rindex, count);
+    }
+
+    /**
+     * Finds the strongly connected components of a graph using the common
+     * fork/join pool. The numbering of the components is a deterministic
+     * topological order, but not necessarily the one the sequential search
+     * gives.
+     *
+     * @param graph the graph to search
+     * @param <T> the data type representing the vertices in the graph
+     * @return the components and their condensation
+     */
+    static <T> Condensation<T> parallel(IndexedGraph<T> graph) {
+        int n = graph.getVertexCount();
+        StrongComponentSearch search = new StrongComponentSearch(graph, true);
+        search.trim();
+        int remaining = 0;
+        for (int v = 0; v < n; v++) {
+            if (search.colors[v] == 0) {
+                remaining++;
+            }
+        }
+        int[] members = new int[remaining];
+        remaining = 0;
+        for (int v = 0; v < n; v++) {
+            if (search.colors[v] == 0) {
+                members[remaining++] = v;
+            }
+        }
+        ForkJoinPool.commonPool().invoke(new Split(null, search, members, 0));
+
+        int count = search.components.get();
+        int[] labels = search.labels;
+        int[] renumbered = new int[count];
+        Arrays.fill(renumbered, -1);
+        int seen = 0;
+        for (int v = 0; v < n; v++) {
+            if (renumbered[labels[v]] < 0) {
+                renumbered[labels[v]] = seen++;
+            }
+            labels[v] = renumbered[labels[v]];
+        }
+        IndexedGraph<Integer> unranked = dag(graph, labels, count);
+        int[] rank = topologicalRank(unranked);
+        for (int v = 0; v < n; v++) {
+            labels[v] = rank[labels[v]];
+        }
+        return new Condensation<T>(new ComponentLabels<T>(graph, labels,
+                sizes(labels, count)), permute(unranked, rank));
+    }
+
+    /**
+     * Labels every vertex that trimming shows to be a component of one or
+     * two vertices.
+     *
+     * Every vertex keeps counts of its incoming and outgoing arcs from
+     * other unlabeled vertices. A vertex with a count of 0 is a component
+     * alone; labeling it lowers the counts of its neighbors, and those
+     * whose counts reach 0 form the next worklist, so trimming runs to a
+     * fixpoint with work proportional to the arcs removed. When it stops,
+     * two vertices whose only incoming arcs, or only outgoing arcs, come
+     * from each other are a component of two, as in Hong et al.; those
+     * are labeled in one pass, and trimming then runs to a fixpoint again.
+     * A vertex is claimed by setting its
+     * outgoing count to -1, which exactly one thread can do.
+     *
+     * Worklists are processed in parallel, so the order of the labels
+     * depends on thread timing, but the components they form do not, and
+     * {@link #parallel(IndexedGraph)} renumbers them deterministically.
+     */
+    private void trim() {
+        int n = colors.length;
+        AtomicIntegerArray in = new AtomicIntegerArray(n);
+        AtomicIntegerArray out = new AtomicIntegerArray(n);
+        GraphAlgorithms.forEachChunk(n, true, v -> {
+            in.set(v, countArcs(reverseOffsets, reverseTargets, v));
+            out.set(v, countArcs(offsets, targets, v));
+        });
+        WorkStack stack = new WorkStack(n);
+        trimSingles(collect(n, (found, v) -> {
+            if ((in.get(v) == 0 || out.get(v) == 0) && claim(out, v)) {
+                found.accept(v);
+            }
+        }), in, out, stack);
+        int[] pairs = collect(n, (found, v) -> {
+            if (out.get(v) >= 0) {
+                int partner = pairedWith(v, in, out);
+                if (partner > v) {
+                    found.accept(v);
+                    found.accept(partner);
+                }
+            }
+        });
+        for (int i = 0; i < pairs.length; i += 2) {
+            int label = components.getAndIncrement();
+            for (int j = i; j < i + 2; j++) {
+                out.set(pairs[j], -1);
+                labels[pairs[j]] = label;
+                colors[pairs[j]] = DONE;
+            }
+        }
+        trimSingles(collect(pairs.length, (found, k) ->
+                release(pairs[k], in, out, found)), in, out, stack);
+    }
+
+    /**
+     * Labels claimed vertices as components of their own, and then every
+     * vertex that labeling leaves with no incoming or no outgoing arcs,
+     * until there are none. Large worklists are processed a whole list at
+     * a time in parallel; small ones are drained from a stack on the
+     * calling thread, so a long chain of such vertices does not pay for a
+     * parallel pass per vertex.
+     *
+     * @param claimed the claimed vertices
+     * @param in the incoming arc counts
+     * @param out the outgoing arc counts, -1 for claimed vertices
+     * @param stack the stack to drain small worklists from
+     */
+    private void trimSingles(int[] claimed, AtomicIntegerArray in,
+            AtomicIntegerArray out, WorkStack stack) {
+        int[] worklist = claimed;
+        while (worklist.length > 0) {
+            if (worklist.length < TRIM_CHUNK) {
+                for (int v : worklist) {
+                    stack.accept(v);
+                }
+                while (stack.size > 0 && stack.size < TRIM_CHUNK) {
+                    int v = stack.ids[--stack.size];
+                    labels[v] = components.getAndIncrement();
+                    colors[v] = DONE;
+                    release(v, in, out, stack);
+                }
+                worklist = Arrays.copyOf(stack.ids, stack.size);
+                stack.size = 0;
+            } else {
+                int base = components.getAndAdd(worklist.length);
+                for (int i = 0; i < worklist.length; i++) {
+                    labels[worklist[i]] = base + i;
+                    colors[worklist[i]] = DONE;
+                }
+                int[] labeled = worklist;
+                worklist = collect(labeled.length, (found, k) ->
+                        release(labeled[k], in, out, found));
+            }
+        }
+    }
+
+    /**
+     * Counts the arcs of a vertex to vertices other than itself.
+     *
+     * @param rows the row offsets to use
+     * @param columns the neighbor ids to use
+     * @param v the vertex
+     * @return the number of arcs
+     */
+    private static int countArcs(int[] rows, int[] columns, int v) {
+        int count = 0;
+        for (int i = rows[v]; i < rows[v + 1]; i++) {
+            if (columns[i] != v) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Claims an unlabeled vertex for trimming.
+     *
+     * @param out the outgoing arc counts, -1 for claimed vertices
+     * @param v the vertex
+     * @return true if this call claimed it
+     */
+    private static boolean claim(AtomicIntegerArray out, int v) {
+        return out.getAndSet(v, -1) >= 0;
+    }
+
+    /**
+     * Lowers the arc counts of the neighbors of a newly labeled vertex and
+     * claims those left with no incoming or no outgoing arcs.
+     *
+     * @param v the newly labeled vertex
+     * @param in the incoming arc counts
+     * @param out the outgoing arc counts, -1 for claimed vertices
+     * @param claimed the action to give the claimed vertices
+     */
+    private void release(int v, AtomicIntegerArray in,
+            AtomicIntegerArray out, IntConsumer claimed) {
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+            int w = targets[i];
+            if (w != v && in.decrementAndGet(w) == 0 && claim(out, w)) {
+                claimed.accept(w);
+            }
+        }
+        for (int i = reverseOffsets[v]; i < reverseOffsets[v + 1]; i++) {
+            int w = reverseTargets[i];
+            if (w != v && out.decrementAndGet(w) == 0 && claim(out, w)) {
+                claimed.accept(w);
+            }
+        }
+    }
+
+    /**
+     * Finds the vertex an unlabeled vertex forms a two-vertex component
+     * with, if its only incoming or only outgoing arc from an unlabeled
+     * vertex is from or to a vertex whose only such arc is from or to it.
+     *
+     * @param v the vertex
+     * @param in the incoming arc counts
+     * @param out the outgoing arc counts, -1 for claimed vertices
+     * @return the other vertex, or -1 if there is none
+     */
+    private int pairedWith(int v, AtomicIntegerArray in,
+            AtomicIntegerArray out) {
+        if (in.get(v) == 1) {
+            int u = onlyArc(reverseOffsets, reverseTargets, v, out);
+            if (u >= 0 && in.get(u) == 1
+                    && onlyArc(reverseOffsets, reverseTargets, u, out) == v) {
+                return u;
+            }
+        }
+        if (out.get(v) == 1) {
+            int u = onlyArc(offsets, targets, v, out);
+            if (u >= 0 && out.get(u) == 1
+                    && onlyArc(offsets, targets, u, out) == v) {
+                return u;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the neighbor of a vertex with exactly one arc to another
+     * unlabeled vertex.
+     *
+     * @param rows the row offsets to use
+     * @param columns the neighbor ids to use
+     * @param v the vertex
+     * @param out the outgoing arc counts, -1 for claimed vertices
+     * @return the neighbor
+     */
+    private static int onlyArc(int[] rows, int[] columns, int v,
+            AtomicIntegerArray out) {
+        for (int i = rows[v]; i < rows[v + 1]; i++) {
+            int w = columns[i];
+            if (w != v && out.get(w) >= 0) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Runs an action for every position from 0 to {@code size - 1}, in
+     * chunks that run in parallel when there are several, and gathers the
+     * ids the action adds, in chunk order.
+     *
+     * @param size the number of positions
+     * @param action the action, given a builder to add ids to and the
+     *        position
+     * @return the ids added
+     */
+    private static int[] collect(int size,
+            ObjIntConsumer<IntStream.Builder> action) {
+        int chunks = (size + TRIM_CHUNK - 1) / TRIM_CHUNK;
+        IntStream stream = IntStream.range(0, chunks);
+        if (chunks > 1) {
+            stream = stream.parallel();
+        }
+        return stream.flatMap(chunk -> {
+            IntStream.Builder found = IntStream.builder();
+            int end = Math.min(size, (chunk + 1) * TRIM_CHUNK);
+            for (int k = chunk * TRIM_CHUNK; k < end; k++) {
+                action.accept(found, k);
+            }
+            return found.build();
+        }).toArray();
+    }
+
+    /**
+     * Labels the components of a subproblem with the sequential search.
+     *
+     * @param members the vertices of the subproblem
+     * @param color the color of the subproblem
+     */
+    private void solve(int[] members, int color) {
+        int count = pearce(members, members.length, color);
+        int base = components.getAndAdd(count);
+        for (int v : members) {
+            labels[v] = base + rindex[v];
+            colors[v] = DONE;
+        }
+    }
+
+    /**
+     * Labels the component of a pivot in a subproblem and splits the rest
+     * of the subproblem into the vertices reached only forwards, only
+     * backwards, and not at all.
+     *
+     * @param members the vertices of the subproblem
+     * @param color the color of the subproblem
+     * @param forward the color to give vertices only reached forwards
+     * @param backward the color to give vertices only reached backwards
+     * @return the three remaining parts, in that order
+     */
+    private int[][] split(int[] members, int color, int forward,
+            int backward) {
+        int pivot = members[members.length >>> 1];
+        int[] queue = new int[members.length];
+        int head = 0;
+        int tail = 0;
+        colors[pivot] = forward;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int w = targets[i];
+                if (colors[w] == color) {
+                    colors[w] = forward;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int label = components.getAndIncrement();
+        head = 0;
+        tail = 0;
+        colors[pivot] = DONE;
+        labels[pivot] = label;
+        queue[tail++] = pivot;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = reverseOffsets[u]; i < reverseOffsets[u + 1]; i++) {
+                int w = reverseTargets[i];
+                if (colors[w] == forward) {
+                    colors[w] = DONE;
+                    labels[w] = label;
+                    queue[tail++] = w;
+                } else if (colors[w] == color) {
+                    colors[w] = backward;
+                    queue[tail++] = w;
+                }
+            }
+        }
+
+        int[] sizes = new int[3];
+        for (int v : members) {
+            int p = part(v, color, forward, backward);
+            if (p >= 0) {
+                sizes[p]++;
+            }
+        }
+        int[][] parts = {new int[sizes[0]], new int[sizes[1]],
+            new int[sizes[2]]};
+        Arrays.fill(sizes, 0);
+        for (int v : members) {
+            int p = part(v, color, forward, backward);
+            if (p >= 0) {
+                parts[p][sizes[p]++] = v;
+            }
+        }
+        return parts;
+    }
+
+    /**
+     * Gets which part of a split a vertex belongs to.
+     *
+     * @param v the vertex
+     * @param color the color of the subproblem
+     * @param forward the color of vertices only reached forwards
+     * @param backward the color of vertices only reached backwards
+     * @return 0, 1 or 2 for the forward, backward and unreached parts, or
+     *         -1 if the vertex is in the pivot's component
+     */
+    private int part(int v, int color, int forward, int backward) {
+        if (colors[v] == forward) {
+            return 0;
+        } else if (colors[v] == backward) {
+            return 1;
+        } else if (colors[v] == color) {
+            return 2;
+        }
+        return -1;
+    }
+
+    /**
+     * Runs Pearce's algorithm over a set of vertices that have not been
+     * searched before. In a parallel search only edges to vertices of the
+     * same color are followed. On return the rindex of each vertex is its
+     * component, numbered so that edges between components go from smaller
+     * to larger numbers.
+     *
+     * @param members the vertices to search, or null for 0 to size - 1
+     * @param size the number of vertices to search
+     * @param color the color of the vertices to search
+     * @return the number of components found
+     */
+    private int pearce(int[] members, int size, int color) {
+        int[] calls = new int[size];
+        int[] stack = new int[size];
+        int top = 0;
+        int depth = 0;
+        int index = 1;
+        int component = size - 1;
+        for (int m = 0; m < size; m++) {
+            int start = members == null ? m : members[m];
+            if (rindex[start] != 0) {
+                continue;
+            }
+            rindex[start] = index++;
+            root[start] = true;
+            next[start] = offsets[start];
+            calls[depth++] = start;
+            while (depth > 0) {
+                int v = calls[depth - 1];
+                int end = offsets[v + 1];
+                int i = next[v];
+                while (i < end) {
+                    int w = targets[i];
+                    if (colors == null || colors[w] == color) {
+                        if (rindex[w] == 0) {
+                            break;
+                        }
+                        if (rindex[w] < rindex[v]) {
+                            rindex[v] = rindex[w];
+                            root[v] = false;
+                        }
+                    }
+                    i++;
+                }
+                next[v] = i;
+                if (i < end) {
+                    // descend; the edge is checked again on the way back
+                    int w = targets[i];
+                    rindex[w] = index++;
+                    root[w] = true;
+                    next[w] = offsets[w];
+                    calls[depth++] = w;
+                    continue;
+                }
+                depth--;
+                if (root[v]) {
+                    index--;
+                    while (top > 0 && rindex[v] <= rindex[stack[top - 1]]) {
+                        rindex[stack[--top]] = component;
+                        index--;
+                    }
+                    rindex[v] = component--;
+                } else {
+                    stack[top++] = v;
+                }
+            }
+        }
+        int first = component + 1;
+        for (int m = 0; m < size; m++) {
+            rindex[members == null ? m : members[m]] -= first;
+        }
+        return size - first;
+    }
+
+    /**
+     * Builds the condensation of a graph from its component labels.
+     *
+     * @param graph the graph
+     * @param labels the component of every vertex, in topological order
+     * @param count the number of components
+     * @param <T> the data type representing the vertices in the graph
+     * @return the components and their condensation
+     */
+    private static <T> Condensation<T> condense(IndexedGraph<T> graph,
+            int[] labels, int count) {
+        return new Condensation<T>(
+                new ComponentLabels<T>(graph, labels, sizes(labels, count)),
+                dag(graph, labels, count));
+    }
+
+    /**
+     * Counts the vertices in every component.
+     *
+     * @param labels the component of every vertex
+     * @param count the number of components
+     * @return the size of every component
+     */
+    private static int[] sizes(int[] labels, int count) {
+        int[] sizes = new int[count];
+        for (int label : labels) {
+            sizes[label]++;
+        }
+        return sizes;
+    }
+
+    /**
+     * Renumbers the components of a graph of components, keeping the
+     * order of each component's arcs, which gives the same graph as
+     * building it again from the renumbered labels.
+     *
+     * @param dag the graph of components
+     * @param rank the new number of every component
+     * @return the renumbered graph
+     */
+    private static IndexedGraph<Integer> permute(IndexedGraph<Integer> dag,
+            int[] rank) {
+        int count = rank.length;
+        int[] offsets = dag.getOffsets();
+        int[] targets = dag.getTargets();
+        int[] weights = dag.getWeights();
+        int[] rows = new int[count + 1];
+        for (int c = 0; c < count; c++) {
+            rows[rank[c] + 1] = offsets[c + 1] - offsets[c];
+        }
+        for (int c = 0; c < count; c++) {
+            rows[c + 1] += rows[c];
+        }
+        int[] arcs = new int[targets.length];
+        int[] arcWeights = new int[targets.length];
+        for (int c = 0; c < count; c++) {
+            int slot = rows[rank[c]];
+            for (int i = offsets[c]; i < offsets[c + 1]; i++) {
+                arcs[slot] = rank[targets[i]];
+                arcWeights[slot++] = weights[i];
+            }
+        }
+        return components(count, rows, arcs, arcWeights);
+    }
+
+    /**
+     * Builds the graph of components, keeping one arc per pair of
+     * components with the smallest weight among the edges between them.
+     *
+     * @param graph the graph
+     * @param labels the component of every vertex
+     * @param count the number of components
+     * @return the graph of components
+     */
+    private static IndexedGraph<Integer> dag(IndexedGraph<?> graph,
+            int[] labels, int count) {
+        int n = graph.getVertexCount();
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        int[] rows = new int[count + 1];
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (labels[targets[i]] != labels[u]) {
+                    rows[labels[u] + 1]++;
+                }
+            }
+        }
+        for (int c = 0; c < count; c++) {
+            rows[c + 1] += rows[c];
+        }
+        int[] fill = Arrays.copyOf(rows, count);
+        int[] arcs = new int[rows[count]];
+        int[] arcWeights = new int[rows[count]];
+        for (int u = 0; u < n; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int to = labels[targets[i]];
+                if (to != labels[u]) {
+                    int slot = fill[labels[u]]++;
+                    arcs[slot] = to;
+                    arcWeights[slot] = weights[i];
+                }
+            }
+        }
+
+        int[] mark = new int[count];
+        int[] position = new int[count];
+        int[] dagOffsets = new int[count + 1];
+        int out = 0;
+        for (int c = 0; c < count; c++) {
+            for (int i = rows[c]; i < rows[c + 1]; i++) {
+                int to = arcs[i];
+                if (mark[to] != c + 1) {
+                    mark[to] = c + 1;
+                    position[to] = out;
+                    arcs[out] = to;
+                    arcWeights[out] = arcWeights[i];
+                    out++;
+                } else if (arcWeights[i] < arcWeights[position[to]]) {
+                    arcWeights[position[to]] = arcWeights[i];
+                }
+            }
+            dagOffsets[c + 1] = out;
+        }
+
+        return components(count, dagOffsets, Arrays.copyOf(arcs, out),
+                Arrays.copyOf(arcWeights, out));
+    }
+
+    /**
+     * Creates a graph of components, whose vertex for component c has
+     * data c.
+     *
+     * @param count the number of components
+     * @param offsets the row offsets
+     * @param targets the arc targets
+     * @param weights the arc weights
+     * @return the graph
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static IndexedGraph<Integer> components(int count, int[] offsets,
+            int[] targets, int[] weights) {
+        Vertex<Integer>[] vertices = (Vertex<Integer>[]) new Vertex[count];
+        Map<Vertex<Integer>, Integer> ids =
+                new HashMap<>(Math.max(16, count * 4 / 3 + 1));
+        for (int c = 0; c < count; c++) {
+            vertices[c] = new Vertex<>(c);
+            ids.put(vertices[c], c);
+        }
+        return new IndexedGraph<Integer>(vertices, ids, offsets, targets,
+                weights, true);
+    }
+
+    /**
+     * Gets the position of every vertex of a directed acyclic graph in its
+     * topological order.
+     *
+     * @param dag the graph
+     * @return the position of every vertex
+     */
+    private static int[] topologicalRank(IndexedGraph<Integer> dag) {
+        int[] order = IndexedSearch.topologicalOrder(dag);
+        int[] rank = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rank[order[i]] = i;
+        }
+        return rank;
+    }
+
+    /**
+     * A subproblem of the parallel search. Each split forks the smaller
+     * parts and keeps working on the largest, and completion is counted
+     * rather than joined, so neither the Java stack nor the pool's threads
+     * grow with the number of splits.
+     */
+    private static final class Split extends CountedCompleter<Void> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient StrongComponentSearch search;
+        private final int[] members;
+        private final int color;
+
+        /**
+         * Creates a subproblem.
+         *
+         * @param parent the task to complete when this one is done
+         * @param search the shared state
+         * @param members the vertices of the subproblem
+         * @param color the color of those vertices
+         */
+        private Split(CountedCompleter<?> parent,
+                StrongComponentSearch search, int[] members, int color) {
+            super(parent);
+            this.search = search;
+            this.members = members;
+            this.color = color;
+        }
+
+        @Override
+        public void compute() {
+            int[] part = members;
+            int partColor = color;
+            while (part.length > 0) {
+                if (part.length <= SEQUENTIAL_CUTOFF) {
+                    search.solve(part, partColor);
+                    break;
+                }
+                int forward = search.nextColor.getAndIncrement();
+                int backward = search.nextColor.getAndIncrement();
+                int[][] parts = search.split(part, partColor, forward,
+                        backward);
+                int[] partColors = {forward, backward, partColor};
+                int largest = 0;
+                for (int p = 1; p < parts.length; p++) {
+                    if (parts[p].length > parts[largest].length) {
+                        largest = p;
+                    }
+                }
+                for (int p = 0; p < parts.length; p++) {
+                    if (p != largest && parts[p].length > 0) {
+                        addToPendingCount(1);
+                        new Split(this, search, parts[p], partColors[p])
+                                .fork();
+                    }
+                }
+                part = parts[largest];
+                partColor = partColors[largest];
+            }
+            tryComplete();
+        }
+    }
+
+    /**
+     * A stack of vertex ids with room for every vertex, used to drain
+     * small trimming worklists.
+     */
+    private static final class WorkStack implements IntConsumer {
+
+        private final int[] ids;
+        private int size;
+
+        /**
+         * Creates an empty stack.
+         *
+         * @param capacity the number of vertices
+         */
+        private WorkStack(int capacity) {
+            ids = new int[capacity];
+        }
+
+        @Override
+        public void accept(int id) {
+            ids[size++] = id;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for the strongly connected component algorithms.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class StronglyConnectedComponentsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 30000;
+
+    @Test(timeout = TIMEOUT)
+    public void testSmallGraph() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        Vertex<String> c = new Vertex<>("c");
+        Vertex<String> d = new Vertex<>("d");
+        Vertex<String> e = new Vertex<>("e");
+        Vertex<String> f = new Vertex<>("f");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<String>(a, b, 1, true));
+        edges.add(new Edge<String>(b, c, 1, true));
+        edges.add(new Edge<String>(c, a, 1, true));
+        edges.add(new Edge<String>(c, d, 7, true));
+        edges.add(new Edge<String>(b, e, 4, true));
+        edges.add(new Edge<String>(d, e, 1, true));
+        edges.add(new Edge<String>(e, d, 1, true));
+        edges.add(new Edge<String>(a, f, 2, true));
+        Condensation<String> result =
+                GraphAlgorithms.stronglyConnectedComponents(new Graph<>(edges));
+
+        assertEquals(3, result.getComponentCount());
+        int abc = result.componentOf(a);
+        int de = result.componentOf(d);
+        int single = result.componentOf(f);
+        assertEquals(abc, result.componentOf(b));
+        assertEquals(abc, result.componentOf(c));
+        assertEquals(de, result.componentOf(e));
+        assertTrue(abc < de);
+        assertTrue(abc < single);
+        assertEquals(3, result.getComponents().getSize(abc));
+        assertEquals(2, result.getComponents().getSize(de));
+
+        IndexedGraph<Integer> dag = result.getDag();
+        assertEquals(3, dag.getVertexCount());
+        assertEquals(2, dag.getArcCount());
+        assertEquals(0, dag.getDegree(de));
+        int[] targets = dag.getTargets();
+        int[] weights = dag.getWeights();
+        for (int i = dag.getOffsets()[abc]; i < dag.getOffsets()[abc + 1];
+                i++) {
+            // c -> d and b -> e collapse into one arc of the smaller weight
+            assertEquals(targets[i] == de ? 4 : 2, weights[i]);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testUndirectedGraphGivesConnectedComponents() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(500, 300, 1);
+        ComponentLabels<Integer> connected =
+                GraphAlgorithms.connectedComponents(graph);
+        Condensation<Integer> strong =
+                GraphAlgorithms.stronglyConnectedComponents(graph);
+        assertEquals(connected.getComponentCount(),
+                strong.getComponentCount());
+        assertSamePartition(connected.getLabels(),
+                strong.getComponents().getLabels());
+        assertEquals(0, strong.getDag().getArcCount());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesMutualReachability() {
+        for (long seed = 0; seed < 5; seed++) {
+            Graph<Integer> graph =
+                    GraphGenerators.directedErdosRenyi(120, 200, seed);
+            Condensation<Integer> result =
+                    GraphAlgorithms.stronglyConnectedComponents(graph);
+            IndexedGraph<Integer> indexed = result.getComponents().getGraph();
+            int n = indexed.getVertexCount();
+            List<Set<Vertex<Integer>>> reach = new ArrayList<>(n);
+            for (int u = 0; u < n; u++) {
+                reach.add(new HashSet<>(GraphAlgorithms.breadthFirstSearch(
+                        indexed.getVertex(u), graph)));
+            }
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    boolean mutual = reach.get(u).contains(
+                            indexed.getVertex(v))
+                            && reach.get(v).contains(indexed.getVertex(u));
+                    assertEquals(mutual, result.getComponents().componentOf(u)
+                            == result.getComponents().componentOf(v));
+                }
+            }
+            assertTopological(result);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLongCycleDoesNotOverflow() {
+        int n = 200000;
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        Vertex<Integer> first = new Vertex<>(0);
+        Vertex<Integer> previous = first;
+        for (int i = 1; i < n; i++) {
+            Vertex<Integer> vertex = new Vertex<>(i);
+            // distinct weights keep Edge hash codes from colliding
+            edges.add(new Edge<Integer>(previous, vertex, i, true));
+            previous = vertex;
+        }
+        edges.add(new Edge<Integer>(previous, first, 1, true));
+        edges.add(new Edge<Integer>(previous, new Vertex<>(n), 1, true));
+        Graph<Integer> graph = new Graph<>(edges);
+
+        Condensation<Integer> sequential =
+                GraphAlgorithms.stronglyConnectedComponents(graph);
+        assertEquals(2, sequential.getComponentCount());
+        assertEquals(n, sequential.getComponents().getSize(0));
+        Condensation<Integer> parallel =
+                GraphAlgorithms.parallelStronglyConnectedComponents(graph);
+        assertArrayEquals(sequential.getComponents().getLabels(),
+                parallel.getComponents().getLabels());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testParallelMatchesSequential() {
+        Graph<Integer> graph =
+                GraphGenerators.directedErdosRenyi(60000, 120000, 7);
+        Condensation<Integer> sequential =
+                GraphAlgorithms.stronglyConnectedComponents(graph);
+        Condensation<Integer> parallel =
+                GraphAlgorithms.parallelStronglyConnectedComponents(graph);
+        assertTrue(Arrays.stream(sequential.getComponents().getSizes())
+                .max().getAsInt() > StrongComponentSearch.SEQUENTIAL_CUTOFF);
+        assertEquals(sequential.getComponentCount(),
+                parallel.getComponentCount());
+        assertSamePartition(sequential.getComponents().getLabels(),
+                parallel.getComponents().getLabels());
+        assertEquals(sequential.getDag().getArcCount(),
+                parallel.getDag().getArcCount());
+        assertTopological(sequential);
+        assertTopological(parallel);
+
+        Condensation<Integer> again =
+                GraphAlgorithms.parallelStronglyConnectedComponents(graph);
+        assertArrayEquals(parallel.getComponents().getLabels(),
+                again.getComponents().getLabels());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testTrimmingMatchesSequential() {
+        for (long seed = 0; seed < 30; seed++) {
+            Graph<Integer> graph = GraphGenerators.directedErdosRenyi(80,
+                    60 + 4 * seed, seed);
+            IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+            Condensation<Integer> sequential =
+                    StrongComponentSearch.sequential(indexed);
+            Condensation<Integer> parallel =
+                    StrongComponentSearch.parallel(indexed);
+            assertSamePartition(sequential.getComponents().getLabels(),
+                    parallel.getComponents().getLabels());
+            assertEquals(sequential.getDag().getArcCount(),
+                    parallel.getDag().getArcCount());
+            assertTopological(parallel);
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testLargeDagDoesNotRegress() {
+        Graph<Integer> graph = GraphGenerators.randomDag(100000, 500000, 7);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        long search = Long.MAX_VALUE;
+        Condensation<Integer> expected = null;
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            expected = GraphAlgorithms.stronglyConnectedComponents(graph);
+            long middle = System.nanoTime();
+            Condensation<Integer> actual =
+                    GraphAlgorithms.parallelStronglyConnectedComponents(graph);
+            long end = System.nanoTime();
+            Condensation<Integer> trimmed =
+                    StrongComponentSearch.parallel(indexed);
+            search = Math.min(search, System.nanoTime() - end);
+            sequential = Math.min(sequential, middle - start);
+            parallel = Math.min(parallel, end - middle);
+            assertEquals(indexed.getVertexCount(),
+                    actual.getComponentCount());
+            assertEquals(indexed.getVertexCount(),
+                    trimmed.getComponentCount());
+            assertTopological(trimmed);
+        }
+        assertEquals(indexed.getVertexCount(), expected.getComponentCount());
+        // before trimming ran to a fixpoint the parallel search took 20 to
+        // 30 times as long as the sequential one on graphs like this
+        long slack = 100_000_000L;
+        assertTrue(parallel + " vs " + sequential,
+                parallel <= 2 * sequential + slack);
+        assertTrue(search + " vs " + sequential,
+                search <= 5 * sequential + slack);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullGraph() {
+        GraphAlgorithms.stronglyConnectedComponents(null);
+    }
+
+    /**
+     * Checks that two labelings group the vertices the same way.
+     *
+     * @param expected one labeling
+     * @param actual the other labeling
+     */
+    private void assertSamePartition(int[] expected, int[] actual) {
+        assertEquals(expected.length, actual.length);
+        int[] forward = new int[expected.length];
+        int[] backward = new int[expected.length];
+        Arrays.fill(forward, -1);
+        Arrays.fill(backward, -1);
+        for (int v = 0; v < expected.length; v++) {
+            if (forward[expected[v]] < 0) {
+                forward[expected[v]] = actual[v];
+            }
+            if (backward[actual[v]] < 0) {
+                backward[actual[v]] = expected[v];
+            }
+            assertEquals(forward[expected[v]], actual[v]);
+            assertEquals(backward[actual[v]], expected[v]);
+        }
+    }
+
+    /**
+     * Checks that every arc of the condensation goes from a smaller
+     * component to a larger one, and that every edge of the graph is
+     * either inside a component or has an arc.
+     *
+     * @param result the components to check
+     */
+    private void assertTopological(Condensation<Integer> result) {
+        IndexedGraph<Integer> dag = result.getDag();
+        Set<Long> arcs = new HashSet<>();
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            for (int i = dag.getOffsets()[c]; i < dag.getOffsets()[c + 1];
+                    i++) {
+                int to = dag.getTargets()[i];
+                assertTrue(c < to);
+                assertTrue(arcs.add(((long) c << 32) | to));
+            }
+        }
+        IndexedGraph<Integer> graph = result.getComponents().getGraph();
+        int[] labels = result.getComponents().getLabels();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = graph.getOffsets()[u]; i < graph.getOffsets()[u + 1];
+                    i++) {
+                int to = labels[graph.getTargets()[i]];
+                if (to != labels[u]) {
+                    assertTrue(arcs.contains(((long) labels[u] << 32) | to));
+                }
+            }
+        }
+        assertNotEquals(0, dag.getVertexCount());
+    }
+}
@@ -0,0 +1,304 @@
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * A subgraph of an IndexedGraph given by which vertices and adjacency
+ * entries are hidden, for searches that must avoid failed vertices, failed
+ * links or edges over a weight cap. The view shares the graph's arrays and
+ * keeps one bit per vertex and one per adjacency entry, so hiding and
+ * showing parts of a graph never copies it, and searching a view costs
+ * only the search. Vertices keep their ids in the view.
+ *
+ * The algorithms in {@link GraphAlgorithms} whose names start with
+ * "filtered" run on views: breadth and depth first search, Dijkstra's
+ * algorithm, Prim's algorithm, single and multi-source k-hop
+ * neighborhoods, k shortest paths, topological sorting and shortest paths
+ * on acyclic views, and connected components. A planner from
+ * {@link ShortestPaths#planFiltered(SubgraphView)} runs every shortest
+ * path engine on a view. Each gives the result its plain form gives on a
+ * Graph rebuilt from the visible edges, without building that Graph. A
+ * view is not thread safe; views of the same graph are independent, so
+ * each thread can keep its own.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class SubgraphView<T> {
+
+    private final IndexedGraph<T> graph;
+    private final long[] hiddenVertices;
+    private final long[] hiddenArcs;
+
+    /**
+     * Creates a view of a whole graph.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to view
+     */
+    public SubgraphView(IndexedGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        this.graph = graph;
+        hiddenVertices = new long[words(graph.getVertexCount())];
+        hiddenArcs = new long[words(graph.getArcCount())];
+    }
+
+    /**
+     * Creates a view of a whole graph by indexing it.
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param graph the graph to view
+     * @param <T> the data type representing the vertices in the graph
+     * @return the view
+     */
+    public static <T> SubgraphView<T> of(Graph<T> graph) {
+        return new SubgraphView<T>(IndexedGraph.of(graph));
+    }
+
+    /**
+     * Gets the number of longs needed for a bit per item.
+     *
+     * @param count the number of items
+     * @return the number of longs
+     */
+    private static int words(int count) {
+        return (count + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    /**
+     * Hides a vertex and, with it, every edge into or out of it.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex to hide
+     * @return this view
+     */
+    public SubgraphView<T> hideVertex(Vertex<T> vertex) {
+        int id = id(vertex);
+        hiddenVertices[id >>> 6] |= 1L << id;
+        return this;
+    }
+
+    /**
+     * Shows a hidden vertex again.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex to show
+     * @return this view
+     */
+    public SubgraphView<T> showVertex(Vertex<T> vertex) {
+        int id = id(vertex);
+        hiddenVertices[id >>> 6] &= ~(1L << id);
+        return this;
+    }
+
+    /**
+     * Hides every vertex the predicate rejects. Vertices it accepts keep
+     * their current state.
+     *
+     * @throws IllegalArgumentException if the predicate is null
+     * @param keep the vertices to keep
+     * @return this view
+     */
+    public SubgraphView<T> filterVertices(Predicate<Vertex<T>> keep) {
+        if (keep == null) {
+            throw new IllegalArgumentException("Predicate is null");
+        }
+        for (int id = 0; id < graph.getVertexCount(); id++) {
+            if (!keep.test(graph.getVertex(id))) {
+                hiddenVertices[id >>> 6] |= 1L << id;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Hides an edge: the adjacency entries from its first vertex to its
+     * second with its weight, and for an undirected edge those back as
+     * well. Parallel edges of other weights stay.
+     *
+     * @throws IllegalArgumentException if the edge is null or one of its
+     *         vertices is not in the graph
+     * @param edge the edge to hide
+     * @return this view
+     */
+    public SubgraphView<T> hideEdge(Edge<T> edge) {
+        if (edge == null) {
+            throw new IllegalArgumentException("Edge is null");
+        }
+        int u = id(edge.getU());
+        int v = id(edge.getV());
+        hideArcs(u, v, edge.getWeight());
+        if (!edge.isDirected()) {
+            hideArcs(v, u, edge.getWeight());
+        }
+        return this;
+    }
+
+    /**
+     * Hides the adjacency entries from one vertex to another with a
+     * weight.
+     *
+     * @param u the id of the vertex the entries lead from
+     * @param v the id of the vertex the entries lead to
+     * @param weight the weight of the entries
+     */
+    private void hideArcs(int u, int v, int weight) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            if (targets[i] == v && weights[i] == weight) {
+                hiddenArcs[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    /**
+     * Hides every adjacency entry the filter rejects. Entries it accepts
+     * keep their current state. An undirected edge is tested once in each
+     * direction.
+     *
+     * @throws IllegalArgumentException if the filter is null
+     * @param keep the entries to keep
+     * @return this view
+     */
+    public SubgraphView<T> filterEdges(EdgeFilter<T> keep) {
+        if (keep == null) {
+            throw new IllegalArgumentException("Filter is null");
+        }
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        int[] weights = graph.getWeights();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            Vertex<T> from = graph.getVertex(u);
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                if (!keep.test(from, graph.getVertex(targets[i]),
+                        weights[i])) {
+                    hiddenArcs[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Hides every edge heavier than a cap.
+     *
+     * @param maxWeight the largest weight to keep
+     * @return this view
+     */
+    public SubgraphView<T> hideEdgesHeavierThan(int maxWeight) {
+        int[] weights = graph.getWeights();
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] > maxWeight) {
+                hiddenArcs[i >>> 6] |= 1L << i;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Shows every vertex and edge again, in time proportional to the size
+     * of the masks, a sixty-fourth of the graph.
+     *
+     * @return this view
+     */
+    public SubgraphView<T> reset() {
+        Arrays.fill(hiddenVertices, 0);
+        Arrays.fill(hiddenArcs, 0);
+        return this;
+    }
+
+    /**
+     * Gets the id of a vertex of the graph.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the id
+     */
+    private int id(Vertex<T> vertex) {
+        int id = vertex == null ? -1 : graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return id;
+    }
+
+    /**
+     * Gets whether a vertex is in the view.
+     *
+     * @param vertex the vertex
+     * @return true if the vertex is in the graph and not hidden
+     */
+    public boolean containsVertex(Vertex<T> vertex) {
+        int id = vertex == null ? -1 : graph.getId(vertex);
+        return id >= 0 && containsVertex(id);
+    }
+
+    /**
+     * Gets whether the vertex with an id is in the view.
+     *
+     * @param id the id of the vertex
+     * @return true if the vertex is not hidden
+     */
+    public boolean containsVertex(int id) {
+        return (hiddenVertices[id >>> 6] & 1L << id) == 0;
+    }
+
+    /**
+     * Gets whether an adjacency entry of the graph can be followed in the
+     * view, which needs both the entry and the vertex it leads to to be
+     * shown.
+     *
+     * @param arc the index of the entry in the graph's targets
+     * @return true if the entry can be followed
+     */
+    public boolean containsArc(int arc) {
+        return (hiddenArcs[arc >>> 6] & 1L << arc) == 0
+                && containsVertex(graph.getTargets()[arc]);
+    }
+
+    /**
+     * Gets the number of vertices in the view.
+     *
+     * @return the number of vertices that are not hidden
+     */
+    public int getVertexCount() {
+        int hidden = 0;
+        for (long word : hiddenVertices) {
+            hidden += Long.bitCount(word);
+        }
+        return graph.getVertexCount() - hidden;
+    }
+
+    /**
+     * Gets the graph this is a view of.
+     *
+     * @return the graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Decides whether an adjacency entry belongs in a view.
+     *
+     * @param <T> the data type representing the vertices in the graph
+     */
+    @FunctionalInterface
+    public interface EdgeFilter<T> {
+
+        /**
+         * Tests an adjacency entry.
+         *
+         * @param from the vertex the entry leads from
+         * @param to the vertex the entry leads to
+         * @param weight the weight of the entry
+         * @return true to keep the entry
+         */
+        boolean test(Vertex<T> from, Vertex<T> to, int weight);
+    }
+}
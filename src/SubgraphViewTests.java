@@ -0,0 +1,347 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for SubgraphView and the searches that run on it.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class SubgraphViewTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesRebuiltGraph() {
+        Random random = new Random(5);
+        for (int round = 0; round < 8; round++) {
+            Graph<Integer> graph = round % 2 == 0
+                    ? GraphGenerators.erdosRenyi(300, 900, round)
+                    : GraphGenerators.directedErdosRenyi(300, 1200, round);
+            SubgraphView<Integer> view = SubgraphView.of(graph);
+            Set<Vertex<Integer>> hidden = new HashSet<>();
+            for (int i = 0; i < 30; i++) {
+                Vertex<Integer> vertex = new Vertex<>(random.nextInt(300));
+                if (view.containsVertex(vertex)) {
+                    view.hideVertex(vertex);
+                    hidden.add(vertex);
+                }
+            }
+            Set<Edge<Integer>> failed = new HashSet<>();
+            for (Edge<Integer> edge : graph.getEdgeList()) {
+                if (random.nextInt(10) == 0) {
+                    view.hideEdge(edge);
+                    failed.add(edge);
+                }
+            }
+            int cap = GraphGenerators.MAX_WEIGHT * 9 / 10;
+            view.hideEdgesHeavierThan(cap);
+            view.filterEdges((u, v, weight) -> u.getData() % 7 != v.getData()
+                    % 7);
+            LinkedHashSet<Edge<Integer>> kept = new LinkedHashSet<>();
+            for (Edge<Integer> edge : graph.getEdgeList()) {
+                if (!failed.contains(edge) && !hidden.contains(edge.getU())
+                        && !hidden.contains(edge.getV())
+                        && edge.getWeight() <= cap
+                        && edge.getU().getData() % 7
+                        != edge.getV().getData() % 7) {
+                    kept.add(edge);
+                }
+            }
+            Graph<Integer> rebuilt = new Graph<>(kept);
+            int checked = 0;
+            for (Vertex<Integer> start : rebuilt.getAdjacencyList().keySet()) {
+                if (checked++ == 10) {
+                    break;
+                }
+                assertEquals(GraphAlgorithms.breadthFirstSearch(start, rebuilt),
+                        GraphAlgorithms.filteredBreadthFirstSearch(start,
+                                view));
+                assertEquals(GraphAlgorithms.depthFirstSearch(start, rebuilt),
+                        GraphAlgorithms.filteredDepthFirstSearch(start, view));
+                Map<Vertex<Integer>, Integer> expected =
+                        GraphAlgorithms.dijkstras(start, rebuilt);
+                DistanceTable<Integer> actual =
+                        GraphAlgorithms.filteredDijkstras(start, view);
+                for (Vertex<Integer> vertex : graph.getAdjacencyList()
+                        .keySet()) {
+                    int distance = expected.containsKey(vertex)
+                            ? expected.get(vertex) : DistanceTable.UNREACHABLE;
+                    assertEquals(distance, actual.distanceTo(vertex));
+                }
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPrimsAndNeighborhoodsMatchRebuiltGraph() {
+        int cap = GraphGenerators.MAX_WEIGHT * 3 / 4;
+        for (int round = 0; round < 6; round++) {
+            Graph<Integer> graph = GraphGenerators.erdosRenyi(300, 3000, round);
+            int residue = round;
+            SubgraphView<Integer> view = SubgraphView.of(graph);
+            view.filterVertices(vertex -> vertex.getData() % 13 != residue);
+            view.hideEdgesHeavierThan(cap);
+            LinkedHashSet<Edge<Integer>> kept = new LinkedHashSet<>();
+            for (Edge<Integer> edge : graph.getEdgeList()) {
+                if (view.containsVertex(edge.getU())
+                        && view.containsVertex(edge.getV())
+                        && edge.getWeight() <= cap) {
+                    kept.add(edge);
+                }
+            }
+            Graph<Integer> rebuilt = new Graph<>(kept);
+            Vertex<Integer> first = kept.iterator().next().getU();
+            Set<Edge<Integer>> tree = GraphAlgorithms.filteredPrims(first,
+                    view);
+            if (rebuilt.getAdjacencyList().size() < view.getVertexCount()) {
+                assertNull(tree);
+            } else {
+                Set<Edge<Integer>> expected =
+                        GraphAlgorithms.prims(first, rebuilt);
+                assertEquals(expected.size(), tree.size());
+                assertEquals(weight(expected), weight(tree));
+            }
+            int checked = 0;
+            for (Vertex<Integer> start : rebuilt.getAdjacencyList().keySet()) {
+                if (checked++ == 10) {
+                    break;
+                }
+                assertEquals(GraphAlgorithms.kHopNeighborhood(start, 2,
+                        rebuilt), GraphAlgorithms.filteredKHopNeighborhood(
+                                start, 2, view));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testFilteredPrimsNeedsConnectedView() {
+        SubgraphView<Integer> view = SubgraphView.of(
+                GraphGenerators.path(6, 2));
+        assertEquals(5, GraphAlgorithms.filteredPrims(new Vertex<>(0), view)
+                .size());
+        view.hideVertex(new Vertex<>(5));
+        assertEquals(4, GraphAlgorithms.filteredPrims(new Vertex<>(0), view)
+                .size());
+        view.hideVertex(new Vertex<>(2));
+        assertNull(GraphAlgorithms.filteredPrims(new Vertex<>(0), view));
+        assertEquals(2, GraphAlgorithms.filteredKHopNeighborhood(
+                new Vertex<>(0), 3, view).size());
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPathsAndComponentsMatchRebuiltGraph() {
+        for (int round = 0; round < 6; round++) {
+            Graph<Integer> graph = round % 2 == 0
+                    ? GraphGenerators.erdosRenyi(200, 260, round)
+                    : GraphGenerators.directedErdosRenyi(200, 500, round);
+            int residue = round;
+            SubgraphView<Integer> view = SubgraphView.of(graph);
+            view.filterVertices(vertex -> vertex.getData() % 11 != residue);
+            view.filterEdges((u, v, weight) -> weight % 5 != 0);
+            LinkedHashSet<Edge<Integer>> kept = new LinkedHashSet<>();
+            for (Edge<Integer> edge : graph.getEdgeList()) {
+                if (view.containsVertex(edge.getU())
+                        && view.containsVertex(edge.getV())
+                        && edge.getWeight() % 5 != 0) {
+                    kept.add(edge);
+                }
+            }
+            Graph<Integer> rebuilt = new Graph<>(kept);
+            List<Vertex<Integer>> starts = new ArrayList<>(
+                    rebuilt.getAdjacencyList().keySet()).subList(0, 6);
+            assertEquals(GraphAlgorithms.multiSourceKHopNeighborhood(starts,
+                    2, rebuilt), GraphAlgorithms
+                    .filteredMultiSourceKHopNeighborhood(starts, 2, view));
+            for (Vertex<Integer> target : starts.subList(1, 6)) {
+                assertEquals(costs(GraphAlgorithms.kShortestPaths(
+                        starts.get(0), target, 4, rebuilt)),
+                        costs(GraphAlgorithms.filteredKShortestPaths(
+                                starts.get(0), target, 4, view)));
+            }
+
+            ComponentLabels<Integer> expected =
+                    GraphAlgorithms.connectedComponents(rebuilt);
+            ComponentLabels<Integer> actual =
+                    GraphAlgorithms.filteredConnectedComponents(view);
+            int isolated = 0;
+            for (Vertex<Integer> vertex : graph.getAdjacencyList().keySet()) {
+                if (!view.containsVertex(vertex)) {
+                    assertEquals(-1, actual.componentOf(vertex));
+                } else if (!rebuilt.getAdjacencyList().containsKey(vertex)) {
+                    isolated++;
+                    assertEquals(1, actual.getSize(
+                            actual.componentOf(vertex)));
+                } else {
+                    assertEquals(expected.getSize(expected.componentOf(
+                            vertex)), actual.getSize(actual.componentOf(
+                                    vertex)));
+                }
+            }
+            assertEquals(expected.getComponentCount() + isolated,
+                    actual.getComponentCount());
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testAcyclicViewOfCyclicGraph() {
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(300, 900, 3);
+        SubgraphView<Integer> view = SubgraphView.of(graph);
+        Vertex<Integer> start = view.getGraph().getVertex(0);
+        try {
+            GraphAlgorithms.filteredTopologicalSort(view);
+            fail("The whole graph has a cycle");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("cycle"));
+        }
+        view.filterEdges((u, v, weight) -> u.getData() < v.getData());
+        view.hideVertex(view.getGraph().getVertex(1));
+        List<Vertex<Integer>> order =
+                GraphAlgorithms.filteredTopologicalSort(view);
+        assertEquals(view.getVertexCount(), order.size());
+        Map<Vertex<Integer>, Integer> positions = new HashMap<>();
+        for (Vertex<Integer> vertex : order) {
+            positions.put(vertex, positions.size());
+        }
+        LinkedHashSet<Edge<Integer>> kept = new LinkedHashSet<>();
+        for (Edge<Integer> edge : graph.getEdgeList()) {
+            if (view.containsVertex(edge.getU())
+                    && view.containsVertex(edge.getV())
+                    && edge.getU().getData() < edge.getV().getData()) {
+                assertTrue(positions.get(edge.getU())
+                        < positions.get(edge.getV()));
+                kept.add(edge);
+            }
+        }
+        Graph<Integer> rebuilt = new Graph<>(kept);
+        DistanceTable<Integer> distances =
+                GraphAlgorithms.filteredDagShortestPaths(start, view);
+        Map<Vertex<Integer>, Integer> expected =
+                GraphAlgorithms.dijkstras(start, rebuilt);
+        for (Vertex<Integer> vertex : graph.getAdjacencyList().keySet()) {
+            int distance = expected.containsKey(vertex)
+                    ? expected.get(vertex) : DistanceTable.UNREACHABLE;
+            assertEquals(distance, distances.distanceTo(vertex));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testHideAndShow() {
+        Graph<Integer> graph = GraphGenerators.grid(4, 4, 1);
+        SubgraphView<Integer> view = SubgraphView.of(graph);
+        assertEquals(16, view.getVertexCount());
+        view.filterVertices(vertex -> vertex.getData() % 4 != 1);
+        assertEquals(12, view.getVertexCount());
+        assertFalse(view.containsVertex(new Vertex<>(5)));
+        assertFalse(view.containsVertex(new Vertex<>(-1)));
+        assertEquals(4, GraphAlgorithms.filteredBreadthFirstSearch(
+                new Vertex<>(0), view).size());
+        view.showVertex(new Vertex<>(5));
+        assertTrue(view.containsVertex(new Vertex<>(5)));
+        assertTrue(GraphAlgorithms.filteredBreadthFirstSearch(
+                new Vertex<>(0), view).size() > 4);
+        view.reset();
+        assertEquals(16, view.getVertexCount());
+        assertEquals(GraphAlgorithms.breadthFirstSearch(new Vertex<>(0),
+                graph), GraphAlgorithms.filteredBreadthFirstSearch(
+                        new Vertex<>(0), view));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testHideEdgeKeepsParallelEdges() {
+        Vertex<String> a = new Vertex<>("a");
+        Vertex<String> b = new Vertex<>("b");
+        LinkedHashSet<Edge<String>> edges = new LinkedHashSet<>();
+        Edge<String> light = new Edge<>(a, b, 2, false);
+        edges.add(light);
+        edges.add(new Edge<>(a, b, 7, false));
+        SubgraphView<String> view = SubgraphView.of(new Graph<>(edges));
+        view.hideEdge(new Edge<>(b, a, 2, false));
+        assertEquals(7, GraphAlgorithms.filteredDijkstras(a, view)
+                .distanceTo(b));
+        assertEquals(7, GraphAlgorithms.filteredDijkstras(b, view)
+                .distanceTo(a));
+        view.hideEdgesHeavierThan(5);
+        assertEquals(DistanceTable.UNREACHABLE, GraphAlgorithms
+                .filteredDijkstras(a, view).distanceTo(b));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testDeepDepthFirstSearch() {
+        int n = 50000;
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        SubgraphView<Integer> view = SubgraphView.of(
+                GraphGenerators.path(n, 4));
+        assertEquals(n, GraphAlgorithms.filteredDepthFirstSearch(
+                vertices.get(0), view).size());
+        view.hideVertex(vertices.get(n / 2));
+        List<Vertex<Integer>> list = GraphAlgorithms.filteredDepthFirstSearch(
+                vertices.get(0), view);
+        assertEquals(vertices.subList(0, n / 2), list);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testHiddenStart() {
+        SubgraphView<Integer> view = SubgraphView.of(
+                GraphGenerators.path(4, 2));
+        view.hideVertex(new Vertex<>(0));
+        GraphAlgorithms.filteredDijkstras(new Vertex<>(0), view);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testHideMissingVertex() {
+        SubgraphView.of(GraphGenerators.path(4, 3))
+                .hideVertex(new Vertex<>(-1));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullView() {
+        GraphAlgorithms.filteredBreadthFirstSearch(new Vertex<>(0), null);
+    }
+
+    /**
+     * Adds up the weights of a set of edges.
+     *
+     * @param edges the edges
+     * @return the total weight
+     */
+    private static long weight(Set<Edge<Integer>> edges) {
+        long total = 0;
+        for (Edge<Integer> edge : edges) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+
+    /**
+     * Gets the costs of a list of paths.
+     *
+     * @param paths the paths
+     * @return the cost of each path, in order
+     */
+    private static List<Long> costs(List<WeightedPath<Integer>> paths) {
+        List<Long> costs = new ArrayList<>();
+        for (WeightedPath<Integer> path : paths) {
+            costs.add(path.getCost());
+        }
+        return costs;
+    }
+}
@@ -0,0 +1,506 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * The triangles of an undirected graph and its clustering coefficients.
+ *
+ * Triangles are counted with the degree-ordered forward algorithm. The
+ * vertices are ranked by degree, and each edge is kept only at its
+ * lower-ranked end, so a vertex keeps at most about {@code sqrt(2E)}
+ * neighbors however many it has; hubs, which would dominate a plain
+ * neighbor-list intersection, keep few. Every triangle is then found
+ * exactly once, by intersecting the sorted kept lists of the two
+ * lower-ranked corners of each edge. Lists of similar length are merged,
+ * and a much shorter list is looked up in the longer one by galloping
+ * search. Vertices are processed in parallel: each worker takes blocks of
+ * ranks as it finishes the last. The highest {@code HUB_RANKS} ranks,
+ * the hubs that most triangles share, are counted in a private array per
+ * worker, so they are never contended; the other ranks, which each take
+ * part in few triangles, are added atomically to one shared array. The
+ * counts cost one long per vertex plus one per hub rank for every worker,
+ * rather than one per vertex for every worker.
+ *
+ * Self loops are ignored and parallel edges count once, so degrees and
+ * coefficients are those of the simple graph underneath.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class TriangleCounts<T> {
+
+    /**
+     * How many times longer one list must be than the other for galloping
+     * search to be used instead of a merge.
+     */
+    static final int GALLOP_RATIO = 32;
+
+    /**
+     * The number of adjacency entries below which the counting runs on the
+     * calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * The number of ranks a worker takes at a time.
+     */
+    private static final int BLOCK_RANKS = 256;
+
+    /**
+     * The number of highest ranks each worker counts in its own array.
+     */
+    private static final int HUB_RANKS = 1 << 16;
+
+    private final IndexedGraph<T> graph;
+    private final long[] triangles;
+    private final int[] degrees;
+    private final long total;
+
+    /**
+     * Creates the counts.
+     *
+     * @param graph the graph that was counted
+     * @param triangles the triangles at every vertex, indexed by id
+     * @param degrees the number of distinct neighbors of every vertex
+     * @param total the number of triangles
+     */
+    private TriangleCounts(IndexedGraph<T> graph, long[] triangles,
+            int[] degrees, long total) {
+        this.graph = graph;
+        this.triangles = triangles;
+        this.degrees = degrees;
+        this.total = total;
+    }
+
+    /**
+     * Counts the triangles of an undirected graph.
+     *
+     * @throws IllegalArgumentException if the graph is null or has a
+     *         directed edge
+     * @param graph the graph
+     * @param <T> the data type representing the vertices in the graph
+     * @return the counts
+     */
+    public static <T> TriangleCounts<T> count(Graph<T> graph) {
+        return count(graph, HUB_RANKS);
+    }
+
+    /**
+     * Counts the triangles of an undirected graph, with the given number
+     * of highest ranks counted in each worker's own array.
+     *
+     * @throws IllegalArgumentException if the graph is null or has a
+     *         directed edge
+     * @param graph the graph
+     * @param hubRanks the number of ranks counted per worker
+     * @param <T> the data type representing the vertices in the graph
+     * @return the counts
+     */
+    static <T> TriangleCounts<T> count(Graph<T> graph, int hubRanks) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Graph is null");
+        }
+        IndexedGraph<T> indexed = IndexedGraph.of(graph);
+        if (indexed.isDirected()) {
+            throw new IllegalArgumentException("Graph is directed");
+        }
+        GraphAlgorithmEvent event = FlightRecorder.isInitialized()
+                ? GraphAlgorithmEvent.started() : null;
+        int n = indexed.getVertexCount();
+        boolean parallel = indexed.getArcCount() >= PARALLEL_THRESHOLD;
+        int[] offsets = indexed.getOffsets();
+        int[] neighbors = indexed.getTargets().clone();
+        int[] degrees = new int[n];
+        GraphAlgorithms.forEachChunk(n, parallel, u -> {
+            Arrays.sort(neighbors, offsets[u], offsets[u + 1]);
+            int distinct = 0;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = neighbors[i];
+                if (v != u && (i == offsets[u] || v != neighbors[i - 1])) {
+                    distinct++;
+                }
+            }
+            degrees[u] = distinct;
+        });
+        int[] rank = rank(degrees);
+
+        int[] forward = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int kept = 0;
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = neighbors[i];
+                if (rank[v] > rank[u]
+                        && (i == offsets[u] || v != neighbors[i - 1])) {
+                    kept++;
+                }
+            }
+            forward[rank[u] + 1] = kept;
+        }
+        for (int r = 0; r < n; r++) {
+            forward[r + 1] += forward[r];
+        }
+        int[] kept = new int[forward[n]];
+        GraphAlgorithms.forEachChunk(n, parallel, u -> {
+            int next = forward[rank[u]];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int v = neighbors[i];
+                if (rank[v] > rank[u]
+                        && (i == offsets[u] || v != neighbors[i - 1])) {
+                    kept[next++] = rank[v];
+                }
+            }
+            Arrays.sort(kept, forward[rank[u]], next);
+        });
+
+        int workers = parallel ? Math.max(1, Math.min(
+                ForkJoinPool.getCommonPoolParallelism(),
+                (n + BLOCK_RANKS - 1) / BLOCK_RANKS)) : 1;
+        int hubFrom = Math.max(0, n - hubRanks);
+        AtomicLongArray shared = new AtomicLongArray(hubFrom);
+        Tally[] tallies = new Tally[workers];
+        for (int w = 0; w < workers; w++) {
+            tallies[w] = new Tally(shared, hubFrom, n);
+        }
+        long[] found = new long[workers];
+        AtomicInteger blocks = new AtomicInteger();
+        IntStream stream = IntStream.range(0, workers);
+        if (workers > 1) {
+            stream = stream.parallel();
+        }
+        stream.forEach(w -> found[w] = countBlocks(kept, forward,
+                blocks, tallies[w]));
+        long[] triangles = new long[n];
+        GraphAlgorithms.forEachChunk(n, parallel, u -> {
+            for (Tally tally : tallies) {
+                triangles[u] += tally.getHub(rank[u]);
+            }
+            if (rank[u] < hubFrom) {
+                triangles[u] += shared.get(rank[u]);
+            }
+        });
+        long total = 0;
+        for (long count : found) {
+            total += count;
+        }
+        if (event != null) {
+            event.finish("triangles", graph, null,
+                    (int) Math.min(total, Integer.MAX_VALUE));
+        }
+        return new TriangleCounts<T>(indexed, triangles, degrees, total);
+    }
+
+    /**
+     * Counts the triangles whose lowest-ranked corner is in the blocks of
+     * ranks a worker takes, until none are left.
+     *
+     * @param kept the sorted kept lists, by rank
+     * @param forward where each rank's kept list starts
+     * @param blocks the number of blocks taken so far, shared by workers
+     * @param counts the worker's triangles at every rank, to add to
+     * @return the number of triangles found
+     */
+    private static long countBlocks(int[] kept, int[] forward,
+            AtomicInteger blocks, Tally counts) {
+        int n = forward.length - 1;
+        long found = 0;
+        int from = blocks.getAndIncrement() * BLOCK_RANKS;
+        while (from < n) {
+            int to = Math.min(n, from + BLOCK_RANKS);
+            for (int r = from; r < to; r++) {
+                long atR = 0;
+                for (int i = forward[r]; i < forward[r + 1]; i++) {
+                    int v = kept[i];
+                    long common = intersect(kept, i + 1, forward[r + 1],
+                            forward[v], forward[v + 1], counts);
+                    atR += common;
+                    counts.add(v, common);
+                }
+                counts.add(r, atR);
+                found += atR;
+            }
+            from = blocks.getAndIncrement() * BLOCK_RANKS;
+        }
+        return found;
+    }
+
+    /**
+     * Ranks vertices by degree, breaking ties by id, with a counting sort.
+     *
+     * @param degrees the degree of every vertex
+     * @return the rank of every vertex
+     */
+    private static int[] rank(int[] degrees) {
+        int max = 0;
+        for (int degree : degrees) {
+            max = Math.max(max, degree);
+        }
+        int[] starts = new int[max + 2];
+        for (int degree : degrees) {
+            starts[degree + 1]++;
+        }
+        for (int d = 0; d <= max; d++) {
+            starts[d + 1] += starts[d];
+        }
+        int[] rank = new int[degrees.length];
+        for (int u = 0; u < degrees.length; u++) {
+            rank[u] = starts[degrees[u]]++;
+        }
+        return rank;
+    }
+
+    /**
+     * Intersects two sorted ranges of an array, adding one to the count of
+     * every common element.
+     *
+     * @param lists the array
+     * @param aFrom the start of the first range
+     * @param aTo the end of the first range, exclusive
+     * @param bFrom the start of the second range
+     * @param bTo the end of the second range, exclusive
+     * @param counts the counts to add to
+     * @return the number of common elements
+     */
+    static long intersect(int[] lists, int aFrom, int aTo, int bFrom,
+            int bTo, Tally counts) {
+        int aLength = aTo - aFrom;
+        int bLength = bTo - bFrom;
+        if (aLength == 0 || bLength == 0) {
+            return 0;
+        }
+        if (aLength > bLength * GALLOP_RATIO) {
+            return gallop(lists, bFrom, bTo, aFrom, aTo, counts);
+        }
+        if (bLength > aLength * GALLOP_RATIO) {
+            return gallop(lists, aFrom, aTo, bFrom, bTo, counts);
+        }
+        long common = 0;
+        int a = aFrom;
+        int b = bFrom;
+        while (a < aTo && b < bTo) {
+            if (lists[a] < lists[b]) {
+                a++;
+            } else if (lists[a] > lists[b]) {
+                b++;
+            } else {
+                counts.add(lists[a], 1);
+                common++;
+                a++;
+                b++;
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Intersects a short sorted range with a long one by searching the
+     * long range for each element of the short one, starting from where
+     * the last search ended and doubling the step until it is passed.
+     *
+     * @param lists the array
+     * @param shortFrom the start of the short range
+     * @param shortTo the end of the short range, exclusive
+     * @param longFrom the start of the long range
+     * @param longTo the end of the long range, exclusive
+     * @param counts the counts to add to
+     * @return the number of common elements
+     */
+    private static long gallop(int[] lists, int shortFrom, int shortTo,
+            int longFrom, int longTo, Tally counts) {
+        long common = 0;
+        int low = longFrom;
+        for (int s = shortFrom; s < shortTo && low < longTo; s++) {
+            int key = lists[s];
+            int step = 1;
+            int high = low;
+            while (high < longTo && lists[high] < key) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(lists, low,
+                    Math.min(high + 1, longTo), key);
+            if (found >= 0) {
+                counts.add(key, 1);
+                common++;
+                low = found + 1;
+            } else {
+                low = -found - 1;
+            }
+        }
+        return common;
+    }
+
+    /**
+     * Gets the number of triangles in the graph.
+     *
+     * @return the number of triangles
+     */
+    public long getTriangleCount() {
+        return total;
+    }
+
+    /**
+     * Gets the number of triangles a vertex is a corner of.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the number of triangles
+     */
+    public long getTriangles(Vertex<T> vertex) {
+        return triangles[id(vertex)];
+    }
+
+    /**
+     * Gets the number of triangles the vertex with an id is a corner of.
+     *
+     * @param id the id of the vertex
+     * @return the number of triangles
+     */
+    public long getTriangles(int id) {
+        return triangles[id];
+    }
+
+    /**
+     * Gets the local clustering coefficient of a vertex: the share of
+     * pairs of its neighbors that are adjacent, or 0 if it has fewer than
+     * two neighbors.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the coefficient, from 0 to 1
+     */
+    public double getClusteringCoefficient(Vertex<T> vertex) {
+        return getClusteringCoefficient(id(vertex));
+    }
+
+    /**
+     * Gets the local clustering coefficient of the vertex with an id.
+     *
+     * @param id the id of the vertex
+     * @return the coefficient, from 0 to 1
+     */
+    public double getClusteringCoefficient(int id) {
+        long degree = degrees[id];
+        return degree < 2 ? 0 : 2.0 * triangles[id] / (degree * (degree - 1));
+    }
+
+    /**
+     * Gets the mean of the local clustering coefficients of all vertices,
+     * counting vertices with fewer than two neighbors as 0.
+     *
+     * @return the average coefficient, or 0 if the graph is empty
+     */
+    public double getAverageClusteringCoefficient() {
+        double sum = 0;
+        for (int id = 0; id < degrees.length; id++) {
+            sum += getClusteringCoefficient(id);
+        }
+        return degrees.length == 0 ? 0 : sum / degrees.length;
+    }
+
+    /**
+     * Gets the global clustering coefficient, or transitivity: three times
+     * the number of triangles over the number of paths of two edges.
+     *
+     * @return the coefficient, from 0 to 1, or 0 if there are no such
+     *         paths
+     */
+    public double getGlobalClusteringCoefficient() {
+        double wedges = 0;
+        for (int degree : degrees) {
+            wedges += (double) degree * (degree - 1) / 2;
+        }
+        return wedges == 0 ? 0 : 3.0 * total / wedges;
+    }
+
+    /**
+     * Gets the number of distinct neighbors of a vertex, other than
+     * itself.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the degree
+     */
+    public int getDegree(Vertex<T> vertex) {
+        return degrees[id(vertex)];
+    }
+
+    /**
+     * Gets the graph that was counted.
+     *
+     * @return the graph
+     */
+    public IndexedGraph<T> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Gets the id of a vertex of the graph.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param vertex the vertex
+     * @return the id
+     */
+    private int id(Vertex<T> vertex) {
+        int id = vertex == null ? -1 : graph.getId(vertex);
+        if (id < 0) {
+            throw new IllegalArgumentException("Vertex does not exist in "
+                    + "graph");
+        }
+        return id;
+    }
+
+    /**
+     * The triangles one worker has found at every rank. Ranks from
+     * {@code hubFrom} up are counted in the worker's own array; lower ranks
+     * are added to an array shared by every worker.
+     */
+    static final class Tally {
+        private final AtomicLongArray shared;
+        private final int hubFrom;
+        private final long[] hubs;
+
+        /**
+         * Creates an empty tally.
+         *
+         * @param shared the counts of the ranks below hubFrom, shared by
+         *        every worker
+         * @param hubFrom the lowest rank counted by this worker alone
+         * @param n the number of ranks
+         */
+        Tally(AtomicLongArray shared, int hubFrom, int n) {
+            this.shared = shared;
+            this.hubFrom = hubFrom;
+            this.hubs = new long[n - hubFrom];
+        }
+
+        /**
+         * Adds triangles at a rank.
+         *
+         * @param rank the rank
+         * @param amount the number of triangles
+         */
+        void add(int rank, long amount) {
+            if (rank >= hubFrom) {
+                hubs[rank - hubFrom] += amount;
+            } else {
+                shared.addAndGet(rank, amount);
+            }
+        }
+
+        /**
+         * Gets the triangles this worker alone has counted at a rank.
+         *
+         * @param rank the rank
+         * @return the triangles, or 0 if the rank is shared
+         */
+        long getHub(int rank) {
+            return rank >= hubFrom ? hubs[rank - hubFrom] : 0;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.junit.Test;
+
+/**
+ * Tests for TriangleCounts.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class TriangleCountsTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+    private static final double DELTA = 1e-9;
+
+    @Test(timeout = TIMEOUT)
+    public void testCompleteGraphAndStar() {
+        TriangleCounts<Integer> complete =
+                TriangleCounts.count(GraphGenerators.complete(10, 1));
+        assertEquals(120, complete.getTriangleCount());
+        assertEquals(36, complete.getTriangles(new Vertex<>(4)));
+        assertEquals(1, complete.getClusteringCoefficient(new Vertex<>(4)),
+                DELTA);
+        assertEquals(1, complete.getAverageClusteringCoefficient(), DELTA);
+        assertEquals(1, complete.getGlobalClusteringCoefficient(), DELTA);
+        List<Vertex<Integer>> vertices = vertices(6);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        for (int i = 1; i < 6; i++) {
+            edges.add(new Edge<>(vertices.get(0), vertices.get(i), 1, false));
+        }
+        edges.add(new Edge<>(vertices.get(1), vertices.get(2), 1, false));
+        TriangleCounts<Integer> star = TriangleCounts.count(new Graph<>(edges));
+        assertEquals(1, star.getTriangleCount());
+        assertEquals(5, star.getDegree(vertices.get(0)));
+        assertEquals(0.1, star.getClusteringCoefficient(vertices.get(0)),
+                DELTA);
+        assertEquals(1, star.getClusteringCoefficient(vertices.get(1)),
+                DELTA);
+        assertEquals(0, star.getClusteringCoefficient(vertices.get(3)),
+                DELTA);
+        assertEquals(3.0 / 12, star.getGlobalClusteringCoefficient(), DELTA);
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testMatchesBruteForce() {
+        Random random = new Random(9);
+        for (int round = 0; round < 20; round++) {
+            List<Vertex<Integer>> vertices = vertices(30);
+            LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+            for (int i = 0; i < 150; i++) {
+                edges.add(new Edge<>(vertices.get(random.nextInt(30)),
+                        vertices.get(random.nextInt(30)),
+                        1 + random.nextInt(3), false));
+            }
+            check(new Graph<>(edges));
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testPowerLaw() {
+        check(GraphGenerators.rmat(12, 40000, 3));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testIntersect() {
+        int[] lists = new int[300];
+        for (int i = 0; i < 3; i++) {
+            lists[i] = 10 * i + 100;
+        }
+        for (int i = 3; i < 300; i++) {
+            lists[i] = i;
+        }
+        AtomicLongArray shared = new AtomicLongArray(110);
+        TriangleCounts.Tally counts = new TriangleCounts.Tally(shared, 110,
+                300);
+        assertEquals(3, TriangleCounts.intersect(lists, 3, 300, 0, 3,
+                counts));
+        assertEquals(3, TriangleCounts.intersect(lists, 0, 3, 3, 300,
+                counts));
+        assertEquals(2, shared.get(100));
+        assertEquals(0, counts.getHub(100));
+        assertEquals(2, counts.getHub(120));
+        assertEquals(0, counts.getHub(130));
+        assertEquals(297, TriangleCounts.intersect(lists, 3, 300, 3, 300,
+                counts));
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSharedCounts() {
+        Graph<Integer> graph = GraphGenerators.rmat(12, 40000, 6);
+        TriangleCounts<Integer> counts = TriangleCounts.count(graph);
+        for (int hubRanks : new int[] {0, 100, 4000}) {
+            TriangleCounts<Integer> split = TriangleCounts.count(graph,
+                    hubRanks);
+            assertEquals(counts.getTriangleCount(),
+                    split.getTriangleCount());
+            for (int id = 0; id < counts.getGraph().getVertexCount(); id++) {
+                assertEquals(counts.getTriangles(id), split.getTriangles(id));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testDirected() {
+        TriangleCounts.count(GraphGenerators.directedErdosRenyi(10, 20, 2));
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testMissingVertex() {
+        TriangleCounts.count(GraphGenerators.path(3, 4))
+                .getTriangles(new Vertex<>(-1));
+    }
+
+    /**
+     * Compares the counts of a graph with those found by checking every
+     * pair of neighbors of every vertex.
+     *
+     * @param graph the graph
+     */
+    private static void check(Graph<Integer> graph) {
+        TriangleCounts<Integer> counts = TriangleCounts.count(graph);
+        IndexedGraph<Integer> indexed = counts.getGraph();
+        int n = indexed.getVertexCount();
+        List<Set<Integer>> adjacent = new ArrayList<>();
+        for (int u = 0; u < n; u++) {
+            Set<Integer> set = new HashSet<>();
+            for (int i = indexed.getOffsets()[u];
+                    i < indexed.getOffsets()[u + 1]; i++) {
+                if (indexed.getTargets()[i] != u) {
+                    set.add(indexed.getTargets()[i]);
+                }
+            }
+            adjacent.add(set);
+        }
+        long total = 0;
+        for (int u = 0; u < n; u++) {
+            List<Integer> list = new ArrayList<>(adjacent.get(u));
+            long at = 0;
+            for (int i = 0; i < list.size(); i++) {
+                for (int j = i + 1; j < list.size(); j++) {
+                    if (adjacent.get(list.get(i)).contains(list.get(j))) {
+                        at++;
+                    }
+                }
+            }
+            assertEquals(at, counts.getTriangles(u));
+            int degree = list.size();
+            assertEquals(degree < 2 ? 0 : 2.0 * at / degree / (degree - 1),
+                    counts.getClusteringCoefficient(u), DELTA);
+            total += at;
+        }
+        assertEquals(total / 3, counts.getTriangleCount());
+    }
+
+    /**
+     * Creates vertices labeled 0 to count - 1.
+     *
+     * @param count the number of vertices
+     * @return the vertices
+     */
+    private static List<Vertex<Integer>> vertices(int count) {
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        return vertices;
+    }
+}
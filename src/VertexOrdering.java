@@ -0,0 +1,221 @@
+import java.util.Arrays;
+
+/**
+ * Ways to renumber the vertices of an {@link IndexedGraph} so that vertices
+ * which are adjacent get nearby ids, and a search touching one vertex's
+ * neighbors touches nearby parts of the arrays. See
+ * {@link IndexedGraph#reorder(VertexOrdering)}.
+ *
+ * The orderings of a directed graph treat its edges as undirected, since
+ * locality is about which vertices are used together, not in which
+ * direction.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public enum VertexOrdering {
+
+    /**
+     * The order vertices first appear in the edge list, which is the order
+     * {@link IndexedGraph#of(Graph)} numbers them in.
+     */
+    INSERTION {
+        @Override
+        int[] order(IndexedGraph<?> graph) {
+            int[] order = new int[graph.getVertexCount()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            return order;
+        }
+    },
+
+    /**
+     * Breadth first order, starting each component at its lowest id and
+     * visiting neighbors in adjacency list order. Each level of a search
+     * ends up in one contiguous range of ids.
+     */
+    BFS {
+        @Override
+        int[] order(IndexedGraph<?> graph) {
+            int n = graph.getVertexCount();
+            int[] order = new int[n];
+            boolean[] placed = new boolean[n];
+            int count = 0;
+            for (int s = 0; s < n; s++) {
+                if (!placed[s]) {
+                    placed[s] = true;
+                    order[count] = s;
+                    count = search(graph, order, placed, count, null);
+                }
+            }
+            return order;
+        }
+    },
+
+    /**
+     * Decreasing degree, with ties in id order. The high degree vertices
+     * that most edges lead to end up together at the front.
+     */
+    DEGREE {
+        @Override
+        int[] order(IndexedGraph<?> graph) {
+            int n = graph.getVertexCount();
+            int[] degrees = degrees(graph);
+            int max = 0;
+            for (int degree : degrees) {
+                max = Math.max(max, degree);
+            }
+            int[] starts = new int[max + 2];
+            for (int degree : degrees) {
+                starts[max - degree + 1]++;
+            }
+            for (int d = 0; d <= max; d++) {
+                starts[d + 1] += starts[d];
+            }
+            int[] order = new int[n];
+            for (int u = 0; u < n; u++) {
+                order[starts[max - degrees[u]]++] = u;
+            }
+            return order;
+        }
+    },
+
+    /**
+     * Reverse Cuthill-McKee: a breadth first search from a lowest degree
+     * vertex of each component that visits neighbors in increasing degree
+     * order, reversed. This keeps the ids at the two ends of every edge
+     * close together, which keeps the rows a search reads close together.
+     */
+    REVERSE_CUTHILL_MCKEE {
+        @Override
+        int[] order(IndexedGraph<?> graph) {
+            int n = graph.getVertexCount();
+            int[] degrees = degrees(graph);
+            int[] byDegree = DEGREE.order(graph);
+            int[] order = new int[n];
+            boolean[] placed = new boolean[n];
+            int count = 0;
+            for (int i = n - 1; i >= 0; i--) {
+                int s = byDegree[i];
+                if (!placed[s]) {
+                    placed[s] = true;
+                    order[count] = s;
+                    count = search(graph, order, placed, count, degrees);
+                }
+            }
+            for (int i = 0, j = n - 1; i < j; i++, j--) {
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+            return order;
+        }
+    };
+
+    /**
+     * Gets the new numbering of a graph's vertices.
+     *
+     * @param graph the graph
+     * @return the current ids of the vertices in their new order, so
+     *         {@code order[newId]} is the current id of the vertex that
+     *         gets {@code newId}
+     */
+    abstract int[] order(IndexedGraph<?> graph);
+
+    /**
+     * Runs a breadth first search over the edges of a graph in both
+     * directions, appending the vertices it reaches to an order.
+     *
+     * @param graph the graph
+     * @param order the order, whose entry at {@code count} is the start
+     * @param placed which vertices are in the order already
+     * @param count the number of vertices in the order before the start
+     * @param degrees the degrees to sort each vertex's new neighbors by,
+     *            or null to keep them in adjacency list order
+     * @return the number of vertices in the order afterwards
+     */
+    private static int search(IndexedGraph<?> graph, int[] order,
+            boolean[] placed, int count, int[] degrees) {
+        IndexedGraph<?> reverse = graph.transpose();
+        int head = count;
+        int tail = count + 1;
+        while (head < tail) {
+            int u = order[head++];
+            int first = tail;
+            tail = append(graph, u, order, placed, tail);
+            if (reverse != graph) {
+                tail = append(reverse, u, order, placed, tail);
+            }
+            if (degrees != null && tail - first > 1) {
+                sortByDegree(order, first, tail, degrees);
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Appends the neighbors of a vertex that are not placed yet.
+     *
+     * @param graph the graph
+     * @param u the vertex
+     * @param order the order
+     * @param placed which vertices are in the order already
+     * @param tail the number of vertices in the order
+     * @return the number of vertices in the order afterwards
+     */
+    private static int append(IndexedGraph<?> graph, int u, int[] order,
+            boolean[] placed, int tail) {
+        int[] offsets = graph.getOffsets();
+        int[] targets = graph.getTargets();
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+            int v = targets[i];
+            if (!placed[v]) {
+                placed[v] = true;
+                order[tail++] = v;
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Sorts part of an order by increasing degree, with ties in id order.
+     *
+     * @param order the order
+     * @param from the first index to sort
+     * @param to one past the last index to sort
+     * @param degrees the degree of every vertex
+     */
+    private static void sortByDegree(int[] order, int from, int to,
+            int[] degrees) {
+        long[] keys = new long[to - from];
+        for (int i = from; i < to; i++) {
+            keys[i - from] = ((long) degrees[order[i]] << Integer.SIZE)
+                    | order[i];
+        }
+        Arrays.sort(keys);
+        for (int i = from; i < to; i++) {
+            order[i] = (int) keys[i - from];
+        }
+    }
+
+    /**
+     * Gets the number of edges at every vertex, counting both directions
+     * of a directed graph.
+     *
+     * @param graph the graph
+     * @return the degree of every vertex
+     */
+    private static int[] degrees(IndexedGraph<?> graph) {
+        int n = graph.getVertexCount();
+        IndexedGraph<?> reverse = graph.transpose();
+        int[] degrees = new int[n];
+        for (int u = 0; u < n; u++) {
+            degrees[u] = graph.getDegree(u);
+            if (reverse != graph) {
+                degrees[u] += reverse.getDegree(u);
+            }
+        }
+        return degrees;
+    }
+}
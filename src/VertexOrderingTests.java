@@ -0,0 +1,258 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests for VertexOrdering and IndexedGraph.reorder.
+ *
+ * @author jredston3
+ * @version 1.0
+ */
+public class VertexOrderingTests {
+
+    private static final int TIMEOUT = 200;
+    private static final int LARGE_TIMEOUT = 10000;
+
+    @Test(timeout = TIMEOUT)
+    public void testPermutations() {
+        Graph<Integer> graph = GraphGenerators.directedErdosRenyi(300, 700,
+                1);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        for (VertexOrdering ordering : VertexOrdering.values()) {
+            int[] order = ordering.order(indexed);
+            int[] sorted = order.clone();
+            Arrays.sort(sorted);
+            for (int i = 0; i < sorted.length; i++) {
+                assertEquals(ordering.toString(), i, sorted[i]);
+            }
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testSameEdges() {
+        for (boolean directed : new boolean[] {false, true}) {
+            Graph<Integer> graph = directed
+                    ? GraphGenerators.directedErdosRenyi(200, 600, 2)
+                    : GraphGenerators.erdosRenyi(200, 600, 2);
+            IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+            List<String> expected = arcs(indexed);
+            for (VertexOrdering ordering : VertexOrdering.values()) {
+                IndexedGraph<Integer> reordered = indexed.reorder(ordering);
+                assertNotSame(indexed, reordered);
+                assertEquals(directed, reordered.isDirected());
+                assertEquals(expected, arcs(reordered));
+                for (int id = 0; id < reordered.getVertexCount(); id++) {
+                    assertEquals(id, reordered.getId(
+                            reordered.getVertex(id)));
+                    int[] offsets = reordered.getOffsets();
+                    for (int i = offsets[id] + 1; i < offsets[id + 1]; i++) {
+                        assertTrue(reordered.getTargets()[i - 1]
+                                <= reordered.getTargets()[i]);
+                    }
+                }
+                assertEquals(arcs(indexed.transpose()),
+                        arcs(reordered.transpose()));
+            }
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testNegativeWeights() {
+        Vertex<Integer> a = new Vertex<>(1);
+        Vertex<Integer> b = new Vertex<>(2);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>();
+        edges.add(new Edge<Integer>(a, b, -5, true));
+        edges.add(new Edge<Integer>(b, a, Integer.MIN_VALUE, true));
+        IndexedGraph<Integer> reordered = IndexedGraph.of(
+                new Graph<Integer>(edges)).reorder(VertexOrdering.DEGREE);
+        assertEquals(arcs(IndexedGraph.of(new Graph<Integer>(edges))),
+                arcs(reordered));
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testDegreeOrder() {
+        IndexedGraph<Integer> reordered = IndexedGraph.of(
+                GraphGenerators.rmat(10, 4000, 3))
+                .reorder(VertexOrdering.DEGREE);
+        for (int id = 1; id < reordered.getVertexCount(); id++) {
+            assertTrue(degree(reordered, id - 1) >= degree(reordered, id));
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testBfsOrder() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(300, 900, 4);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(graph);
+        IndexedGraph<Integer> reordered = indexed.reorder(VertexOrdering.BFS);
+        List<Vertex<Integer>> visited = GraphAlgorithms
+                .indexedBreadthFirstSearch(indexed.getVertex(0), indexed);
+        for (int i = 0; i < visited.size(); i++) {
+            assertEquals(i, reordered.getId(visited.get(i)));
+        }
+    }
+
+    @Test(timeout = LARGE_TIMEOUT)
+    public void testReducesBandwidth() {
+        int side = 40;
+        List<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < side * side; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+        Random random = new Random(6);
+        List<Edge<Integer>> mesh = new ArrayList<>();
+        for (int i = 0; i < side; i++) {
+            for (int j = 0; j < side; j++) {
+                int u = i * side + j;
+                if (j + 1 < side) {
+                    mesh.add(new Edge<Integer>(vertices.get(u),
+                            vertices.get(u + 1), random.nextInt(1 << 20),
+                            false));
+                }
+                if (i + 1 < side) {
+                    mesh.add(new Edge<Integer>(vertices.get(u),
+                            vertices.get(u + side), random.nextInt(1 << 20),
+                            false));
+                }
+            }
+        }
+        Collections.shuffle(mesh, random);
+        LinkedHashSet<Edge<Integer>> edges = new LinkedHashSet<>(mesh);
+        IndexedGraph<Integer> indexed = IndexedGraph.of(
+                new Graph<Integer>(edges));
+        int before = bandwidth(indexed);
+        int after = bandwidth(indexed.reorder(
+                VertexOrdering.REVERSE_CUTHILL_MCKEE));
+        assertTrue(before > side * side / 2);
+        assertTrue("bandwidth " + after, after <= 2 * side);
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testSearchesAgree() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(400, 1200, 7);
+        Vertex<Integer> start = IndexedGraph.of(graph).getVertex(3);
+        Set<Vertex<Integer>> expected = new HashSet<>(
+                GraphAlgorithms.breadthFirstSearch(start, graph));
+        for (VertexOrdering ordering : VertexOrdering.values()) {
+            IndexedGraph<Integer> reordered = IndexedGraph.of(graph)
+                    .reorder(ordering);
+            List<Vertex<Integer>> visited = GraphAlgorithms
+                    .indexedBreadthFirstSearch(start, reordered);
+            assertEquals(start, visited.get(0));
+            assertEquals(expected.size(), visited.size());
+            assertEquals(expected, new HashSet<>(visited));
+
+            DistanceTable<Integer> distances = ShortestPaths
+                    .plan(graph, ordering).distances(start);
+            assertSame(start, distances.getSource());
+            assertEquals(GraphAlgorithms.dijkstras(start, graph),
+                    distances.asMap());
+        }
+    }
+
+    @Test(timeout = TIMEOUT)
+    public void testPrimsAgree() {
+        Graph<Integer> graph = GraphGenerators.erdosRenyi(200, 600, 7);
+        Vertex<Integer> start = IndexedGraph.of(graph).getVertex(3);
+        long expected = weight(GraphAlgorithms.prims(start, graph));
+        assertTrue(expected > 0);
+        for (VertexOrdering ordering : VertexOrdering.values()) {
+            IndexedGraph<Integer> reordered = IndexedGraph.of(graph)
+                    .reorder(ordering);
+            Set<Edge<Integer>> tree = GraphAlgorithms.indexedPrims(start,
+                    reordered);
+            assertEquals(graph.getAdjacencyList().size() - 1, tree.size());
+            assertEquals(expected, weight(tree));
+        }
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testNullOrdering() {
+        IndexedGraph.of(GraphGenerators.path(5, 1)).reorder(null);
+    }
+
+    @Test(timeout = TIMEOUT, expected = IllegalArgumentException.class)
+    public void testIndexedSearchMissingStart() {
+        GraphAlgorithms.indexedBreadthFirstSearch(new Vertex<>(-1),
+                IndexedGraph.of(GraphGenerators.path(5, 1)));
+    }
+
+    /**
+     * Gets every arc of a graph as text naming its vertices, so graphs with
+     * different ids can be compared.
+     *
+     * @param graph the graph
+     * @return the arcs, sorted
+     */
+    private static List<String> arcs(IndexedGraph<Integer> graph) {
+        List<String> arcs = new ArrayList<>();
+        int[] offsets = graph.getOffsets();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                arcs.add(graph.getVertex(u) + ">"
+                        + graph.getVertex(graph.getTargets()[i]) + ":"
+                        + graph.getWeights()[i]);
+            }
+        }
+        Collections.sort(arcs);
+        return arcs;
+    }
+
+    /**
+     * Gets the degree of a vertex counting both directions.
+     *
+     * @param graph the graph
+     * @param id the vertex
+     * @return the degree
+     */
+    private static int degree(IndexedGraph<?> graph, int id) {
+        return graph.transpose() == graph ? graph.getDegree(id)
+                : graph.getDegree(id) + graph.transpose().getDegree(id);
+    }
+
+    /**
+     * Gets the largest difference between the ids at the ends of an arc.
+     *
+     * @param graph the graph
+     * @return the bandwidth
+     */
+    private static int bandwidth(IndexedGraph<?> graph) {
+        int bandwidth = 0;
+        int[] offsets = graph.getOffsets();
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                bandwidth = Math.max(bandwidth,
+                        Math.abs(u - graph.getTargets()[i]));
+            }
+        }
+        return bandwidth;
+    }
+
+    /**
+     * Gets the total weight of a spanning tree.
+     *
+     * @param tree the edges of the tree, or null if there is none
+     * @return the total weight, or -1 if there is no tree
+     */
+    private static long weight(Set<Edge<Integer>> tree) {
+        if (tree == null) {
+            return -1;
+        }
+        long weight = 0;
+        for (Edge<Integer> edge : tree) {
+            weight += edge.getWeight();
+        }
+        return weight;
+    }
+}
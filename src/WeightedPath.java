@@ -0,0 +1,98 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A path through a graph together with its total edge weight, as returned
+ * by {@link GraphAlgorithms#kShortestPaths(Vertex, Vertex, int, Graph)}.
+ * Two paths are equal if they visit the same vertices in the same order.
+ *
+ * @author jredston3
+ * @version 1.0
+ * @param <T> the data type representing the vertices in the graph
+ */
+public final class WeightedPath<T> {
+
+    private final List<Vertex<T>> vertices;
+    private final long cost;
+
+    /**
+     * Creates a path.
+     *
+     * @param graph the graph the path is in
+     * @param ids the ids of the vertices on the path, in order
+     * @param cost the total weight of the path's edges
+     */
+    WeightedPath(IndexedGraph<T> graph, int[] ids, long cost) {
+        List<Vertex<T>> list = new ArrayList<Vertex<T>>(ids.length);
+        for (int id : ids) {
+            list.add(graph.getVertex(id));
+        }
+        this.vertices = Collections.unmodifiableList(list);
+        this.cost = cost;
+    }
+
+    /**
+     * Gets the vertices on the path, from its source to its target.
+     *
+     * @return the vertices, as an unmodifiable list
+     */
+    public List<Vertex<T>> getVertices() {
+        return vertices;
+    }
+
+    /**
+     * Gets the total weight of the edges on the path.
+     *
+     * @return the cost
+     */
+    public long getCost() {
+        return cost;
+    }
+
+    /**
+     * Gets the number of edges on the path.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return vertices.size() - 1;
+    }
+
+    /**
+     * Gets the first vertex on the path.
+     *
+     * @return the source
+     */
+    public Vertex<T> getSource() {
+        return vertices.get(0);
+    }
+
+    /**
+     * Gets the last vertex on the path.
+     *
+     * @return the target
+     */
+    public Vertex<T> getTarget() {
+        return vertices.get(vertices.size() - 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof WeightedPath)) {
+            return false;
+        }
+        WeightedPath<?> other = (WeightedPath<?>) o;
+        return cost == other.cost && vertices.equals(other.vertices);
+    }
+
+    @Override
+    public int hashCode() {
+        return vertices.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return vertices + " (" + cost + ")";
+    }
+}